@@ -0,0 +1,222 @@
+package model;
+
+import model.item.DropTable;
+import model.item.Item;
+import model.item.ItemRegistry;
+import model.log.Log;
+import model.time.GameClock;
+import model.time.ScheduledGameClock;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class drops items for players to collect. Every open {@link Session} gets a new item
+ * once per drop interval, unless the item dropped before is still waiting to be collected.
+ *
+ * <p>One ticker on the game clock drops items for every session at once, so an engine can
+ * serve any number of players. Items are picked from a {@link DropTable}. Each session draws
+ * from its own {@link SplittableRandom} stream, seeded from the engine's seed and the
+ * session's key, so a session's drops are the same on every run with the same seed, however
+ * many other sessions there are.</p>
+ */
+public class DropEngine {
+
+	private static final Log LOG = Log.get(DropEngine.class);
+
+	/** The system property holding the seed of engines that are not given one. */
+	public static final String SEED_PROPERTY = "astropaws.seed";
+
+	/** The default time between two drops in milliseconds. */
+	public static final long DROP_INTERVAL = 30000;	// 30 seconds in ms
+
+	private static final long KEY_STRIDE = 0x9E3779B97F4A7C15L;	// Spreads nearby keys far apart
+
+	private final GameClock clock;
+	private final DropTable table;
+	private final long seed;
+	private final long interval;
+	private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+	private GameClock.Ticker ticker;	// Null while no session is open
+
+	/**
+	 * A player's or pet's stream of drops.
+	 */
+	public final class Session {
+
+		private final long key;
+		private final SplittableRandom random;		// Only used by the engine's ticks
+		private final AtomicReference<Item> dropped = new AtomicReference<>();
+		private volatile long dropCount;
+
+		/**
+		 * Constructs a session.
+		 *
+		 * @param key the session's key.
+		 */
+		private Session(long key) {
+			this.key = key;
+			this.random = new SplittableRandom(seed + key * KEY_STRIDE);
+		}
+
+		/**
+		 * Drops an item unless one is waiting to be collected.
+		 */
+		private void drop() {
+			if (dropped.get() != null) return;
+
+			Item item = table.sample(random);
+			if (item != null && dropped.compareAndSet(null, item)) dropCount++;
+		}
+
+		/**
+		 * Gets the session's key.
+		 *
+		 * @return the key.
+		 */
+		public long getKey() {
+			return key;
+		}
+
+		/**
+		 * Gets the item waiting to be collected.
+		 *
+		 * @return the item, or null if there is none.
+		 */
+		public Item getDroppedItem() {
+			return dropped.get();
+		}
+
+		/**
+		 * Collects the waiting item into an inventory. The item keeps waiting if the inventory
+		 * is full.
+		 *
+		 * @param inventory the inventory to put the item in.
+		 * @return the collected item, or null if there was none or the inventory is full.
+		 */
+		public Item collect(Inventory inventory) {
+			Item item = dropped.get();
+			if (item == null || !inventory.addItem(item)) return null;
+
+			dropped.compareAndSet(item, null);
+			return item;
+		}
+
+		/**
+		 * Gets the number of items dropped in this session.
+		 *
+		 * @return the number of drops.
+		 */
+		public long getDropCount() {
+			return dropCount;
+		}
+
+		/**
+		 * Stops the session's drops.
+		 */
+		public void close() {
+			DropEngine.this.close(this);
+		}
+	}
+
+	/**
+	 * Constructs an engine that drops from the item catalog every {@link #DROP_INTERVAL} on
+	 * the clock shared by all games, with the {@link #defaultSeed() default seed}.
+	 */
+	public DropEngine() {
+		this(null, ItemRegistry.drops(), defaultSeed(), DROP_INTERVAL);
+	}
+
+	/**
+	 * Constructs an engine.
+	 *
+	 * @param gameClock the clock to drop on, or null to use the clock shared by all games.
+	 * @param table the table to pick items from.
+	 * @param seed the seed every session's stream is derived from.
+	 * @param intervalMillis the time between two drops in milliseconds.
+	 */
+	public DropEngine(GameClock gameClock, DropTable table, long seed, long intervalMillis) {
+		this.clock = gameClock != null ? gameClock : ScheduledGameClock.shared();
+		this.table = table;
+		this.seed = seed;
+		this.interval = intervalMillis;
+	}
+
+	/**
+	 * Gets the seed of an engine that is not given one: the {@code astropaws.seed} system
+	 * property if it is set, and a random seed otherwise. The seed is logged, so a run can
+	 * be repeated by setting the property to it.
+	 *
+	 * @return the seed.
+	 */
+	public static long defaultSeed() {
+		String value = System.getProperty(SEED_PROPERTY);
+		if (value != null) {
+			try {
+				return Long.parseLong(value.trim());
+			} catch (NumberFormatException e) {
+				LOG.warn("Invalid drop seed, using a random one: {0}", value);
+			}
+		}
+
+		long seed = new SplittableRandom().nextLong();
+		LOG.info("Dropping items with seed {0}", seed);
+		return seed;
+	}
+
+	/**
+	 * Opens a session. Sessions opened with the same key drop the same items in the same
+	 * order. The first open session starts the engine's ticks.
+	 *
+	 * @param key the session's key, for example a pet ID.
+	 * @return the session.
+	 */
+	public synchronized Session open(long key) {
+		Session session = new Session(key);
+		sessions.add(session);
+		if (ticker == null) ticker = clock.schedule(this::tick, interval, GameClock.CatchUp.SKIP);
+		return session;
+	}
+
+	/**
+	 * Closes a session. Closing the last open session stops the engine's ticks.
+	 *
+	 * @param session the session.
+	 */
+	private synchronized void close(Session session) {
+		if (!sessions.remove(session)) return;
+
+		if (sessions.isEmpty() && ticker != null) {
+			ticker.cancel();
+			ticker = null;
+		}
+	}
+
+	/**
+	 * Drops an item in every open session.
+	 *
+	 * @param ticks the number of intervals that passed, always 1 as missed drops are skipped.
+	 */
+	private void tick(long ticks) {
+		for (Session session : sessions) session.drop();
+	}
+
+	/**
+	 * Gets the number of open sessions.
+	 *
+	 * @return the number of sessions.
+	 */
+	public int getSessionCount() {
+		return sessions.size();
+	}
+
+	/**
+	 * Gets the seed every session's stream is derived from.
+	 *
+	 * @return the seed.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+}
@@ -3,8 +3,19 @@ package model;
 import model.pet.*;
 import model.pet.Pet.PetState;
 import model.item.*;
+import model.log.Log;
+import model.save.PetCatalog;
+import model.save.PetStore;
+import model.save.PetStores;
+import model.save.SaveData;
+import model.save.SaveWriter;
+import model.time.GameClock;
+import model.time.ScheduledGameClock;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 /**
@@ -13,23 +24,51 @@ import java.time.LocalDateTime;
  */
 public class Game {
    
+    private static final Log LOG = Log.get(Game.class);
+    
     private Player player;
     private boolean isRunning;
     private long lastUpdateTime;	// might need for future, no use now
-    private Timer gameTimer;
+    private GameClock clock;			// Runs the game ticks
+    private GameClock.Ticker gameTicker;	// Null while the game is stopped
+    private Clock time;					// Every read of the current time goes through this
     private Map<String, Long> cooldowns;	// Command name -> timestamp when available again
+    private PetStore store;				// Where pet saves are kept
+    private SaveWriter saveWriter;		// Writes pet saves off the timer and GUI threads
+    private boolean ownsSaveWriter;		// False if the writer is shared with other games
+    private SaveWriter.Sink saveSink;	// This game's store, as the writer knows it
+    private File dataDir;				// This game's saves and parental settings
+    private DropEngine drops;			// Drops items for the player to collect
+    private DropEngine.Session dropSession;	// Null while the game is stopped
+    
+    // Versions of the pet and inventory in the last save, so unchanged pets are not saved again
+    private Pet savedPet;
+    private Inventory savedInventory;
+    private long savedPetVersion;
+    private long savedInventoryVersion;
+    private long savesWritten;
+    private long savesSkipped;
+    
+    // The latest view of the pet published for the GUI, null while there is no pet
+    private volatile PetSnapshot snapshot;
+    private long snapshotVersion;
     
     // Constants for directories and file operations
     private static final String DATA_DIR = "data";
-    private static final String PETS_DIR = DATA_DIR + File.separator + "pets";
-    private static final String PARENT_CONFIG_FILE = DATA_DIR + File.separator + "parent_config.properties";
+    private static final String PETS_DIR = "pets";
+    private static final String PARENT_CONFIG_FILE = "parent_config.properties";
+    
+    /** The time between two vet visits in milliseconds. */
+    public static final long VET_COOLDOWN = 180000;	// 3 mins in ms
+    
+    /** The time between two plays in milliseconds. */
+    public static final long PLAY_COOLDOWN = 90000;	// 1.5 mins in ms
     
-    // Cooldown values in milliseconds
-    private static final long VET_COOLDOWN = 180000;	// 3 mins in ms
-    private static final long PLAY_COOLDOWN = 90000;	// 1.5 mins in ms
+    /** The longest time to wait for queued saves to be written in milliseconds. */
+    public static final long SAVE_FLUSH_TIMEOUT = 5000;	// 5 seconds in ms
     
     // Game timing constant
-    private static final int UPDATE_INTERVAL = 30000;	// Update pet stats every 30 seconds
+    private static final long UPDATE_INTERVAL = Pet.TICK_MILLIS;	// Update pet stats every 30 seconds
     
     // Time tracking for parental controls -- not priority right now
     private long sessionStartTime;
@@ -42,18 +81,93 @@ public class Game {
     private String parentPassword;
     
     /**
-     * Constructs new Game instance.
+     * Constructs new Game instance using the pet store selected by the
+     * {@code astropaws.store} system property.
      */
     public Game() {
+    	this(null);
+    }
+    
+    /**
+     * Constructs new Game instance that keeps its pets in the specified store.
+     * 
+     * @param petStore the store to keep pets in, or null to use the default store.
+     */
+    public Game(PetStore petStore) {
+    	this(petStore, null);
+    }
+    
+    /**
+     * Constructs new Game instance that keeps its pets in the specified store and ticks on
+     * the specified clock.
+     * 
+     * @param petStore the store to keep pets in, or null to use the default store.
+     * @param gameClock the clock to tick on, or null to use the clock shared by all games.
+     */
+    public Game(PetStore petStore, GameClock gameClock) {
+    	this(new File(DATA_DIR), petStore, gameClock);
+    }
+    
+    /**
+     * Constructs new Game instance that keeps its saves and parental settings in the
+     * specified data directory. Games with different data directories share nothing but the
+     * clock, so one process can run a game for each of several players.
+     * 
+     * @param dataDir the directory to keep the game's data in.
+     * @param petStore the store to keep pets in, or null to use the default store in the data
+     * 		directory.
+     * @param gameClock the clock to tick on, or null to use the clock shared by all games.
+     */
+    public Game(File dataDir, PetStore petStore, GameClock gameClock) {
+    	this(dataDir, petStore, gameClock, null);
+    }
+    
+    /**
+     * Constructs new Game instance that keeps its data in the specified data directory and
+     * gets its item drops from the specified drop engine, which may be shared with other games.
+     * 
+     * @param dataDir the directory to keep the game's data in.
+     * @param petStore the store to keep pets in, or null to use the default store in the data
+     * 		directory.
+     * @param gameClock the clock to tick on, or null to use the clock shared by all games.
+     * @param dropEngine the engine to drop items with, or null to drop from the item catalog
+     * 		on the game's own clock.
+     */
+    public Game(File dataDir, PetStore petStore, GameClock gameClock, DropEngine dropEngine) {
+    	this(dataDir, petStore, gameClock, dropEngine, null);
+    }
+    
+    /**
+     * Constructs new Game instance that keeps its data in the specified data directory and
+     * shares its drop engine and save writer with other games. A shared save writer is not
+     * closed when the game shuts down, so its owner has to close it.
+     * 
+     * @param dataDir the directory to keep the game's data in.
+     * @param petStore the store to keep pets in, or null to use the default store in the data
+     * 		directory.
+     * @param gameClock the clock to tick on, or null to use the clock shared by all games.
+     * @param dropEngine the engine to drop items with, or null to drop from the item catalog
+     * 		on the game's own clock.
+     * @param writer the writer to write saves with, or null to start one for this game.
+     */
+    public Game(File dataDir, PetStore petStore, GameClock gameClock, DropEngine dropEngine, SaveWriter writer) {
     	player = new Player(null);
     	
-    	cooldowns = new HashMap<>();
+    	this.dataDir = dataDir;
+    	cooldowns = new ConcurrentHashMap<>();	// Set by the GUI, read by the game tick
     	isRunning = false;
     	createDirectories();
     	loadParentalSettings();
+    	store = petStore != null ? petStore : PetStores.open(dataDir);
+    	saveSink = store::save;
+    	ownsSaveWriter = writer == null;
+    	saveWriter = writer != null ? writer : new SaveWriter("save-writer");
     	
-    	gameTimer = new Timer();
-    	sessionStartTime = System.currentTimeMillis();
+    	clock = gameClock != null ? gameClock : ScheduledGameClock.shared();
+    	time = clock.getClock();
+    	drops = dropEngine != null ? dropEngine : new DropEngine(clock, ItemRegistry.drops(),
+    			DropEngine.defaultSeed(), DropEngine.DROP_INTERVAL);
+    	sessionStartTime = time.millis();
     	
     	cooldowns.put("vet", 0L);
     	cooldowns.put("play", 0L);
@@ -64,11 +178,10 @@ public class Game {
 	 * to each directory.
 	 */
     private void createDirectories() {
-    	File dataDir = new File(DATA_DIR);
-    	File petsDir = new File(PETS_DIR);
+    	File petsDir = new File(dataDir, PETS_DIR);
     	
     	if (!dataDir.exists()) {
-    		dataDir.mkdir();
+    		dataDir.mkdirs();
     	}
     	
     	if (!petsDir.exists()) {
@@ -77,25 +190,51 @@ public class Game {
     }
     
 	/**
-	 * Start the game by setting isRunning to true and starting the timer. 
+	 * Advances a loaded pet by the game ticks it missed while the game was closed.
+	 * 
+	 * <p>Only whole ticks are applied, so the part of a tick left over is carried into the
+	 * pet's last simulated time instead of being lost. Saves that do not know when they were
+	 * last advanced are not advanced.</p>
+	 * 
+	 * @param pet the loaded pet.
+	 * @param lastSimulated the time the saved stats were last advanced to, or 0 if unknown.
+	 */
+    private void catchUp(Pet pet, long lastSimulated) {
+    	long now = time.millis();
+    	
+    	if (lastSimulated <= 0 || lastSimulated > now) {
+    		pet.setLastSimulated(now);
+    		return;
+    	}
+    	
+    	long ticks = pet.advance(Duration.ofMillis(now - lastSimulated));
+    	pet.setLastSimulated(lastSimulated + ticks * UPDATE_INTERVAL);
+    }
+    
+	/**
+	 * Start the game by setting isRunning to true, scheduling the game ticks and starting
+	 * the pet's item drops. Ticks the game falls behind on are made up on the next tick.
 	 */
     public void startGame() {
     	if (isRunning) return;
     	
     	isRunning = true;
-    	lastUpdateTime = System.currentTimeMillis();	// might need for future, no use currently
-    	
-    	// Create a new timer if the previous one was cancelled
-    	if (gameTimer == null || gameTimer.purge() == -1) {
-    		gameTimer = new Timer();
-    	}
+    	lastUpdateTime = time.millis();	// might need for future, no use currently
+    	gameTicker = clock.schedule(this::updateGame, UPDATE_INTERVAL, GameClock.CatchUp.COALESCE);
     	
-    	gameTimer.scheduleAtFixedRate(new TimerTask() {
-    		@Override
-    		public void run() {
-    			updateGame();
-    		}
-    	}, UPDATE_INTERVAL, UPDATE_INTERVAL);
+    	Pet pet = player.getPet();
+    	if (pet != null) dropSession = drops.open(dropKey(pet));
+    }
+    
+	/**
+	 * Gets the key of a pet's drops, which differs between players that have pets with the
+	 * same ID in their own data directories.
+	 * 
+	 * @param pet the pet.
+	 * @return the key.
+	 */
+    private long dropKey(Pet pet) {
+    	return (long) dataDir.getAbsolutePath().hashCode() << 32 | (pet.getID() & 0xFFFFFFFFL);
     }
     
 	/**
@@ -106,10 +245,16 @@ public class Game {
     public void stopGame() {
     	if (!isRunning) return;
     	
-    	gameTimer.cancel();
+    	gameTicker.cancel();
+    	gameTicker = null;
     	isRunning = false;
     	
-    	long sessionTime = System.currentTimeMillis() - sessionStartTime;
+    	if (dropSession != null) {
+    		dropSession.close();
+    		dropSession = null;
+    	}
+    	
+    	long sessionTime = time.millis() - sessionStartTime;
     	totalPlayTime += sessionTime;
     	lastSessionTime = sessionTime;
     	sessionCount++;
@@ -118,14 +263,63 @@ public class Game {
     }
     
 	/**
-	 * Updates the game by updating and saving the pet's progress bars and state.
+	 * Updates the game by updating and saving the pet's progress bars and state. Ticks that
+	 * were missed are applied quietly before the current one.
+	 * 
+	 * @param ticks the number of ticks that passed since the last update.
 	 */
-    private void updateGame() {
+    private void updateGame(long ticks) {
     	if (player.getPet() == null) return;
     	
+    	if (ticks > 1) player.getPet().advance(ticks - 1);
     	player.getPet().updateProgressBars();
 		player.getPet().updateState();
+		player.getPet().setLastSimulated(time.millis());
 		savePet();
+		publishSnapshot();
+    }
+    
+	/**
+	 * Gets the latest view of the player's pet, publishing a new one first if the pet or its
+	 * cooldowns changed since the last. The GUI shows this instead of reading the pet, which
+	 * the game tick may be changing at the same time.
+	 * 
+	 * @return the snapshot, or null if there is no pet.
+	 */
+    public PetSnapshot getSnapshot() {
+    	return publishSnapshot();
+    }
+    
+	/**
+	 * Takes a snapshot of the player's pet and publishes it if it differs from the last one.
+	 * 
+	 * @return the published snapshot, or null if there is no pet.
+	 */
+    private synchronized PetSnapshot publishSnapshot() {
+    	Pet pet = player.getPet();
+    	if (pet == null) {
+    		snapshot = null;
+    		return null;
+    	}
+    	
+    	PackedPetState stats = pet.getPackedState();
+    	PetSnapshot next = new PetSnapshot(pet.getID(), pet.getName(), pet.getSpecies().getName(),
+    			stats.getHealth(), stats.getSleep(), stats.getHunger(), stats.getHappiness(),
+    			stats.getSpaceReadiness(), stats.getCurrentState(), pet.getTotalMission(),
+    			cooldownSeconds("play"), cooldownSeconds("vet"), snapshotVersion);
+    	
+    	if (!next.equals(snapshot)) snapshot = next.withVersion(++snapshotVersion);
+    	return snapshot;
+    }
+    
+	/**
+	 * Gets the remaining cooldown of an action in whole seconds, rounded up.
+	 * 
+	 * @param action the action.
+	 * @return the seconds until the action can be done again, 0 if it can be done now.
+	 */
+    private long cooldownSeconds(String action) {
+    	return (getRemainingCooldown(action) + 999) / 1000;
     }
     
 	/**
@@ -138,26 +332,14 @@ public class Game {
     public boolean createNewPet(String petName, String petType) {
     	if (petName == null || petName.isEmpty() || petType == null || petType.isEmpty()) return false;
     	
-    	Pet newPet = null;
+    	Pet newPet = Pet.create(petType, petName);
+    	if (newPet == null) return false;
     	
-    	switch (petType.toLowerCase()) {
-    	case "dog":
-    		newPet = new Dog(petName);
-    		break;
-    	case "fish":
-    		newPet = new Fish(petName);
-    		break;
-    	case "monkey":
-    		newPet = new Monkey(petName);
-    		break;
-    	case "mouse":
-    		newPet = new Mouse(petName);
-    		break;
-    	default:
-    		return false;
-    	}
+    	int petID = generateNewPetID();
+    	if (petID <= 0) return false;
     	
-    	newPet.setID(generateNewPetID());
+    	newPet.setID(petID);
+    	newPet.setLastSimulated(time.millis());
     	player.setPet(newPet);
     	player.setInventory(new Inventory());
     	addStarterItems();
@@ -172,60 +354,58 @@ public class Game {
 		Inventory inventory = player.getInventory();
 		
 		// Add starter food items
-		inventory.addItem(new Food("Kibble", "Basic pet food. Made of space plants."));
-		inventory.addItem(new Food("Apple", "A fresh apple. Very nutritious."));
-		inventory.addItem(new Food("Cheese", "A piece of cheese. Pets love it."));
+		inventory.addItem(ItemRegistry.food(Food.FoodType.KIBBLE));
+		inventory.addItem(ItemRegistry.food(Food.FoodType.APPLE));
+		inventory.addItem(ItemRegistry.food(Food.FoodType.CHEESE));
 		
 		// Add starter toys
-		inventory.addItem(new Toy("Ball", "Looks like the moon."));
-		inventory.addItem(new Toy("Rocket", "A toy rocket. Makes space noises."));
+		inventory.addItem(ItemRegistry.toy(Toy.ToyType.BALL));
+		inventory.addItem(ItemRegistry.toy(Toy.ToyType.ROCKETTOY));
 	}
     
 	/**
-	 * Generates a new pet ID by finding the highest current pet ID and returning
-	 * the next available integer.
+	 * Generates a new pet ID from the pet store's ID sequence.
 	 * 
-	 * @return the newly generated pet ID.
+	 * @return the newly generated pet ID, or -1 if no ID could be allocated.
 	 */
     private int generateNewPetID() {
-    	List<Integer> existingIDs = getExistingPetIDs();
-    	
-    	int maxID = 0;
-    	for (Integer id : existingIDs) {
-    		if (id > maxID) {
-    			maxID = id;
-    		}
+    	try {
+    		return store.allocatePetID();
+    	} catch (IOException e) {
+    		LOG.error("Error allocating pet ID", e);
+    		return -1;
     	}
-    	
-    	return maxID + 1;
     }
     
 	/**
-	 * Searches the pets files to get all the existing pet IDs.
+	 * Gets all the existing pet IDs from the pet store.
 	 * 
 	 * @return a list of existing pet IDs.
 	 */
     public List<Integer> getExistingPetIDs() {
-    	List<Integer> petIDs = new ArrayList<>();
-    	File petsFolder = new File(PETS_DIR);
+    	return new ArrayList<>(getEntries().keySet());
+    }
+    
+    /**
+     * Gets a catalog entry for every saved pet, with the saves still queued for writing
+     * laid over the ones in the pet store, so a new pet shows up before it reaches disk.
+     * 
+     * @return a mapping of pet IDs to catalog entries, ordered by pet ID.
+     */
+    private Map<Integer, PetCatalog.Entry> getEntries() {
+    	// Read the queue first: a save written in between is then found in the store instead
+    	List<SaveData> queued = saveWriter.getPending(saveSink);
     	
-    	if (petsFolder.exists() && petsFolder.isDirectory()) {
-    		File[] files = petsFolder.listFiles((dir, name) -> name.endsWith(".save"));
-    		
-    		if (files != null) {
-	    		for (File file : files) {
-	    			String fileName = file.getName();
-	    			try {
-	    				int petID = Integer.parseInt(fileName.substring(0, fileName.lastIndexOf(".")));
-	    				petIDs.add(petID);
-	    			} catch (NumberFormatException e) {
-	    				// Skip files with invalid names
-	    			}
-	    		}
-    		}
+    	Map<Integer, PetCatalog.Entry> entries = new TreeMap<>();
+    	for (PetCatalog.Entry entry : store.getEntries()) {
+    		entries.put(entry.id(), entry);
+    	}
+    	for (SaveData data : queued) {
+    		entries.put(data.petID(), new PetCatalog.Entry(data.petID(), data.petName(), data.petType(),
+    				data.state(), data.totalMissions(), time.millis()));
     	}
     	
-    	return petIDs;
+    	return entries;
     }
     
 	/**
@@ -236,30 +416,9 @@ public class Game {
 	*/
     public Map<Integer, String> getAvailablePets() {
     	Map<Integer, String> pets = new HashMap<>();
-    	List<Integer> petIDs = getExistingPetIDs();
     	
-    	for (Integer id : petIDs) {
-    		try {
-    			String filename = PETS_DIR + File.separator + id + ".save";
-    			File saveFile = new File(filename);
-    			
-    			try (BufferedReader reader = new BufferedReader(new FileReader(saveFile))) {
-    				String line;
-    				String petName = null;
-    				
-    				while ((line = reader.readLine()) != null) {
-    					if (line.startsWith("PET_NAME=")) {
-    						petName = line.substring(9);
-    						break;
-    					}
-    				}
-    				
-    				if (petName != null) pets.put(id,  petName);
-    				
-    			}
-    		} catch (IOException e) {
-				System.err.println("Error reading pet save file: " + e.getMessage());
-			}
+    	for (PetCatalog.Entry entry : getEntries().values()) {
+    		pets.put(entry.id(), entry.name());
     	}
     	
     	return pets;
@@ -272,40 +431,9 @@ public class Game {
 	 */
 	public Map<Integer, String> getAlivePets() {
 		Map<Integer, String> pets = new HashMap<>();
-		List<Integer> petIDs = getExistingPetIDs();
 		
-		for (Integer id : petIDs) {
-			try {
-				String filename = PETS_DIR + File.separator + id + ".save";
-				File saveFile = new File(filename);
-				
-				try (BufferedReader reader = new BufferedReader(new FileReader(saveFile))) {
-					String line;
-					String petName = null;
-					boolean isDead = false;
-					
-					while ((line = reader.readLine()) != null) {
-						if (line.startsWith("PET_NAME=")) {
-							petName = line.substring(9);
-						} else if (line.startsWith("STATE=")) {
-							// Check if the pet's state is DEAD
-							isDead = line.substring(6).equals("DEAD");
-						}
-						
-						// If we found both the name and state, we can stop reading
-						if (petName != null && line.startsWith("STATE=")) {
-							break;
-						}
-					}
-					
-					// Only add the pet to the map if it has a name and is not dead
-					if (petName != null && !isDead) {
-						pets.put(id, petName);
-					}
-				}
-			} catch (IOException e) {
-				System.err.println("Error reading pet save file: " + e.getMessage());
-			}
+		for (PetCatalog.Entry entry : getEntries().values()) {
+			if (entry.isAlive()) pets.put(entry.id(), entry.name());
 		}
 		
 		return pets;
@@ -318,186 +446,176 @@ public class Game {
 	 */
 	public Map<Integer, String> getDeadPets() {
 		Map<Integer, String> pets = new HashMap<>();
-		List<Integer> petIDs = getExistingPetIDs();
 		
-		for (Integer id : petIDs) {
-			try {
-				String filename = PETS_DIR + File.separator + id + ".save";
-				File saveFile = new File(filename);
-				
-				try (BufferedReader reader = new BufferedReader(new FileReader(saveFile))) {
-					String line;
-					String petName = null;
-					boolean isDead = false;
-					
-					while ((line = reader.readLine()) != null) {
-						if (line.startsWith("PET_NAME=")) {
-							petName = line.substring(9);
-						} else if (line.startsWith("STATE=")) {
-							// Check if the pet's state is DEAD
-							isDead = line.substring(6).equals("DEAD");
-						}
-						
-						// If we found both the name and state, we can stop reading
-						if (petName != null && line.startsWith("STATE=")) {
-							break;
-						}
-					}
-					
-					// Only add the pet to the map if it has a name and IS dead
-					if (petName != null && isDead) {
-						pets.put(id, petName);
-					}
-				}
-			} catch (IOException e) {
-				System.err.println("Error reading pet save file: " + e.getMessage());
-			}
+		for (PetCatalog.Entry entry : getEntries().values()) {
+			if (!entry.isAlive()) pets.put(entry.id(), entry.name());
 		}
 		
 		return pets;
 	}
     
     /**
-	 * Saves current pet's state and inventory to a file.
+	 * Saves current pet's state and inventory.
 	 * 
-	 * @return true if the pet was saved successfully and false otherwise.
+	 * <p>A snapshot of the pet and inventory is taken immediately and handed to the save
+	 * writer, which writes it to the pet's file on its own thread. Nothing is written when
+	 * neither the pet nor the inventory changed since the last save was written or the pet
+	 * was loaded. Call {@link #flushSaves(long)} to find out whether the save reached disk.</p>
+	 * 
+	 * @return true if the pet's save was queued or was already up to date and false otherwise.
 	 */
-    public boolean savePet() {
-    	try {
-    		Pet currentPet = player.getPet();
-    		if (currentPet == null) return false;
-    		
-    		int petID = currentPet.getID();
-    		if (petID <= 0) return false;
-    		
-    		String filename = PETS_DIR + File.separator + petID + ".save";
-    		File saveFile = new File(filename);
-    		
-    		saveFile.getParentFile().mkdirs();
-    		
-    		try (PrintWriter writer = new PrintWriter(new FileWriter(saveFile))) {
-                writer.println("PET_TYPE=" + currentPet.getClass().getSimpleName());
-                writer.println("PET_ID=" + petID);
-                writer.println("PET_NAME=" + currentPet.getName());
-                writer.println("HEALTH=" + currentPet.getHealth());
-                writer.println("SLEEP=" + currentPet.getSleep());
-                writer.println("HUNGER=" + currentPet.getHunger());
-                writer.println("HAPPINESS=" + currentPet.getHappiness());
-                writer.println("SPACE_READINESS=" + currentPet.getSpaceReadiness());
-                writer.println("STATE=" + currentPet.getCurrentState());
-                writer.println("TOTAL_MISSIONS=" + currentPet.getTotalMission());
-                
-                ArrayList<Item> items = player.getInventory().getInventoryItems();
-                writer.println("INVENTORY_COUNT=" + items.size());
-                
-                for (int i = 0; i < items.size(); i++) {
-                	Item item = items.get(i);
-                	writer.println("ITEM_"+ i + "_TYPE=" + item.getClass().getSimpleName());		// FIGURE OUT WHERE "getSimpleName" comes from...
-                	writer.println("ITEM_" + i + "_NAME=" + item.getName());
-                	writer.println("ITEM_" + i + "_DESC=" + item.getDescription());
-                }
-    		}
-    		
+    public synchronized boolean savePet() {
+    	Pet currentPet = player.getPet();
+    	if (currentPet == null) return false;
+    	
+    	if (currentPet.getID() <= 0) return false;
+    	
+    	Inventory inventory = player.getInventory();
+    	if (isSaved(currentPet, inventory)) {
+    		savesSkipped++;
     		return true;
+    	}
+    	
+    	// Read the versions first, so a change made while the snapshot is taken counts as unsaved
+    	long petVersion = currentPet.getVersion();
+    	long inventoryVersion = inventory != null ? inventory.getVersion() : 0;
+    	// Written by store.save, and only counted as saved once it is on disk
+    	return saveWriter.submit(saveSink, SaveData.capture(currentPet, inventory),
+    			() -> markWritten(currentPet, petVersion, inventory, inventoryVersion));
+    }
+    
+    /**
+     * Checks whether the pet and inventory are unchanged since they were last saved or loaded.
+     * 
+     * @param pet the pet to check.
+     * @param inventory the inventory to check.
+     * @return true if nothing needs to be saved and false otherwise.
+     */
+    private boolean isSaved(Pet pet, Inventory inventory) {
+    	return pet == savedPet && pet.getVersion() == savedPetVersion
+    			&& inventory == savedInventory
+    			&& (inventory == null || inventory.getVersion() == savedInventoryVersion);
+    }
+    
+    /**
+     * Records the pet and inventory as matching what is saved.
+     * 
+     * @param pet the saved pet.
+     * @param petVersion the pet's version when it was saved.
+     * @param inventory the saved inventory.
+     * @param inventoryVersion the inventory's version when it was saved, or 0 if there is none.
+     */
+    private synchronized void markSaved(Pet pet, long petVersion, Inventory inventory, long inventoryVersion) {
+    	savedPet = pet;
+    	savedPetVersion = petVersion;
+    	savedInventory = inventory;
+    	savedInventoryVersion = inventoryVersion;
+    }
+    
+    /**
+     * Counts a save the save writer has written and records it as matching what is on disk.
+     * A save of a pet the player has since switched away from is only counted, so it cannot
+     * replace the record of the current pet.
+     * 
+     * @param pet the saved pet.
+     * @param petVersion the pet's version when it was saved.
+     * @param inventory the saved inventory.
+     * @param inventoryVersion the inventory's version when it was saved, or 0 if there is none.
+     */
+    private synchronized void markWritten(Pet pet, long petVersion, Inventory inventory, long inventoryVersion) {
+    	savesWritten++;
+    	if (player.getPet() == pet && player.getInventory() == inventory) {
+    		markSaved(pet, petVersion, inventory, inventoryVersion);
+    	}
+    }
+    
+    /**
+     * Gets the number of this game's saves the save writer has written to disk.
+     * 
+     * @return the number of saves written.
+     */
+    public synchronized long getSavesWritten() {
+    	return savesWritten;
+    }
+    
+    /**
+     * Gets the number of saves skipped because nothing changed since the last save.
+     * 
+     * @return the number of saves skipped.
+     */
+    public synchronized long getSavesSkipped() {
+    	return savesSkipped;
+    }
+    
+    /**
+     * Waits for every queued save to be written to disk.
+     * 
+     * @param timeoutMillis the longest time to wait in milliseconds.
+     * @return true if all queued saves were written and false if the timeout elapsed first or
+     *         a save could not be written.
+     */
+    public boolean flushSaves(long timeoutMillis) {
+    	return saveWriter.flush(saveSink, timeoutMillis);
+    }
+    
+    /**
+     * Shuts the game down by stopping it and writing out the queued saves. The wait for
+     * the save writer is bounded so closing the window never hangs on a slow disk.
+     * 
+     * @return true if all queued saves were written and false otherwise.
+     */
+    public boolean shutdown() {
+    	stopGame();
+    	// A shared writer keeps running for the other games, so only wait for this game's saves
+    	boolean drained = ownsSaveWriter ? saveWriter.close(SAVE_FLUSH_TIMEOUT)
+    			: saveWriter.flush(saveSink, SAVE_FLUSH_TIMEOUT);
+    	
+    	try {
+    		store.close();
     	} catch (IOException e) {
-    		System.out.println("Error saving pet: " + e.getMessage());
+    		LOG.error("Error closing pet store", e);
     		return false;
     	}
+    	
+    	return drained;
     }
     
 	/**
 	 * Loads the pet's data from the save file and initializes  the pet and inventory.
 	 * 
-	 * <p>This method reads the pet's attributes, state, and inventory items from  a save file based
-	 *  on the given pet ID. It checks if the pet can be loaded based on the time restrictions. The loading
-	 * fails if the pet type is not recognized or the file cannot be found.</p>
+	 * <p>This method reads the pet's attributes, state, and inventory items from the pet store based
+	 *  on the given pet ID. A save that is still queued for writing is used instead of the store. It 
+	 *  checks if the pet can be loaded based on the time restrictions. The loading fails if the pet 
+	 *  type is not recognized or the file cannot be found.</p>
 	 * 
 	 * @param petID the unique identifier of the pet to be loaded
 	 * @return true if the pet was successfull loaded and false otherwise.
 	 */
    public boolean loadPet(int petID) {
 	   try {
-		   String filename = PETS_DIR + File.separator + petID + ".save";
-		   File saveFile = new File(filename);
+		   SaveData data = saveWriter.getPending(saveSink, petID);
+		   
+		   if (data == null) data = store.load(petID);
 		   
-		   if(!saveFile.exists()) {
-				System.out.println("Save file doesn't exist");
+		   if (data == null) {
+			   LOG.info("Save file doesn't exist");
 			   return false;
 		   }
 		   
 		   if (timeRestrictionEnabled && !isWithinAllowedTime()) {
-			   System.out.println("Cannot play at this time due to parental restrictions");
+			   LOG.info("Cannot play at this time due to parental restrictions");
 			   return false;
 		   }
 		   
-		   Map<String, String> properties = new HashMap<>();
-		   
-		   try (BufferedReader reader = new BufferedReader(new FileReader(saveFile))) {
-			   String line;
-			   while ((line = reader.readLine()) != null) {
-				   String[] parts = line.split("=", 2);
-				   if (parts.length == 2) {
-					   properties.put(parts[0], parts[1]);
-				   }
-			   }
-		   }
-		   
-		   String petType = properties.get("PET_TYPE");
-		   String petName = properties.get("PET_NAME");
-		   
-		   if (petType == null || petName == null) return false;
-		   
-		   Pet loadedPet = null;
+		   Pet loadedPet = data.toPet();
+		   if (loadedPet == null) return false;
 		   
-		   
-		   switch (petType.toLowerCase()) {
-		   		case "dog":
-		   			loadedPet = new Dog(petName);
-		   			break;
-		   		case "fish":
-		   			loadedPet = new Fish(petName);
-		   			break;
-		   		case "monkey":
-		   			loadedPet = new Monkey(petName);
-		   			break;
-		   		case "mouse":
-		   			loadedPet = new Mouse(petName);
-		   			break;
-		   		default:
-		   			return false;
-		   }
-		   
-	        loadedPet.setID(Integer.parseInt(properties.get("PET_ID")));
-	        loadedPet.setHealth(Integer.parseInt(properties.get("HEALTH")));
-	        loadedPet.setSleep(Integer.parseInt(properties.get("SLEEP")));
-	        loadedPet.setHunger(Integer.parseInt(properties.get("HUNGER")));
-	        loadedPet.setHappiness(Integer.parseInt(properties.get("HAPPINESS")));
-			loadedPet.setSpaceReadiness(Integer.parseInt(properties.get("SPACE_READINESS")));
-			loadedPet.setCurrentState(PetState.valueOf(properties.get("STATE")));
-			loadedPet.setTotalMissions(Integer.parseInt(properties.get("TOTAL_MISSIONS")));
-
-	        
-	        Inventory loadedInventory = new Inventory();
-	        
-	        int inventoryCount = Integer.parseInt(properties.getOrDefault("INVENTORY_COUNT", "0"));
-	        
-	        for (int i = 0; i < inventoryCount; i++) {
-	        	String itemType = properties.get("ITEM_" + i + "_TYPE");
-	        	String itemName = properties.get("ITEM_" + i + "_NAME");
-	        	String itemDesc = properties.get("ITEM_" + i + "_DESC");
-	        	
-	        	if (itemType != null && itemName != null && itemDesc != null) {
-	        		Item item = null;
-	        		
-	        		if (itemType.equals("Food")) item = new Food(itemName, itemDesc);	// figure out where itemType comes from. is it just from the save file? it's not a private Item.java variable.
-	        		else if (itemType.equals("Toy")) item = new Toy(itemName, itemDesc);
-	        		
-	        		if (item != null) loadedInventory.addItem(item);
-	        	}
-	        }
+		   catchUp(loadedPet, data.lastSimulated());
+		   Inventory loadedInventory = data.toInventory();
 	        
 	        player.setPet(loadedPet);
 	        player.setInventory(loadedInventory);
+	        markSaved(loadedPet, loadedPet.getVersion(), loadedInventory, loadedInventory.getVersion());	// Just loaded, so nothing to save yet
 	        
 	        return true;
 	   } catch (Exception e) {
@@ -518,27 +636,24 @@ public class Game {
     */
 	public boolean revivePet(int petID) {
 		if (!loadPet(petID)) {
-			System.out.println("Failed to find pet ID to revive");
+			LOG.warn("Failed to find pet ID to revive");
 			return false;
 		}
 		
 		Pet pet = player.getPet();
 		if (pet == null) {
-			System.out.println("Pet is null");
+			LOG.warn("Pet is null");
 			return false;
 		}
 		
 		// Reset all stats to full
-		pet.setHealth(100);
-		pet.setHappiness(100);
-		pet.setHunger(100);
-		pet.setSleep(100);
-		pet.setSpaceReadiness(0);  // Reset space readiness
+		pet.mutate(d -> d.setHealth(100).setHappiness(100).setHunger(100).setSleep(100)
+				.setSpaceReadiness(0));  // Reset space readiness
 		pet.setCurrentState(PetState.NORMAL);
 		
 		// Save the revived pet state
 		if (!savePet()) {
-			System.out.println("Failed to save revived pet");
+			LOG.warn("Failed to save revived pet");
 			return false;
 		}
 		
@@ -556,7 +671,7 @@ public class Game {
    public boolean isWithinAllowedTime() {
 	   if (!timeRestrictionEnabled) return true;
 	   
-	   int currentHour = LocalDateTime.now().getHour();
+	   int currentHour = LocalDateTime.now(time).getHour();
 	   
 	   if (startHour <= endHour) {
 		   return currentHour >= startHour && currentHour < endHour;
@@ -574,7 +689,7 @@ public class Game {
     */
    private void loadParentalSettings() {
 	   Properties props = new Properties();
-	   File file = new File(PARENT_CONFIG_FILE);
+	   File file = new File(dataDir, PARENT_CONFIG_FILE);
 	   
 	   if (file.exists()) {
 		   try (FileInputStream in = new FileInputStream(file)) {
@@ -629,7 +744,7 @@ public class Game {
 	   props.setProperty("sessionCount", Integer.toString(sessionCount));
 	   props.setProperty("parentPassword", parentPassword);
 	   
-	   try (FileOutputStream out = new FileOutputStream(PARENT_CONFIG_FILE)) {
+	   try (FileOutputStream out = new FileOutputStream(new File(dataDir, PARENT_CONFIG_FILE))) {
 		   props.store(out, "Parental Settings");
 	   } catch (IOException e) {
 		   System.err.print("Error saving parental settings: " + e.getMessage());
@@ -689,7 +804,7 @@ public class Game {
 	   Long cooldownTime = cooldowns.get(action);
 	   if (cooldownTime == null) return false;
 	   
-	   return System.currentTimeMillis() < cooldownTime;
+	   return time.millis() < cooldownTime;
    }
    
    /**
@@ -703,7 +818,7 @@ public class Game {
 	   Long cooldownTime = cooldowns.get(action);
 	   if (cooldownTime == null) return 0;
 	   
-	   long remaining = cooldownTime - System.currentTimeMillis();
+	   long remaining = cooldownTime - time.millis();
 	   return Math.max(0, remaining);
    }
    
@@ -724,9 +839,32 @@ public class Game {
 	   			break;
 	   }
 	   
-	   if (cooldownAmount > 0) cooldowns.put(action, System.currentTimeMillis() + cooldownAmount);
+	   if (cooldownAmount > 0) cooldowns.put(action, time.millis() + cooldownAmount);
    }
 
+   /**
+	* Gets the item dropped for the player to collect.
+	*
+	* @return the dropped item, or null if there is none or the game is stopped.
+    */
+   public Item getDroppedItem() {
+	   DropEngine.Session session = dropSession;
+	   return session != null ? session.getDroppedItem() : null;
+   }
+   
+   /**
+	* Collects the dropped item into the player's inventory. The item stays available if the
+	* inventory is full.
+	*
+	* @return the collected item, or null if there was none or the inventory is full.
+    */
+   public Item collectDroppedItem() {
+	   DropEngine.Session session = dropSession;
+	   if (session == null || player.getInventory() == null) return null;
+	   
+	   return session.collect(player.getInventory());
+   }
+   
    /**
 	* Clears the current pet assigned to the player.
     */
@@ -740,6 +878,15 @@ public class Game {
 		}
 	}
    
+   /**
+	* Gets the directory the game keeps its saves and parental settings in.
+	*
+	* @return the data directory.
+    */
+   public File getDataDir() {
+	   return dataDir;
+   }
+   
    /**
 	* Gets the player.
 	*
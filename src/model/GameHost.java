@@ -0,0 +1,266 @@
+package model;
+
+import model.item.ItemRegistry;
+import model.log.Log;
+import model.save.SaveWriter;
+import model.time.GameClock;
+import model.time.ScheduledGameClock;
+import java.io.File;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * This class hosts the games of many players in one process. Each player gets their own
+ * {@link Game}, with its own pet, inventory, cooldowns, saves and parental settings in a data
+ * directory of its own under the host's root directory. All games tick on the same clock,
+ * share one {@link DropEngine} and write their saves on one {@link SaveWriter} thread.
+ *
+ * <p>Actions are run through {@link #withPlayer(String, Function)}, which holds a lock for
+ * the player while the action runs. The locks are striped: a player ID always maps to the
+ * same lock out of a fixed set, so one player's actions run one at a time while players on
+ * other stripes never wait for each other, and the host does not keep a lock per player.</p>
+ */
+public class GameHost {
+
+	private static final Log LOG = Log.get(GameHost.class);
+
+	/** The default number of lock stripes. */
+	public static final int DEFAULT_STRIPES = 64;
+
+	// Player IDs name directories, so only safe characters are allowed
+	private static final Pattern PLAYER_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+	private final File rootDir;
+	private final GameClock clock;
+	private final DropEngine drops;		// Shared by every player's game
+	private final SaveWriter saveWriter;	// Shared by every player's game, closed on shutdown
+	private final ReentrantLock[] locks;
+	private final ConcurrentHashMap<String, Game> games = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a host that keeps player data under the specified directory and ticks on the
+	 * clock shared by all games.
+	 *
+	 * @param rootDir the directory to keep every player's data directory in.
+	 */
+	public GameHost(File rootDir) {
+		this(rootDir, null, DEFAULT_STRIPES);
+	}
+
+	/**
+	 * Constructs a host whose drop engine gets the {@link DropEngine#defaultSeed() default
+	 * seed}.
+	 *
+	 * @param rootDir the directory to keep every player's data directory in.
+	 * @param gameClock the clock every game ticks on, or null to use the clock shared by all
+	 * 		games.
+	 * @param stripes the number of lock stripes, rounded up to a power of two.
+	 */
+	public GameHost(File rootDir, GameClock gameClock, int stripes) {
+		this(rootDir, gameClock, stripes, DropEngine.defaultSeed());
+	}
+
+	/**
+	 * Constructs a host whose item drops are the same on every run with the same seed.
+	 *
+	 * @param rootDir the directory to keep every player's data directory in.
+	 * @param gameClock the clock every game ticks on, or null to use the clock shared by all
+	 * 		games.
+	 * @param stripes the number of lock stripes, rounded up to a power of two.
+	 * @param seed the seed of the shared drop engine.
+	 */
+	public GameHost(File rootDir, GameClock gameClock, int stripes, long seed) {
+		this.rootDir = rootDir;
+		this.clock = gameClock != null ? gameClock : ScheduledGameClock.shared();
+		this.drops = new DropEngine(clock, ItemRegistry.drops(), seed, DropEngine.DROP_INTERVAL);
+		this.saveWriter = new SaveWriter("save-writer");
+
+		locks = new ReentrantLock[stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1];
+		for (int i = 0; i < locks.length; i++) locks[i] = new ReentrantLock();
+	}
+
+	/**
+	 * Checks whether a player ID can be used, that is it is 1 to 64 letters, digits, dashes or
+	 * underscores.
+	 *
+	 * @param playerID the player ID.
+	 * @return true if the ID can be used and false otherwise.
+	 */
+	public static boolean isValidPlayerID(String playerID) {
+		return playerID != null && PLAYER_ID.matcher(playerID).matches();
+	}
+
+	/**
+	 * Gets a player's game, starting one if the player has none open. A new game loads the
+	 * player's parental settings and pet store from their data directory.
+	 *
+	 * @param playerID the player's ID.
+	 * @return the player's game, or null if the ID is not valid.
+	 */
+	public Game open(String playerID) {
+		if (!isValidPlayerID(playerID)) {
+			LOG.warn("Invalid player ID: {0}", playerID);
+			return null;
+		}
+
+		Game game = games.get(playerID);
+		if (game != null) return game;
+
+		ReentrantLock lock = lockFor(playerID);
+		lock.lock();
+		try {
+			return games.computeIfAbsent(playerID, id -> new Game(getDataDir(id), null, clock, drops, saveWriter));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Gets a player's open game.
+	 *
+	 * @param playerID the player's ID.
+	 * @return the player's game, or null if the player has no game open.
+	 */
+	public Game get(String playerID) {
+		return playerID != null ? games.get(playerID) : null;
+	}
+
+	/**
+	 * Runs an action on a player's open game while holding the player's lock, so it never
+	 * overlaps another action of the same player.
+	 *
+	 * @param <T> the action's result type.
+	 * @param playerID the player's ID.
+	 * @param action the action.
+	 * @return the action's result, or null if the player has no game open.
+	 */
+	public <T> T withPlayer(String playerID, Function<Game, T> action) {
+		if (playerID == null) return null;
+
+		ReentrantLock lock = lockFor(playerID);
+		lock.lock();
+		try {
+			Game game = games.get(playerID);
+			return game != null ? action.apply(game) : null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Closes a player's game, saving the pet and writing out the queued saves.
+	 *
+	 * @param playerID the player's ID.
+	 * @return true if the game was closed and all its saves were written and false otherwise.
+	 */
+	public boolean close(String playerID) {
+		if (playerID == null) return false;
+
+		ReentrantLock lock = lockFor(playerID);
+		lock.lock();
+		try {
+			Game game = games.remove(playerID);
+			if (game == null) return false;
+
+			game.savePet();
+			return game.shutdown();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Closes every open game and stops the shared save writer. The host cannot save games
+	 * after it is shut down.
+	 *
+	 * @return true if every game's saves were written and false otherwise.
+	 */
+	public boolean shutdown() {
+		boolean drained = true;
+		for (String playerID : games.keySet()) {
+			if (!close(playerID)) drained = false;
+		}
+		if (!saveWriter.close(Game.SAVE_FLUSH_TIMEOUT)) drained = false;
+		return drained;
+	}
+
+	/**
+	 * Gets the IDs of the players with an open game.
+	 *
+	 * @return an unmodifiable view of the player IDs.
+	 */
+	public Set<String> getPlayerIDs() {
+		return Collections.unmodifiableSet(games.keySet());
+	}
+
+	/**
+	 * Gets the number of players with an open game.
+	 *
+	 * @return the number of players.
+	 */
+	public int getPlayerCount() {
+		return games.size();
+	}
+
+	/**
+	 * Gets the directory a player's saves and parental settings are kept in.
+	 *
+	 * @param playerID the player's ID.
+	 * @return the player's data directory.
+	 */
+	public File getDataDir(String playerID) {
+		return new File(rootDir, playerID);
+	}
+
+	/**
+	 * Gets the engine that drops items for every player, on one ticker for all of them.
+	 *
+	 * @return the drop engine.
+	 */
+	public DropEngine getDropEngine() {
+		return drops;
+	}
+
+	/**
+	 * Gets the writer that writes every player's saves, on one thread for all of them.
+	 *
+	 * @return the save writer.
+	 */
+	public SaveWriter getSaveWriter() {
+		return saveWriter;
+	}
+
+	/**
+	 * Gets the number of lock stripes.
+	 *
+	 * @return the number of stripes.
+	 */
+	public int getStripeCount() {
+		return locks.length;
+	}
+
+	/**
+	 * Gets the lock stripe of a player.
+	 *
+	 * @param playerID the player's ID.
+	 * @return the stripe's index.
+	 */
+	int stripeOf(String playerID) {
+		int hash = playerID.hashCode();
+		return (hash ^ (hash >>> 16)) & (locks.length - 1);
+	}
+
+	/**
+	 * Gets the lock of a player's stripe.
+	 *
+	 * @param playerID the player's ID.
+	 * @return the lock.
+	 */
+	private ReentrantLock lockFor(String playerID) {
+		return locks[stripeOf(playerID)];
+	}
+}
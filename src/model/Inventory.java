@@ -1,63 +1,305 @@
 package model;
 
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 import model.item.*;
+import model.item.Food.FoodType;
+import model.item.Toy.ToyType;
 /**
  * This class represents the player's inventory which holds their items.
+ *
+ * <p>Items are stacked by kind: the inventory keeps a count for each item of the
+ * {@link ItemRegistry item catalog}, indexed by the item's position in it, and shows each
+ * stack as the catalog's shared item. Adding, removing and counting items takes the same
+ * time however many items there are.</p>
+ *
+ * <p>The stacks held are also indexed by category (foods and toys) and by every tag of the
+ * catalog. The indices only change when a kind of item is gained or used up, and the
+ * filtered lists are live read-only views of them, so a dialog asking for the foods gets
+ * them without going through the rest of the inventory.</p>
  */
 public class Inventory {
-    private static final int ITEM_LIMIT = 20;
-    private ArrayList<Item> items;
+    /** The number of items an inventory holds unless another capacity is given. */
+    public static final int DEFAULT_CAPACITY = 20;
+
+    private final int capacity;
+    private final int[] counts = new int[ItemRegistry.size()];	// By catalog index
+    private int size;
+    private long version;	// Incremented whenever an item is added or removed
+
+    // One entry per kind of item held, in catalog order
+    private final Stacks<Item> stacks = new Stacks<>();
+    private final Stacks<Food> foods = new Stacks<>();
+    private final Stacks<Toy> toys = new Stacks<>();
+    private final Map<String, Stacks<Item>> byTag = new HashMap<>();
+
+    // The item list last built by getInventoryItems and the version it was built at
+    private List<Item> itemsView = Collections.emptyList();
+    private long itemsViewVersion;
 
     /**
-     * Constructor for the Inventory class. Creates an array list to hold the items.
+     * Constructor for the Inventory class. Creates an empty inventory that holds up to
+     * {@link #DEFAULT_CAPACITY} items.
      */
     public Inventory() {
-        items = new ArrayList<Item>();
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty inventory that holds up to the specified number of items.
+     *
+     * @param capacity the most items the inventory can hold.
+     */
+    public Inventory(int capacity) {
+        this.capacity = capacity;
+        for (String tag : ItemRegistry.tags()) byTag.put(tag, new Stacks<>());
     }
 
     /**
-     * Adds an item to the player's inventory if their inventory is not full.
-     * 
+     * Adds an item to the player's inventory if their inventory is not full. Items that are
+     * not in the item catalog are not added.
+     *
      * @param item the item to be added.
+     * @return true if the item was added and false otherwise.
      */
     public boolean addItem(Item item) {
-        if (items.size() < ITEM_LIMIT) {
-            items.add(item);
-            return true;
-        }
-        return false;
+        if (size >= capacity || !isCataloged(item)) return false;
+
+        if (counts[item.getIndex()]++ == 0) index(item.getIndex(), true);
+        size++;
+        version++;
+        return true;
     }
 
     /**
-     * Removes an item from the player's inventory.
-     * 
+     * Removes one item of the same kind as the specified item from the player's inventory.
+     *
      * @param item the item to be removed.
+     * @return true if an item was removed and false if there was none of its kind.
      */
     public boolean removeItem(Item item) {
-        return items.remove(item);
+        if (getCount(item) == 0) return false;
+
+        if (--counts[item.getIndex()] == 0) index(item.getIndex(), false);
+        size--;
+        version++;
+        return true;
     }
 
     /**
-     * Returns the items a player has in their inventory.
-     * 
-     * @return the array list of items.
+     * Returns the items a player has in their inventory, one entry per item, in catalog
+     * order. The list is rebuilt only after the inventory changes, so calling this again
+     * without changes is free.
+     *
+     * @return an unmodifiable list of the items.
      */
-    public ArrayList<Item> getInventoryItems() {
-        return items;
+    public List<Item> getInventoryItems() {
+        if (itemsViewVersion != version) {
+            List<Item> items = new ArrayList<>(size);
+            for (int i = 0; i < counts.length; i++) {
+                for (int n = 0; n < counts[i]; n++) items.add(ItemRegistry.get(i));
+            }
+
+            itemsView = Collections.unmodifiableList(items);
+            itemsViewVersion = version;
+        }
+
+        return itemsView;
     }
-    
+
     /**
-     * Checks if the inventory contains the specified item.
-     * 
+     * Gets one item of each kind in the inventory, in catalog order.
+     *
+     * @return a live, unmodifiable view of the items, one per kind held.
+     */
+    public List<Item> getStacks() {
+        return stacks;
+    }
+
+    /**
+     * Gets one food of each kind in the inventory, in catalog order.
+     *
+     * @return a live, unmodifiable view of the foods, one per kind held.
+     */
+    public List<Food> getFoods() {
+        return foods;
+    }
+
+    /**
+     * Gets one toy of each kind in the inventory, in catalog order.
+     *
+     * @return a live, unmodifiable view of the toys, one per kind held.
+     */
+    public List<Toy> getToys() {
+        return toys;
+    }
+
+    /**
+     * Gets one item of each kind in the inventory that has the specified tag, in catalog
+     * order.
+     *
+     * @param tag the tag, ignoring case.
+     * @return a live, unmodifiable view of the items, one per kind held, or an empty list if
+     * 		no item of the catalog has the tag.
+     */
+    public List<Item> getTagged(String tag) {
+        List<Item> tagged = tag != null ? byTag.get(tag.toLowerCase()) : null;
+        return tagged != null ? tagged : Collections.emptyList();
+    }
+
+    /**
+     * Checks if the inventory contains an item of the same kind as the specified item.
+     *
      * @param searchedItem item to search for.
-     * @return true if searchedItem is in the inventory and false otherwise.
+     * @return true if an item of searchedItem's kind is in the inventory and false otherwise.
      */
     public boolean contains(Item searchedItem) {
-    	for(Item currItem : items) {
-    		if (currItem.getName().equals(searchedItem.getName())) return true;
-    	}
-    	
-    	return false;
+    	return getCount(searchedItem) > 0;
+    }
+
+    /**
+     * Gets the number of items of the same kind as the specified item.
+     *
+     * @param item the item.
+     * @return the number of items of its kind.
+     */
+    public int getCount(Item item) {
+    	return isCataloged(item) ? counts[item.getIndex()] : 0;
+    }
+
+    /**
+     * Gets the number of foods of the specified type.
+     *
+     * @param type the food type.
+     * @return the number of foods of the type.
+     */
+    public int getCount(FoodType type) {
+    	return counts[ItemRegistry.food(type).getIndex()];
+    }
+
+    /**
+     * Gets the number of toys of the specified type.
+     *
+     * @param type the toy type.
+     * @return the number of toys of the type.
+     */
+    public int getCount(ToyType type) {
+    	return counts[ItemRegistry.toy(type).getIndex()];
+    }
+
+    /**
+     * Gets the number of items in the inventory.
+     *
+     * @return the number of items.
+     */
+    public int size() {
+    	return size;
+    }
+
+    /**
+     * Gets the most items the inventory can hold.
+     *
+     * @return the capacity.
+     */
+    public int getCapacity() {
+    	return capacity;
+    }
+
+    /**
+     * Gets the inventory's modification version, which changes whenever an item is added
+     * or removed.
+     *
+     * @return the inventory's modification version.
+     */
+    public long getVersion() {
+    	return version;
+    }
+
+    /**
+     * Adds a kind of item to the indices it belongs in or removes it from them.
+     *
+     * @param index the item's catalog index.
+     * @param held true if the first item of the kind was added and false if the last one
+     * 		was removed.
+     */
+    private void index(int index, boolean held) {
+        Item item = ItemRegistry.get(index);
+        stacks.update(index, held);
+        if (item instanceof Food) foods.update(index, held);
+        else toys.update(index, held);
+        for (String tag : item.getTags()) byTag.get(tag).update(index, held);
+    }
+
+    /**
+     * Checks whether an item is in the item catalog, so the inventory can count it.
+     *
+     * @param item the item.
+     * @return true if the item has a catalog index and false otherwise.
+     */
+    private static boolean isCataloged(Item item) {
+    	return item != null && item.getIndex() >= 0;
+    }
+
+    /**
+     * A read-only list of the kinds of item held that belong in one index, kept as their
+     * catalog indices in order. Kinds are only inserted or removed when the first is gained
+     * or the last used up, and there are only as many as the catalog has.
+     *
+     * @param <T> the kind of item listed.
+     */
+    private static final class Stacks<T extends Item> extends AbstractList<T> implements RandomAccess {
+        private int[] held = new int[4];
+        private int count;
+
+        /**
+         * Inserts or removes a kind of item, keeping catalog order.
+         *
+         * @param index the item's catalog index.
+         * @param add true to insert the kind and false to remove it.
+         */
+        void update(int index, boolean add) {
+            int at = 0;
+            while (at < count && held[at] < index) at++;
+
+            if (add) {
+                if (count == held.length) held = Arrays.copyOf(held, count * 2);
+                System.arraycopy(held, at, held, at + 1, count - at);
+                held[at] = index;
+                count++;
+            } else {
+                System.arraycopy(held, at + 1, held, at, count - at - 1);
+                count--;
+            }
+            modCount++;
+        }
+
+        /**
+         * Gets the shared item of the kind at the specified position.
+         *
+         * @param i the position.
+         * @return the item.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int i) {
+            if (i < 0 || i >= count) throw new IndexOutOfBoundsException("Index " + i + ", size " + count);
+            return (T) ItemRegistry.get(held[i]);
+        }
+
+        /**
+         * Gets the number of kinds listed.
+         *
+         * @return the number of kinds.
+         */
+        @Override
+        public int size() {
+            return count;
+        }
     }
 }
@@ -0,0 +1,100 @@
+package model;
+
+import model.pet.Pet.PetState;
+
+/**
+ * This record is what the player's pet looked like at one moment, as published by
+ * {@link Game#getSnapshot()} for the GUI to show.
+ *
+ * <p>A snapshot never changes and is taken from one consistent reading of the pet, so showing
+ * it cannot mix stats from before and after a game tick. Cooldowns are rounded up to whole
+ * seconds, so they only make a new snapshot once a second. The version goes up each time the
+ * game publishes a snapshot that differs from the previous one, so a reader holding a
+ * snapshot with the same version has nothing new to show.</p>
+ *
+ * @param petID the pet's ID.
+ * @param name the pet's name.
+ * @param species the pet's species, for example "Dog".
+ * @param health the pet's health.
+ * @param sleep the pet's sleep level.
+ * @param hunger the pet's hunger level.
+ * @param happiness the pet's happiness level.
+ * @param spaceReadiness the pet's space readiness.
+ * @param state the pet's state.
+ * @param totalMissions the pet's total number of missions.
+ * @param playCooldown the seconds until the pet can play again, 0 if it can play now.
+ * @param vetCooldown the seconds until the pet can go to the vet again, 0 if it can go now.
+ * @param version the snapshot's version.
+ */
+public record PetSnapshot(int petID, String name, String species, int health, int sleep, int hunger,
+		int happiness, int spaceReadiness, PetState state, int totalMissions, long playCooldown,
+		long vetCooldown, long version) {
+
+	/**
+	 * Creates a copy of this snapshot with another version.
+	 *
+	 * @param version the copy's version.
+	 * @return the copy.
+	 */
+	PetSnapshot withVersion(long version) {
+		return new PetSnapshot(petID, name, species, health, sleep, hunger, happiness, spaceReadiness, state,
+				totalMissions, playCooldown, vetCooldown, version);
+	}
+
+	/**
+	 * Checks if the pet was in the specified state.
+	 *
+	 * @param state the state to check against.
+	 * @return true if the pet was in the state and false otherwise.
+	 */
+	public boolean isInState(PetState state) {
+		return this.state == state;
+	}
+
+	/**
+	 * Checks if the pet was alive.
+	 *
+	 * @return true if the pet was alive and false otherwise.
+	 */
+	public boolean isAlive() {
+		return state != PetState.DEAD;
+	}
+
+	/**
+	 * Checks if the pet was space ready, that is its space readiness was at least 100 and its
+	 * state was normal.
+	 *
+	 * @return true if the pet was space ready and false otherwise.
+	 */
+	public boolean isSpaceReady() {
+		return spaceReadiness >= 100 && state == PetState.NORMAL;
+	}
+
+	/**
+	 * Gets the remaining cooldown of an action.
+	 *
+	 * @param action "play" or "vet".
+	 * @return the seconds until the action can be done again, or 0 if it can be done now or
+	 * 		has no cooldown.
+	 */
+	public long getRemainingCooldown(String action) {
+		switch (action) {
+			case "play":
+				return playCooldown;
+			case "vet":
+				return vetCooldown;
+			default:
+				return 0;
+		}
+	}
+
+	/**
+	 * Checks if an action was on cooldown.
+	 *
+	 * @param action "play" or "vet".
+	 * @return true if the action was on cooldown and false otherwise.
+	 */
+	public boolean isActionOnCooldown(String action) {
+		return getRemainingCooldown(action) > 0;
+	}
+}
@@ -4,11 +4,13 @@ import java.awt.Graphics;
 import java.awt.Image;
 import javax.swing.ImageIcon;
 import javax.swing.JPanel;
+import model.log.Log;
 
 /**
  * A reusable panel that displays a background image.
  */
 public class BackgroundPanel extends JPanel {
+    private static final Log LOG = Log.get(BackgroundPanel.class);
     private Image backgroundImage;
 
     /**
@@ -21,7 +23,7 @@ public class BackgroundPanel extends JPanel {
             java.net.URL imageUrl = getClass().getResource(imagePath);
             if (imageUrl != null) {
                 backgroundImage = new ImageIcon(imageUrl).getImage();
-                System.out.println("Successfully loaded background image: " + imagePath);
+                LOG.debug("Successfully loaded background image: {0}", imagePath);
             } else {
                 System.err.println("Could not find background image: " + imagePath);
             }
@@ -14,12 +14,14 @@ import javax.swing.ImageIcon;
 import javax.swing.border.EmptyBorder;
 import java.io.File;
 import model.Game;
+import model.log.Log;
 
 /**
  * Panel that allows users to choose their pet.
  */
 public class ChoosePetPanel extends javax.swing.JPanel {
 
+    private static final Log LOG = Log.get(ChoosePetPanel.class);
     private Game game;
     private GUI mainFrame;
     private javax.swing.JButton selectedButton = null;
@@ -144,10 +146,10 @@ public class ChoosePetPanel extends javax.swing.JPanel {
                 button.setPressedIcon(new javax.swing.ImageIcon(image));
                 button.setRolloverIcon(new javax.swing.ImageIcon(image));
             } else {
-                System.out.println("Image not found at: " + imagePath);
+                LOG.warn("Image not found at: {0}", imagePath);
             }
         } catch (Exception e) {
-            System.out.println("Error loading image: " + e.getMessage());
+            LOG.warn("Error loading image: {0}", e.getMessage());
         }
     }
 
@@ -14,11 +14,13 @@ import javax.swing.ImageIcon;
 import javax.swing.JPanel;
 import javax.swing.JOptionPane;
 import model.Game;
+import model.log.Log;
 /**
  * This is the main frame that handles the panels of the GUI.
  */
 public class GUI extends javax.swing.JFrame {
     
+    private static final Log LOG = Log.get(GUI.class);
     private Game game;
     private String selectedPetType;
     private String petName;
@@ -56,7 +58,7 @@ public class GUI extends javax.swing.JFrame {
             public void windowClosing(java.awt.event.WindowEvent windowEvent) {
                 if (game != null) {
                     game.savePet();
-                    game.stopGame();
+                    game.shutdown();	// Stops the game and waits for queued saves
                 }
             }
         });
@@ -227,7 +229,7 @@ public class GUI extends javax.swing.JFrame {
                 java.net.URL imageUrl = getClass().getResource(imagePath);
                 if (imageUrl != null) {
                     backgroundImage = new ImageIcon(imageUrl).getImage();
-                    System.out.println("Background image loaded: " + imagePath);
+                    LOG.debug("Background image loaded: {0}", imagePath);
                 } else {
                     System.err.println("Could not find background image: " + imagePath);
                 }
@@ -14,7 +14,10 @@ import javax.swing.Timer;
 import java.awt.CardLayout;
 import java.awt.event.KeyEvent;
 import model.Game;
+import model.Inventory;
+import model.PetSnapshot;
 import model.item.Food;
+import model.log.Log;
 import model.item.Toy;
 import model.pet.Pet;
 import java.awt.GridLayout;
@@ -26,7 +29,6 @@ import javax.swing.JPanel;
 import javax.swing.JLabel;
 import java.awt.Graphics;
 import java.awt.Image;
-import java.util.ArrayList;
 import javax.swing.UIManager;
 import javax.swing.BorderFactory;
 import javax.swing.AbstractAction;
@@ -41,15 +43,16 @@ import javax.swing.Box;
  */
 public class GamePanel extends javax.swing.JPanel {
 
+    private static final Log LOG = Log.get(GamePanel.class);
     
     private Game game;
     private GUI mainFrame;
     private Timer uiUpdateTimer;
     // private String petType;
     private Pet.PetState lastPetState;
+    private long lastRenderedVersion = -1;	// Version of the last pet snapshot shown
     private ImageIcon petImage;
     private Random random = new Random();
-    private Timer itemDropTimer;
     private boolean itemAvailable = false;
     private model.item.Item currentDroppedItem = null;
     
@@ -77,6 +80,7 @@ public class GamePanel extends javax.swing.JPanel {
             @Override
             public void actionPerformed(ActionEvent e) {
                 updatePetUI();
+                showDroppedItem();
             }
         });
         
@@ -103,6 +107,7 @@ public class GamePanel extends javax.swing.JPanel {
             @Override
             public void actionPerformed(ActionEvent e) {
                 updatePetUI();
+                showDroppedItem();
             }
         });
         
@@ -161,10 +166,10 @@ public class GamePanel extends javax.swing.JPanel {
                 happinessProgressBar.setFont(minecraftFont.deriveFont(12f));
                 spaceReadinessProgressBar.setFont(minecraftFont.deriveFont(12f));
             } else {
-                System.out.println("Error loading font: Can't read /model/assets/font/Minecraft.ttf");
+                LOG.warn("Error loading font: Can't read /model/assets/font/Minecraft.ttf");
             }
         } catch (Exception e) {
-            System.out.println("Error loading font: " + e.getMessage());
+            LOG.warn("Error loading font: {0}", e.getMessage());
         }
 
         // Initially disable action buttons until pet is loaded
@@ -210,15 +215,6 @@ public class GamePanel extends javax.swing.JPanel {
         exerciseButton.setMnemonic(KeyEvent.VK_E); // E for Exercise
         vetButton.setMnemonic(KeyEvent.VK_V);   // V for Vet
         
-        // Set up item drop timer (30000 ms = 30 seconds)
-        itemDropTimer = new Timer(30000, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                dropRandomItem();
-            }
-        });
-        itemDropTimer.start();
-        
         // Scale action buttons
         scaleButtonIcon(feedButton, "/model/assets/feed.png", 60, 60);
         scaleButtonIcon(playButton, "/model/assets/play.png", 60, 60);
@@ -310,33 +306,22 @@ public class GamePanel extends javax.swing.JPanel {
     }
     
     /**
-     * Drops items randomly for the player to pick up.
+     * Shows the item the game dropped for the player to pick up.
      * 
-     * <p>Only drops an item if there is not available to be picked up. The item 
-     * is chosen randomly from lists of either food or toys. If possible, the 
-     * image of the item is displayed, otherwise, it will be represented with text.</p>
+     * <p>The game drops items on its own clock; this only shows a dropped item that is
+     * not shown yet. If possible, the image of the item is displayed, otherwise, it will
+     * be represented with text.</p>
      */
-    private void dropRandomItem() {
-        // If an item is already available, don't drop a new one
-        if (itemAvailable) return;
-
-        Random random = new Random();
-        int itemType = random.nextInt(2); // 0 for food, 1 for toy
-
-        if (itemType == 0) {
-            // Create a random food
-            String[] foodTypes = {"Kibble", "Apple", "Cheese", "Bread", "IceCream", "Chicken"};
-            String foodName = foodTypes[random.nextInt(foodTypes.length)];
-            currentDroppedItem = new model.item.Food(foodName, "A tasty treat");
-        } else {
-            // Create a random toy
-            String[] toyTypes = {"Ball", "Rocket", "Frisbee", "Alien", "Starplush"};
-            String toyName = toyTypes[random.nextInt(toyTypes.length)];
-            currentDroppedItem = new model.item.Toy(toyName, "A fun toy");
-        }
+    private void showDroppedItem() {
+        if (game == null) return;
+
+        // Nothing new unless the game dropped an item that is not shown yet
+        model.item.Item dropped = game.getDroppedItem();
+        if (dropped == null || (itemAvailable && dropped == currentDroppedItem)) return;
+        currentDroppedItem = dropped;
 
         // Show the item image instead of text
-        String imagePath = "/model/assets/items/" + currentDroppedItem.getName().toLowerCase() + ".png";
+        String imagePath = currentDroppedItem.getSpritePath();
         try {
             java.net.URL imageUrl = getClass().getResource(imagePath);
             if (imageUrl != null) {
@@ -348,7 +333,7 @@ public class GamePanel extends javax.swing.JPanel {
                 // Fallback to text if image not found
                 dropItemLabel.setIcon(null);
                 dropItemLabel.setText("New item: " + currentDroppedItem.getName());
-                System.out.println("DROP ITEM- ERROR LOADING IMAGE PATH: " + imagePath);
+                LOG.warn("DROP ITEM- ERROR LOADING IMAGE PATH: {0}", imagePath);
             }
         } catch (Exception e) {
             // Fallback to text if error loading image
@@ -360,7 +345,7 @@ public class GamePanel extends javax.swing.JPanel {
         collectButton.setEnabled(true);
         itemAvailable = true;
 
-        System.out.println("Dropped item: " + currentDroppedItem.getName());
+        LOG.debug("Dropped item: {0}", currentDroppedItem.getName());
 
         // Update the appearance of the drop panel to highlight it
         dropPanel.setBorder(javax.swing.BorderFactory.createLineBorder(new Color(255, 215, 0), 2)); // Gold border
@@ -375,8 +360,8 @@ public class GamePanel extends javax.swing.JPanel {
             super.addNotify();
             // Start UI update timer
             uiUpdateTimer.start();
-            itemDropTimer.start();
             // Do initial UI update
+            lastRenderedVersion = -1;
             updatePetUI();
             // Start playing the game theme when the panel is shown
             model.SoundManager.getInstance().playGameTheme();
@@ -396,7 +381,6 @@ public class GamePanel extends javax.swing.JPanel {
         super.removeNotify();
         // Stop UI update timer
         uiUpdateTimer.stop();
-        itemDropTimer.stop();
         // Stop animation timer
         if (animationTimer != null) {
             animationTimer.stop();
@@ -414,52 +398,56 @@ public class GamePanel extends javax.swing.JPanel {
      * error message if the pet dies and returns to the start panel.</p>
      */
     private void updatePetUI() {
-        if (game == null || game.getPlayer() == null || game.getPlayer().getPet() == null) return;
+        if (game == null) return;
+
+        // Only redraw when the game published something new
+        PetSnapshot snapshot = game.getSnapshot();
+        if (snapshot == null || snapshot.version() == lastRenderedVersion) return;
+        lastRenderedVersion = snapshot.version();
 
         // Update pet name
-        Pet pet = game.getPlayer().getPet();
-        petNameLabel.setText(pet.getName());
+        petNameLabel.setText(snapshot.name());
 
         // Update progress bars
-        hungerProgressBar.setValue(pet.getHunger());
-        hungerProgressBar.setString(pet.getHunger() + "%");
+        hungerProgressBar.setValue(snapshot.hunger());
+        hungerProgressBar.setString(snapshot.hunger() + "%");
 
-        happinessProgressBar.setValue(pet.getHappiness());
-        happinessProgressBar.setString(pet.getHappiness() + "%");
+        happinessProgressBar.setValue(snapshot.happiness());
+        happinessProgressBar.setString(snapshot.happiness() + "%");
 
-        energyProgressBar.setValue(pet.getSleep());
-        energyProgressBar.setString(pet.getSleep() + "%");
+        energyProgressBar.setValue(snapshot.sleep());
+        energyProgressBar.setString(snapshot.sleep() + "%");
 
-        healthProgressBar.setValue(pet.getHealth());
-        healthProgressBar.setString(pet.getHealth() + "%");
+        healthProgressBar.setValue(snapshot.health());
+        healthProgressBar.setString(snapshot.health() + "%");
 
-        spaceReadinessProgressBar.setValue(pet.getSpaceReadiness());
-        spaceReadinessProgressBar.setString(pet.getSpaceReadiness() + "%");
+        spaceReadinessProgressBar.setValue(snapshot.spaceReadiness());
+        spaceReadinessProgressBar.setString(snapshot.spaceReadiness() + "%");
 
         // Update missions count with smaller font
-        scoreLabel.setText("Score: " + pet.getTotalMission());
+        scoreLabel.setText("Score: " + snapshot.totalMissions());
         scoreLabel.setPreferredSize(new Dimension(150, 30)); // Set fixed size for score label
 
         // Update pet state
-        Pet.PetState currentState = pet.getCurrentState();
+        Pet.PetState currentState = snapshot.state();
         if (currentState != lastPetState) {
             lastPetState = currentState;
             stateLabel.setText("State: " + currentState.toString());
-            updatePetImage();
+            updatePetImage(snapshot);
         }
 
         // Enable/disable buttons based on pet state
-        boolean isAlive = pet.isAlive();
-        boolean isSleeping = pet.isInState(Pet.PetState.SLEEPING);
-        boolean isAngry = pet.isInState(Pet.PetState.ANGRY);
+        boolean isAlive = snapshot.isAlive();
+        boolean isSleeping = snapshot.isInState(Pet.PetState.SLEEPING);
+        boolean isAngry = snapshot.isInState(Pet.PetState.ANGRY);
 
         // Update button states based on pet state
-        feedButton.setEnabled(isAlive && !isSleeping && (!isAngry || pet.isInState(Pet.PetState.HUNGRY)));
-        playButton.setEnabled(isAlive && !isSleeping && !game.isActionOnCooldown("play"));
+        feedButton.setEnabled(isAlive && !isSleeping && (!isAngry || snapshot.isInState(Pet.PetState.HUNGRY)));
+        playButton.setEnabled(isAlive && !isSleeping && !snapshot.isActionOnCooldown("play"));
         sleepButton.setEnabled(isAlive && !isSleeping && !isAngry);
-        vetButton.setEnabled(isAlive && !isSleeping && !isAngry && !game.isActionOnCooldown("vet"));
+        vetButton.setEnabled(isAlive && !isSleeping && !isAngry && !snapshot.isActionOnCooldown("vet"));
         giftButton.setEnabled(isAlive && !isSleeping);
-        spaceButton.setEnabled(isAlive && !isSleeping && !isAngry && pet.isSpaceReady());
+        spaceButton.setEnabled(isAlive && !isSleeping && !isAngry && snapshot.isSpaceReady());
         exerciseButton.setEnabled(isAlive && !isSleeping && !isAngry);
         
         // Feed button tooltip
@@ -467,7 +455,7 @@ public class GamePanel extends javax.swing.JPanel {
             feedButton.setToolTipText("Your pet is dead and can't be fed.");
         } else if (isSleeping) {
             feedButton.setToolTipText("Your pet is sleeping and can't be fed. Wait for it to wake up.");
-        } else if (isAngry && !pet.isInState(Pet.PetState.HUNGRY)) {
+        } else if (isAngry && !snapshot.isInState(Pet.PetState.HUNGRY)) {
             feedButton.setToolTipText("Your pet is angry and refuses food.");
         } else {
             feedButton.setToolTipText("Feed your pet to increase fullness.");
@@ -478,8 +466,8 @@ public class GamePanel extends javax.swing.JPanel {
             playButton.setToolTipText("Your pet is dead and can't play.");
         } else if (isSleeping) {
             playButton.setToolTipText("Your pet is sleeping and can't play. Wait for it to wake up.");
-        } else if (game.isActionOnCooldown("play")) {
-            long remainingCooldown = game.getRemainingCooldown("play") / 1000;
+        } else if (snapshot.isActionOnCooldown("play")) {
+            long remainingCooldown = snapshot.getRemainingCooldown("play");
             playButton.setToolTipText(String.format("On cooldown. Available in %d seconds.", remainingCooldown));
         } else {
             playButton.setToolTipText("Play with your pet to increase happiness.");
@@ -503,8 +491,8 @@ public class GamePanel extends javax.swing.JPanel {
             vetButton.setToolTipText("Your pet is sleeping and can't visit the vet. Wait for it to wake up.");
         } else if (isAngry) {
             vetButton.setToolTipText("Your pet is too angry to visit the vet.");
-        } else if (game.isActionOnCooldown("vet")) {
-            long remainingCooldown = game.getRemainingCooldown("vet") / 1000;
+        } else if (snapshot.isActionOnCooldown("vet")) {
+            long remainingCooldown = snapshot.getRemainingCooldown("vet");
             vetButton.setToolTipText(String.format("On cooldown. Available in %d seconds.", remainingCooldown));
         } else {
             vetButton.setToolTipText("Take your pet to the vet to increase health.");
@@ -540,21 +528,21 @@ public class GamePanel extends javax.swing.JPanel {
         } else if (isAngry) {
             spaceButton.setToolTipText("Your pet is too angry to go to space.");
             spaceButton.setBackground(new Color(200, 200, 200)); // Gray when disabled
-        } else if (!pet.isSpaceReady()) {
+        } else if (!snapshot.isSpaceReady()) {
             spaceButton.setToolTipText("Your pet is not ready for a space mission yet. Keep its stats high to build readiness.");
             spaceButton.setBackground(new Color(200, 200, 200)); // Gray when disabled
         } else {
             spaceButton.setToolTipText("Send your pet on a space mission!");
             spaceButton.setBackground(new Color(255, 215, 0)); // FFD700 (Gold) when enabled
         }
-        spaceButton.setEnabled(isAlive && !isSleeping && !isAngry && pet.isSpaceReady());
+        spaceButton.setEnabled(isAlive && !isSleeping && !isAngry && snapshot.isSpaceReady());
 
         // Handle pet death
         if (!isAlive) {
             // Display a simple death message dialog
             JOptionPane.showMessageDialog(
                 this,
-                game.getPlayer().getPet().getName() + " has died!",
+                snapshot.name() + " has died!",
                 "Game Over",
                 JOptionPane.ERROR_MESSAGE
             );
@@ -648,13 +636,14 @@ public class GamePanel extends javax.swing.JPanel {
      * Updates the image of the pet being displayed depending on the state
      * of the pet. Uses getResourse to load the image and display an error message if
      * it fails.
+     *
+     * @param snapshot the published snapshot of the pet to show.
      */
-    private void updatePetImage() {
-        if (game == null || game.getPlayer() == null || game.getPlayer().getPet() == null) return;
+    private void updatePetImage(PetSnapshot snapshot) {
+        if (snapshot == null) return;
 
-        Pet pet = game.getPlayer().getPet();
-        String petTypeName = pet.getClass().getSimpleName().toLowerCase();
-        Pet.PetState state = pet.getCurrentState();
+        String petTypeName = snapshot.species().toLowerCase();
+        Pet.PetState state = snapshot.state();
 
         // Use resource-based path instead of file-based path
         String imagePath = "/model/assets/animalSprites/" + petTypeName + "/";
@@ -717,15 +706,9 @@ public class GamePanel extends javax.swing.JPanel {
     private void feedPet() {
         if (game == null || game.getPlayer() == null || game.getPlayer().getPet() == null) return;
 
-        // Get all food items from inventory
-        java.util.ArrayList<model.item.Item> items = game.getPlayer().getInventory().getInventoryItems();
-        java.util.ArrayList<model.item.Food> foodItems = new java.util.ArrayList<>();
-
-        for (model.item.Item item : items) {
-            if (item instanceof model.item.Food) {
-                foodItems.add((model.item.Food) item);
-            }
-        }
+        // Get one food of each type from inventory
+        Inventory inventory = game.getPlayer().getInventory();
+        java.util.List<Food> foodItems = inventory.getFoods();
 
         if (foodItems.isEmpty()) {
             showFeedbackMessage("You don't have any food items!");
@@ -736,7 +719,7 @@ public class GamePanel extends javax.swing.JPanel {
         String[] foodNames = new String[foodItems.size()];
         for (int i = 0; i < foodItems.size(); i++) {
             Food food = foodItems.get(i);
-            foodNames[i] = food.getName() + " (+" + food.getFullnessValue() + " fullness)";
+            foodNames[i] = food.getName() + " x" + inventory.getCount(food) + " (+" + food.getFullnessValue() + " fullness)";
         }
 
         // Show selection dialog
@@ -805,15 +788,9 @@ public class GamePanel extends javax.swing.JPanel {
     private void giveGift() {
         if (game == null || game.getPlayer() == null || game.getPlayer().getPet() == null) return;
 
-        // Get all toy items from inventory
-        java.util.ArrayList<model.item.Item> items = game.getPlayer().getInventory().getInventoryItems();
-        java.util.ArrayList<model.item.Toy> toyItems = new java.util.ArrayList<>();
-
-        for (model.item.Item item : items) {
-            if (item instanceof model.item.Toy) {
-                toyItems.add((model.item.Toy) item);
-            }
-        }
+        // Get one toy of each type from inventory
+        Inventory inventory = game.getPlayer().getInventory();
+        java.util.List<Toy> toyItems = inventory.getToys();
 
         if (toyItems.isEmpty()) {
             showFeedbackMessage("You don't have any gifts!");
@@ -824,7 +801,7 @@ public class GamePanel extends javax.swing.JPanel {
         String[] toyNames = new String[toyItems.size()];
         for (int i = 0; i < toyItems.size(); i++) {
             Toy toy = toyItems.get(i);
-            toyNames[i] = toy.getName() + " (+" + toy.getFunValue() + " happiness)";
+            toyNames[i] = toy.getName() + " x" + inventory.getCount(toy) + " (+" + toy.getFunValue() + " happiness)";
         }
 
         // Show selection dialog
@@ -1018,10 +995,11 @@ public class GamePanel extends javax.swing.JPanel {
                 java.awt.Font minecraftFont = java.awt.Font.createFont(java.awt.Font.TRUETYPE_FONT, fontStream);
                 java.awt.Font itemFont = minecraftFont.deriveFont(14f);
 
-                // Get inventory items
-                ArrayList<model.item.Item> items = game.getPlayer().getInventory().getInventoryItems();
+                // Get one item of each kind from inventory
+                Inventory inventory = game.getPlayer().getInventory();
+                java.util.List<model.item.Item> items = inventory.getStacks();
 
-                // Create a panel for each item
+                // Create a panel for each kind of item
                 for (model.item.Item item : items) {
                     JPanel itemPanel = new JPanel();
                     itemPanel.setLayout(new BoxLayout(itemPanel, BoxLayout.X_AXIS)); // Changed to BoxLayout for better control
@@ -1030,7 +1008,7 @@ public class GamePanel extends javax.swing.JPanel {
                     itemPanel.setOpaque(false);
 
                     // Load and scale item image
-                    String imagePath = "/model/assets/items/" + item.getName().toLowerCase() + ".png";
+                    String imagePath = item.getSpritePath();
                     try {
                         java.net.URL imageUrl = getClass().getResource(imagePath);
                         if (imageUrl != null) {
@@ -1051,7 +1029,7 @@ public class GamePanel extends javax.swing.JPanel {
                     textPanel.setBackground(new Color(44, 62, 80));
                     textPanel.setOpaque(false);
 
-                    JLabel nameLabel = new JLabel(item.getName());
+                    JLabel nameLabel = new JLabel(item.getName() + " x" + inventory.getCount(item));
                     nameLabel.setForeground(Color.WHITE);
                     nameLabel.setFont(itemFont);
                     nameLabel.setAlignmentX(JLabel.LEFT_ALIGNMENT);
@@ -1082,7 +1060,7 @@ public class GamePanel extends javax.swing.JPanel {
                 }
             }
         } catch (Exception e) {
-            System.out.println("Error loading font: " + e.getMessage());
+            LOG.warn("Error loading font: {0}", e.getMessage());
         }
 
         // Add scroll pane with custom styling
@@ -1101,7 +1079,7 @@ public class GamePanel extends javax.swing.JPanel {
      */
     private void setupKeyboardShortcuts() {
         if (getRootPane() == null) {
-            System.out.println("getRootPane() is null. Keyboard shortcuts will be set up when panel is added to a window.");
+            LOG.debug("getRootPane() is null. Keyboard shortcuts will be set up when panel is added to a window.");
             return;
         }
         // Make the panel focusable to receive key events
@@ -1116,7 +1094,7 @@ public class GamePanel extends javax.swing.JPanel {
             public void actionPerformed(ActionEvent e) {
                 if (feedButton.isEnabled()) {
                     feedButtonActionPerformed(null);
-                    System.out.println("Feed shortcut triggered");
+                    LOG.debug("Feed shortcut triggered");
                 }
             }
         });
@@ -1129,7 +1107,7 @@ public class GamePanel extends javax.swing.JPanel {
             public void actionPerformed(ActionEvent e) {
                 if (playButton.isEnabled()) {
                     playButtonActionPerformed(null);
-                    System.out.println("Play shortcut triggered");
+                    LOG.debug("Play shortcut triggered");
                 }
             }
         });
@@ -1142,7 +1120,7 @@ public class GamePanel extends javax.swing.JPanel {
             public void actionPerformed(ActionEvent e) {
                 if (sleepButton.isEnabled()) {
                     sleepButtonActionPerformed(null);
-                    System.out.println("Sleep shortcut triggered");
+                    LOG.debug("Sleep shortcut triggered");
                 }
             }
         });
@@ -1155,7 +1133,7 @@ public class GamePanel extends javax.swing.JPanel {
             public void actionPerformed(ActionEvent e) {
                 if (giftButton.isEnabled()) {
                     giftButtonActionPerformed(null);
-                    System.out.println("Gift shortcut triggered");
+                    LOG.debug("Gift shortcut triggered");
                 }
             }
         });
@@ -1168,7 +1146,7 @@ public class GamePanel extends javax.swing.JPanel {
             public void actionPerformed(ActionEvent e) {
                 if (exerciseButton.isEnabled()) {
                     exerciseButtonActionPerformed(null);
-                    System.out.println("Exercise shortcut triggered");
+                    LOG.debug("Exercise shortcut triggered");
                 }
             }
         });
@@ -1181,7 +1159,7 @@ public class GamePanel extends javax.swing.JPanel {
             public void actionPerformed(ActionEvent e) {
                 if (vetButton.isEnabled()) {
                     vetButtonActionPerformed(null);
-                    System.out.println("Vet shortcut triggered");
+                    LOG.debug("Vet shortcut triggered");
                 }
             }
         });
@@ -1194,7 +1172,7 @@ public class GamePanel extends javax.swing.JPanel {
             public void actionPerformed(ActionEvent e) {
                 if (spaceButton.isEnabled()) {
                     spaceButtonActionPerformed(null);
-                    System.out.println("Space mission shortcut triggered");
+                    LOG.debug("Space mission shortcut triggered");
                 }
             }
         });
@@ -1631,7 +1609,7 @@ public class GamePanel extends javax.swing.JPanel {
         model.SoundManager.getInstance().playCollectSound();
         if (itemAvailable && currentDroppedItem != null && game != null && game.getPlayer() != null) {
             // Add the item to the player's inventory
-            boolean added = game.getPlayer().getInventory().addItem(currentDroppedItem);
+            boolean added = game.collectDroppedItem() != null;
 
             if (added) {
                 showFeedbackMessage("You collected: " + currentDroppedItem.getName());
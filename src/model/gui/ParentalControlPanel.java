@@ -5,14 +5,17 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.util.Map;
 import javax.swing.JOptionPane;
 import model.Game;
+import model.log.Log;
 
 /**
  * This is the class for the parental control panel. It allows parents to control their child's account
  * by making time limits and reviving the pet if it dies.
  */
 public class ParentalControlPanel extends javax.swing.JPanel {
+    private static final Log LOG = Log.get(ParentalControlPanel.class);
     private Game game;
     private GUI mainFrame;
     private boolean isPasswordVerified = false;
@@ -62,10 +65,10 @@ public class ParentalControlPanel extends javax.swing.JPanel {
                 backButton.setFont(minecraftFont.deriveFont(18f));
                 
             } else {
-                System.out.println("Error loading font: Can't read /model/assets/font/Minecraft.ttf");
+                LOG.warn("Error loading font: Can't read /model/assets/font/Minecraft.ttf");
             }
         } catch (Exception e) {
-            System.out.println("Error loading font: " + e.getMessage());
+            LOG.warn("Error loading font: {0}", e.getMessage());
         } 
     }
 
@@ -108,12 +111,13 @@ public class ParentalControlPanel extends javax.swing.JPanel {
 
         // Pet list for revival
         petListComboBox.removeAllItems();
-        game.getDeadPets().forEach((id, name) -> {
+        Map<Integer, String> deadPets = game.getDeadPets();
+        deadPets.forEach((id, name) -> {
             petListComboBox.addItem(name + " (ID: " + id + ")");
         });
 
         // Handle empty dead pets list
-        if (game.getDeadPets().isEmpty()) {
+        if (deadPets.isEmpty()) {
             petListComboBox.setVisible(false);
             revivePetButton.setEnabled(false);
             // Create and show "No pets to revive" label if it doesn't exist
@@ -128,7 +132,7 @@ public class ParentalControlPanel extends javax.swing.JPanel {
                         noPetsLabel.setFont(minecraftFont.deriveFont(16f));
                     }
                 } catch (Exception e) {
-                    System.out.println("Error loading font: " + e.getMessage());
+                    LOG.warn("Error loading font: {0}", e.getMessage());
                 }
                 petManagementPanel.add(noPetsLabel, new java.awt.GridBagConstraints(0, 1, 1, 1, 0.0, 0.0, 
                     java.awt.GridBagConstraints.CENTER, java.awt.GridBagConstraints.HORIZONTAL, 
@@ -220,7 +220,8 @@ public class SettingsPanel extends javax.swing.JPanel {
         model.SoundManager.getInstance().playClickSound();
         boolean saveSuccess = false;
         if (game != null && game.getPlayer() != null && game.getPlayer().getPet() != null) {
-            saveSuccess = game.savePet();
+            // savePet only queues the save, so wait for it to reach disk before reporting it
+            saveSuccess = game.savePet() && game.flushSaves(Game.SAVE_FLUSH_TIMEOUT);
             game.stopGame();
         }
 
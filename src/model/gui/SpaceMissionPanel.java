@@ -6,6 +6,7 @@ import java.awt.event.ActionListener;
 import java.awt.event.ActionEvent;
 import java.awt.geom.AffineTransform;
 import model.Game;
+import model.log.Log;
 import model.pet.Pet;
 import java.io.File;
 
@@ -13,6 +14,7 @@ import java.io.File;
  * This class is used when a pet goes on a space mission.
  */
 public class SpaceMissionPanel extends JPanel {
+    private static final Log LOG = Log.get(SpaceMissionPanel.class);
     private Game game;
     private GUI mainFrame;
     private Timer cutsceneTimer;
@@ -69,7 +71,7 @@ public class SpaceMissionPanel extends JPanel {
         } catch (Exception e) {
             // Fallback to monospace if Minecraft font not found
             Font fallbackFont = new Font("Monospaced", Font.BOLD, 24);
-            System.out.println("Space mission fallback font used: " + fallbackFont);
+            LOG.debug("Space mission fallback font used: {0}", fallbackFont);
             missionLabel.setFont(fallbackFont);
         }
         missionLabel.setForeground(Color.WHITE);
@@ -97,7 +99,7 @@ public class SpaceMissionPanel extends JPanel {
             java.net.URL imageUrl = getClass().getResource("/model/assets/spaceMissionBackground.png");
             if (imageUrl != null) {
                 backgroundImage = new ImageIcon(imageUrl);
-                System.out.println("Space mission background loaded successfully");
+                LOG.debug("Space mission background loaded successfully");
             } else {
                 System.err.println("Could not find space mission background image");
             }
@@ -108,27 +110,27 @@ public class SpaceMissionPanel extends JPanel {
         // Load pet space sprite
         if (game != null && game.getPlayer() != null && game.getPlayer().getPet() != null) {
             Pet pet = game.getPlayer().getPet();
-            String petType = pet.getClass().getSimpleName().toLowerCase();
-            System.out.println("Loading space sprite for pet type: " + petType);
+            String petType = pet.getSpecies().getName().toLowerCase();
+            LOG.debug("Loading space sprite for pet type: {0}", petType);
             try {
                 // First try to load the space sprite from the pet's directory
                 String spritePath = "/model/assets/animalSprites/" + petType + "/space.png";
-                System.out.println("Attempting to load sprite from: " + spritePath);
+                LOG.debug("Attempting to load sprite from: {0}", spritePath);
                 java.net.URL imageUrl = getClass().getResource(spritePath);
                 if (imageUrl == null) {
-                    System.out.println("Pet-specific space sprite not found, trying general space sprite");
+                    LOG.debug("Pet-specific space sprite not found, trying general space sprite");
                     // If not found, try the general space sprite
                     spritePath = "/model/assets/space.png";
                     imageUrl = getClass().getResource(spritePath);
                 }
                 
                 if (imageUrl != null) {
-                    System.out.println("Successfully loaded sprite from: " + spritePath);
+                    LOG.debug("Successfully loaded sprite from: {0}", spritePath);
                     ImageIcon originalIcon = new ImageIcon(imageUrl);
                     // Scale the pet image to a reasonable size (e.g., 300x300)
                     Image scaledImage = originalIcon.getImage().getScaledInstance(300, 300, Image.SCALE_SMOOTH);
                     petSpaceImage = new ImageIcon(scaledImage);
-                    System.out.println("Pet space sprite loaded and scaled successfully");
+                    LOG.debug("Pet space sprite loaded and scaled successfully");
                 } else {
                     System.err.println("Could not find pet space sprite at: " + spritePath);
                 }
@@ -249,7 +251,7 @@ public class SpaceMissionPanel extends JPanel {
             game = mainFrame.getGame();
             if (game != null && game.getPlayer() != null && game.getPlayer().getPet() != null) {
                 setupUI(); // Reload UI with current game state
-                System.out.println("SpaceMissionPanel: Game state refreshed successfully");
+                LOG.debug("SpaceMissionPanel: Game state refreshed successfully");
             } else {
                 System.err.println("SpaceMissionPanel: Game state is invalid when showing panel");
             }
@@ -269,7 +271,7 @@ public class SpaceMissionPanel extends JPanel {
             game = mainFrame.getGame();
             if (game != null && game.getPlayer() != null && game.getPlayer().getPet() != null) {
                 setupUI();
-                System.out.println("SpaceMissionPanel: UI refreshed successfully");
+                LOG.debug("SpaceMissionPanel: UI refreshed successfully");
             } else {
                 System.err.println("SpaceMissionPanel: Game state is invalid when refreshing UI");
             }
@@ -8,6 +8,7 @@ package model.gui;
 
 import java.awt.Color;
 import model.Game;
+import model.log.Log;
 import java.awt.RenderingHints;
 import javax.swing.JOptionPane;
 import java.awt.Graphics;
@@ -24,6 +25,7 @@ import java.io.File;
  */
 public class StartPanel extends javax.swing.JPanel {
 
+    private static final Log LOG = Log.get(StartPanel.class);
     private Game game;
     private GUI mainFrame;
     
@@ -200,7 +202,7 @@ public class StartPanel extends javax.swing.JPanel {
                 java.net.URL imageUrl = getClass().getResource(imagePath);
                 if (imageUrl != null) {
                     backgroundImage = new ImageIcon(imageUrl).getImage();
-                    System.out.println("Successfully loaded background image: " + imagePath);
+                    LOG.debug("Successfully loaded background image: {0}", imagePath);
                 } else {
                     System.err.println("Could not find background image: " + imagePath);
                 }
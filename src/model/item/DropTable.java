@@ -0,0 +1,93 @@
+package model.item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class picks items at random, each with a chance in proportion to its drop weight, in
+ * the same time however many items there are.
+ *
+ * <p>It uses Vose's alias method: every item gets a column of equal width holding a share of
+ * its own weight and, in what is left, one other item, the alias. A pick chooses a column
+ * and then, with one more random number, either its item or its alias. The table never
+ * changes once built, so one table can be shared by every thread.</p>
+ */
+public final class DropTable {
+
+	private final Item[] items;
+	private final double[] chance;	// Chance of a column's own item rather than its alias
+	private final int[] alias;
+
+	/**
+	 * Builds a table of the specified items, weighted by their drop weights. Items with a
+	 * weight of 0 are never picked.
+	 *
+	 * @param candidates the items.
+	 */
+	public DropTable(List<? extends Item> candidates) {
+		List<Item> weighted = new ArrayList<>();
+		long total = 0;
+		for (Item item : candidates) {
+			if (item.getDropWeight() <= 0) continue;
+			weighted.add(item);
+			total += item.getDropWeight();
+		}
+
+		int n = weighted.size();
+		items = weighted.toArray(new Item[0]);
+		chance = new double[n];
+		alias = new int[n];
+
+		// Each column's weight scaled so that an average column holds exactly 1
+		double[] scaled = new double[n];
+		int[] small = new int[n];
+		int[] large = new int[n];
+		int smallCount = 0;
+		int largeCount = 0;
+		for (int i = 0; i < n; i++) {
+			scaled[i] = (double) items[i].getDropWeight() * n / total;
+			if (scaled[i] < 1) small[smallCount++] = i;
+			else large[largeCount++] = i;
+		}
+
+		// Fill each short column with the rest of a tall one
+		while (smallCount > 0 && largeCount > 0) {
+			int less = small[--smallCount];
+			int more = large[--largeCount];
+
+			chance[less] = scaled[less];
+			alias[less] = more;
+			scaled[more] = scaled[more] + scaled[less] - 1;
+
+			if (scaled[more] < 1) small[smallCount++] = more;
+			else large[largeCount++] = more;
+		}
+
+		// What is left is full up to rounding errors
+		while (largeCount > 0) chance[large[--largeCount]] = 1;
+		while (smallCount > 0) chance[small[--smallCount]] = 1;
+	}
+
+	/**
+	 * Picks an item.
+	 *
+	 * @param random the random generator to pick with.
+	 * @return the item, or null if the table has no item that can be picked.
+	 */
+	public Item sample(RandomGenerator random) {
+		if (items.length == 0) return null;
+
+		int column = random.nextInt(items.length);
+		return random.nextDouble() < chance[column] ? items[column] : items[alias[column]];
+	}
+
+	/**
+	 * Gets the number of items the table picks from.
+	 *
+	 * @return the number of items with a drop weight above 0.
+	 */
+	public int size() {
+		return items.length;
+	}
+}
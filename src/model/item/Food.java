@@ -5,9 +5,14 @@
 
  package model.item;
 
+ import java.util.Set;
+ import model.log.Log;
+
  public class Food extends Item {
-	 private int fullnessValue;
-	 private FoodType type;
+	 private static final Log LOG = Log.get(Food.class);
+	 
+	 private final int fullnessValue;
+	 private final FoodType type;
 	 
 	 public enum FoodType {
 		 KIBBLE,
@@ -19,52 +24,55 @@
 	 }
 		  
 	 /**
-	  * Constructs a new food item with the specified properties.
+	  * Constructs a new food item with the specified properties, taken from the item
+	  * catalog by name. Foods never change, so the shared instances in {@link ItemRegistry}
+	  * should be used instead of new ones.
 	  *
 	  * @param name the name of the food.
-	  * @param description a description of what the food is.
+	  * @param description a description of what the food is, replaced by the catalog's.
 	  */
 	 public Food(String name, String description) {
-		 super(name);
+		 this(name, ItemRegistry.food(name));
+	 }
+	 
+	 /**
+	  * Constructs a copy of a catalog food under another name.
+	  *
+	  * @param name the name of the food.
+	  * @param kind the catalog food, or null if there is none with the name.
+	  */
+	 private Food(String name, Food kind) {
+		 super(name, kind);
 		 
-		 switch(name.toLowerCase()) {
-			 case "kibble":
-				 type = FoodType.KIBBLE;
-				 fullnessValue = 10;
-				 setDescription("Made of space plants.");
-				 break;
-			 case "apple":
-				 type = FoodType.APPLE;
-				 fullnessValue = 20;
-				 setDescription("Fresh and tasty!");
-				 break;
-			 case "cheese":
-				 type = FoodType.CHEESE;
-				 fullnessValue = 15;
-				 setDescription("A slice of cheese for a quick snack.");
-				 break;
-			 case "bread":
-				 type = FoodType.BREAD;
-				 fullnessValue = 30;
-				 setDescription("Good for a quick energy boost.");
-				 break;
-			 case "icecream":
-				 type = FoodType.ICECREAM;
-				 fullnessValue = 5;
-				 setDescription("The best sweet treat for a hot day.");
-				 break;
-			 case "chicken":
-				 type = FoodType.CHICKEN;
-				 fullnessValue = 30;
-				 setDescription("A great source of protein.");
-				 break;
-			 default:
-				 type = null;
-				 System.out.println("Failed to create food instance: " + name); 
+		 if (kind != null) {
+			 type = kind.type;
+			 fullnessValue = kind.fullnessValue;
+		 } else {
+			 type = null;
+			 fullnessValue = 0;
+			 LOG.warn("Failed to create food instance: {0}", name);
 		 }
-		 
 	 }
 	 
+	 /**
+	  * Constructs a food of the item catalog.
+	  *
+	  * @param name the name of the food.
+	  * @param description a description of what the food is.
+	  * @param index the food's position in the catalog.
+	  * @param spritePath the resource path of the food's image.
+	  * @param dropWeight the food's relative chance of being dropped.
+	  * @param tags the food's tags, in lower case.
+	  * @param type the food's type, or null if the code has no constant for it.
+	  * @param fullnessValue how much the food fills the pet's hunger bar.
+	  */
+	 Food(String name, String description, int index, String spritePath, int dropWeight, Set<String> tags,
+			 FoodType type,
+			 int fullnessValue) {
+		 super(name, description, index, spritePath, dropWeight, tags);
+		 this.type = type;
+		 this.fullnessValue = fullnessValue;
+	 }
 	 
 	 /**
 	  * Gets the fullness value of this food
@@ -77,7 +85,7 @@
 	 
 	 /**
 	  * Gets the type of food.
-	  * @return the type of food.
+	  * @return the type of food, or null if the code has no constant for it.
 	  */
 	 public FoodType getFoodType() {
 		 return type;
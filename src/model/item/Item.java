@@ -5,19 +5,57 @@
 
 package model.item;
 
+import java.util.Collections;
+import java.util.Set;
+
 public abstract class Item {
-    private String name;
-    private String description;
+    private final String name;
+    private final String description;
+    private final int index;			// Position in the item catalog, -1 if not in it
+    private final String spritePath;	// Null if not in the item catalog
+    private final int dropWeight;
+    private final Set<String> tags;		// Lower case, empty if not in the item catalog
     
     /**
-     * Constructs a new item with the specified name and description.
+     * Constructs a new item with the specified name, an empty description, and no place in
+     * the catalog.
      * 
      * @param name the name of the item.
-     * @param description a description of what the item is/does.
      */
     public Item(String name) {
+        this(name, "", -1, null, 0, Collections.emptySet());
+    }
+    
+    /**
+     * Constructs a new item with the specified name that is otherwise the same as an item
+     * in the catalog.
+     * 
+     * @param name the name of the item.
+     * @param kind the catalog item it is a copy of, or null if it is not in the catalog.
+     */
+    Item(String name, Item kind) {
+        this(name, kind != null ? kind.description : "", kind != null ? kind.index : -1,
+        		kind != null ? kind.spritePath : null, kind != null ? kind.dropWeight : 0,
+        		kind != null ? kind.tags : Collections.<String>emptySet());
+    }
+    
+    /**
+     * Constructs an item of the catalog.
+     * 
+     * @param name the name of the item.
+     * @param description a description of what the item is/does.
+     * @param index the item's position in the catalog.
+     * @param spritePath the resource path of the item's image.
+     * @param dropWeight the item's relative chance of being dropped.
+     * @param tags the item's tags, in lower case.
+     */
+    Item(String name, String description, int index, String spritePath, int dropWeight, Set<String> tags) {
         this.name = name;
-        this.description = "";
+        this.description = description;
+        this.index = index;
+        this.spritePath = spritePath;
+        this.dropWeight = dropWeight;
+        this.tags = tags;
     }
     
     /**
@@ -39,12 +77,50 @@ public abstract class Item {
     }
     
     /**
-     * Sets the description of the item to the specified value.
+     * Gets the item's position in the item catalog, which {@link model.Inventory} counts
+     * items by.
      * 
-     * @param description the item's description.
+     * @return the item's index, or -1 if the item is not in the catalog.
      */
-    protected void setDescription(String description) {
-        this.description = description;
+    public int getIndex() {
+        return index;
+    }
+    
+    /**
+     * Gets the resource path of the item's image.
+     * 
+     * @return the image's path, or null if the item is not in the catalog.
+     */
+    public String getSpritePath() {
+        return spritePath;
+    }
+    
+    /**
+     * Gets the item's relative chance of being dropped.
+     * 
+     * @return the item's drop weight, 0 if it is never dropped.
+     */
+    public int getDropWeight() {
+        return dropWeight;
+    }
+    
+    /**
+     * Gets the tags the item catalog gives the item, such as "snack" or "plush".
+     * 
+     * @return an unmodifiable set of the item's tags in lower case, empty if it has none.
+     */
+    public Set<String> getTags() {
+        return tags;
+    }
+    
+    /**
+     * Checks whether the item has a tag, ignoring case.
+     * 
+     * @param tag the tag.
+     * @return true if the item has the tag and false otherwise.
+     */
+    public boolean hasTag(String tag) {
+        return tag != null && tags.contains(tag.toLowerCase());
     }
     
     // // Gets the current quantity of this item.
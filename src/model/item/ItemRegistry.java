@@ -0,0 +1,404 @@
+package model.item;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import model.item.Food.FoodType;
+import model.item.Toy.ToyType;
+
+/**
+ * This class holds the one shared instance of every kind of item, as listed in the item
+ * catalog {@code /model/assets/items.properties}. Items never change once made, so
+ * inventories, saves and drops all refer to these instead of making their own.
+ *
+ * <p>The catalog is read once, when the class loads, and an item is added by listing it in
+ * the file. Each item's index is its position in the catalog, foods first. Names are looked
+ * up case-insensitively through a perfect hash table: a multiplier is picked so every name
+ * lands in its own slot, so a lookup hashes the name once, checks one slot and allocates
+ * nothing.</p>
+ */
+public final class ItemRegistry {
+
+	/** The resource the catalog is read from. */
+	public static final String RESOURCE = "/model/assets/items.properties";
+
+	/** The directory item images are in. */
+	public static final String SPRITE_DIR = "/model/assets/items/";
+
+	private static final List<Item> ALL;
+	private static final List<Food> FOODS;
+	private static final List<Toy> TOYS;
+	private static final Food[] BY_FOOD_TYPE = new Food[FoodType.values().length];
+	private static final Toy[] BY_TOY_TYPE = new Toy[ToyType.values().length];
+
+	private static final Map<String, List<Item>> BY_TAG;
+	private static final DropTable DROPS;
+
+	// Perfect hash table of every item by name
+	private static final int TABLE_BITS;
+	private static final Item[] TABLE;
+	private static final int MULTIPLIER;
+	private static final int MAX_TABLE_TRIES = 1 << 16;
+
+	static {
+		try (InputStream in = ItemRegistry.class.getResourceAsStream(RESOURCE)) {
+			if (in == null) throw new IllegalStateException("Missing item catalog: " + RESOURCE);
+
+			Properties properties = new Properties();
+			properties.load(in);
+			ALL = Collections.unmodifiableList(parse(properties));
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot read item catalog: " + RESOURCE, e);
+		}
+
+		List<Food> foods = new ArrayList<>();
+		List<Toy> toys = new ArrayList<>();
+		for (Item item : ALL) {
+			if (item instanceof Food) {
+				Food food = (Food) item;
+				foods.add(food);
+				if (food.getFoodType() != null) BY_FOOD_TYPE[food.getFoodType().ordinal()] = food;
+			} else {
+				Toy toy = (Toy) item;
+				toys.add(toy);
+				if (toy.getToyType() != null) BY_TOY_TYPE[toy.getToyType().ordinal()] = toy;
+			}
+		}
+		FOODS = Collections.unmodifiableList(foods);
+		TOYS = Collections.unmodifiableList(toys);
+
+		Map<String, List<Item>> byTag = new TreeMap<>();
+		for (Item item : ALL) {
+			for (String tag : item.getTags()) byTag.computeIfAbsent(tag, t -> new ArrayList<>()).add(item);
+		}
+		byTag.replaceAll((tag, items) -> Collections.unmodifiableList(items));
+		BY_TAG = Collections.unmodifiableMap(byTag);
+		DROPS = new DropTable(ALL);
+
+		for (FoodType type : FoodType.values()) {
+			if (BY_FOOD_TYPE[type.ordinal()] == null) throw new IllegalStateException("No food of type " + type + " in " + RESOURCE);
+		}
+		for (ToyType type : ToyType.values()) {
+			if (BY_TOY_TYPE[type.ordinal()] == null) throw new IllegalStateException("No toy of type " + type + " in " + RESOURCE);
+		}
+
+		// At least the square of the item count, so a multiplier with no collisions is quick to find
+		TABLE_BITS = Math.max(4, 64 - Long.numberOfLeadingZeros((long) ALL.size() * ALL.size() - 1));
+		TABLE = new Item[1 << TABLE_BITS];
+		MULTIPLIER = buildTable(ALL);
+	}
+
+	private ItemRegistry() {
+	}
+
+	/**
+	 * Reads the items of a catalog.
+	 *
+	 * @param properties the catalog.
+	 * @return the items, foods first, each at its index.
+	 * @throws IllegalArgumentException if an item is listed twice, has a number that is not
+	 * 		one or has a type the code does not know.
+	 */
+	static List<Item> parse(Properties properties) {
+		List<Item> items = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+
+		for (String name : list(properties, "foods")) {
+			checkNew(names, name);
+			String typeName = properties.getProperty(name + ".type", name.toUpperCase());
+			FoodType type = Arrays.stream(FoodType.values()).filter(t -> t.name().equals(typeName)).findFirst()
+					.orElse(null);
+			if (type == null && properties.containsKey(name + ".type")) throw new IllegalArgumentException("Unknown food type: " + typeName);
+
+			items.add(new Food(name, description(properties, name), items.size(), spritePath(properties, name),
+					number(properties, name + ".dropWeight"), tags(properties, name), type,
+					number(properties, name + ".fullness")));
+		}
+
+		for (String name : list(properties, "toys")) {
+			checkNew(names, name);
+			String typeName = properties.getProperty(name + ".type", name.toUpperCase());
+			ToyType type = Arrays.stream(ToyType.values()).filter(t -> t.name().equals(typeName)).findFirst()
+					.orElse(null);
+			if (type == null && properties.containsKey(name + ".type")) throw new IllegalArgumentException("Unknown toy type: " + typeName);
+
+			items.add(new Toy(name, description(properties, name), items.size(), spritePath(properties, name),
+					number(properties, name + ".dropWeight"), tags(properties, name), type,
+					number(properties, name + ".fun")));
+		}
+
+		return items;
+	}
+
+	/**
+	 * Gets the food of the specified type.
+	 *
+	 * @param type the food type.
+	 * @return the shared food.
+	 */
+	public static Food food(FoodType type) {
+		return BY_FOOD_TYPE[type.ordinal()];
+	}
+
+	/**
+	 * Gets the toy of the specified type.
+	 *
+	 * @param type the toy type.
+	 * @return the shared toy.
+	 */
+	public static Toy toy(ToyType type) {
+		return BY_TOY_TYPE[type.ordinal()];
+	}
+
+	/**
+	 * Gets the item at the specified index of the catalog.
+	 *
+	 * @param index the item's index.
+	 * @return the shared item.
+	 */
+	public static Item get(int index) {
+		return ALL.get(index);
+	}
+
+	/**
+	 * Gets the item with the specified name, ignoring case.
+	 *
+	 * @param name the item's name, for example "kibble" or "Ball".
+	 * @return the shared item, or null if no item has the name.
+	 */
+	public static Item forName(String name) {
+		if (name == null) return null;
+
+		Item item = TABLE[slot(hash(name), MULTIPLIER)];
+		return item != null && item.getName().equalsIgnoreCase(name) ? item : null;
+	}
+
+	/**
+	 * Gets the food with the specified name, ignoring case.
+	 *
+	 * @param name the food's name.
+	 * @return the shared food, or null if no food has the name.
+	 */
+	public static Food food(String name) {
+		Item item = forName(name);
+		return item instanceof Food ? (Food) item : null;
+	}
+
+	/**
+	 * Gets the toy with the specified name, ignoring case.
+	 *
+	 * @param name the toy's name.
+	 * @return the shared toy, or null if no toy has the name.
+	 */
+	public static Toy toy(String name) {
+		Item item = forName(name);
+		return item instanceof Toy ? (Toy) item : null;
+	}
+
+	/**
+	 * Gets the table items are dropped from, each with a chance in proportion to its drop
+	 * weight.
+	 *
+	 * @return the drop table of every item.
+	 */
+	public static DropTable drops() {
+		return DROPS;
+	}
+
+	/**
+	 * Gets every item, in catalog order.
+	 *
+	 * @return an unmodifiable list of the items.
+	 */
+	public static List<Item> all() {
+		return ALL;
+	}
+
+	/**
+	 * Gets every food, in catalog order.
+	 *
+	 * @return an unmodifiable list of the foods.
+	 */
+	public static List<Food> foods() {
+		return FOODS;
+	}
+
+	/**
+	 * Gets every toy, in catalog order.
+	 *
+	 * @return an unmodifiable list of the toys.
+	 */
+	public static List<Toy> toys() {
+		return TOYS;
+	}
+
+	/**
+	 * Gets every tag an item in the catalog has.
+	 *
+	 * @return an unmodifiable set of the tags in lower case, in alphabetical order.
+	 */
+	public static Set<String> tags() {
+		return BY_TAG.keySet();
+	}
+
+	/**
+	 * Gets every item with the specified tag, ignoring case.
+	 *
+	 * @param tag the tag.
+	 * @return an unmodifiable list of the items in catalog order, empty if no item has the tag.
+	 */
+	public static List<Item> tagged(String tag) {
+		List<Item> items = tag != null ? BY_TAG.get(tag.toLowerCase()) : null;
+		return items != null ? items : Collections.emptyList();
+	}
+
+	/**
+	 * Gets the number of items in the catalog.
+	 *
+	 * @return the number of items.
+	 */
+	public static int size() {
+		return ALL.size();
+	}
+
+	/**
+	 * Reads a comma-separated list from a catalog.
+	 *
+	 * @param properties the catalog.
+	 * @param key the list's key.
+	 * @return the list's entries, empty if the key is missing.
+	 */
+	private static List<String> list(Properties properties, String key) {
+		List<String> entries = new ArrayList<>();
+		for (String entry : properties.getProperty(key, "").split(",")) {
+			if (!entry.isBlank()) entries.add(entry.trim());
+		}
+		return entries;
+	}
+
+	/**
+	 * Checks that a name is not listed yet and adds it.
+	 *
+	 * @param names the names listed so far, in lower case.
+	 * @param name the name.
+	 * @throws IllegalArgumentException if the name is already listed, ignoring case.
+	 */
+	private static void checkNew(List<String> names, String name) {
+		if (names.contains(name.toLowerCase())) throw new IllegalArgumentException("Item listed twice: " + name);
+		names.add(name.toLowerCase());
+	}
+
+	/**
+	 * Reads an item's description.
+	 *
+	 * @param properties the catalog.
+	 * @param name the item's name.
+	 * @return the description, empty if it is missing.
+	 */
+	private static String description(Properties properties, String name) {
+		return properties.getProperty(name + ".description", "").trim();
+	}
+
+	/**
+	 * Reads an item's tags.
+	 *
+	 * @param properties the catalog.
+	 * @param name the item's name.
+	 * @return an unmodifiable set of the tags in lower case, empty if there are none.
+	 */
+	private static Set<String> tags(Properties properties, String name) {
+		Set<String> tags = new LinkedHashSet<>();
+		for (String tag : list(properties, name + ".tags")) tags.add(tag.toLowerCase());
+		return tags.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(tags);
+	}
+
+	/**
+	 * Reads the resource path of an item's image.
+	 *
+	 * @param properties the catalog.
+	 * @param name the item's name.
+	 * @return the image's path.
+	 */
+	private static String spritePath(Properties properties, String name) {
+		return SPRITE_DIR + properties.getProperty(name + ".sprite", name.toLowerCase() + ".png").trim();
+	}
+
+	/**
+	 * Reads a number that is not negative from a catalog.
+	 *
+	 * @param properties the catalog.
+	 * @param key the number's key.
+	 * @return the number, 0 if it is missing.
+	 * @throws IllegalArgumentException if the value is not a number or is negative.
+	 */
+	private static int number(Properties properties, String key) {
+		String value = properties.getProperty(key);
+		if (value == null) return 0;
+
+		try {
+			int number = Integer.parseInt(value.trim());
+			if (number < 0) throw new IllegalArgumentException("Negative value for " + key + ": " + value);
+			return number;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Not a number for " + key + ": " + value, e);
+		}
+	}
+
+	/**
+	 * Finds a multiplier that puts every item in its own slot and fills the table with it.
+	 *
+	 * @param items the items.
+	 * @return the multiplier.
+	 * @throws IllegalStateException if no multiplier was found, which only happens when two
+	 * 		names hash the same.
+	 */
+	private static int buildTable(List<Item> items) {
+		for (int multiplier = 0x9E3779B1, tries = 0; tries < MAX_TABLE_TRIES; multiplier += 2, tries++) {
+			boolean collides = false;
+			for (Item item : items) {
+				int slot = slot(hash(item.getName()), multiplier);
+				if (TABLE[slot] != null) {
+					collides = true;
+					break;
+				}
+				TABLE[slot] = item;
+			}
+
+			if (!collides) return multiplier;
+			Arrays.fill(TABLE, null);
+		}
+
+		throw new IllegalStateException("Cannot build the item name table for " + RESOURCE);
+	}
+
+	/**
+	 * Hashes a name, ignoring case, without making a lowercase copy of it.
+	 *
+	 * @param name the name.
+	 * @return the hash.
+	 */
+	private static int hash(String name) {
+		int hash = 0;
+		for (int i = 0; i < name.length(); i++) hash = 31 * hash + Character.toLowerCase(name.charAt(i));
+		return hash;
+	}
+
+	/**
+	 * Gets the table slot of a hash.
+	 *
+	 * @param hash the hash.
+	 * @param multiplier the table's multiplier.
+	 * @return the slot.
+	 */
+	private static int slot(int hash, int multiplier) {
+		return (hash * multiplier) >>> (Integer.SIZE - TABLE_BITS);
+	}
+}
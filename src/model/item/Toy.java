@@ -4,7 +4,12 @@
 
  package model.item;
 
+ import java.util.Set;
+ import model.log.Log;
+
  public class Toy extends Item {
+	 private static final Log LOG = Log.get(Toy.class);
+	 
 	 public enum ToyType {
 		 BALL,
 		 ROCKETTOY,
@@ -13,51 +18,60 @@
 		 STARPLUSH
 	 }
 	 
-	 private ToyType type;
-	 private int funValue;
+	 private final ToyType type;
+	 private final int funValue;
 	 
 	 /**
-	  * Constructs a new toy item with the specified properties.
-	  *
-	  *	The fun value will be set based on the name of the toy.
+	  * Constructs a new toy item with the specified properties, taken from the item
+	  * catalog by name. Toys never change, so the shared instances in {@link ItemRegistry}
+	  * should be used instead of new ones.
 	  *
 	  * @param name the name of the toy to be created.
-	  * @param description a description of what the toy is/does.
+	  * @param description a description of what the toy is/does, replaced by the catalog's.
 	  */
 	 public Toy(String name, String description) {
-		 super(name);
-		 switch(name.toLowerCase()) {
-			 case "ball":
-				 type = ToyType.BALL;
-				 funValue = 30;
-				 setDescription("Looks like the moon.");
-				 break;
-			 case "rocket":
-				 type = ToyType.ROCKETTOY;
-				 funValue = 25;
-				 setDescription("Makes space sounds.");
-				 break;
-			 case "frisbee":
-				 type = ToyType.FRISBEE;
-				 funValue = 10;
-				 setDescription("Perfect for a game of catch.");
-				 break;
-			 case "alien":
-				 type = ToyType.ALIEN;
-				 funValue = 15;
-				 setDescription("A friendly alien from a faraway planet.");
-				 break;
-			 case "starplush":
-				 type = ToyType.STARPLUSH;
-				 funValue = 20;
-				 setDescription("Glows in the dark.");
-				 break;
-			 default:
-				 type = null;	// do smth here idk
-				 System.out.println("Failed to create toy instance: " + name); 
+		 this(name, ItemRegistry.toy(name));
+	 }
+	 
+	 /**
+	  * Constructs a copy of a catalog toy under another name.
+	  *
+	  * @param name the name of the toy.
+	  * @param kind the catalog toy, or null if there is none with the name.
+	  */
+	 private Toy(String name, Toy kind) {
+		 super(name, kind);
+		 
+		 if (kind != null) {
+			 type = kind.type;
+			 funValue = kind.funValue;
+		 } else {
+			 type = null;
+			 funValue = 0;
+			 LOG.warn("Failed to create toy instance: {0}", name);
 		 }
 	 }
 	 
+	 /**
+	  * Constructs a toy of the item catalog.
+	  *
+	  * @param name the name of the toy.
+	  * @param description a description of what the toy is/does.
+	  * @param index the toy's position in the catalog.
+	  * @param spritePath the resource path of the toy's image.
+	  * @param dropWeight the toy's relative chance of being dropped.
+	  * @param tags the toy's tags, in lower case.
+	  * @param type the toy's type, or null if the code has no constant for it.
+	  * @param funValue how much the toy raises the pet's happiness.
+	  */
+	 Toy(String name, String description, int index, String spritePath, int dropWeight, Set<String> tags,
+			 ToyType type,
+			 int funValue) {
+		 super(name, description, index, spritePath, dropWeight, tags);
+		 this.type = type;
+		 this.funValue = funValue;
+	 }
+	 
 	 /**
 	  * Gets the fun value of the toy.
 	  *
@@ -70,7 +84,7 @@
 	 /**
 	  * Gets the toy type.
 	  *
-	  * @return the toy type.
+	  * @return the toy type, or null if the code has no constant for it.
 	  */
 	 public ToyType getToyType() {
 		 return type;
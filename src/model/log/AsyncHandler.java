@@ -0,0 +1,143 @@
+package model.log;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * This class hands log records to another handler on a background thread, so the threads
+ * that log never wait on the console or a file.
+ *
+ * <p>Records wait in a fixed-size ring buffer. Logging only puts a record in the buffer and
+ * never blocks: when the buffer is full the record is dropped and counted, and the count is
+ * reported once there is room again. Formatting and writing happen on the background
+ * thread.</p>
+ */
+public class AsyncHandler extends Handler {
+
+	private final Handler target;
+	private final ArrayBlockingQueue<LogRecord> buffer;
+	private final Thread worker;
+	private volatile boolean closed;
+
+	// Counters
+	private final AtomicLong accepted = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private volatile long written;
+	private long droppedReported;		// Only used by the worker
+
+	/**
+	 * Constructs a handler that passes records to the specified handler.
+	 *
+	 * @param target the handler that formats and writes the records.
+	 * @param capacity the number of records the buffer holds.
+	 */
+	public AsyncHandler(Handler target, int capacity) {
+		this.target = target;
+		this.buffer = new ArrayBlockingQueue<>(Math.max(16, capacity));
+		this.worker = new Thread(this::run, "log-writer");
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	@Override
+	public void publish(LogRecord record) {
+		if (closed || !isLoggable(record)) return;
+		if (buffer.offer(record)) accepted.incrementAndGet();
+		else dropped.incrementAndGet();
+	}
+
+	/**
+	 * Waits until the records logged so far were written, for at most the specified time.
+	 *
+	 * @param timeoutMillis the longest time to wait in milliseconds.
+	 * @return true if the buffer was drained and false otherwise.
+	 */
+	public boolean drain(long timeoutMillis) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		long target = accepted.get();
+
+		synchronized (buffer) {
+			while (written < target) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) return false;
+
+				try {
+					TimeUnit.NANOSECONDS.timedWait(buffer, remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public void flush() {
+		drain(1000);
+	}
+
+	@Override
+	public void close() {
+		drain(1000);
+		closed = true;
+		worker.interrupt();
+		target.close();
+	}
+
+	/**
+	 * Gets the number of records dropped because the buffer was full.
+	 *
+	 * @return the number of dropped records.
+	 */
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	/**
+	 * Writes records until the handler is closed.
+	 */
+	private void run() {
+		while (!closed) {
+			try {
+				LogRecord record = buffer.poll(1, TimeUnit.SECONDS);
+				if (record == null) continue;
+
+				reportDropped();
+				try {
+					target.publish(record);
+				} catch (RuntimeException e) {
+					reportError("Error writing log record", e, 0);
+				}
+
+				synchronized (buffer) {
+					written++;
+					if (buffer.isEmpty()) {
+						target.flush();
+						buffer.notifyAll();
+					}
+				}
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Logs how many records were dropped since the last report.
+	 */
+	private void reportDropped() {
+		long count = dropped.get();
+		if (count == droppedReported) return;
+
+		LogRecord record = new LogRecord(Level.WARNING,
+				"Log buffer full, dropped " + (count - droppedReported) + " records");
+		droppedReported = count;
+		target.publish(record);
+	}
+}
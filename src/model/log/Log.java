@@ -0,0 +1,289 @@
+package model.log;
+
+import java.util.function.Supplier;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.StreamHandler;
+
+/**
+ * This class is the game's logger, a thin facade over {@link java.util.logging}.
+ *
+ * <p>Every logger writes through one {@link AsyncHandler}, so logging from the game tick or
+ * the GUI thread only queues a record. The level is read from the {@code astropaws.log}
+ * system property ({@code debug}, {@code info}, {@code warn} or {@code error}) and defaults
+ * to {@code info}. Debug and info lines go to standard output and warnings and errors to
+ * standard error, as the game's prints always did.</p>
+ *
+ * <p>Messages take {@link java.text.MessageFormat} parameters such as {@code {0}}, which are
+ * only formatted on the writer thread. With a disabled level the overloads with one to three
+ * parameters return before building anything; callers with more parameters, or with
+ * parameters that are costly to compute, check {@link #isDebugEnabled()} first or pass a
+ * {@link Supplier}.</p>
+ */
+public final class Log {
+
+	/** The system property holding the log level. */
+	public static final String LEVEL_PROPERTY = "astropaws.log";
+
+	private static final String ROOT = "model";
+	private static final int BUFFER_SIZE = 8192;
+
+	private static final AsyncHandler HANDLER;
+
+	static {
+		Logger root = Logger.getLogger(ROOT);
+		root.setUseParentHandlers(false);
+		root.setLevel(parseLevel(System.getProperty(LEVEL_PROPERTY, "info")));
+
+		HANDLER = new AsyncHandler(new SplitHandler(), BUFFER_SIZE);
+		HANDLER.setLevel(Level.ALL);
+		root.addHandler(HANDLER);
+
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> HANDLER.drain(1000), "log-flush"));
+	}
+
+	private final Logger logger;
+
+	/**
+	 * Constructs a logger.
+	 *
+	 * @param logger the logger to write to.
+	 */
+	private Log(Logger logger) {
+		this.logger = logger;
+	}
+
+	/**
+	 * Gets the logger of a class.
+	 *
+	 * @param owner the class that logs.
+	 * @return the logger.
+	 */
+	public static Log get(Class<?> owner) {
+		return new Log(Logger.getLogger(owner.getName()));
+	}
+
+	/**
+	 * Sets the level of every game logger.
+	 *
+	 * @param level {@code debug}, {@code info}, {@code warn} or {@code error}.
+	 */
+	public static void setLevel(String level) {
+		Logger.getLogger(ROOT).setLevel(parseLevel(level));
+	}
+
+	/**
+	 * Waits until everything logged so far was written, for at most the specified time.
+	 *
+	 * @param timeoutMillis the longest time to wait in milliseconds.
+	 * @return true if everything was written and false otherwise.
+	 */
+	public static boolean flush(long timeoutMillis) {
+		return HANDLER.drain(timeoutMillis);
+	}
+
+	/**
+	 * Checks whether debug messages are logged.
+	 *
+	 * @return true if debug messages are logged and false otherwise.
+	 */
+	public boolean isDebugEnabled() {
+		return logger.isLoggable(Level.FINE);
+	}
+
+	/**
+	 * Checks whether info messages are logged.
+	 *
+	 * @return true if info messages are logged and false otherwise.
+	 */
+	public boolean isInfoEnabled() {
+		return logger.isLoggable(Level.INFO);
+	}
+
+	/**
+	 * Logs a debug message.
+	 *
+	 * @param message the message.
+	 */
+	public void debug(String message) {
+		log(Level.FINE, message, null, null);
+	}
+
+	/**
+	 * Logs a debug message with one parameter.
+	 *
+	 * @param pattern the message pattern.
+	 * @param arg the parameter.
+	 */
+	public void debug(String pattern, Object arg) {
+		if (logger.isLoggable(Level.FINE)) log(Level.FINE, pattern, new Object[] { arg }, null);
+	}
+
+	/**
+	 * Logs a debug message with two parameters.
+	 *
+	 * @param pattern the message pattern.
+	 * @param arg1 the first parameter.
+	 * @param arg2 the second parameter.
+	 */
+	public void debug(String pattern, Object arg1, Object arg2) {
+		if (logger.isLoggable(Level.FINE)) log(Level.FINE, pattern, new Object[] { arg1, arg2 }, null);
+	}
+
+	/**
+	 * Logs a debug message with any number of parameters. The parameter array is built
+	 * before the level is checked, so hot paths check {@link #isDebugEnabled()} first.
+	 *
+	 * @param pattern the message pattern.
+	 * @param args the parameters.
+	 */
+	public void debug(String pattern, Object... args) {
+		if (logger.isLoggable(Level.FINE)) log(Level.FINE, pattern, args, null);
+	}
+
+	/**
+	 * Logs a debug message built only if debug messages are logged.
+	 *
+	 * @param message builds the message.
+	 */
+	public void debug(Supplier<String> message) {
+		if (logger.isLoggable(Level.FINE)) log(Level.FINE, message.get(), null, null);
+	}
+
+	/**
+	 * Logs an info message.
+	 *
+	 * @param message the message.
+	 */
+	public void info(String message) {
+		log(Level.INFO, message, null, null);
+	}
+
+	/**
+	 * Logs an info message with one parameter.
+	 *
+	 * @param pattern the message pattern.
+	 * @param arg the parameter.
+	 */
+	public void info(String pattern, Object arg) {
+		if (logger.isLoggable(Level.INFO)) log(Level.INFO, pattern, new Object[] { arg }, null);
+	}
+
+	/**
+	 * Logs a warning.
+	 *
+	 * @param message the message.
+	 */
+	public void warn(String message) {
+		log(Level.WARNING, message, null, null);
+	}
+
+	/**
+	 * Logs a warning with one parameter.
+	 *
+	 * @param pattern the message pattern.
+	 * @param arg the parameter.
+	 */
+	public void warn(String pattern, Object arg) {
+		if (logger.isLoggable(Level.WARNING)) log(Level.WARNING, pattern, new Object[] { arg }, null);
+	}
+
+	/**
+	 * Logs an error with the exception that caused it.
+	 *
+	 * @param message the message.
+	 * @param thrown the exception.
+	 */
+	public void error(String message, Throwable thrown) {
+		log(Level.SEVERE, message, null, thrown);
+	}
+
+	/**
+	 * Queues a record if its level is logged.
+	 *
+	 * @param level the level.
+	 * @param message the message or message pattern.
+	 * @param args the pattern's parameters, or null.
+	 * @param thrown the exception, or null.
+	 */
+	private void log(Level level, String message, Object[] args, Throwable thrown) {
+		if (!logger.isLoggable(level)) return;
+
+		LogRecord record = new LogRecord(level, message);
+		record.setLoggerName(logger.getName());
+		record.setParameters(args);
+		record.setThrown(thrown);
+		logger.log(record);
+	}
+
+	/**
+	 * Parses a level name.
+	 *
+	 * @param name the name.
+	 * @return the level, info if the name is not known.
+	 */
+	private static Level parseLevel(String name) {
+		switch (name.trim().toLowerCase()) {
+			case "debug":
+				return Level.FINE;
+			case "warn":
+				return Level.WARNING;
+			case "error":
+				return Level.SEVERE;
+			case "off":
+				return Level.OFF;
+			default:
+				return Level.INFO;
+		}
+	}
+
+	/**
+	 * Writes debug and info records to standard output and the rest to standard error, one
+	 * line each.
+	 */
+	private static final class SplitHandler extends StreamHandler {
+
+		private final ConsoleHandler errors;
+
+		SplitHandler() {
+			super(System.out, new LineFormatter());
+			setLevel(Level.ALL);
+			errors = new ConsoleHandler();
+			errors.setLevel(Level.ALL);
+			errors.setFormatter(getFormatter());
+		}
+
+		@Override
+		public synchronized void publish(LogRecord record) {
+			if (record.getLevel().intValue() >= Level.WARNING.intValue()) errors.publish(record);
+			else super.publish(record);
+		}
+
+		@Override
+		public synchronized void flush() {
+			super.flush();
+			errors.flush();
+		}
+	}
+
+	/**
+	 * Formats a record as its message on one line, followed by the exception if there is one.
+	 */
+	private static final class LineFormatter extends Formatter {
+
+		@Override
+		public String format(LogRecord record) {
+			StringBuilder line = new StringBuilder(formatMessage(record)).append(System.lineSeparator());
+			if (record.getThrown() != null) {
+				line.append(record.getThrown()).append(System.lineSeparator());
+				for (StackTraceElement element : record.getThrown().getStackTrace()) {
+					line.append("\tat ").append(element).append(System.lineSeparator());
+				}
+			}
+			return line.toString();
+		}
+	}
+}
@@ -0,0 +1,245 @@
+package model.pet;
+
+import model.pet.Pet.PetState;
+
+/**
+ * This class is a pet's five stats and state packed into one {@code long}, as a {@link Pet}
+ * stores them.
+ *
+ * <p>Each stat takes a byte: health is signed, as a state penalty can take it a few points
+ * below 0 on the tick a pet dies, and the other stats range from 0 to 100. The state takes
+ * three bits above them. Because the whole word is read and written at once, a word read
+ * from a pet is always a consistent view of it, even while another thread changes the pet.
+ * The static methods work on raw words and an instance wraps one for readers that want
+ * getters.</p>
+ */
+public final class PackedPetState {
+
+	// Bit layout of a word
+	private static final int SLEEP_SHIFT = 8;
+	private static final int HUNGER_SHIFT = 16;
+	private static final int HAPPINESS_SHIFT = 24;
+	private static final int SPACE_READINESS_SHIFT = 32;
+	private static final int STATE_SHIFT = 40;
+	private static final long STATE_MASK = 0x7L;
+
+	private static final PetState[] STATES = PetState.values();
+
+	private final long word;
+
+	/**
+	 * Constructs a view of a packed word.
+	 *
+	 * @param word the packed stats and state.
+	 */
+	public PackedPetState(long word) {
+		this.word = word;
+	}
+
+	/**
+	 * Packs stats and a state into a word.
+	 *
+	 * @param health the pet's health, from -128 to 127.
+	 * @param sleep the pet's sleep level, from 0 to 255.
+	 * @param hunger the pet's hunger level, from 0 to 255.
+	 * @param happiness the pet's happiness level, from 0 to 255.
+	 * @param spaceReadiness the pet's space readiness, from 0 to 255.
+	 * @param state the pet's state.
+	 * @return the packed word.
+	 */
+	public static long pack(int health, int sleep, int hunger, int happiness, int spaceReadiness, PetState state) {
+		return (health & 0xFFL) | (sleep & 0xFFL) << SLEEP_SHIFT | (hunger & 0xFFL) << HUNGER_SHIFT
+				| (happiness & 0xFFL) << HAPPINESS_SHIFT | (spaceReadiness & 0xFFL) << SPACE_READINESS_SHIFT
+				| (long) state.ordinal() << STATE_SHIFT;
+	}
+
+	/**
+	 * Reads the health from a word.
+	 *
+	 * @param word the packed word.
+	 * @return the health.
+	 */
+	public static int health(long word) {
+		return (byte) word;
+	}
+
+	/**
+	 * Reads the sleep level from a word.
+	 *
+	 * @param word the packed word.
+	 * @return the sleep level.
+	 */
+	public static int sleep(long word) {
+		return (int) (word >>> SLEEP_SHIFT) & 0xFF;
+	}
+
+	/**
+	 * Reads the hunger level from a word.
+	 *
+	 * @param word the packed word.
+	 * @return the hunger level.
+	 */
+	public static int hunger(long word) {
+		return (int) (word >>> HUNGER_SHIFT) & 0xFF;
+	}
+
+	/**
+	 * Reads the happiness level from a word.
+	 *
+	 * @param word the packed word.
+	 * @return the happiness level.
+	 */
+	public static int happiness(long word) {
+		return (int) (word >>> HAPPINESS_SHIFT) & 0xFF;
+	}
+
+	/**
+	 * Reads the space readiness from a word.
+	 *
+	 * @param word the packed word.
+	 * @return the space readiness.
+	 */
+	public static int spaceReadiness(long word) {
+		return (int) (word >>> SPACE_READINESS_SHIFT) & 0xFF;
+	}
+
+	/**
+	 * Reads the state from a word.
+	 *
+	 * @param word the packed word.
+	 * @return the state.
+	 */
+	public static PetState state(long word) {
+		return STATES[(int) ((word >>> STATE_SHIFT) & STATE_MASK)];
+	}
+
+	/**
+	 * Replaces the health in a word.
+	 *
+	 * @param word the packed word.
+	 * @param health the new health.
+	 * @return the changed word.
+	 */
+	public static long withHealth(long word, int health) {
+		return word & ~0xFFL | health & 0xFFL;
+	}
+
+	/**
+	 * Replaces the state in a word.
+	 *
+	 * @param word the packed word.
+	 * @param state the new state.
+	 * @return the changed word.
+	 */
+	public static long withState(long word, PetState state) {
+		return word & ~(STATE_MASK << STATE_SHIFT) | (long) state.ordinal() << STATE_SHIFT;
+	}
+
+	/**
+	 * Gets the packed word.
+	 *
+	 * @return the word.
+	 */
+	public long toLong() {
+		return word;
+	}
+
+	/**
+	 * Gets the pet's health.
+	 *
+	 * @return the pet's health.
+	 */
+	public int getHealth() {
+		return health(word);
+	}
+
+	/**
+	 * Gets the pet's sleep level.
+	 *
+	 * @return the pet's sleep level.
+	 */
+	public int getSleep() {
+		return sleep(word);
+	}
+
+	/**
+	 * Gets the pet's hunger level.
+	 *
+	 * @return the pet's hunger level.
+	 */
+	public int getHunger() {
+		return hunger(word);
+	}
+
+	/**
+	 * Gets the pet's happiness level.
+	 *
+	 * @return the pet's happiness level.
+	 */
+	public int getHappiness() {
+		return happiness(word);
+	}
+
+	/**
+	 * Gets the pet's space readiness.
+	 *
+	 * @return the pet's space readiness.
+	 */
+	public int getSpaceReadiness() {
+		return spaceReadiness(word);
+	}
+
+	/**
+	 * Gets the pet's state.
+	 *
+	 * @return the pet's state.
+	 */
+	public PetState getCurrentState() {
+		return state(word);
+	}
+
+	/**
+	 * Checks if the pet is in the specified state.
+	 *
+	 * @param state the state to check against.
+	 * @return true if the pet is in the state and false otherwise.
+	 */
+	public boolean isInState(PetState state) {
+		return state(word) == state;
+	}
+
+	/**
+	 * Checks if the pet is alive.
+	 *
+	 * @return true if the pet is alive and false otherwise.
+	 */
+	public boolean isAlive() {
+		return state(word) != PetState.DEAD;
+	}
+
+	/**
+	 * Checks if the pet is space ready, that is its space readiness is at least 100 and its
+	 * state is normal.
+	 *
+	 * @return true if the pet is space ready and false otherwise.
+	 */
+	public boolean isSpaceReady() {
+		return spaceReadiness(word) >= 100 && state(word) == PetState.NORMAL;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof PackedPetState && ((PackedPetState) other).word == word;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(word);
+	}
+
+	@Override
+	public String toString() {
+		return "health " + getHealth() + ", sleep " + getSleep() + ", hunger " + getHunger() + ", happiness "
+				+ getHappiness() + ", space readiness " + getSpaceReadiness() + ", state " + getCurrentState();
+	}
+}
@@ -2,23 +2,38 @@ package model.pet;
 
 import model.item.Food;
 import model.item.Toy;
+import model.log.Log;
+import model.pet.SpeciesRules.Action;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
 
 /**
- * This is an abstract pet class which represents a generic pet in the game.
+ * This is a pet class which represents a pet of any species in the game.
  * Pets have stats representing their health, happiness, sleep, hunger, and space 
  * readiness. A pet will be in one of the following states at all times: normal,
  * sleeping, hungry, angry, dead.
+ * 
+ * <p>How each action changes the stats comes from the pet's {@link SpeciesRules}, so
+ * every species shares this class and a new species needs no code.</p>
+ * 
+ * <p>The stats and state are kept together in one word laid out by {@link PackedPetState}
+ * and only ever replaced whole with compare-and-set, so the game tick and the GUI can change
+ * the same pet without locks and {@link #getPackedState()} always returns a consistent
+ * view.</p>
  */
-public abstract class Pet {
+public class Pet {
+
+	private static final Log LOG = Log.get(Pet.class);
 
 	private String name;
+	private final SpeciesRules species;
 	
-	// Core stats (score from 0-100)
-	private int health;
-	private int sleep;
-	private int hunger;
-	private int happiness;
-	private int spaceReadiness;
+	// Core stats (score from 0-100) and state, see PackedPetState
+	private volatile long stats;
 	private int petID;
 	
 	// All pet states
@@ -37,60 +52,95 @@ public abstract class Pet {
 		MOUSE
 	}
 	
-	private PetState currentState;
-	private int totalMissions;
+	private volatile int totalMissions;	// Updated atomically, as missions can start on any thread
+	
+	private volatile long version;	// Incremented whenever anything that is saved changes
+	private long lastSimulated;	// Time in milliseconds the stats were last advanced to, 0 if unknown
+	
+	/** The length of one game tick in milliseconds. */
+	public static final long TICK_MILLIS = 30000;
+	
+	private static final VarHandle STATS;
+	private static final VarHandle VERSION;
+	private static final VarHandle MISSIONS;
+	
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			STATS = lookup.findVarHandle(Pet.class, "stats", long.class);
+			VERSION = lookup.findVarHandle(Pet.class, "version", long.class);
+			MISSIONS = lookup.findVarHandle(Pet.class, "totalMissions", int.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
 	
 	/**
-	 * Constructs a generic Pet with a normal state, full stats, and a space
+	 * Constructs a Pet of the specified species with a normal state, full stats, and a space
 	 * readiness of 0.
 	 * 
 	 * @param name the name of the pet to be created.
+	 * @param species the rules of the pet's species.
 	 */
-	public Pet(String name) {
+	public Pet(String name, SpeciesRules species) {
 		this.name = name;
+		this.species = Objects.requireNonNull(species, "species");
 		
-		this.health = 100;
-		this.sleep = 100;
-		this.hunger = 100;
-		this.happiness = 100;
-		this.spaceReadiness = 0;
-		
-		this.currentState = PetState.NORMAL;
+		this.stats = PackedPetState.pack(100, 100, 100, 100, 0, PetState.NORMAL);
 		this.totalMissions = 0;
 	}
 	
+	/**
+	 * Creates a pet of the species with the specified name.
+	 * 
+	 * @param species the species' name, ignoring case, for example "dog".
+	 * @param name the name of the pet to be created.
+	 * @return the pet, or null if there is no such species.
+	 */
+	public static Pet create(String species, String name) {
+		SpeciesRules rules = SpeciesRules.forName(species);
+		return rules == null ? null : new Pet(name, rules);
+	}
+	
 	/**
 	 * Updates the pet's stats over time
 	 */
 	public void updateState() {
+		update(Pet::applyState);
+	}
+	
+	/**
+	 * Moves the pet into the state its stats call for.
+	 * 
+	 * @param stats the packed stats and state.
+	 * @return the packed stats in the new state.
+	 */
+	private static long applyState(long stats) {
+		int health = PackedPetState.health(stats);
+		int sleep = PackedPetState.sleep(stats);
+		PetState currentState = PackedPetState.state(stats);
+		
 		if (health <= 0) {
-			currentState = PetState.DEAD;
-			return;
+			return PackedPetState.withState(stats, PetState.DEAD);
 		}
 		
 		if (currentState == PetState.SLEEPING && sleep >= 100) {
-			currentState = PetState.NORMAL;
-			return;
+			return PackedPetState.withState(stats, PetState.NORMAL);
 		}
 		
 		if (sleep <= 0) {
-			currentState = PetState.SLEEPING;
-			health -= 5;
-			return;
+			return PackedPetState.withHealth(PackedPetState.withState(stats, PetState.SLEEPING), health - 5);
 		}
 		
-		if (happiness <= 0) {
-			currentState = PetState.ANGRY;
-			return;
+		if (PackedPetState.happiness(stats) <= 0) {
+			return PackedPetState.withState(stats, PetState.ANGRY);
 		}
 		
-		if (hunger <= 0) {
-			currentState = PetState.HUNGRY;
-			health -= 5;
-			return;
+		if (PackedPetState.hunger(stats) <= 0) {
+			return PackedPetState.withHealth(PackedPetState.withState(stats, PetState.HUNGRY), health - 5);
 		}
 		
-		currentState = PetState.NORMAL;
+		return PackedPetState.withState(stats, PetState.NORMAL);
 	}
 
 	/**
@@ -98,47 +148,78 @@ public abstract class Pet {
 	 * 
 	 * @param food the food to feed to the pet.
 	 */
-	public abstract void eat(Food food);
+	public void eat(Food food) {
+		mutate(d -> species.apply(d.hunger(food.getFullnessValue()), Action.EAT));
+	}
 
 	/**
 	 * Makes the pet play which increases its happiness abd decreases its sleep level.
 	 */
-	public abstract void play();
+	public void play() {
+		mutate(d -> species.apply(d, Action.PLAY));
+	}
 
 	/**
 	 * Gives the pet a gift which increases its happiness.
 	 * 
 	 * @param toy the gift to give to the pet.
 	 */
-	public abstract void gift(Toy toy);
+	public void gift(Toy toy) {
+		mutate(d -> species.apply(d.happiness(toy.getFunValue()), Action.GIFT));
+	}
 
 	/**
 	 * Exercises the pet which increases its health and decreases its hunger and sleep levels.
 	 */
-	public abstract void exercise();
+	public void exercise() {
+		mutate(d -> species.apply(d, Action.EXERCISE));
+	}
 
 	/**
 	 * Takes the pet to the vet which increases its health.
 	 */
-	public abstract void vet();
+	public void vet() {
+		mutate(d -> species.apply(d, Action.VET));
+	}
 
 	/**
-	 * Decreases the dog's health, hunger, happiness, and sleep after going on a space mission.
+	 * Decreases the pet's health, hunger, happiness, and sleep after going on a space mission.
 	 */
-	public abstract void applySpaceStatEffects();	// Each pet's stats are affected differently by a space mission
+	public void applySpaceStatEffects() {
+		mutate(d -> species.apply(d, Action.MISSION));	// Each species is affected differently by a space mission
+	}
 
 	/**
 	 * Make the pet go to sleep by changing its state.
 	 */
 	public void sleep() {
-		currentState = PetState.SLEEPING;
+		update(stats -> PackedPetState.withState(stats, PetState.SLEEPING));
 	}
 	
 	/**
 	 * Update the progress bars based on what state they are in.
 	 */
 	public void updateProgressBars() {
-            if (currentState == PetState.DEAD) return;
+		PetState before = PackedPetState.state(update(Pet::stepProgressBars));
+		if (before != PetState.DEAD && before != PetState.SLEEPING) printProgressBars();
+	}
+	
+	/**
+	 * Applies one update of the progress bars. Dead pets are not updated, and only sleep
+	 * changes while sleeping.
+	 * 
+	 * @param stats the packed stats and state.
+	 * @return the updated stats.
+	 */
+	private static long stepProgressBars(long stats) {
+            PetState currentState = PackedPetState.state(stats);
+            if (currentState == PetState.DEAD) return stats;
+
+            int health = PackedPetState.health(stats);
+            int sleep = PackedPetState.sleep(stats);
+            int hunger = PackedPetState.hunger(stats);
+            int happiness = PackedPetState.happiness(stats);
+            int spaceReadiness = PackedPetState.spaceReadiness(stats);
 
             if (currentState != PetState.SLEEPING) {
                     hunger = Math.max(0,  hunger - 5);
@@ -146,7 +227,7 @@ public abstract class Pet {
                     sleep = Math.max(0, sleep - 2);
             } else {
                     sleep = Math.min(100, sleep + 10);
-					return;		// Other stats are not affected while sleeping
+					return PackedPetState.pack(health, sleep, hunger, happiness, spaceReadiness, currentState);		// Other stats are not affected while sleeping
             }
 
             if (hunger <= 50 && hunger > 10) health = Math.max(0, health - 20);
@@ -158,27 +239,64 @@ public abstract class Pet {
             }
 
 
-            updateState();
+            stats = applyState(PackedPetState.pack(health, sleep, hunger, happiness, spaceReadiness, currentState));
 
-			if (PetState.DEAD == currentState) {
-				health = 0;
-				sleep = 0;
-				hunger = 0;
-				happiness = 0;
-				spaceReadiness = 0;
+			if (PackedPetState.state(stats) == PetState.DEAD) {
+				return PackedPetState.pack(0, 0, 0, 0, 0, PetState.DEAD);
 			}
 			
-			System.out.println("-----------PROGRESS BARS UPDATED-----------");
-			System.out.println("Health: " + health);
-			System.out.println("Sleep: " + sleep);
-			System.out.println("Hunger: " + hunger);
-			System.out.println("Happiness: " + happiness);
-			System.out.println("Space Readiness: " + spaceReadiness);
-			System.out.println();
-			System.out.println("Current state: " + currentState);
-			System.out.println("--------------------------------------------");
+			return stats;
+	}
+	
+	/**
+	 * Logs the pet's stats and state at debug level.
+	 */
+	private void printProgressBars() {
+		if (!LOG.isDebugEnabled()) return;
+
+		PackedPetState current = getPackedState();
+		LOG.debug("Progress bars updated: health {0}, sleep {1}, hunger {2}, happiness {3}, space readiness {4}, state {5}",
+				current.getHealth(), current.getSleep(), current.getHunger(), current.getHappiness(),
+				current.getSpaceReadiness(), current.getCurrentState());
 	}
 
+	/**
+	 * Advances the pet by the number of whole game ticks that fit in the elapsed time.
+	 * 
+	 * @param elapsed the time that passed.
+	 * @return the number of ticks the pet was advanced by.
+	 * @see #advance(long)
+	 */
+	public long advance(Duration elapsed) {
+		long ticks = Math.max(0, elapsed.toMillis() / TICK_MILLIS);
+		advance(ticks);
+		return ticks;
+	}
+	
+	/**
+	 * Advances the pet by the specified number of game ticks, with the same result as calling
+	 * {@link #updateProgressBars()} followed by {@link #updateState()} that many times, but
+	 * without printing.
+	 * 
+	 * <p>A pet that is left alone keeps losing hunger until its health runs out, so within a
+	 * few dozen ticks it reaches a state that further ticks no longer change. Ticks stop as
+	 * soon as one changes nothing, which makes the cost independent of the number of ticks:
+	 * a pet left for a month costs the same as one left for an hour.</p>
+	 * 
+	 * @param ticks the number of ticks to advance by.
+	 */
+	public void advance(long ticks) {
+		update(stats -> {
+			long current = stats;
+			for (long i = 0; i < ticks; i++) {
+				long next = applyState(stepProgressBars(current));
+				if (next == current) break;	// Every later tick would change nothing too
+				current = next;
+			}
+			return current;
+		});
+	}
+	
 	/**
 	 * Makes the pet go on a space mission as long as the pet is
 	 * ready for a space mission. 
@@ -190,17 +308,103 @@ public abstract class Pet {
 	 * @return true if the pet successfull went to space and false otherwise.
 	 */
 	public boolean goOnSpaceMission() {
-		if (!isSpaceReady()) return false;
+		Consumer<StatDelta> mission = d -> species.apply(d.setSpaceReadiness(0), Action.MISSION);
 		
-		spaceReadiness = 0;
-		applySpaceStatEffects();
-		updateState();
+		long old;
+		long next;
+		do {
+			old = stats;
+			if (!new PackedPetState(old).isSpaceReady()) return false;
+			next = mutated(old, mission);
+		} while (!STATS.weakCompareAndSet(this, old, next));
 		
-		totalMissions++;
+		MISSIONS.getAndAdd(this, 1);
+		bumpVersion();
 		
 		return true;
 	}
 	
+	/**
+	 * Changes several stats at once. The changes are applied together, each stat is clamped
+	 * to 0-100 once, and the state is evaluated once afterwards, so an action that changes
+	 * four stats costs one state change instead of four and cannot be penalised for a
+	 * stat that is only low half way through.
+	 * 
+	 * <p>For example {@code pet.mutate(d -> d.health(15).hunger(-40).sleep(-20))}. If another
+	 * thread changes the pet at the same time, the changes are made again on a fresh delta, so
+	 * they should not do anything else.</p>
+	 * 
+	 * @param changes makes the changes to a delta holding the pet's current stats.
+	 */
+	public void mutate(Consumer<StatDelta> changes) {
+		update(stats -> mutated(stats, changes));
+	}
+	
+	/**
+	 * Applies changes to packed stats, clamping each stat once and then evaluating the state.
+	 * 
+	 * @param stats the packed stats and state.
+	 * @param changes makes the changes to a delta holding the stats.
+	 * @return the changed stats.
+	 */
+	private static long mutated(long stats, Consumer<StatDelta> changes) {
+		StatDelta delta = new StatDelta(PackedPetState.health(stats), PackedPetState.sleep(stats),
+				PackedPetState.hunger(stats), PackedPetState.happiness(stats), PackedPetState.spaceReadiness(stats));
+		changes.accept(delta);
+		
+		return applyState(PackedPetState.pack(clamp(delta.getHealth()), clamp(delta.getSleep()),
+				clamp(delta.getHunger()), clamp(delta.getHappiness()), clamp(delta.getSpaceReadiness()),
+				PackedPetState.state(stats)));
+	}
+	
+	/**
+	 * Replaces the stats with compare-and-set, trying again if another thread replaced them
+	 * first, and bumps the version if they changed.
+	 * 
+	 * @param change computes the new stats from the current ones, possibly more than once.
+	 * @return the stats before the change.
+	 */
+	private long update(LongUnaryOperator change) {
+		long old;
+		long next;
+		do {
+			old = stats;
+			next = change.applyAsLong(old);
+			if (next == old) return old;
+		} while (!STATS.weakCompareAndSet(this, old, next));
+		
+		bumpVersion();
+		return old;
+	}
+	
+	/**
+	 * Increments the version.
+	 */
+	private void bumpVersion() {
+		VERSION.getAndAdd(this, 1L);
+	}
+	
+	/**
+	 * Clamps a stat to 0-100.
+	 * 
+	 * @param value the value.
+	 * @return the value between 0 and 100.
+	 */
+	private static int clamp(int value) {
+		return Math.max(0, Math.min(100, value));
+	}
+	
+	/**
+	 * Clamps a restored health to at most 100 and to the lowest value the packed state can
+	 * hold, so it never wraps.
+	 * 
+	 * @param value the value.
+	 * @return the value between -128 and 100.
+	 */
+	private static int clampHealth(int value) {
+		return Math.max(Byte.MIN_VALUE, Math.min(100, value));
+	}
+	
 	/**
 	 * Gets the name of the pet.
 	 * 
@@ -216,16 +420,26 @@ public abstract class Pet {
 	 * @param name the name to be assigned to the pet.
 	 */
 	public void setName(String name) {
+		if (!Objects.equals(this.name, name)) bumpVersion();
 		this.name = name;
 	}
 	
+	/**
+	 * Gets the rules of the pet's species.
+	 * 
+	 * @return the pet's species.
+	 */
+	public SpeciesRules getSpecies() {
+		return species;
+	}
+	
 	/**
 	 * Gets the pet's health.
 	 * 
 	 * @return the pet's health.
 	 */
 	public int getHealth() {
-		return health;
+		return PackedPetState.health(stats);
 	}
 	
 	/**
@@ -234,8 +448,7 @@ public abstract class Pet {
 	 * @param health the value to be assigned to health.
 	 */
 	public void setHealth(int health) {
-		this.health = Math.max(0, Math.min(100,  health));
-		updateState();
+		mutate(d -> d.setHealth(health));
 	}
 	
 	/**
@@ -244,7 +457,7 @@ public abstract class Pet {
 	 * @return the sleep value.
 	 */
 	public int getSleep() {
-		return sleep;
+		return PackedPetState.sleep(stats);
 	}
 	
 	/**
@@ -254,8 +467,7 @@ public abstract class Pet {
 	 * @param sleep the value to be assigned to sleep.
 	 */
 	public void setSleep(int sleep) {
-		this.sleep = Math.max(0, Math.min(100, sleep));
-		updateState();
+		mutate(d -> d.setSleep(sleep));
 	}
 	
 	/**
@@ -264,7 +476,7 @@ public abstract class Pet {
 	 * @return the pet's hunger level.
 	 */
 	public int getHunger() {
-		return hunger;
+		return PackedPetState.hunger(stats);
 	}
 	
 	/**
@@ -274,8 +486,7 @@ public abstract class Pet {
 	 * @param hunger the value to be assigned to hunger.
 	 */
 	public void setHunger(int hunger) {
-		this.hunger = Math.max(0, Math.min(100, hunger));
-		updateState();
+		mutate(d -> d.setHunger(hunger));
 	}
 	
 	/**
@@ -284,7 +495,7 @@ public abstract class Pet {
 	 * @return the pet's happiness level.
 	 */
 	public int getHappiness() {
-		return happiness;
+		return PackedPetState.happiness(stats);
 	}
 	
 	/**
@@ -294,8 +505,7 @@ public abstract class Pet {
 	 * @param happiness the value to be assigned to happiness.
 	 */
 	public void setHappiness(int happiness) {
-		this.happiness = Math.max(0, Math.min(100, happiness));
-		updateState();
+		mutate(d -> d.setHappiness(happiness));
 	}
 	
 	/**
@@ -305,8 +515,7 @@ public abstract class Pet {
 	 * @param spaceReadiness the value to be assigned to space readiness.
 	 */
 	public void setSpaceReadiness(int spaceReadiness) {
-		this.spaceReadiness = Math.max(0, Math.min(100, spaceReadiness));
-		updateState();
+		mutate(d -> d.setSpaceReadiness(spaceReadiness));
 	}
 
 	/**
@@ -315,7 +524,7 @@ public abstract class Pet {
 	 * @return the pet's space readiness.
 	 */
 	public int getSpaceReadiness() {
-		return spaceReadiness;
+		return PackedPetState.spaceReadiness(stats);
 	}
 	
 	// set space readiness not needed since it is not a function to manually set this stat
@@ -326,7 +535,17 @@ public abstract class Pet {
 	 * @return the pet's current state.
 	 */
 	public PetState getCurrentState() {
-		return currentState;
+		return PackedPetState.state(stats);
+	}
+	
+	/**
+	 * Gets the pet's stats and state as they were at one moment, even while another thread
+	 * is changing the pet.
+	 * 
+	 * @return the pet's packed stats and state.
+	 */
+	public PackedPetState getPackedState() {
+		return new PackedPetState(stats);
 	}
 	
 	/**
@@ -353,6 +572,7 @@ public abstract class Pet {
 	 * @param ID the value to assign to the ID.
 	 */
 	public void setID(int ID) {
+		if (petID != ID) bumpVersion();
 		petID = ID;
 	}
 	
@@ -365,7 +585,7 @@ public abstract class Pet {
 	 * @return true if the pet is space ready and false otherwise.
 	 */
 	public boolean isSpaceReady() {
-		return spaceReadiness >= 100 && currentState == PetState.NORMAL;
+		return getPackedState().isSpaceReady();
 	}
 	
 	/**
@@ -376,7 +596,7 @@ public abstract class Pet {
 	 * and false otherwise.
 	 */
 	public boolean isInState(PetState state) {
-		return currentState == state;
+		return PackedPetState.state(stats) == state;
 	}
 	
 	/**
@@ -385,7 +605,7 @@ public abstract class Pet {
 	 * @return true if the pet is alive and false otherwise.
 	 */
 	public boolean isAlive() {
-		return currentState != PetState.DEAD;
+		return PackedPetState.state(stats) != PetState.DEAD;
 	}
 
 	/**
@@ -394,7 +614,7 @@ public abstract class Pet {
 	 * @param state the state to be assigned to the pet's state.
 	 */
 	public void setCurrentState(PetState state) {
-		this.currentState = state;
+		update(stats -> PackedPetState.withState(stats, state));
 	}
 	
 	/**
@@ -403,7 +623,59 @@ public abstract class Pet {
 	 * @param missions the value to be assigned to total missions.
 	 */
 	public void setTotalMissions(int missions) {
-		this.totalMissions = missions;
+		if ((int) MISSIONS.getAndSet(this, missions) != missions) bumpVersion();
+	}
+	
+	/**
+	 * Sets every stat, the state and the number of missions as given, without re-evaluating
+	 * the state. Used to restore a pet that was saved or stored elsewhere, which the setters
+	 * would change on the way in. Values out of range, as in a damaged save, are clamped:
+	 * stats to 0-100, except health, which may be below 0 on the tick a pet dies, and
+	 * missions to at least 0.
+	 * 
+	 * @param health the pet's health.
+	 * @param sleep the pet's sleep level.
+	 * @param hunger the pet's hunger level.
+	 * @param happiness the pet's happiness level.
+	 * @param spaceReadiness the pet's space readiness.
+	 * @param state the pet's state.
+	 * @param missions the pet's total number of missions.
+	 */
+	public void restore(int health, int sleep, int hunger, int happiness, int spaceReadiness,
+			PetState state, int missions) {
+		this.stats = PackedPetState.pack(clampHealth(health), clamp(sleep), clamp(hunger), clamp(happiness),
+				clamp(spaceReadiness), state);
+		this.totalMissions = Math.max(0, missions);
+		bumpVersion();
+	}
+	
+	/**
+	 * Gets the pet's modification version. The version changes whenever the pet's name, ID,
+	 * stats, state or missions change, so two equal versions of the same pet mean nothing
+	 * needs to be saved.
+	 * 
+	 * @return the pet's modification version.
+	 */
+	public long getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Gets the time the pet's stats were last advanced to.
+	 * 
+	 * @return the time in milliseconds since the epoch, or 0 if it is unknown.
+	 */
+	public long getLastSimulated() {
+		return lastSimulated;
+	}
+	
+	/**
+	 * Sets the time the pet's stats were last advanced to.
+	 * 
+	 * @param lastSimulated the time in milliseconds since the epoch, or 0 if it is unknown.
+	 */
+	public void setLastSimulated(long lastSimulated) {
+		this.lastSimulated = lastSimulated;
 	}
 	
 }
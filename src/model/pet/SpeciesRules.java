@@ -0,0 +1,192 @@
+package model.pet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * This class holds how a species' stats change with each care action and space mission, as
+ * a table of numbers read from {@code /model/assets/species.properties}.
+ *
+ * <p>Every pet runs its actions through {@link #apply(StatDelta, Action)}, the same code for
+ * every species, so a species differs from another only in its numbers and a new one is
+ * added by listing it in the file. Each species also has a small index, its position in the
+ * file, for tables that store species as numbers.</p>
+ */
+public final class SpeciesRules {
+
+	/**
+	 * The things done to a pet that change its stats differently for each species.
+	 */
+	public enum Action {
+		EAT,
+		PLAY,
+		GIFT,
+		EXERCISE,
+		VET,
+		MISSION
+	}
+
+	/** The resource the rules are read from. */
+	public static final String RESOURCE = "/model/assets/species.properties";
+
+	/** The lowest health a space mission leaves a pet with. */
+	public static final int MISSION_MIN_HEALTH = 1;
+
+	// Stat columns of the table, in the order StatDelta lists them
+	private static final String[] STATS = { "health", "sleep", "hunger", "happiness", "spaceReadiness" };
+	private static final int HEALTH = 0;
+	private static final int SLEEP = 1;
+	private static final int HUNGER = 2;
+	private static final int HAPPINESS = 3;
+	private static final int SPACE_READINESS = 4;
+
+	private static final Action[] ACTIONS = Action.values();
+
+	private static final List<SpeciesRules> ALL;
+	private static final Map<String, SpeciesRules> BY_NAME = new HashMap<>();
+
+	static {
+		try (InputStream in = SpeciesRules.class.getResourceAsStream(RESOURCE)) {
+			if (in == null) throw new IllegalStateException("Missing species rules: " + RESOURCE);
+
+			Properties properties = new Properties();
+			properties.load(in);
+			ALL = Collections.unmodifiableList(parse(properties));
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot read species rules: " + RESOURCE, e);
+		}
+
+		for (SpeciesRules rules : ALL) BY_NAME.put(rules.name.toLowerCase(), rules);
+	}
+
+	private final String name;
+	private final int index;
+	private final int[] changes;	// changes[action * STATS.length + stat]
+
+	/**
+	 * Constructs the rules of a species.
+	 *
+	 * @param name the species' name.
+	 * @param index the species' position in the table.
+	 * @param changes the stat changes, one row of stats per action.
+	 */
+	private SpeciesRules(String name, int index, int[] changes) {
+		this.name = name;
+		this.index = index;
+		this.changes = changes;
+	}
+
+	/**
+	 * Reads the rules of every species listed in the properties.
+	 *
+	 * @param properties the rules, in the format of {@link #RESOURCE}.
+	 * @return the rules in the order the species are listed.
+	 * @throws IllegalArgumentException if a change is not a number.
+	 */
+	static List<SpeciesRules> parse(Properties properties) {
+		List<SpeciesRules> rules = new ArrayList<>();
+
+		for (String name : properties.getProperty("species", "").split(",")) {
+			name = name.trim();
+			if (name.isEmpty()) continue;
+
+			int[] changes = new int[ACTIONS.length * STATS.length];
+			for (Action action : ACTIONS) {
+				for (int stat = 0; stat < STATS.length; stat++) {
+					String key = name + "." + action.name().toLowerCase() + "." + STATS[stat];
+					String value = properties.getProperty(key);
+					if (value == null) continue;
+
+					try {
+						changes[action.ordinal() * STATS.length + stat] = Integer.parseInt(value.trim());
+					} catch (NumberFormatException e) {
+						throw new IllegalArgumentException("Invalid species rule " + key + "=" + value, e);
+					}
+				}
+			}
+
+			rules.add(new SpeciesRules(name, rules.size(), changes));
+		}
+
+		return rules;
+	}
+
+	/**
+	 * Gets the rules of a species by name, ignoring case.
+	 *
+	 * @param name the species' name, for example "dog".
+	 * @return the rules, or null if there is no such species.
+	 */
+	public static SpeciesRules forName(String name) {
+		return name == null ? null : BY_NAME.get(name.toLowerCase());
+	}
+
+	/**
+	 * Gets the rules of a species by index.
+	 *
+	 * @param index the species' index.
+	 * @return the rules.
+	 * @throws IndexOutOfBoundsException if there is no such species.
+	 */
+	public static SpeciesRules get(int index) {
+		return ALL.get(index);
+	}
+
+	/**
+	 * Gets the rules of every species, in the order they are listed.
+	 *
+	 * @return the rules, which cannot be modified.
+	 */
+	public static List<SpeciesRules> all() {
+		return ALL;
+	}
+
+	/**
+	 * Adds the changes of an action to a delta. A mission's health change never leaves the
+	 * pet with less than {@link #MISSION_MIN_HEALTH}.
+	 *
+	 * @param delta the changes being made to a pet.
+	 * @param action the action.
+	 * @return the delta.
+	 */
+	public StatDelta apply(StatDelta delta, Action action) {
+		int row = action.ordinal() * STATS.length;
+		delta.health(changes[row + HEALTH])
+				.sleep(changes[row + SLEEP])
+				.hunger(changes[row + HUNGER])
+				.happiness(changes[row + HAPPINESS])
+				.spaceReadiness(changes[row + SPACE_READINESS]);
+
+		if (action == Action.MISSION) delta.setHealth(Math.max(MISSION_MIN_HEALTH, delta.getHealth()));
+		return delta;
+	}
+
+	/**
+	 * Gets the species' name as it is written in save files, for example "Dog".
+	 *
+	 * @return the name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the species' position in the table.
+	 *
+	 * @return the index.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,190 @@
+package model.pet;
+
+/**
+ * This class collects changes to a pet's stats so they are applied together by
+ * {@link Pet#mutate(java.util.function.Consumer)}.
+ *
+ * <p>It starts out holding the pet's current stats. The changes are not clamped along the
+ * way: each stat is clamped to 0-100 once when the changes are applied, and the pet's state
+ * is then evaluated once for all of them.</p>
+ */
+public final class StatDelta {
+
+	private int health;
+	private int sleep;
+	private int hunger;
+	private int happiness;
+	private int spaceReadiness;
+
+	/**
+	 * Constructs a delta holding the specified stats.
+	 *
+	 * @param health the pet's health.
+	 * @param sleep the pet's sleep level.
+	 * @param hunger the pet's hunger level.
+	 * @param happiness the pet's happiness level.
+	 * @param spaceReadiness the pet's space readiness.
+	 */
+	StatDelta(int health, int sleep, int hunger, int happiness, int spaceReadiness) {
+		this.health = health;
+		this.sleep = sleep;
+		this.hunger = hunger;
+		this.happiness = happiness;
+		this.spaceReadiness = spaceReadiness;
+	}
+
+	/**
+	 * Changes the health by the specified amount.
+	 *
+	 * @param change the amount to add, negative to subtract.
+	 * @return this delta.
+	 */
+	public StatDelta health(int change) {
+		health += change;
+		return this;
+	}
+
+	/**
+	 * Changes the sleep level by the specified amount.
+	 *
+	 * @param change the amount to add, negative to subtract.
+	 * @return this delta.
+	 */
+	public StatDelta sleep(int change) {
+		sleep += change;
+		return this;
+	}
+
+	/**
+	 * Changes the hunger level by the specified amount.
+	 *
+	 * @param change the amount to add, negative to subtract.
+	 * @return this delta.
+	 */
+	public StatDelta hunger(int change) {
+		hunger += change;
+		return this;
+	}
+
+	/**
+	 * Changes the happiness level by the specified amount.
+	 *
+	 * @param change the amount to add, negative to subtract.
+	 * @return this delta.
+	 */
+	public StatDelta happiness(int change) {
+		happiness += change;
+		return this;
+	}
+
+	/**
+	 * Changes the space readiness by the specified amount.
+	 *
+	 * @param change the amount to add, negative to subtract.
+	 * @return this delta.
+	 */
+	public StatDelta spaceReadiness(int change) {
+		spaceReadiness += change;
+		return this;
+	}
+
+	/**
+	 * Sets the health to the specified value.
+	 *
+	 * @param health the new health.
+	 * @return this delta.
+	 */
+	public StatDelta setHealth(int health) {
+		this.health = health;
+		return this;
+	}
+
+	/**
+	 * Sets the sleep level to the specified value.
+	 *
+	 * @param sleep the new sleep level.
+	 * @return this delta.
+	 */
+	public StatDelta setSleep(int sleep) {
+		this.sleep = sleep;
+		return this;
+	}
+
+	/**
+	 * Sets the hunger level to the specified value.
+	 *
+	 * @param hunger the new hunger level.
+	 * @return this delta.
+	 */
+	public StatDelta setHunger(int hunger) {
+		this.hunger = hunger;
+		return this;
+	}
+
+	/**
+	 * Sets the happiness level to the specified value.
+	 *
+	 * @param happiness the new happiness level.
+	 * @return this delta.
+	 */
+	public StatDelta setHappiness(int happiness) {
+		this.happiness = happiness;
+		return this;
+	}
+
+	/**
+	 * Sets the space readiness to the specified value.
+	 *
+	 * @param spaceReadiness the new space readiness.
+	 * @return this delta.
+	 */
+	public StatDelta setSpaceReadiness(int spaceReadiness) {
+		this.spaceReadiness = spaceReadiness;
+		return this;
+	}
+
+	/**
+	 * Gets the health with the changes so far.
+	 *
+	 * @return the health, not yet clamped.
+	 */
+	public int getHealth() {
+		return health;
+	}
+
+	/**
+	 * Gets the sleep level with the changes so far.
+	 *
+	 * @return the sleep level, not yet clamped.
+	 */
+	public int getSleep() {
+		return sleep;
+	}
+
+	/**
+	 * Gets the hunger level with the changes so far.
+	 *
+	 * @return the hunger level, not yet clamped.
+	 */
+	public int getHunger() {
+		return hunger;
+	}
+
+	/**
+	 * Gets the happiness level with the changes so far.
+	 *
+	 * @return the happiness level, not yet clamped.
+	 */
+	public int getHappiness() {
+		return happiness;
+	}
+
+	/**
+	 * Gets the space readiness with the changes so far.
+	 *
+	 * @return the space readiness, not yet clamped.
+	 */
+	public int getSpaceReadiness() {
+		return spaceReadiness;
+	}
+}
@@ -0,0 +1,164 @@
+package model.save;
+
+import model.pet.Pet.PetState;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static model.save.SaveEncoding.*;
+
+/**
+ * This class reads and writes the compact binary save format. All values are little-endian.
+ *
+ * <pre>
+ * header     magic "APWS" (4 bytes), version (u8)
+ * stats      pet ID (i32), health, sleep, hunger, happiness, space readiness (u8 each),
+ *            state ordinal (u8), total missions (i32), last simulated (i64, version 2 and up)
+ * strings    pet type, pet name
+ * inventory  item count (u16), then per item: record length (u16), kind (u8), name, description
+ * </pre>
+ *
+ * <p>Stats, strings and item kinds are encoded as in {@link SaveEncoding}: strings are a
+ * u16 byte length followed by UTF-8 bytes. The record length of each item
+ * lets a reader skip records it does not understand. Version 1 saves are still read; their
+ * last simulated time is 0.</p>
+ */
+public class BinarySaveCodec implements PetSaveCodec {
+
+	/** The version written by this codec. */
+	public static final int VERSION = 2;
+
+	private static final byte[] MAGIC = { 'A', 'P', 'W', 'S' };
+	private static final int HEADER_SIZE = MAGIC.length + 1;
+	private static final int STATS_SIZE = 4 + 6 + 4 + 8;
+
+	/**
+	 * Encodes the specified snapshot in the binary format.
+	 *
+	 * @param data the snapshot to encode.
+	 * @return the bytes of the save file.
+	 * @throws IOException if the snapshot holds an unknown item type or values out of range.
+	 */
+	@Override
+	public byte[] encode(SaveData data) throws IOException {
+		byte[] petType = data.petType().getBytes(StandardCharsets.UTF_8);
+		byte[] petName = data.petName().getBytes(StandardCharsets.UTF_8);
+
+		List<SaveData.ItemData> items = data.items();
+		byte[][] itemStrings = new byte[items.size() * 2][];
+		int size = HEADER_SIZE + STATS_SIZE + 2 + petType.length + 2 + petName.length + 2;
+
+		for (int i = 0; i < items.size(); i++) {
+			itemStrings[i * 2] = items.get(i).name().getBytes(StandardCharsets.UTF_8);
+			itemStrings[i * 2 + 1] = items.get(i).description().getBytes(StandardCharsets.UTF_8);
+			size += 2 + 1 + 2 + itemStrings[i * 2].length + 2 + itemStrings[i * 2 + 1].length;
+		}
+
+		if (items.size() > 0xFFFF) throw new IOException("Too many items to save: " + items.size());
+
+		ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			buffer.put(MAGIC).put((byte) VERSION);
+
+			buffer.putInt(data.petID());
+			buffer.put(stat(data.health())).put(stat(data.sleep())).put(stat(data.hunger()));
+			buffer.put(stat(data.happiness())).put(stat(data.spaceReadiness()));
+			buffer.put((byte) data.state().ordinal());
+			buffer.putInt(data.totalMissions());
+			buffer.putLong(data.lastSimulated());
+
+			putString(buffer, petType);
+			putString(buffer, petName);
+
+			buffer.putShort((short) items.size());
+			for (int i = 0; i < items.size(); i++) {
+				byte[] name = itemStrings[i * 2];
+				byte[] desc = itemStrings[i * 2 + 1];
+
+				buffer.putShort(length(1 + 2 + name.length + 2 + desc.length));
+				buffer.put((byte) kind(items.get(i).type()));
+				putString(buffer, name);
+				putString(buffer, desc);
+			}
+		} catch (BufferOverflowException e) {
+			throw new IOException("Save does not fit the binary format", e);
+		}
+
+		return buffer.array();
+	}
+
+	/**
+	 * Decodes a binary save.
+	 *
+	 * @param bytes the bytes of the save file.
+	 * @return the decoded snapshot.
+	 * @throws IOException if the header is wrong, the version is unsupported or the data is truncated.
+	 */
+	@Override
+	public SaveData decode(byte[] bytes) throws IOException {
+		if (!canDecode(bytes)) throw new IOException("Not a binary save");
+
+		ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.position(MAGIC.length);
+
+		int version = buffer.get() & 0xFF;
+		if (version > VERSION) throw new IOException("Unsupported save version: " + version);
+
+		try {
+			int petID = buffer.getInt();
+			int health = buffer.get() & 0xFF;
+			int sleep = buffer.get() & 0xFF;
+			int hunger = buffer.get() & 0xFF;
+			int happiness = buffer.get() & 0xFF;
+			int spaceReadiness = buffer.get() & 0xFF;
+			int stateOrdinal = buffer.get() & 0xFF;
+			int totalMissions = buffer.getInt();
+			long lastSimulated = version >= 2 ? buffer.getLong() : 0;
+
+			PetState[] states = PetState.values();
+			if (stateOrdinal >= states.length) throw new IOException("Unknown pet state: " + stateOrdinal);
+
+			String petType = getString(buffer);
+			String petName = getString(buffer);
+
+			int itemCount = buffer.getShort() & 0xFFFF;
+			List<SaveData.ItemData> items = new ArrayList<>(itemCount);
+
+			for (int i = 0; i < itemCount; i++) {
+				int recordLength = buffer.getShort() & 0xFFFF;
+				int recordEnd = buffer.position() + recordLength;
+
+				String type = type(buffer.get() & 0xFF);
+				if (type != null) {
+					String name = getString(buffer);
+					String desc = getString(buffer);
+					items.add(new SaveData.ItemData(type, name, desc));
+				}
+
+				buffer.position(recordEnd);
+			}
+
+			return new SaveData(petType, petID, petName, health, sleep, hunger, happiness, spaceReadiness,
+					states[stateOrdinal], totalMissions, items, lastSimulated);
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new IOException("Truncated binary save", e);
+		}
+	}
+
+	/**
+	 * Checks for the binary header magic.
+	 *
+	 * @param bytes the bytes of the save file.
+	 * @return true if the bytes start with the binary header and false otherwise.
+	 */
+	@Override
+	public boolean canDecode(byte[] bytes) {
+		return bytes.length >= HEADER_SIZE && Arrays.equals(bytes, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+	}
+}
@@ -0,0 +1,160 @@
+package model.save;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This class stores every pet in its own {@code <id>.save} file inside the pets directory,
+ * with a {@link PetCatalog} answering the listings. Saves are written with the configured
+ * codec and read in whichever format they were written in.
+ */
+public class FilePetStore implements PetStore {
+
+	private static final String SAVE_EXTENSION = ".save";
+
+	private final File petsDir;
+	private final PetCatalog catalog;
+	private final PetSaveCodec codec;
+	private final PetIdSequence idSequence;
+
+	/**
+	 * Constructs a store over the specified pets directory.
+	 *
+	 * @param petsDir the directory holding the save files.
+	 * @param catalogFile the file the catalog is stored in.
+	 * @param sequenceFile the file the last handed out pet ID is stored in.
+	 * @param codec the codec new saves are written with.
+	 */
+	public FilePetStore(File petsDir, File catalogFile, File sequenceFile, PetSaveCodec codec) {
+		this.petsDir = petsDir;
+		this.catalog = new PetCatalog(petsDir, catalogFile);
+		this.codec = codec;
+		this.idSequence = new PetIdSequence(sequenceFile,
+				() -> getPetIDs().stream().mapToInt(Integer::intValue).max().orElse(0));
+	}
+
+	/**
+	 * Writes the snapshot to the pet's save file and records it in the catalog.
+	 *
+	 * @param data the snapshot to write.
+	 * @throws IOException if the save file cannot be written.
+	 */
+	@Override
+	public void save(SaveData data) throws IOException {
+		File saveFile = getSaveFile(data.petID());
+
+		petsDir.mkdirs();
+		Files.write(saveFile.toPath(), codec.encode(data));
+
+		catalog.update(new PetCatalog.Entry(data.petID(), data.petName(), data.petType(), data.state(),
+				data.totalMissions(), saveFile.lastModified()));
+	}
+
+	/**
+	 * Writes every snapshot's save file, then records them all in the catalog at once.
+	 *
+	 * @param batch the snapshots to write.
+	 * @throws IOException if a save file cannot be written.
+	 */
+	@Override
+	public void saveAll(Collection<SaveData> batch) throws IOException {
+		List<PetCatalog.Entry> written = new ArrayList<>(batch.size());
+		petsDir.mkdirs();
+
+		try {
+			for (SaveData data : batch) {
+				File saveFile = getSaveFile(data.petID());
+				Files.write(saveFile.toPath(), codec.encode(data));
+				written.add(new PetCatalog.Entry(data.petID(), data.petName(), data.petType(), data.state(),
+						data.totalMissions(), saveFile.lastModified()));
+			}
+		} finally {
+			catalog.updateAll(written);		// Record what made it to disk even if a write failed
+		}
+	}
+
+	@Override
+	public SaveData load(int petID) throws IOException {
+		File saveFile = getSaveFile(petID);
+		if (!saveFile.exists()) return null;
+
+		return SaveCodecs.read(saveFile);	// Detects the format the file was written in
+	}
+
+	@Override
+	public boolean delete(int petID) throws IOException {
+		File saveFile = getSaveFile(petID);
+		if (!saveFile.exists()) return false;
+
+		Files.delete(saveFile.toPath());
+		catalog.remove(petID);
+		return true;
+	}
+
+	/**
+	 * Hands out the next ID from the sequence file. The pets directory is only scanned if
+	 * the sequence file has to be rebuilt.
+	 *
+	 * @return the new pet's ID.
+	 * @throws IOException if the sequence file cannot be written.
+	 */
+	@Override
+	public int allocatePetID() throws IOException {
+		return idSequence.next(id -> getSaveFile(id).exists());
+	}
+
+	@Override
+	public int allocatePetIDs(int count) throws IOException {
+		return idSequence.nextBlock(count, id -> getSaveFile(id).exists());
+	}
+
+	/**
+	 * Searches the pets directory for save files and parses their IDs from the file names.
+	 *
+	 * @return a list of saved pet IDs.
+	 */
+	@Override
+	public List<Integer> getPetIDs() {
+		List<Integer> petIDs = new ArrayList<>();
+		File[] files = petsDir.listFiles((dir, name) -> name.endsWith(SAVE_EXTENSION));
+
+		if (files != null) {
+			for (File file : files) {
+				String fileName = file.getName();
+				try {
+					petIDs.add(Integer.parseInt(fileName.substring(0, fileName.lastIndexOf("."))));
+				} catch (NumberFormatException e) {
+					// Skip files with invalid names
+				}
+			}
+		}
+
+		return petIDs;
+	}
+
+	@Override
+	public Collection<PetCatalog.Entry> getEntries() {
+		return catalog.getEntries();
+	}
+
+	/**
+	 * Save files are written directly, so there is nothing to flush.
+	 */
+	@Override
+	public void flush() {
+	}
+
+	/**
+	 * Gets the save file of the specified pet.
+	 *
+	 * @param petID the pet's ID.
+	 * @return the pet's save file.
+	 */
+	private File getSaveFile(int petID) {
+		return new File(petsDir, petID + SAVE_EXTENSION);
+	}
+}
@@ -0,0 +1,529 @@
+package model.save;
+
+import model.log.Log;
+import model.pet.Pet.PetState;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static model.save.SaveEncoding.*;
+
+/**
+ * This class stores every pet in a single memory-mapped data file. All values are little-endian.
+ *
+ * <pre>
+ * header    (64 bytes)  magic "APMS", version, slot capacity, free list head, slot high water,
+ *                       overflow start, overflow end, overflow garbage, last pet ID handed out
+ * slots     (48 bytes each, one per pet)
+ *           pet ID (i32, 0 when free), health, sleep, hunger, happiness, space readiness,
+ *           state ordinal (u8 each), flags (u16), total missions (i32), blob offset, blob length,
+ *           blob capacity, next free slot (i32 each), last modified (i64), last simulated (i64)
+ * overflow  variable-length blobs holding each pet's type, name and inventory
+ * </pre>
+ *
+ * <p>Saving a pet whose name and inventory did not change only rewrites the few stat bytes of
+ * its slot. A blob is rewritten in place when the new one fits and appended otherwise; the
+ * overflow area is compacted once most of it is garbage. Deleted slots go on a free list and
+ * are reused before the slot table grows.</p>
+ *
+ * <p>Writes land in the page cache as soon as they are made; {@link #flush()} forces them to
+ * the storage device.</p>
+ */
+public class MappedPetStore implements PetStore {
+
+	private static final Log LOG = Log.get(MappedPetStore.class);
+
+	private static final int MAGIC = 0x534D5041;	// "APMS" read little-endian
+	private static final int VERSION = 1;
+
+	// Header layout
+	private static final int HEADER_SIZE = 64;
+	private static final int H_MAGIC = 0;
+	private static final int H_VERSION = 4;
+	private static final int H_CAPACITY = 8;
+	private static final int H_FREE_HEAD = 12;
+	private static final int H_HIGH_WATER = 16;
+	private static final int H_OVERFLOW_START = 24;
+	private static final int H_OVERFLOW_END = 32;
+	private static final int H_GARBAGE = 40;
+	private static final int H_LAST_PET_ID = 48;
+
+	// Slot layout
+	private static final int SLOT_SIZE = 48;
+	private static final int S_PET_ID = 0;
+	private static final int S_STATS = 4;			// health, sleep, hunger, happiness, space readiness, state
+	private static final int S_MISSIONS = 12;
+	private static final int S_BLOB_OFFSET = 16;	// relative to the overflow start
+	private static final int S_BLOB_LENGTH = 20;
+	private static final int S_BLOB_CAPACITY = 24;
+	private static final int S_NEXT_FREE = 28;		// slot index + 1, 0 for the end of the list
+	private static final int S_LAST_MODIFIED = 32;
+	private static final int S_LAST_SIMULATED = 40;	// 0 in files written before it was stored
+
+	private static final int INITIAL_CAPACITY = 64;
+	private static final int INITIAL_OVERFLOW = 16 * 1024;
+	private static final int COMPACT_THRESHOLD = 64 * 1024;
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private MappedByteBuffer buffer;
+	private final TreeMap<Integer, Integer> slotByID;	// Pet ID -> slot index
+
+	/**
+	 * Opens the store in the specified file, creating it if it does not exist.
+	 *
+	 * @param dataFile the data file.
+	 * @throws IOException if the file cannot be opened or is not a pet store.
+	 */
+	public MappedPetStore(File dataFile) throws IOException {
+		boolean created = !dataFile.exists() || dataFile.length() == 0;
+
+		file = new RandomAccessFile(dataFile, "rw");
+		channel = file.getChannel();
+		slotByID = new TreeMap<>();
+
+		try {
+			if (created) {
+				long overflowStart = HEADER_SIZE + (long) INITIAL_CAPACITY * SLOT_SIZE;
+				map(overflowStart + INITIAL_OVERFLOW);
+				buffer.putInt(H_MAGIC, MAGIC);
+				buffer.putInt(H_VERSION, VERSION);
+				buffer.putInt(H_CAPACITY, INITIAL_CAPACITY);
+				buffer.putLong(H_OVERFLOW_START, overflowStart);
+			} else {
+				map(file.length());
+				if (buffer.limit() < HEADER_SIZE || buffer.getInt(H_MAGIC) != MAGIC) {
+					throw new IOException("Not a pet store: " + dataFile);
+				}
+				if (buffer.getInt(H_VERSION) > VERSION) {
+					throw new IOException("Unsupported pet store version: " + buffer.getInt(H_VERSION));
+				}
+			}
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+
+		int highWater = buffer.getInt(H_HIGH_WATER);
+		for (int slot = 0; slot < highWater; slot++) {
+			int petID = buffer.getInt(slotOffset(slot) + S_PET_ID);
+			if (petID != 0) slotByID.put(petID, slot);
+		}
+	}
+
+	/**
+	 * Writes the snapshot into the pet's slot. Only the stat bytes are written when the
+	 * pet's type, name and inventory are unchanged.
+	 *
+	 * @param data the snapshot to write.
+	 * @throws IOException if the snapshot cannot be stored.
+	 */
+	@Override
+	public synchronized void save(SaveData data) throws IOException {
+		if (data.petID() == 0) throw new IOException("Pet ID 0 cannot be stored");
+
+		Integer existing = slotByID.get(data.petID());
+		int slot = existing != null ? existing : allocateSlot(data.petID());
+		int base = slotOffset(slot);
+
+		buffer.put(base + S_STATS, stat(data.health()));
+		buffer.put(base + S_STATS + 1, stat(data.sleep()));
+		buffer.put(base + S_STATS + 2, stat(data.hunger()));
+		buffer.put(base + S_STATS + 3, stat(data.happiness()));
+		buffer.put(base + S_STATS + 4, stat(data.spaceReadiness()));
+		buffer.put(base + S_STATS + 5, (byte) data.state().ordinal());
+		buffer.putInt(base + S_MISSIONS, data.totalMissions());
+		buffer.putLong(base + S_LAST_MODIFIED, System.currentTimeMillis());
+		buffer.putLong(base + S_LAST_SIMULATED, data.lastSimulated());
+
+		byte[] blob = encodeBlob(data);
+		if (!blobEquals(base, blob)) writeBlob(slot, blob);
+	}
+
+	/**
+	 * Writes every snapshot while holding the store's lock once.
+	 *
+	 * @param batch the snapshots to write.
+	 * @throws IOException if a snapshot cannot be stored.
+	 */
+	@Override
+	public synchronized void saveAll(Collection<SaveData> batch) throws IOException {
+		for (SaveData data : batch) {
+			save(data);
+		}
+	}
+
+	@Override
+	public synchronized SaveData load(int petID) throws IOException {
+		Integer slot = slotByID.get(petID);
+		if (slot == null) return null;
+
+		int base = slotOffset(slot);
+		PetState[] states = PetState.values();
+		int stateOrdinal = buffer.get(base + S_STATS + 5) & 0xFF;
+		if (stateOrdinal >= states.length) throw new IOException("Unknown pet state: " + stateOrdinal);
+
+		ByteBuffer blob = readBlob(base);
+		try {
+			String petType = getString(blob);
+			String petName = getString(blob);
+
+			int itemCount = blob.getShort() & 0xFFFF;
+			List<SaveData.ItemData> items = new ArrayList<>(itemCount);
+			for (int i = 0; i < itemCount; i++) {
+				int kind = blob.get() & 0xFF;
+				String type = type(kind);
+				if (type == null) throw new IOException("Unknown item kind in pet record " + petID + ": " + kind);
+				String name = getString(blob);
+				String desc = getString(blob);
+				items.add(new SaveData.ItemData(type, name, desc));
+			}
+
+			return new SaveData(petType, petID, petName, buffer.get(base + S_STATS) & 0xFF,
+					buffer.get(base + S_STATS + 1) & 0xFF, buffer.get(base + S_STATS + 2) & 0xFF,
+					buffer.get(base + S_STATS + 3) & 0xFF, buffer.get(base + S_STATS + 4) & 0xFF,
+					states[stateOrdinal], buffer.getInt(base + S_MISSIONS), items,
+					buffer.getLong(base + S_LAST_SIMULATED));
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Corrupt pet record: " + petID, e);
+		}
+	}
+
+	/**
+	 * Frees the pet's slot and puts it on the free list.
+	 *
+	 * @param petID the pet's ID.
+	 * @return true if the pet was stored and false otherwise.
+	 */
+	@Override
+	public synchronized boolean delete(int petID) {
+		Integer slot = slotByID.remove(petID);
+		if (slot == null) return false;
+
+		int base = slotOffset(slot);
+		buffer.putLong(H_GARBAGE, buffer.getLong(H_GARBAGE) + buffer.getInt(base + S_BLOB_CAPACITY));
+
+		for (int i = 0; i < SLOT_SIZE; i++) {
+			buffer.put(base + i, (byte) 0);
+		}
+		buffer.putInt(base + S_NEXT_FREE, buffer.getInt(H_FREE_HEAD));
+		buffer.putInt(H_FREE_HEAD, slot + 1);
+		return true;
+	}
+
+	/**
+	 * Hands out the ID after the highest one handed out or stored, recording it in the header.
+	 * Files written before the header held the last ID start from the highest stored ID.
+	 *
+	 * @return the new pet's ID.
+	 */
+	@Override
+	public synchronized int allocatePetID() {
+		return allocatePetIDs(1);
+	}
+
+	@Override
+	public synchronized int allocatePetIDs(int count) {
+		if (count < 1) throw new IllegalArgumentException("count must be positive: " + count);
+
+		int last = buffer.getInt(H_LAST_PET_ID);
+		if (!slotByID.isEmpty()) last = Math.max(last, slotByID.lastKey());
+
+		buffer.putInt(H_LAST_PET_ID, last + count);
+		return last + 1;
+	}
+
+	@Override
+	public synchronized List<Integer> getPetIDs() {
+		return new ArrayList<>(slotByID.keySet());
+	}
+
+	/**
+	 * Builds the catalog entries straight from the slots and blobs in memory.
+	 *
+	 * @return the catalog entries ordered by pet ID.
+	 */
+	@Override
+	public synchronized Collection<PetCatalog.Entry> getEntries() {
+		List<PetCatalog.Entry> entries = new ArrayList<>(slotByID.size());
+		PetState[] states = PetState.values();
+
+		for (Map.Entry<Integer, Integer> e : slotByID.entrySet()) {
+			int base = slotOffset(e.getValue());
+			int stateOrdinal = buffer.get(base + S_STATS + 5) & 0xFF;
+			ByteBuffer blob = readBlob(base);
+
+			try {
+				String petType = getString(blob);
+				String petName = getString(blob);
+				entries.add(new PetCatalog.Entry(e.getKey(), petName, petType,
+						stateOrdinal < states.length ? states[stateOrdinal] : PetState.NORMAL,
+						buffer.getInt(base + S_MISSIONS), buffer.getLong(base + S_LAST_MODIFIED)));
+			} catch (BufferUnderflowException ex) {
+				LOG.warn("Skipping corrupt pet record: {0}", e.getKey());
+			}
+		}
+
+		return entries;
+	}
+
+	@Override
+	public synchronized void flush() {
+		buffer.force();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		buffer.force();
+		file.close();
+	}
+
+	/**
+	 * Copies every save file in a directory of {@code <id>.save} files into this store.
+	 *
+	 * @param petsDir the directory holding the save files.
+	 * @return the number of pets imported.
+	 */
+	public int importSaves(File petsDir) {
+		int imported = 0;
+		File[] files = petsDir.listFiles((dir, name) -> name.endsWith(".save"));
+
+		if (files != null) {
+			for (File saveFile : files) {
+				try {
+					save(SaveCodecs.read(saveFile));
+					imported++;
+				} catch (IOException e) {
+					LOG.error("Error importing pet save file " + saveFile, e);
+				}
+			}
+		}
+
+		return imported;
+	}
+
+	/**
+	 * Takes a slot for a new pet, reusing a freed slot when there is one.
+	 *
+	 * @param petID the ID of the new pet.
+	 * @return the slot index.
+	 * @throws IOException if the slot table cannot grow.
+	 */
+	private int allocateSlot(int petID) throws IOException {
+		int slot;
+		int freeHead = buffer.getInt(H_FREE_HEAD);
+
+		if (freeHead != 0) {
+			slot = freeHead - 1;
+			buffer.putInt(H_FREE_HEAD, buffer.getInt(slotOffset(slot) + S_NEXT_FREE));
+		} else {
+			slot = buffer.getInt(H_HIGH_WATER);
+			if (slot == buffer.getInt(H_CAPACITY)) growSlots();
+			buffer.putInt(H_HIGH_WATER, slot + 1);
+		}
+
+		int base = slotOffset(slot);
+		buffer.putInt(base + S_PET_ID, petID);
+		buffer.putInt(base + S_NEXT_FREE, 0);
+		buffer.putInt(base + S_BLOB_LENGTH, -1);	// No blob yet, never equal to a new one
+		slotByID.put(petID, slot);
+		return slot;
+	}
+
+	/**
+	 * Doubles the slot table by moving the overflow area further into the file. Blob offsets
+	 * are relative to the overflow start, so slots need no updates.
+	 *
+	 * @throws IOException if the file cannot grow.
+	 */
+	private void growSlots() throws IOException {
+		int capacity = buffer.getInt(H_CAPACITY);
+		long overflowStart = buffer.getLong(H_OVERFLOW_START);
+		long overflowEnd = buffer.getLong(H_OVERFLOW_END);
+		long growth = (long) capacity * SLOT_SIZE;
+
+		byte[] overflow = new byte[(int) overflowEnd];
+		buffer.get((int) overflowStart, overflow);
+
+		map(buffer.capacity() + growth);
+		buffer.put((int) (overflowStart + growth), overflow);
+		for (long i = overflowStart; i < overflowStart + growth; i++) {
+			buffer.put((int) i, (byte) 0);
+		}
+
+		buffer.putInt(H_CAPACITY, capacity * 2);
+		buffer.putLong(H_OVERFLOW_START, overflowStart + growth);
+	}
+
+	/**
+	 * Writes a blob for the slot, in place if it fits its current space and at the end of the
+	 * overflow area otherwise.
+	 *
+	 * @param slot the slot index.
+	 * @param blob the blob to write.
+	 * @throws IOException if the overflow area cannot grow.
+	 */
+	private void writeBlob(int slot, byte[] blob) throws IOException {
+		int base = slotOffset(slot);
+		int capacity = buffer.getInt(base + S_BLOB_CAPACITY);
+
+		if (blob.length > capacity) {
+			// Retire the old space first so compaction does not copy it
+			buffer.putLong(H_GARBAGE, buffer.getLong(H_GARBAGE) + capacity);
+			buffer.putInt(base + S_BLOB_CAPACITY, 0);
+			maybeCompact();
+
+			capacity = blob.length + blob.length / 2;	// Leave room for the inventory to grow
+			long offset = buffer.getLong(H_OVERFLOW_END);
+			ensureOverflow(offset + capacity);
+
+			buffer.putInt(base + S_BLOB_OFFSET, (int) offset);
+			buffer.putInt(base + S_BLOB_CAPACITY, capacity);
+			buffer.putLong(H_OVERFLOW_END, offset + capacity);
+		}
+
+		long start = buffer.getLong(H_OVERFLOW_START) + buffer.getInt(base + S_BLOB_OFFSET);
+		buffer.put((int) start, blob);
+		buffer.putInt(base + S_BLOB_LENGTH, blob.length);
+	}
+
+	/**
+	 * Rewrites the overflow area without garbage once garbage makes up most of it.
+	 */
+	private void maybeCompact() {
+		long garbage = buffer.getLong(H_GARBAGE);
+		long overflowEnd = buffer.getLong(H_OVERFLOW_END);
+		if (garbage < COMPACT_THRESHOLD || garbage * 2 < overflowEnd) return;
+
+		long overflowStart = buffer.getLong(H_OVERFLOW_START);
+		ByteBuffer compacted = ByteBuffer.allocate((int) (overflowEnd - garbage));
+
+		for (int slot : slotByID.values()) {
+			int base = slotOffset(slot);
+			int capacity = buffer.getInt(base + S_BLOB_CAPACITY);
+			if (capacity == 0) continue;
+
+			byte[] bytes = new byte[capacity];
+			buffer.get((int) (overflowStart + buffer.getInt(base + S_BLOB_OFFSET)), bytes);
+			buffer.putInt(base + S_BLOB_OFFSET, compacted.position());
+			compacted.put(bytes);
+		}
+
+		buffer.put((int) overflowStart, compacted.array(), 0, compacted.position());
+		buffer.putLong(H_OVERFLOW_END, compacted.position());
+		buffer.putLong(H_GARBAGE, 0);
+	}
+
+	/**
+	 * Grows the file so the overflow area holds at least the specified number of bytes.
+	 *
+	 * @param overflowSize the required size of the overflow area.
+	 * @throws IOException if the file cannot grow.
+	 */
+	private void ensureOverflow(long overflowSize) throws IOException {
+		long required = buffer.getLong(H_OVERFLOW_START) + overflowSize;
+		if (required <= buffer.capacity()) return;
+
+		map(Math.max(required, (long) buffer.capacity() * 2));
+	}
+
+	/**
+	 * Maps the whole file, growing it to the specified size first.
+	 *
+	 * @param size the size of the file.
+	 * @throws IOException if the file cannot be mapped.
+	 */
+	private void map(long size) throws IOException {
+		if (size > Integer.MAX_VALUE) throw new IOException("Pet store is full");
+
+		if (file.length() < size) file.setLength(size);
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Checks whether the slot's current blob equals the specified one.
+	 *
+	 * @param base the offset of the slot.
+	 * @param blob the blob to compare against.
+	 * @return true if the blobs are equal and false otherwise.
+	 */
+	private boolean blobEquals(int base, byte[] blob) {
+		if (buffer.getInt(base + S_BLOB_LENGTH) != blob.length) return false;
+
+		int start = (int) (buffer.getLong(H_OVERFLOW_START) + buffer.getInt(base + S_BLOB_OFFSET));
+		return buffer.slice(start, blob.length).equals(ByteBuffer.wrap(blob));
+	}
+
+	/**
+	 * Gets a read-only view of the slot's blob.
+	 *
+	 * @param base the offset of the slot.
+	 * @return the blob.
+	 */
+	private ByteBuffer readBlob(int base) {
+		int start = (int) (buffer.getLong(H_OVERFLOW_START) + buffer.getInt(base + S_BLOB_OFFSET));
+		int length = Math.max(0, buffer.getInt(base + S_BLOB_LENGTH));
+		return buffer.slice(start, length).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Encodes the parts of a pet that do not fit in a fixed-size slot: type, name and inventory.
+	 *
+	 * @param data the snapshot to encode.
+	 * @return the blob.
+	 * @throws IOException if a value is too long or an item type is unknown.
+	 */
+	private static byte[] encodeBlob(SaveData data) throws IOException {
+		List<byte[]> strings = new ArrayList<>(2 + data.items().size() * 2);
+		strings.add(data.petType().getBytes(StandardCharsets.UTF_8));
+		strings.add(data.petName().getBytes(StandardCharsets.UTF_8));
+
+		int size = 2;
+		for (SaveData.ItemData item : data.items()) {
+			kind(item.type());	// Rejects unknown types before anything is written
+			strings.add(item.name().getBytes(StandardCharsets.UTF_8));
+			strings.add(item.description().getBytes(StandardCharsets.UTF_8));
+			size += 1;
+		}
+		for (byte[] string : strings) {
+			length(string.length);
+			size += 2 + string.length;
+		}
+		if (data.items().size() > 0xFFFF) throw new IOException("Too many items to save: " + data.items().size());
+
+		ByteBuffer blob = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		putString(blob, strings.get(0));
+		putString(blob, strings.get(1));
+		blob.putShort((short) data.items().size());
+
+		for (int i = 0; i < data.items().size(); i++) {
+			blob.put((byte) kind(data.items().get(i).type()));
+			putString(blob, strings.get(2 + i * 2));
+			putString(blob, strings.get(3 + i * 2));
+		}
+
+		return blob.array();
+	}
+
+	/**
+	 * Gets the offset of a slot in the file.
+	 *
+	 * @param slot the slot index.
+	 * @return the offset of the slot.
+	 */
+	private static int slotOffset(int slot) {
+		return HEADER_SIZE + slot * SLOT_SIZE;
+	}
+}
@@ -0,0 +1,327 @@
+package model.save;
+
+import model.log.Log;
+import model.pet.Pet.PetState;
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * This class represents a compact on-disk index of every saved pet. It keeps the id, name,
+ * species, state, mission count and last-modified time of each pet so the save slot listings
+ * can be answered without opening every save file.
+ *
+ * <p>The catalog is an append-only file of one tab separated line per update; later lines
+ * override earlier ones for the same pet. The file is compacted once it holds too many
+ * superseded lines. The catalog is considered stale (and rebuilt from the save files) when
+ * it is missing or when the pets directory was modified after it.</p>
+ */
+public class PetCatalog {
+
+	private static final Log LOG = Log.get(PetCatalog.class);
+
+	private static final String SAVE_EXTENSION = ".save";
+	private static final String REMOVED = "-";
+
+	private final File petsDir;
+	private final File catalogFile;
+	private final Map<Integer, Entry> entries;
+	private int lineCount;		// lines currently in the catalog file, including superseded ones
+	private boolean loaded;
+
+	/**
+	 * A single catalog entry describing one saved pet.
+	 *
+	 * @param id the pet's ID.
+	 * @param name the pet's name.
+	 * @param species the pet's species, as written in the save file.
+	 * @param state the pet's state.
+	 * @param totalMissions the pet's total number of missions.
+	 * @param lastModified the time the pet was last saved in milliseconds.
+	 */
+	public record Entry(int id, String name, String species, PetState state, int totalMissions, long lastModified) {
+
+		/**
+		 * Checks if the pet described by this entry is alive.
+		 *
+		 * @return true if the pet is not dead and false otherwise.
+		 */
+		public boolean isAlive() {
+			return state != PetState.DEAD;
+		}
+	}
+
+	/**
+	 * Constructs a catalog for the save files in the specified directory.
+	 *
+	 * @param petsDir the directory holding the pet save files.
+	 * @param catalogFile the file the catalog is stored in.
+	 */
+	public PetCatalog(File petsDir, File catalogFile) {
+		this.petsDir = petsDir;
+		this.catalogFile = catalogFile;
+		this.entries = new TreeMap<>();
+	}
+
+	/**
+	 * Gets every entry in the catalog ordered by pet ID, rebuilding the catalog first
+	 * if it is missing or stale.
+	 *
+	 * @return an unmodifiable view of the catalog entries.
+	 */
+	public synchronized Collection<Entry> getEntries() {
+		ensureFresh();
+		return Collections.unmodifiableCollection(new ArrayList<>(entries.values()));
+	}
+
+	/**
+	 * Gets the entry for the specified pet.
+	 *
+	 * @param id the pet's ID.
+	 * @return the pet's entry, or null if the pet is not in the catalog.
+	 */
+	public synchronized Entry getEntry(int id) {
+		ensureFresh();
+		return entries.get(id);
+	}
+
+	/**
+	 * Records the specified entry, replacing any previous entry for the same pet. Only
+	 * the new line is appended to the catalog file.
+	 *
+	 * @param entry the entry to record.
+	 */
+	public synchronized void update(Entry entry) {
+		ensureLoaded();
+		entries.put(entry.id(), entry);
+		append(format(entry));
+	}
+
+	/**
+	 * Records each of the specified entries like {@link #update(Entry)}, appending all of
+	 * their lines with a single open of the catalog file.
+	 *
+	 * @param batch the entries to record.
+	 */
+	public synchronized void updateAll(Collection<Entry> batch) {
+		ensureLoaded();
+		for (Entry entry : batch) {
+			entries.put(entry.id(), entry);
+		}
+
+		if (lineCount + batch.size() > 32 && lineCount + batch.size() > entries.size() * 2) {
+			writeAll();
+			return;
+		}
+
+		try (PrintWriter writer = new PrintWriter(new FileWriter(catalogFile, true))) {
+			for (Entry entry : batch) {
+				writer.println(format(entry));
+			}
+			lineCount += batch.size();
+		} catch (IOException e) {
+			LOG.error("Error updating pet catalog", e);
+		}
+	}
+
+	/**
+	 * Removes the specified pet from the catalog.
+	 *
+	 * @param id the ID of the pet to remove.
+	 */
+	public synchronized void remove(int id) {
+		ensureLoaded();
+		if (entries.remove(id) != null) {
+			append(id + "\t" + REMOVED);
+		}
+	}
+
+	/**
+	 * Discards the in-memory catalog and rebuilds it by reading every save file.
+	 */
+	public synchronized void rebuild() {
+		entries.clear();
+
+		File[] files = petsDir.listFiles((dir, name) -> name.endsWith(SAVE_EXTENSION));
+		if (files != null) {
+			for (File file : files) {
+				Entry entry = readSaveFile(file);
+				if (entry != null) entries.put(entry.id(), entry);
+			}
+		}
+
+		writeAll();
+		loaded = true;
+	}
+
+	/**
+	 * Loads the catalog from disk the first time it is needed and rebuilds it when the
+	 * file is missing or older than the pets directory.
+	 */
+	private void ensureFresh() {
+		if (!catalogFile.exists() || catalogFile.lastModified() < petsDir.lastModified()) {
+			rebuild();
+			return;
+		}
+
+		if (!loaded) {
+			readCatalog();
+			loaded = true;
+		}
+	}
+
+	/**
+	 * Loads the catalog without checking it against the pets directory. Used by updates,
+	 * which have just modified the directory themselves.
+	 */
+	private void ensureLoaded() {
+		if (!catalogFile.exists()) {
+			rebuild();
+		} else if (!loaded) {
+			readCatalog();
+			loaded = true;
+		}
+	}
+
+	/**
+	 * Reads the catalog file into memory, letting later lines override earlier ones.
+	 */
+	private void readCatalog() {
+		entries.clear();
+		lineCount = 0;
+
+		try (BufferedReader reader = new BufferedReader(new FileReader(catalogFile))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineCount++;
+				String[] parts = line.split("\t");
+				try {
+					int id = Integer.parseInt(parts[0]);
+					if (parts.length == 2 && parts[1].equals(REMOVED)) {
+						entries.remove(id);
+					} else if (parts.length == 6) {
+						entries.put(id, new Entry(id, unescape(parts[1]), parts[2], PetState.valueOf(parts[3]),
+								Integer.parseInt(parts[4]), Long.parseLong(parts[5])));
+					}
+				} catch (IllegalArgumentException e) {
+					// Skip malformed lines
+				}
+			}
+		} catch (IOException e) {
+			LOG.warn("Error reading pet catalog, rebuilding it: {0}", e.getMessage());
+			rebuild();
+		}
+	}
+
+	/**
+	 * Appends a line to the catalog file, compacting the file instead when it holds
+	 * more than twice as many lines as live entries.
+	 *
+	 * @param line the line to append.
+	 */
+	private void append(String line) {
+		if (lineCount > 32 && lineCount > entries.size() * 2) {
+			writeAll();
+			return;
+		}
+
+		try (PrintWriter writer = new PrintWriter(new FileWriter(catalogFile, true))) {
+			writer.println(line);
+			lineCount++;
+		} catch (IOException e) {
+			LOG.error("Error updating pet catalog", e);
+		}
+	}
+
+	/**
+	 * Rewrites the whole catalog file with one line per live entry.
+	 */
+	private void writeAll() {
+		File tempFile = new File(catalogFile.getPath() + ".tmp");
+
+		try (PrintWriter writer = new PrintWriter(new FileWriter(tempFile))) {
+			for (Entry entry : entries.values()) {
+				writer.println(format(entry));
+			}
+		} catch (IOException e) {
+			LOG.error("Error writing pet catalog", e);
+			return;
+		}
+
+		// Replace in one step so a crash leaves either the old catalog or the new one
+		try {
+			try {
+				Files.move(tempFile.toPath(), catalogFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), catalogFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			LOG.error("Error replacing pet catalog", e);
+			return;
+		}
+		lineCount = entries.size();
+	}
+
+	/**
+	 * Reads the fields the catalog needs from a single save file in any format.
+	 *
+	 * @param file the save file to read.
+	 * @return the entry for the save file, or null if it cannot be read.
+	 */
+	private Entry readSaveFile(File file) {
+		try {
+			SaveData data = SaveCodecs.read(file);
+			return new Entry(data.petID(), data.petName(), data.petType(), data.state(),
+					data.totalMissions(), file.lastModified());
+		} catch (IOException e) {
+			LOG.warn("Skipping unreadable pet save file: {0}", file.getName());
+			return null;
+		}
+	}
+
+	/**
+	 * Formats an entry as a single catalog line.
+	 *
+	 * @param entry the entry to format.
+	 * @return the catalog line.
+	 */
+	private static String format(Entry entry) {
+		return entry.id() + "\t" + escape(entry.name()) + "\t" + entry.species() + "\t" + entry.state()
+				+ "\t" + entry.totalMissions() + "\t" + entry.lastModified();
+	}
+
+	/**
+	 * Escapes the characters that would break the line format of the catalog.
+	 *
+	 * @param value the value to escape.
+	 * @return the escaped value.
+	 */
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+	}
+
+	/**
+	 * Reverses {@link #escape(String)}.
+	 *
+	 * @param value the value to unescape.
+	 * @return the original value.
+	 */
+	private static String unescape(String value) {
+		if (value.indexOf('\\') < 0) return value;
+
+		StringBuilder builder = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\\' && i + 1 < value.length()) {
+				char next = value.charAt(++i);
+				builder.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+			} else {
+				builder.append(c);
+			}
+		}
+		return builder.toString();
+	}
+}
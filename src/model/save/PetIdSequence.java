@@ -0,0 +1,121 @@
+package model.save;
+
+import model.log.Log;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+
+/**
+ * This class hands out pet IDs from a counter kept in a small file, so a new ID costs one
+ * tiny read and write instead of a scan of every save.
+ *
+ * <p>The file holds the last ID handed out. Each allocation writes the new value to a
+ * temporary file and renames it over the old one, so a crash leaves either the old or the
+ * new value and never a torn one. The ID is only returned once the new value is on disk,
+ * so an ID is never handed out twice even if the game stops before the pet is saved.</p>
+ *
+ * <p>When the file is missing or unreadable the counter is rebuilt once from the highest
+ * saved ID. IDs that turn out to be taken anyway, for example by saves copied in from
+ * elsewhere, are skipped as they come up.</p>
+ */
+public class PetIdSequence {
+
+	private static final Log LOG = Log.get(PetIdSequence.class);
+
+	// Sequences of the same file share a lock so pets created at the same time get different IDs
+	private static final Map<Path, Object> LOCKS = new ConcurrentHashMap<>();
+
+	private final Path path;
+	private final IntSupplier highestSavedID;
+	private final Object lock;
+
+	/**
+	 * Constructs a sequence stored in the specified file.
+	 *
+	 * @param file the file holding the last ID handed out.
+	 * @param highestSavedID finds the highest saved ID when the file has to be rebuilt.
+	 */
+	public PetIdSequence(File file, IntSupplier highestSavedID) {
+		this.path = file.toPath().toAbsolutePath().normalize();
+		this.highestSavedID = highestSavedID;
+		this.lock = LOCKS.computeIfAbsent(path, p -> new Object());
+	}
+
+	/**
+	 * Hands out the next ID, skipping any the specified test reports as taken.
+	 *
+	 * @param isTaken checks whether an ID already belongs to a saved pet.
+	 * @return the new ID.
+	 * @throws IOException if the counter cannot be written.
+	 */
+	public int next(IntPredicate isTaken) throws IOException {
+		return nextBlock(1, isTaken);
+	}
+
+	/**
+	 * Hands out a run of consecutive IDs with a single write of the counter, skipping any
+	 * the specified test reports as taken.
+	 *
+	 * @param count the number of IDs to hand out.
+	 * @param isTaken checks whether an ID already belongs to a saved pet.
+	 * @return the first ID of the run.
+	 * @throws IOException if the counter cannot be written.
+	 */
+	public int nextBlock(int count, IntPredicate isTaken) throws IOException {
+		if (count < 1) throw new IllegalArgumentException("count must be positive: " + count);
+
+		synchronized (lock) {
+			int first = read() + 1;
+			for (int id = first; id < first + count; id++) {
+				if (isTaken.test(id)) first = id + 1;
+			}
+
+			write(first + count - 1);
+			return first;
+		}
+	}
+
+	/**
+	 * Reads the last ID handed out, rebuilding it from the saves if the file is missing or
+	 * unreadable.
+	 *
+	 * @return the last ID handed out.
+	 */
+	private int read() {
+		if (Files.exists(path)) {
+			try {
+				return Integer.parseInt(Files.readString(path, StandardCharsets.UTF_8).trim());
+			} catch (IOException | NumberFormatException e) {
+				LOG.warn("Error reading pet ID sequence, rebuilding it: {0}", e.getMessage());
+			}
+		}
+
+		return Math.max(0, highestSavedID.getAsInt());
+	}
+
+	/**
+	 * Replaces the file with the specified value using a temporary file and a rename.
+	 *
+	 * @param id the last ID handed out.
+	 * @throws IOException if the file cannot be written.
+	 */
+	private void write(int id) throws IOException {
+		Files.createDirectories(path.getParent());
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		Files.writeString(temp, Integer.toString(id), StandardCharsets.UTF_8);
+
+		try {
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+}
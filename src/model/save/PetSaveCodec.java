@@ -0,0 +1,36 @@
+package model.save;
+
+import java.io.IOException;
+
+/**
+ * This interface represents a format that pet saves can be written in. Every codec turns a
+ * {@link SaveData} snapshot into the bytes of a save file and back.
+ */
+public interface PetSaveCodec {
+
+	/**
+	 * Encodes the specified snapshot.
+	 *
+	 * @param data the snapshot to encode.
+	 * @return the bytes of the save file.
+	 * @throws IOException if the snapshot cannot be represented in this format.
+	 */
+	byte[] encode(SaveData data) throws IOException;
+
+	/**
+	 * Decodes a save file written by this codec.
+	 *
+	 * @param bytes the bytes of the save file.
+	 * @return the decoded snapshot.
+	 * @throws IOException if the bytes are not a valid save in this format.
+	 */
+	SaveData decode(byte[] bytes) throws IOException;
+
+	/**
+	 * Checks whether the specified bytes look like a save written by this codec.
+	 *
+	 * @param bytes the bytes of the save file.
+	 * @return true if this codec can decode the bytes and false otherwise.
+	 */
+	boolean canDecode(byte[] bytes);
+}
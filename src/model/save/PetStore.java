@@ -0,0 +1,102 @@
+package model.save;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This interface represents where pet saves are kept. The game reads and writes pets only
+ * through a store, so the storage layout can change without touching the game.
+ */
+public interface PetStore extends Closeable {
+
+	/**
+	 * Writes the specified snapshot, replacing the pet's previous save.
+	 *
+	 * @param data the snapshot to write.
+	 * @throws IOException if the snapshot cannot be written.
+	 */
+	void save(SaveData data) throws IOException;
+
+	/**
+	 * Writes each of the specified snapshots like {@link #save(SaveData)}. Stores override
+	 * this when a batch can be written more cheaply than one snapshot at a time.
+	 *
+	 * @param batch the snapshots to write.
+	 * @throws IOException if a snapshot cannot be written.
+	 */
+	default void saveAll(Collection<SaveData> batch) throws IOException {
+		for (SaveData data : batch) {
+			save(data);
+		}
+	}
+
+	/**
+	 * Reads the save of the specified pet.
+	 *
+	 * @param petID the pet's ID.
+	 * @return the pet's snapshot, or null if the pet has no save.
+	 * @throws IOException if the save exists but cannot be read.
+	 */
+	SaveData load(int petID) throws IOException;
+
+	/**
+	 * Deletes the save of the specified pet.
+	 *
+	 * @param petID the pet's ID.
+	 * @return true if a save was deleted and false if the pet had none.
+	 * @throws IOException if the save cannot be deleted.
+	 */
+	boolean delete(int petID) throws IOException;
+
+	/**
+	 * Hands out an ID for a new pet. An ID is never handed out twice, even if the pet
+	 * it was given to is never saved.
+	 *
+	 * @return the new pet's ID.
+	 * @throws IOException if the allocation cannot be recorded.
+	 */
+	int allocatePetID() throws IOException;
+
+	/**
+	 * Hands out a run of consecutive IDs for new pets, as if {@link #allocatePetID()} had
+	 * been called once per pet.
+	 *
+	 * @param count the number of IDs to hand out.
+	 * @return the first ID of the run.
+	 * @throws IOException if the allocation cannot be recorded.
+	 */
+	int allocatePetIDs(int count) throws IOException;
+
+	/**
+	 * Gets the IDs of every saved pet.
+	 *
+	 * @return a list of saved pet IDs.
+	 */
+	List<Integer> getPetIDs();
+
+	/**
+	 * Gets a catalog entry for every saved pet, ordered by pet ID.
+	 *
+	 * @return the catalog entries.
+	 */
+	Collection<PetCatalog.Entry> getEntries();
+
+	/**
+	 * Forces any buffered writes to the storage device.
+	 *
+	 * @throws IOException if the writes cannot be forced.
+	 */
+	void flush() throws IOException;
+
+	/**
+	 * Flushes and releases the store.
+	 *
+	 * @throws IOException if the store cannot be flushed.
+	 */
+	@Override
+	default void close() throws IOException {
+		flush();
+	}
+}
@@ -0,0 +1,70 @@
+package model.save;
+
+import model.log.Log;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * This class opens the pet store kept in a data directory, so the game and the headless
+ * tools agree on where pets are stored.
+ */
+public final class PetStores {
+
+	private static final Log LOG = Log.get(PetStores.class);
+
+	/** The system property selecting the pet store: "file" (default) or "mapped". */
+	public static final String STORE_PROPERTY = "astropaws.store";
+
+	/** The system property selecting the save file format: "binary" (default) or "text". */
+	public static final String CODEC_PROPERTY = "astropaws.codec";
+
+	private PetStores() {
+	}
+
+	/**
+	 * Opens the pet store selected by the {@code astropaws.store} system property.
+	 *
+	 * <p>The "mapped" store keeps every pet in one memory-mapped file and imports the
+	 * existing save files the first time it is created. Any other value, or a mapped store
+	 * that fails to open, uses one save file per pet, written in the format selected by the
+	 * {@code astropaws.codec} system property. Save files in either format are read whatever
+	 * the property says.</p>
+	 *
+	 * @param dataDir the data directory.
+	 * @return the pet store.
+	 */
+	public static PetStore open(File dataDir) {
+		File petsDir = new File(dataDir, "pets");
+		petsDir.mkdirs();
+
+		if ("mapped".equalsIgnoreCase(System.getProperty(STORE_PROPERTY))) {
+			try {
+				File storeFile = new File(dataDir, "pets.dat");
+				boolean isNew = !storeFile.exists();
+
+				MappedPetStore mappedStore = new MappedPetStore(storeFile);
+				if (isNew) mappedStore.importSaves(petsDir);
+				return mappedStore;
+			} catch (IOException e) {
+				LOG.warn("Error opening pet store, using save files: {0}", e.getMessage());
+			}
+		}
+
+		return new FilePetStore(petsDir, new File(dataDir, "pets.catalog"), new File(dataDir, "petid.seq"),
+				codec());
+	}
+
+	/**
+	 * Gets the save file format selected by the {@code astropaws.codec} system property.
+	 *
+	 * @return the text codec if the property is "text" and the binary codec otherwise.
+	 */
+	private static PetSaveCodec codec() {
+		String name = System.getProperty(CODEC_PROPERTY);
+		if (name == null || name.equalsIgnoreCase("binary")) return SaveCodecs.BINARY;
+		if (name.equalsIgnoreCase("text")) return SaveCodecs.TEXT;
+
+		LOG.warn("Unknown save format, using binary: {0}", name);
+		return SaveCodecs.BINARY;
+	}
+}
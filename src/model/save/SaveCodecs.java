@@ -0,0 +1,59 @@
+package model.save;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * This class holds the available save codecs and picks the right one for an existing
+ * save file, so saves written in any supported format can be loaded.
+ */
+public final class SaveCodecs {
+
+	/** The original {@code KEY=value} text format. */
+	public static final PetSaveCodec TEXT = new TextSaveCodec();
+	
+	/** The compact little-endian binary format. */
+	public static final PetSaveCodec BINARY = new BinarySaveCodec();
+
+	// Binary is checked first since the text codec accepts anything that is not binary
+	private static final PetSaveCodec[] CODECS = { BINARY, TEXT };
+
+	private SaveCodecs() {
+	}
+
+	/**
+	 * Finds the codec that wrote the specified bytes.
+	 *
+	 * @param bytes the bytes of a save file.
+	 * @return the codec that can decode the bytes.
+	 */
+	public static PetSaveCodec detect(byte[] bytes) {
+		for (PetSaveCodec codec : CODECS) {
+			if (codec.canDecode(bytes)) return codec;
+		}
+		return TEXT;
+	}
+
+	/**
+	 * Decodes the specified bytes with whichever codec wrote them.
+	 *
+	 * @param bytes the bytes of a save file.
+	 * @return the decoded snapshot.
+	 * @throws IOException if the bytes are not a valid save.
+	 */
+	public static SaveData decode(byte[] bytes) throws IOException {
+		return detect(bytes).decode(bytes);
+	}
+
+	/**
+	 * Reads and decodes a save file in any supported format.
+	 *
+	 * @param saveFile the save file to read.
+	 * @return the decoded snapshot.
+	 * @throws IOException if the file cannot be read or is not a valid save.
+	 */
+	public static SaveData read(File saveFile) throws IOException {
+		return decode(Files.readAllBytes(saveFile.toPath()));
+	}
+}
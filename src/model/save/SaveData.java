@@ -0,0 +1,150 @@
+package model.save;
+
+import model.Inventory;
+import model.item.Item;
+import model.item.ItemRegistry;
+import model.log.Log;
+import model.pet.PackedPetState;
+import model.pet.Pet;
+import model.pet.Pet.PetState;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents an immutable snapshot of a pet and its inventory as it is written to
+ * a save file. Snapshots are taken on the thread that requests the save so they can be
+ * written later without touching the live pet.
+ *
+ * @param petType the pet's species, for example "Dog".
+ * @param petID the pet's ID.
+ * @param petName the pet's name.
+ * @param health the pet's health.
+ * @param sleep the pet's sleep level.
+ * @param hunger the pet's hunger level.
+ * @param happiness the pet's happiness level.
+ * @param spaceReadiness the pet's space readiness.
+ * @param state the pet's state.
+ * @param totalMissions the pet's total number of missions.
+ * @param items the items in the pet's inventory.
+ * @param lastSimulated the time in milliseconds the pet's stats were last advanced to, 0 if unknown.
+ */
+public record SaveData(String petType, int petID, String petName, int health, int sleep, int hunger,
+		int happiness, int spaceReadiness, PetState state, int totalMissions, List<ItemData> items,
+		long lastSimulated) {
+
+	private static final Log LOG = Log.get(SaveData.class);
+
+	/**
+	 * A single saved inventory item.
+	 *
+	 * @param type the item's class name, either "Food" or "Toy".
+	 * @param name the item's name.
+	 * @param description the item's description.
+	 */
+	public record ItemData(String type, String name, String description) {
+	}
+
+	/**
+	 * Constructs a snapshot, copying the item list so later changes to it are not seen.
+	 */
+	public SaveData {
+		items = Collections.unmodifiableList(new ArrayList<>(items));
+	}
+
+	/**
+	 * Constructs a snapshot that does not know when the pet's stats were last advanced.
+	 */
+	public SaveData(String petType, int petID, String petName, int health, int sleep, int hunger,
+			int happiness, int spaceReadiness, PetState state, int totalMissions, List<ItemData> items) {
+		this(petType, petID, petName, health, sleep, hunger, happiness, spaceReadiness, state, totalMissions,
+				items, 0);
+	}
+
+	/**
+	 * Takes a snapshot of the specified pet and inventory.
+	 *
+	 * @param pet the pet to capture.
+	 * @param inventory the inventory to capture.
+	 * @return the snapshot.
+	 */
+	public static SaveData capture(Pet pet, Inventory inventory) {
+		List<ItemData> items = new ArrayList<>();
+		if (inventory != null) {
+			for (Item item : inventory.getInventoryItems()) {
+				items.add(new ItemData(item.getClass().getSimpleName(), item.getName(), item.getDescription()));
+			}
+		}
+
+		return capture(pet, items);
+	}
+
+	/**
+	 * Takes a snapshot of the specified pet with an already captured list of items.
+	 *
+	 * @param pet the pet to capture.
+	 * @param items the items in the pet's inventory.
+	 * @return the snapshot.
+	 */
+	public static SaveData capture(Pet pet, List<ItemData> items) {
+		// One read of the packed stats, so an action on another thread cannot land half way through
+		PackedPetState stats = pet.getPackedState();
+
+		// A state penalty can take health a few points below 0 on the tick a pet dies
+		return new SaveData(pet.getSpecies().getName(), pet.getID(), pet.getName(), Math.max(0, stats.getHealth()),
+				stats.getSleep(), stats.getHunger(), stats.getHappiness(), stats.getSpaceReadiness(),
+				stats.getCurrentState(), pet.getTotalMission(), items, pet.getLastSimulated());
+	}
+
+	/**
+	 * Creates the pet this snapshot was taken of.
+	 *
+	 * @return the restored pet, or null if the pet type is unknown.
+	 */
+	public Pet toPet() {
+		Pet pet = Pet.create(petType, petName);
+		if (pet == null) return null;
+
+		pet.setID(petID);
+		pet.restore(health, sleep, hunger, happiness, spaceReadiness, state, totalMissions);
+		pet.setLastSimulated(lastSimulated);
+		return pet;
+	}
+
+	/**
+	 * Creates the inventory this snapshot was taken of, holding the shared item of each saved
+	 * item's kind. The inventory is large enough for every saved item, and never smaller than
+	 * {@link Inventory#DEFAULT_CAPACITY}.
+	 *
+	 * @return the restored inventory.
+	 */
+	public Inventory toInventory() {
+		return toInventory(Math.max(Inventory.DEFAULT_CAPACITY, items.size()));
+	}
+
+	/**
+	 * Creates the inventory this snapshot was taken of with the specified capacity. Items of
+	 * unknown types or names, and items that do not fit, are skipped with a warning.
+	 *
+	 * @param capacity the most items the inventory can hold.
+	 * @return the restored inventory.
+	 */
+	public Inventory toInventory(int capacity) {
+		Inventory inventory = new Inventory(capacity);
+
+		for (ItemData itemData : items) {
+			Item item = null;
+
+			if (itemData.type().equals("Food")) item = ItemRegistry.food(itemData.name());
+			else if (itemData.type().equals("Toy")) item = ItemRegistry.toy(itemData.name());
+
+			if (item == null) {
+				LOG.warn("Skipping saved item of unknown kind: {0}", itemData.type() + " " + itemData.name());
+			} else if (!inventory.addItem(item)) {
+				LOG.warn("Skipping saved item that does not fit in the inventory: {0}", itemData.name());
+			}
+		}
+
+		return inventory;
+	}
+}
@@ -0,0 +1,122 @@
+package model.save;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class holds the pieces of the binary layout shared by {@link BinarySaveCodec} and
+ * {@link MappedPetStore}, so both write stats, strings and item kinds the same way.
+ *
+ * <pre>
+ * stat       u8, 0 to 255
+ * string     byte length (u16), then UTF-8 bytes
+ * item kind  u8, {@link #KIND_FOOD} or {@link #KIND_TOY}
+ * </pre>
+ */
+final class SaveEncoding {
+
+	/** The kind code of a food. */
+	static final int KIND_FOOD = 0;
+
+	/** The kind code of a toy. */
+	static final int KIND_TOY = 1;
+
+	private SaveEncoding() {
+	}
+
+	/**
+	 * Converts a stat to its single byte form.
+	 *
+	 * @param value the stat, from 0 to 100.
+	 * @return the stat as a byte.
+	 * @throws IOException if the stat does not fit in a byte.
+	 */
+	static byte stat(int value) throws IOException {
+		if (value < 0 || value > 0xFF) throw new IOException("Stat out of range: " + value);
+		return (byte) value;
+	}
+
+	/**
+	 * Converts a length to its u16 form.
+	 *
+	 * @param length the length.
+	 * @return the length as a short.
+	 * @throws IOException if the length does not fit in a u16.
+	 */
+	static short length(int length) throws IOException {
+		if (length > 0xFFFF) throw new IOException("Value too long to save: " + length + " bytes");
+		return (short) length;
+	}
+
+	/**
+	 * Gets the kind code of an item type.
+	 *
+	 * @param type the item's class name.
+	 * @return the kind code.
+	 * @throws IOException if the item type is unknown.
+	 */
+	static int kind(String type) throws IOException {
+		switch (type) {
+			case "Food":
+				return KIND_FOOD;
+			case "Toy":
+				return KIND_TOY;
+			default:
+				throw new IOException("Unknown item type: " + type);
+		}
+	}
+
+	/**
+	 * Gets the item type of a kind code.
+	 *
+	 * @param kind the kind code.
+	 * @return the item's class name, or null if the code is unknown.
+	 */
+	static String type(int kind) {
+		switch (kind) {
+			case KIND_FOOD:
+				return "Food";
+			case KIND_TOY:
+				return "Toy";
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Writes a length-prefixed string.
+	 *
+	 * @param buffer the buffer to write to.
+	 * @param bytes the UTF-8 bytes of the string.
+	 * @throws IOException if the string is too long.
+	 */
+	static void putString(ByteBuffer buffer, byte[] bytes) throws IOException {
+		buffer.putShort(length(bytes.length));
+		buffer.put(bytes);
+	}
+
+	/**
+	 * Reads a length-prefixed string.
+	 *
+	 * @param buffer the buffer to read from.
+	 * @return the string.
+	 * @throws BufferUnderflowException if the buffer ends before the string does.
+	 */
+	static String getString(ByteBuffer buffer) {
+		int length = buffer.getShort() & 0xFFFF;
+		if (length > buffer.remaining()) throw new BufferUnderflowException();
+
+		String value;
+		if (buffer.hasArray()) {
+			value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+			buffer.position(buffer.position() + length);
+		} else {
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			value = new String(bytes, StandardCharsets.UTF_8);
+		}
+		return value;
+	}
+}
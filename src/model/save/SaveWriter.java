@@ -0,0 +1,398 @@
+package model.save;
+
+import model.log.Log;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class writes pet saves on a single background thread so the game timer and the
+ * GUI never wait on the disk.
+ *
+ * <p>Callers submit snapshots of a pet together with the sink, usually a pet store, the
+ * snapshot goes to. One writer can serve many sinks, so a process hosting many games needs
+ * a single writer thread. Only the latest snapshot per sink and pet ID is kept, so a pet
+ * that is saved several times before the writer catches up is written once. A snapshot
+ * that fails to be written is queued again and retried after {@link #RETRY_DELAY}, unless a
+ * newer snapshot of the same pet has been queued in the meantime. The writer thread is
+ * started on the first submit and is a daemon thread; call {@link #close(long)} on shutdown
+ * to get the pending saves onto disk.</p>
+ */
+public class SaveWriter {
+
+	private static final Log LOG = Log.get(SaveWriter.class);
+
+	/** The time to wait before writing a snapshot again after a failed write, in milliseconds. */
+	public static final long RETRY_DELAY = 1000;	// 1 second in ms
+
+	/**
+	 * The destination of the snapshots taken off the queue. Snapshots are grouped by sink,
+	 * so a caller should keep one sink object rather than creating one per submit.
+	 */
+	@FunctionalInterface
+	public interface Sink {
+
+		/**
+		 * Writes a single snapshot.
+		 *
+		 * @param data the snapshot to write.
+		 * @throws IOException if the snapshot cannot be written.
+		 */
+		void write(SaveData data) throws IOException;
+	}
+
+	/**
+	 * The sink and pet a queued snapshot belongs to. Sinks are compared with equals, which
+	 * for a lambda or method reference means the same object.
+	 *
+	 * @param sink where the snapshot is written.
+	 * @param petID the pet's ID.
+	 */
+	private record Key(Sink sink, int petID) {
+	}
+
+	/**
+	 * A queued snapshot and what to run once it is written.
+	 */
+	private static final class Job {
+		final Key key;
+		final SaveData data;
+		final Runnable onWritten;	// Null if the caller does not need to know
+
+		Job(Key key, SaveData data, Runnable onWritten) {
+			this.key = key;
+			this.data = data;
+			this.onWritten = onWritten;
+		}
+	}
+
+	private final String threadName;
+	private final Sink defaultSink;			// Null if every submit names its sink
+	private final Map<Key, Job> pending;	// Sink and pet ID -> latest unsaved snapshot
+	private Job inFlight;					// Snapshot currently being written
+	private Thread writerThread;
+	private boolean closed;
+	private long retryAt;					// No write is tried before this time after a failure
+
+	// Counters
+	private long submitted;
+	private long written;
+	private long coalesced;
+	private long failed;
+	private long dropped;
+
+	/**
+	 * Constructs a save writer that can be shared by many sinks, each named when a snapshot
+	 * is submitted.
+	 *
+	 * @param threadName the name of the writer thread.
+	 */
+	public SaveWriter(String threadName) {
+		this(threadName, null);
+	}
+
+	/**
+	 * Constructs a save writer that passes snapshots to the specified sink unless another
+	 * one is named when they are submitted.
+	 *
+	 * @param threadName the name of the writer thread.
+	 * @param sink where the snapshots are written, or null if every submit names its sink.
+	 */
+	public SaveWriter(String threadName, Sink sink) {
+		this.threadName = threadName;
+		this.defaultSink = sink;
+		this.pending = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Queues a snapshot to be written to the writer's sink, replacing any snapshot of the
+	 * same pet that has not been written yet.
+	 *
+	 * @param data the snapshot to write.
+	 * @return true if the snapshot was queued and false if the writer is closed.
+	 * @throws IllegalStateException if the writer was constructed without a sink.
+	 */
+	public boolean submit(SaveData data) {
+		return submit(data, null);
+	}
+
+	/**
+	 * Queues a snapshot to be written to the writer's sink, and runs a callback once it is
+	 * written.
+	 *
+	 * @param data the snapshot to write.
+	 * @param onWritten run once the snapshot is written, or null.
+	 * @return true if the snapshot was queued and false if the writer is closed.
+	 * @throws IllegalStateException if the writer was constructed without a sink.
+	 * @see #submit(Sink, SaveData, Runnable)
+	 */
+	public boolean submit(SaveData data, Runnable onWritten) {
+		return submit(requireDefaultSink(), data, onWritten);
+	}
+
+	/**
+	 * Queues a snapshot to be written to the specified sink, replacing any snapshot of the
+	 * same pet for that sink that has not been written yet, and runs a callback on the writer
+	 * thread once it is written. The callback is not run if the snapshot is replaced or cannot
+	 * be written, and should not wait on anything that waits on this writer.
+	 *
+	 * @param sink where the snapshot is written.
+	 * @param data the snapshot to write.
+	 * @param onWritten run once the snapshot is written, or null.
+	 * @return true if the snapshot was queued and false if the writer is closed.
+	 */
+	public synchronized boolean submit(Sink sink, SaveData data, Runnable onWritten) {
+		if (closed) return false;
+
+		Key key = new Key(sink, data.petID());
+		if (pending.put(key, new Job(key, data, onWritten)) != null) coalesced++;
+		submitted++;
+
+		if (writerThread == null) {
+			writerThread = new Thread(this::run, threadName);
+			writerThread.setDaemon(true);
+			writerThread.start();
+		}
+
+		notifyAll();
+		return true;
+	}
+
+	/**
+	 * Gets the newest snapshot of the specified pet that is not in the writer's sink yet.
+	 *
+	 * @param petID the pet's ID.
+	 * @return the queued or in-flight snapshot, or null if everything for the pet is written.
+	 * @throws IllegalStateException if the writer was constructed without a sink.
+	 */
+	public SaveData getPending(int petID) {
+		return getPending(requireDefaultSink(), petID);
+	}
+
+	/**
+	 * Gets the newest snapshot of the specified pet that is not in the specified sink yet.
+	 *
+	 * @param sink the sink the snapshot is written to.
+	 * @param petID the pet's ID.
+	 * @return the queued or in-flight snapshot, or null if everything for the pet is written.
+	 */
+	public synchronized SaveData getPending(Sink sink, int petID) {
+		Key key = new Key(sink, petID);
+		Job job = pending.get(key);
+		if (job == null && inFlight != null && inFlight.key.equals(key)) job = inFlight;
+		return job != null ? job.data : null;
+	}
+
+	/**
+	 * Gets the newest snapshot of every pet that is not in the specified sink yet.
+	 *
+	 * @param sink the sink the snapshots are written to.
+	 * @return the queued and in-flight snapshots, one per pet, in no particular order.
+	 */
+	public synchronized List<SaveData> getPending(Sink sink) {
+		Map<Integer, SaveData> snapshots = new HashMap<>();
+		if (inFlight != null && inFlight.key.sink().equals(sink)) snapshots.put(inFlight.data.petID(), inFlight.data);
+		for (Job job : pending.values()) {
+			if (job.key.sink().equals(sink)) snapshots.put(job.data.petID(), job.data);	// Newer than the in-flight one
+		}
+		return new ArrayList<>(snapshots.values());
+	}
+
+	/**
+	 * Waits until every queued snapshot has been written or the timeout elapses. Failed
+	 * writes are retried while waiting, so a sink that keeps failing makes this time out.
+	 *
+	 * @param timeoutMillis the longest time to wait in milliseconds.
+	 * @return true if every queued snapshot was written and false if the timeout elapsed first
+	 *         or a snapshot was given up on.
+	 */
+	public boolean flush(long timeoutMillis) {
+		return flush(null, timeoutMillis);
+	}
+
+	/**
+	 * Waits until every queued snapshot for the specified sink has been written or the
+	 * timeout elapses, without waiting for the snapshots of other sinks.
+	 *
+	 * @param sink the sink to wait for, or null to wait for every sink.
+	 * @param timeoutMillis the longest time to wait in milliseconds.
+	 * @return true if every queued snapshot was written and false if the timeout elapsed first
+	 *         or a snapshot was given up on.
+	 */
+	public synchronized boolean flush(Sink sink, long timeoutMillis) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		long droppedBefore = dropped;
+
+		while (hasUnwritten(sink)) {
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) return false;
+
+			try {
+				wait(remaining);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+		return dropped == droppedBefore;
+	}
+
+	/**
+	 * Checks whether any snapshot for the specified sink is queued or being written.
+	 *
+	 * @param sink the sink to check, or null to check every sink.
+	 * @return true if a snapshot is not written yet and false otherwise.
+	 */
+	private boolean hasUnwritten(Sink sink) {
+		if (sink == null) return !pending.isEmpty() || inFlight != null;
+
+		if (inFlight != null && inFlight.key.sink().equals(sink)) return true;
+		for (Key key : pending.keySet()) {
+			if (key.sink().equals(sink)) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Stops accepting snapshots, writes the ones still queued and stops the writer thread.
+	 * Once closed, a snapshot that fails to be written is given up on instead of retried.
+	 *
+	 * @param timeoutMillis the longest time to wait for the queue to drain in milliseconds.
+	 * @return true if every queued snapshot was written and false otherwise.
+	 */
+	public boolean close(long timeoutMillis) {
+		boolean drained = flush(timeoutMillis);
+
+		synchronized (this) {
+			closed = true;
+			notifyAll();
+		}
+
+		return drained;
+	}
+
+	/**
+	 * The writer thread's loop. Takes the oldest queued snapshot and writes it outside
+	 * the lock so new submits never wait on the disk. After a failed write the loop waits
+	 * for {@link #RETRY_DELAY} so a broken disk is not retried in a busy loop.
+	 */
+	private void run() {
+		while (true) {
+			Job job;
+
+			synchronized (this) {
+				try {
+					while (!closed && (pending.isEmpty() || System.currentTimeMillis() < retryAt)) {
+						if (pending.isEmpty()) wait();
+						else wait(Math.max(1, retryAt - System.currentTimeMillis()));
+					}
+				} catch (InterruptedException e) {
+					return;
+				}
+				if (pending.isEmpty()) return;
+
+				Iterator<Job> it = pending.values().iterator();
+				job = it.next();
+				it.remove();
+				inFlight = job;
+			}
+
+			boolean success = true;
+			try {
+				job.key.sink().write(job.data);
+			} catch (IOException | RuntimeException e) {
+				LOG.error("Error saving pet", e);
+				success = false;
+			}
+
+			// Run before inFlight is cleared, so a flush does not return before the callback has run
+			if (success && job.onWritten != null) {
+				try {
+					job.onWritten.run();
+				} catch (RuntimeException e) {
+					LOG.error("Error after saving pet", e);
+				}
+			}
+
+			synchronized (this) {
+				inFlight = null;
+				if (success) {
+					written++;
+				} else {
+					failed++;
+					if (closed) {
+						dropped++;
+						LOG.warn("Giving up on the save of pet {0}", job.data.petID());
+					} else {
+						pending.putIfAbsent(job.key, job);	// A newer snapshot replaces this one
+						retryAt = System.currentTimeMillis() + RETRY_DELAY;
+					}
+				}
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Gets the sink the writer was constructed with.
+	 *
+	 * @return the sink.
+	 * @throws IllegalStateException if the writer was constructed without a sink.
+	 */
+	private Sink requireDefaultSink() {
+		if (defaultSink == null) throw new IllegalStateException("Save writer " + threadName + " has no sink");
+		return defaultSink;
+	}
+
+	/**
+	 * Gets the number of snapshots submitted.
+	 *
+	 * @return the number of snapshots submitted.
+	 */
+	public synchronized long getSubmittedCount() {
+		return submitted;
+	}
+
+	/**
+	 * Gets the number of snapshots written to the sink.
+	 *
+	 * @return the number of snapshots written.
+	 */
+	public synchronized long getWrittenCount() {
+		return written;
+	}
+
+	/**
+	 * Gets the number of snapshots replaced by a newer one before they were written.
+	 *
+	 * @return the number of coalesced snapshots.
+	 */
+	public synchronized long getCoalescedCount() {
+		return coalesced;
+	}
+
+	/**
+	 * Gets the number of writes that failed. A snapshot that is retried counts once per
+	 * failed attempt.
+	 *
+	 * @return the number of failed writes.
+	 */
+	public synchronized long getFailedCount() {
+		return failed;
+	}
+
+	/**
+	 * Gets the number of snapshots given up on after a failed write because the writer was
+	 * closed.
+	 *
+	 * @return the number of dropped snapshots.
+	 */
+	public synchronized long getDroppedCount() {
+		return dropped;
+	}
+}
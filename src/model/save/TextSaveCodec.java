@@ -0,0 +1,159 @@
+package model.save;
+
+import model.pet.Pet.PetState;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class reads and writes the original save format of one {@code KEY=value} pair per
+ * line. Lines are matched on their key in place instead of being split into a map, so
+ * decoding only allocates the values it keeps.
+ */
+public class TextSaveCodec implements PetSaveCodec {
+
+	/**
+	 * Encodes the specified snapshot as {@code KEY=value} lines.
+	 *
+	 * @param data the snapshot to encode.
+	 * @return the bytes of the save file.
+	 */
+	@Override
+	public byte[] encode(SaveData data) {
+		String newline = System.lineSeparator();
+		StringBuilder builder = new StringBuilder(256 + data.items().size() * 96);
+
+		builder.append("PET_TYPE=").append(data.petType()).append(newline);
+		builder.append("PET_ID=").append(data.petID()).append(newline);
+		builder.append("PET_NAME=").append(data.petName()).append(newline);
+		builder.append("HEALTH=").append(data.health()).append(newline);
+		builder.append("SLEEP=").append(data.sleep()).append(newline);
+		builder.append("HUNGER=").append(data.hunger()).append(newline);
+		builder.append("HAPPINESS=").append(data.happiness()).append(newline);
+		builder.append("SPACE_READINESS=").append(data.spaceReadiness()).append(newline);
+		builder.append("STATE=").append(data.state()).append(newline);
+		builder.append("TOTAL_MISSIONS=").append(data.totalMissions()).append(newline);
+		builder.append("LAST_SIMULATED=").append(data.lastSimulated()).append(newline);
+
+		List<SaveData.ItemData> items = data.items();
+		builder.append("INVENTORY_COUNT=").append(items.size()).append(newline);
+
+		for (int i = 0; i < items.size(); i++) {
+			SaveData.ItemData item = items.get(i);
+			builder.append("ITEM_").append(i).append("_TYPE=").append(item.type()).append(newline);
+			builder.append("ITEM_").append(i).append("_NAME=").append(item.name()).append(newline);
+			builder.append("ITEM_").append(i).append("_DESC=").append(item.description()).append(newline);
+		}
+
+		return builder.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Decodes {@code KEY=value} lines. Unknown keys are ignored and items missing any of
+	 * their three fields are skipped, as the loader always did.
+	 *
+	 * @param bytes the bytes of the save file.
+	 * @return the decoded snapshot.
+	 * @throws IOException if a required field is missing or malformed.
+	 */
+	@Override
+	public SaveData decode(byte[] bytes) throws IOException {
+		String text = new String(bytes, StandardCharsets.UTF_8);
+
+		String petType = null;
+		String petName = null;
+		PetState state = null;
+		int petID = -1;
+		int health = -1, sleep = -1, hunger = -1, happiness = -1, spaceReadiness = -1, totalMissions = -1;
+		long lastSimulated = 0;		// Older saves do not have it
+		int inventoryCount = 0;
+		String[] itemTypes = null, itemNames = null, itemDescs = null;
+
+		try {
+			int lineStart = 0;
+			while (lineStart < text.length()) {
+				int lineEnd = text.indexOf('\n', lineStart);
+				if (lineEnd < 0) lineEnd = text.length();
+				int valueEnd = lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+				int eq = text.indexOf('=', lineStart);
+
+				if (eq >= 0 && eq < valueEnd) {
+					int v = eq + 1;
+
+					if (key(text, lineStart, eq, "PET_TYPE")) petType = text.substring(v, valueEnd);
+					else if (key(text, lineStart, eq, "PET_NAME")) petName = text.substring(v, valueEnd);
+					else if (key(text, lineStart, eq, "PET_ID")) petID = Integer.parseInt(text, v, valueEnd, 10);
+					else if (key(text, lineStart, eq, "HEALTH")) health = Integer.parseInt(text, v, valueEnd, 10);
+					else if (key(text, lineStart, eq, "SLEEP")) sleep = Integer.parseInt(text, v, valueEnd, 10);
+					else if (key(text, lineStart, eq, "HUNGER")) hunger = Integer.parseInt(text, v, valueEnd, 10);
+					else if (key(text, lineStart, eq, "HAPPINESS")) happiness = Integer.parseInt(text, v, valueEnd, 10);
+					else if (key(text, lineStart, eq, "SPACE_READINESS")) spaceReadiness = Integer.parseInt(text, v, valueEnd, 10);
+					else if (key(text, lineStart, eq, "STATE")) state = PetState.valueOf(text.substring(v, valueEnd));
+					else if (key(text, lineStart, eq, "TOTAL_MISSIONS")) totalMissions = Integer.parseInt(text, v, valueEnd, 10);
+					else if (key(text, lineStart, eq, "LAST_SIMULATED")) lastSimulated = Long.parseLong(text, v, valueEnd, 10);
+					else if (key(text, lineStart, eq, "INVENTORY_COUNT")) {
+						inventoryCount = Integer.parseInt(text, v, valueEnd, 10);
+						itemTypes = new String[inventoryCount];
+						itemNames = new String[inventoryCount];
+						itemDescs = new String[inventoryCount];
+					} else if (itemTypes != null && text.startsWith("ITEM_", lineStart)) {
+						// ITEM_<index>_<FIELD>
+						int indexEnd = text.indexOf('_', lineStart + 5);
+						if (indexEnd > 0 && indexEnd < eq) {
+							int index = Integer.parseInt(text, lineStart + 5, indexEnd, 10);
+							if (index >= 0 && index < inventoryCount) {
+								if (key(text, indexEnd, eq, "_TYPE")) itemTypes[index] = text.substring(v, valueEnd);
+								else if (key(text, indexEnd, eq, "_NAME")) itemNames[index] = text.substring(v, valueEnd);
+								else if (key(text, indexEnd, eq, "_DESC")) itemDescs[index] = text.substring(v, valueEnd);
+							}
+						}
+					}
+				}
+
+				lineStart = lineEnd + 1;
+			}
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Malformed save: " + e.getMessage(), e);
+		}
+
+		if (petType == null || petName == null || state == null || petID < 0 || health < 0 || sleep < 0
+				|| hunger < 0 || happiness < 0 || spaceReadiness < 0 || totalMissions < 0) {
+			throw new IOException("Save is missing required fields");
+		}
+
+		List<SaveData.ItemData> items = new ArrayList<>(inventoryCount);
+		for (int i = 0; i < inventoryCount; i++) {
+			if (itemTypes[i] != null && itemNames[i] != null && itemDescs[i] != null) {
+				items.add(new SaveData.ItemData(itemTypes[i], itemNames[i], itemDescs[i]));
+			}
+		}
+
+		return new SaveData(petType, petID, petName, health, sleep, hunger, happiness, spaceReadiness,
+				state, totalMissions, items, lastSimulated);
+	}
+
+	/**
+	 * Text saves have no header, so anything can be attempted as text.
+	 *
+	 * @param bytes the bytes of the save file.
+	 * @return always true.
+	 */
+	@Override
+	public boolean canDecode(byte[] bytes) {
+		return true;
+	}
+
+	/**
+	 * Checks whether the key between the specified offsets equals the expected key.
+	 *
+	 * @param text the save text.
+	 * @param start the offset the key starts at.
+	 * @param end the offset of the character after the key.
+	 * @param expected the expected key.
+	 * @return true if the key matches and false otherwise.
+	 */
+	private static boolean key(String text, int start, int end, String expected) {
+		return end - start == expected.length() && text.startsWith(expected, start);
+	}
+}
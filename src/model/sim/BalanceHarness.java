@@ -0,0 +1,293 @@
+package model.sim;
+
+import model.pet.Pet;
+import model.pet.Pet.PetState;
+import model.pet.SpeciesRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * This class plays a large number of simulated pets of every species under each of a set of
+ * {@link CarePolicy care policies}, without a display, to see how the game's numbers play
+ * out: how long pets survive, how soon they first fly to space and which states they spend
+ * their time in.
+ *
+ * <p>Each species and policy pair is split into chunks of pets that run in parallel on a
+ * fork/join pool. Every chunk gets its own {@link SplittableRandom} stream, split from the
+ * run's seed in a fixed order before anything runs, so a run gives the same result on any
+ * number of threads. Pets start with full health and random hunger, happiness and sleep
+ * between 20 and 100, like the pets {@link SimulationEngine#generate(int, long)} makes, and
+ * one pet is simulated tick by tick, with the policy acting before each tick. A dead pet
+ * stops being simulated and counts as dead for the rest of the run.</p>
+ */
+public class BalanceHarness {
+
+	/** The number of game ticks in an hour. */
+	public static final int TICKS_PER_HOUR = (int) (3600000 / Pet.TICK_MILLIS);
+
+	private static final int CHUNK_SIZE = 1024;
+	private static final PetState[] STATES = PetState.values();
+
+	/**
+	 * What happened to the pets of one species under one policy.
+	 *
+	 * @param species the pets' species.
+	 * @param policy the policy the pets were looked after with.
+	 * @param pets the number of pets.
+	 * @param hours the number of hours each pet was simulated for.
+	 * @param alive the number of pets alive at the end of each hour, from hour 0 to hours.
+	 * @param firstMission the number of pets that first flew to space during each hour.
+	 * @param stateTicks the number of ticks spent in each state, by state ordinal.
+	 */
+	public record Result(SpeciesRules species, CarePolicy policy, int pets, int hours, long[] alive,
+			long[] firstMission, long[] stateTicks) {
+
+		/**
+		 * Gets the share of pets alive after the specified number of hours.
+		 *
+		 * @param hour the hour, from 0 to the run's length.
+		 * @return the share of pets alive, from 0 to 1.
+		 */
+		public double survival(int hour) {
+			return pets == 0 ? 0 : (double) alive[hour] / pets;
+		}
+
+		/**
+		 * Gets the share of pets that flew at least one space mission.
+		 *
+		 * @return the share of pets, from 0 to 1.
+		 */
+		public double missionRate() {
+			long flown = 0;
+			for (long count : firstMission) flown += count;
+			return pets == 0 ? 0 : (double) flown / pets;
+		}
+
+		/**
+		 * Gets the hour by which half of the pets that flew a mission had flown their first.
+		 *
+		 * @return the median hour of the first mission, counting from 1, or -1 if no pet flew.
+		 */
+		public int medianHoursToMission() {
+			long flown = 0;
+			for (long count : firstMission) flown += count;
+			if (flown == 0) return -1;
+
+			long seen = 0;
+			for (int hour = 0; hour < firstMission.length; hour++) {
+				seen += firstMission[hour];
+				if (seen * 2 >= flown) return hour + 1;
+			}
+			return firstMission.length;
+		}
+
+		/**
+		 * Gets the share of all simulated time pets spent in the specified state.
+		 *
+		 * @param state the state.
+		 * @return the share of time, from 0 to 1.
+		 */
+		public double occupancy(PetState state) {
+			long total = 0;
+			for (long ticks : stateTicks) total += ticks;
+			return total == 0 ? 0 : (double) stateTicks[state.ordinal()] / total;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder line = new StringBuilder(String.format("%-7s %-14s %d pets, alive", species, policy, pets));
+			for (int hour : new int[] { 1, 6, 24 }) {
+				if (hour < hours) line.append(String.format(" %.0f%% at %dh,", survival(hour) * 100, hour));
+			}
+			line.append(String.format(" %.0f%% at %dh; first mission %.0f%%", survival(hours) * 100, hours,
+					missionRate() * 100));
+			if (medianHoursToMission() > 0) line.append(String.format(" (median %dh)", medianHoursToMission()));
+
+			line.append(";");
+			for (PetState state : STATES) {
+				line.append(String.format(" %s %.1f%%", state.name().toLowerCase(), occupancy(state) * 100));
+			}
+			return line.toString();
+		}
+	}
+
+	private final ForkJoinPool pool;
+	private final long seed;
+
+	/**
+	 * Constructs a harness.
+	 *
+	 * @param pool the pool to run pets on.
+	 * @param seed the seed of every random stream in a run.
+	 */
+	public BalanceHarness(ForkJoinPool pool, long seed) {
+		this.pool = pool;
+		this.seed = seed;
+	}
+
+	/**
+	 * Simulates pets of every specified species under every specified policy.
+	 *
+	 * @param species the species.
+	 * @param policies the policies.
+	 * @param pets the number of pets of each species under each policy.
+	 * @param hours how long each pet is simulated for, in hours.
+	 * @return one result per species and policy, species by species.
+	 * @throws InterruptedException if the run was interrupted.
+	 */
+	public List<Result> run(List<SpeciesRules> species, List<CarePolicy> policies, int pets, int hours)
+			throws InterruptedException {
+		SplittableRandom root = new SplittableRandom(seed);
+		List<Callable<Tally>> chunks = new ArrayList<>();
+		int chunksPerResult = (pets + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+		for (SpeciesRules rules : species) {
+			for (CarePolicy policy : policies) {
+				for (int first = 0; first < pets; first += CHUNK_SIZE) {
+					int count = Math.min(CHUNK_SIZE, pets - first);
+					SplittableRandom random = root.split();
+					chunks.add(() -> simulate(rules, policy, count, hours, random));
+				}
+			}
+		}
+
+		List<Future<Tally>> done = pool.invokeAll(chunks);
+
+		List<Result> results = new ArrayList<>();
+		int next = 0;
+		for (SpeciesRules rules : species) {
+			for (CarePolicy policy : policies) {
+				Tally total = new Tally(hours);
+				for (int i = 0; i < chunksPerResult; i++) total.add(get(done.get(next++)));
+				results.add(new Result(rules, policy, pets, hours, total.alive, total.firstMission, total.stateTicks));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Simulates a chunk of pets one after another.
+	 *
+	 * @param species the pets' species.
+	 * @param policy the policy to look after them with.
+	 * @param pets the number of pets.
+	 * @param hours how long each pet is simulated for, in hours.
+	 * @param random the chunk's random stream.
+	 * @return what happened to the pets.
+	 */
+	private static Tally simulate(SpeciesRules species, CarePolicy policy, int pets, int hours, SplittableRandom random) {
+		Tally tally = new Tally(hours);
+		Pet pet = new Pet("Balance", species);
+		Caretaker caretaker = new Caretaker();
+		int ticks = hours * TICKS_PER_HOUR;
+
+		for (int i = 0; i < pets; i++) {
+			pet.restore(100, 20 + random.nextInt(81), 20 + random.nextInt(81), 20 + random.nextInt(81), 0,
+					PetState.NORMAL, 0);
+			caretaker.reset(pet);
+			tally.alive[0]++;
+
+			boolean flown = false;
+			int tick = 0;
+			while (tick < ticks) {
+				caretaker.setTick(tick);
+				policy.care(caretaker, random);
+				if (!flown && caretaker.getMissions() > 0) {
+					flown = true;
+					tally.firstMission[tick / TICKS_PER_HOUR]++;
+				}
+
+				pet.advance(1);
+				tick++;
+
+				PetState state = pet.getCurrentState();
+				tally.stateTicks[state.ordinal()]++;
+				if (state == PetState.DEAD) break;
+				if (tick % TICKS_PER_HOUR == 0) tally.alive[tick / TICKS_PER_HOUR]++;
+			}
+
+			tally.stateTicks[PetState.DEAD.ordinal()] += ticks - tick;	// Dead for the rest of the run
+		}
+
+		return tally;
+	}
+
+	/**
+	 * Gets the result of a finished chunk.
+	 *
+	 * @param future the chunk.
+	 * @return the chunk's tally.
+	 * @throws InterruptedException if the run was interrupted.
+	 */
+	private static Tally get(Future<Tally> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Balance run failed", e.getCause());
+		}
+	}
+
+	/**
+	 * Counts of what happened to a chunk of pets.
+	 */
+	private static final class Tally {
+
+		final long[] alive;
+		final long[] firstMission;
+		final long[] stateTicks = new long[STATES.length];
+
+		Tally(int hours) {
+			alive = new long[hours + 1];
+			firstMission = new long[hours];
+		}
+
+		/**
+		 * Adds another chunk's counts to this one.
+		 *
+		 * @param other the other chunk's counts.
+		 */
+		void add(Tally other) {
+			for (int i = 0; i < alive.length; i++) alive[i] += other.alive[i];
+			for (int i = 0; i < firstMission.length; i++) firstMission[i] += other.firstMission[i];
+			for (int i = 0; i < stateTicks.length; i++) stateTicks[i] += other.stateTicks[i];
+		}
+	}
+
+	/**
+	 * Runs every built-in policy on every species and prints the results.
+	 *
+	 * <p>Arguments, all optional: the number of pets of each species under each policy
+	 * (default 10000), the hours to simulate (default 24), the number of threads (default
+	 * the number of processors) and the seed (default 42).</p>
+	 *
+	 * @param args the command line arguments.
+	 * @throws InterruptedException if the run was interrupted.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int pets = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int hours = args.length > 1 ? Integer.parseInt(args[1]) : 24;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			List<SpeciesRules> species = SpeciesRules.all();
+			List<CarePolicy> policies = CarePolicy.defaults();
+
+			long start = System.nanoTime();
+			List<Result> results = new BalanceHarness(pool, seed).run(species, policies, pets, hours);
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			for (Result result : results) System.out.println(result);
+			double petDays = (double) pets * species.size() * policies.size() * hours / 24;
+			System.out.printf("%.0f pet-days on %d threads in %.1f s%n", petDays, threads, seconds);
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
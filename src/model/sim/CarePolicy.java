@@ -0,0 +1,121 @@
+package model.sim;
+
+import model.item.Food.FoodType;
+import model.item.ItemRegistry;
+import model.item.Toy.ToyType;
+import model.pet.Pet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
+
+/**
+ * This interface is how a simulated player looks after a pet in a {@link BalanceHarness}
+ * run. It is asked once per game tick, before the tick, and acts through the
+ * {@link Caretaker}, which only allows what the game would.
+ *
+ * <p>A policy is shared by every thread of a run, so it keeps no state of its own; anything
+ * random comes from the random stream it is given.</p>
+ */
+public interface CarePolicy {
+
+	/** Leaves the pet alone. */
+	CarePolicy NEGLECT = of("neglect", (caretaker, random) -> { });
+
+	/** Feeds the pet whenever it is getting hungry and does nothing else. */
+	CarePolicy FEED_ONLY = of("feed-only", (caretaker, random) -> {
+		if (caretaker.getPet().getHunger() <= 60) caretaker.feed(ItemRegistry.food(FoodType.BREAD));
+	});
+
+	/**
+	 * Keeps every stat high enough after the next tick for space readiness to build up, and
+	 * flies every mission as soon as the pet is ready.
+	 */
+	CarePolicy OPTIMAL = of("optimal", (caretaker, random) -> {
+		Pet pet = caretaker.getPet();
+		if (caretaker.goOnSpaceMission()) return;
+
+		if (pet.getSleep() <= 90 && caretaker.sleep()) return;
+		if (pet.getHealth() < 90) caretaker.vet();
+		if (pet.getHunger() < 100) caretaker.feed(ItemRegistry.food(FoodType.BREAD));
+		if (pet.getHappiness() < 100 && !caretaker.play()) caretaker.gift(ItemRegistry.toy(ToyType.BALL));
+	});
+
+	/** Clicks a random button on about one tick in three. */
+	CarePolicy RANDOM_CLICKS = of("random-clicks", (caretaker, random) -> {
+		if (random.nextInt(3) != 0) return;
+
+		switch (random.nextInt(7)) {
+			case 0:
+				caretaker.feed(ItemRegistry.food(FoodType.KIBBLE));
+				break;
+			case 1:
+				caretaker.play();
+				break;
+			case 2:
+				caretaker.sleep();
+				break;
+			case 3:
+				caretaker.vet();
+				break;
+			case 4:
+				caretaker.gift(ItemRegistry.toy(ToyType.BALL));
+				break;
+			case 5:
+				caretaker.exercise();
+				break;
+			default:
+				caretaker.goOnSpaceMission();
+				break;
+		}
+	});
+
+	/**
+	 * Gets the policy's name, as shown in reports.
+	 *
+	 * @return the name.
+	 */
+	String getName();
+
+	/**
+	 * Decides what to do for the pet on this tick.
+	 *
+	 * @param caretaker the pet and the actions allowed on it.
+	 * @param random the random stream of the thread running the pet.
+	 */
+	void care(Caretaker caretaker, SplittableRandom random);
+
+	/**
+	 * Gets the built-in policies.
+	 *
+	 * @return the policies.
+	 */
+	static List<CarePolicy> defaults() {
+		return List.of(NEGLECT, FEED_ONLY, OPTIMAL, RANDOM_CLICKS);
+	}
+
+	/**
+	 * Creates a policy from a name and a function.
+	 *
+	 * @param name the policy's name.
+	 * @param care what the policy does on each tick.
+	 * @return the policy.
+	 */
+	static CarePolicy of(String name, BiConsumer<Caretaker, SplittableRandom> care) {
+		return new CarePolicy() {
+			@Override
+			public String getName() {
+				return name;
+			}
+
+			@Override
+			public void care(Caretaker caretaker, SplittableRandom random) {
+				care.accept(caretaker, random);
+			}
+
+			@Override
+			public String toString() {
+				return name;
+			}
+		};
+	}
+}
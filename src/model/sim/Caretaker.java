@@ -0,0 +1,211 @@
+package model.sim;
+
+import model.Game;
+import model.Player;
+import model.item.Food;
+import model.item.Toy;
+import model.pet.Pet;
+import model.pet.Pet.PetState;
+
+/**
+ * This class is the player a {@link CarePolicy} acts through in a balance run. It offers the
+ * same actions as the game panel, only when the panel would allow them, and applies them
+ * through a {@link Player} as the game does.
+ *
+ * <p>Time is counted in game ticks. The play and vet cooldowns are the game's own, rounded up
+ * to whole ticks. Food and toys never run out.</p>
+ */
+public class Caretaker {
+
+	/** The ticks between two plays. */
+	public static final int PLAY_COOLDOWN_TICKS = toTicks(Game.PLAY_COOLDOWN);
+
+	/** The ticks between two vet visits. */
+	public static final int VET_COOLDOWN_TICKS = toTicks(Game.VET_COOLDOWN);
+
+	private final Player player = new Player(null);
+	private Pet pet;
+	private long tick;
+	private long playReady;		// First tick the pet can play again
+	private long vetReady;		// First tick the pet can go to the vet again
+	private int missions;
+
+	/**
+	 * Starts looking after another pet, with no cooldowns running.
+	 *
+	 * @param pet the pet.
+	 */
+	void reset(Pet pet) {
+		this.pet = pet;
+		player.setPet(pet);
+		tick = 0;
+		playReady = 0;
+		vetReady = 0;
+		missions = 0;
+	}
+
+	/**
+	 * Moves the time on to the specified tick.
+	 *
+	 * @param tick the tick.
+	 */
+	void setTick(long tick) {
+		this.tick = tick;
+	}
+
+	/**
+	 * Gets the pet being looked after. Policies read it to decide what to do and change it
+	 * only through the caretaker's actions.
+	 *
+	 * @return the pet.
+	 */
+	public Pet getPet() {
+		return pet;
+	}
+
+	/**
+	 * Gets the current tick.
+	 *
+	 * @return the number of ticks since the pet was adopted.
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * Gets the number of space missions the pet went on since it was adopted.
+	 *
+	 * @return the number of missions.
+	 */
+	public int getMissions() {
+		return missions;
+	}
+
+	/**
+	 * Checks whether the pet can play now.
+	 *
+	 * @return true if the pet is awake and play is not on cooldown.
+	 */
+	public boolean canPlay() {
+		return isAwake() && tick >= playReady;
+	}
+
+	/**
+	 * Checks whether the pet can go to the vet now.
+	 *
+	 * @return true if the pet is awake, not angry and the vet is not on cooldown.
+	 */
+	public boolean canVet() {
+		return isCalm() && tick >= vetReady;
+	}
+
+	/**
+	 * Feeds the pet.
+	 *
+	 * @param food the food.
+	 * @return true if the pet was fed and false if it is dead, asleep or angry.
+	 */
+	public boolean feed(Food food) {
+		if (!isCalm()) return false;
+		player.feedPet(food);
+		return true;
+	}
+
+	/**
+	 * Plays with the pet and starts the play cooldown.
+	 *
+	 * @return true if the pet played and false if it could not.
+	 */
+	public boolean play() {
+		if (!canPlay()) return false;
+		player.playWithPet();
+		playReady = tick + PLAY_COOLDOWN_TICKS;
+		return true;
+	}
+
+	/**
+	 * Puts the pet to bed.
+	 *
+	 * @return true if the pet went to bed and false if it is dead, asleep or angry.
+	 */
+	public boolean sleep() {
+		if (!isCalm()) return false;
+		player.sendToBed();
+		return true;
+	}
+
+	/**
+	 * Takes the pet to the vet and starts the vet cooldown.
+	 *
+	 * @return true if the pet went to the vet and false if it could not.
+	 */
+	public boolean vet() {
+		if (!canVet()) return false;
+		player.takeToVet();
+		vetReady = tick + VET_COOLDOWN_TICKS;
+		return true;
+	}
+
+	/**
+	 * Gives the pet a gift.
+	 *
+	 * @param toy the gift.
+	 * @return true if the pet got the gift and false if it is dead or asleep.
+	 */
+	public boolean gift(Toy toy) {
+		if (!isAwake()) return false;
+		player.giftToPet(toy);
+		return true;
+	}
+
+	/**
+	 * Exercises the pet.
+	 *
+	 * @return true if the pet exercised and false if it is dead, asleep or angry.
+	 */
+	public boolean exercise() {
+		if (!isCalm()) return false;
+		player.petExercise();
+		return true;
+	}
+
+	/**
+	 * Sends the pet on a space mission.
+	 *
+	 * @return true if the pet went to space and false if it was not ready.
+	 */
+	public boolean goOnSpaceMission() {
+		if (!pet.isSpaceReady()) return false;
+		player.sendToSpace();
+		missions++;
+		return true;
+	}
+
+	/**
+	 * Checks whether the pet is alive and awake, which every action needs.
+	 *
+	 * @return true if the pet is alive and awake.
+	 */
+	private boolean isAwake() {
+		return pet.isAlive() && !pet.isInState(PetState.SLEEPING);
+	}
+
+	/**
+	 * Checks whether the pet is awake and not angry, which most actions need.
+	 *
+	 * @return true if the pet is awake and not angry.
+	 */
+	private boolean isCalm() {
+		return isAwake() && !pet.isInState(PetState.ANGRY);
+	}
+
+	/**
+	 * Converts a time to whole game ticks, rounding up.
+	 *
+	 * @param millis the time in milliseconds.
+	 * @return the number of ticks.
+	 */
+	private static int toTicks(long millis) {
+		return (int) ((millis + Pet.TICK_MILLIS - 1) / Pet.TICK_MILLIS);
+	}
+}
@@ -0,0 +1,236 @@
+package model.sim;
+
+import java.util.Arrays;
+
+/**
+ * This class advances the pets of a {@link PetTable} only when something observable happens
+ * to them, instead of visiting every pet on every tick.
+ *
+ * <p>For each row the scheduler asks the table how many ticks pass before the pet's state
+ * changes or one of its stats crosses a threshold, and sets a timeout for that tick in a
+ * {@link TimingWheel}. Only rows whose timeout expires are visited: the row is jumped to the
+ * tick in one step, the listener is told, and the next event is scheduled. Dead pets never
+ * change again and are not scheduled at all, so an idle population costs next to nothing per
+ * tick.</p>
+ *
+ * <p>Between events a row's stats in the table lag behind; {@link #sync(int)} brings a row
+ * up to the current tick before it is read. Rows changed from outside, for example when a
+ * player feeds a pet, must be passed to {@link #reschedule(int)}. Other timed events, such as
+ * a cooldown running out, can be put on the same clock with {@link #scheduleAt(long, Runnable)}.
+ * The scheduler is not thread safe.</p>
+ */
+public class PetScheduler {
+
+	/**
+	 * Receives the events of the scheduled pets.
+	 */
+	@FunctionalInterface
+	public interface Listener {
+
+		/**
+		 * Called after a pet's state changed or one of its stats crossed a threshold.
+		 *
+		 * @param row the pet's row, up to date.
+		 * @param tick the tick the event happened at.
+		 */
+		void petChanged(int row, long tick);
+	}
+
+	private final PetTable table;
+	private final TimingWheel<Integer> wakeups;
+	private final TimingWheel<Runnable> actions;
+
+	private TimingWheel.Timeout<Integer>[] timeouts;	// Reused for every wakeup of a row
+	private long[] syncedTicks;							// The tick each row's stats are up to date with
+	private int rows;
+
+	private Listener listener;
+	private long tick;
+	private long wakeCount;
+
+	/**
+	 * Constructs a scheduler over the specified table with every row up to date at the start
+	 * tick. No row is scheduled until {@link #scheduleAll()} or {@link #reschedule(int)}.
+	 *
+	 * @param table the table of pets.
+	 * @param startTick the tick the rows are up to date with.
+	 */
+	public PetScheduler(PetTable table, long startTick) {
+		this.table = table;
+		this.tick = startTick;
+		this.wakeups = new TimingWheel<>(startTick);
+		this.actions = new TimingWheel<>(startTick);
+		this.timeouts = TimingWheel.newTimeoutArray(Math.max(16, table.size()));
+		this.syncedTicks = new long[timeouts.length];
+	}
+
+	/**
+	 * Sets the listener told about pet events.
+	 *
+	 * @param listener the listener, or null for none.
+	 */
+	public void setListener(Listener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Schedules the next event of every row in the table, treating each as up to date.
+	 */
+	public void scheduleAll() {
+		for (int row = 0; row < table.size(); row++) {
+			reschedule(row);
+		}
+	}
+
+	/**
+	 * Schedules the next event of a row that was just added or changed from outside. The row
+	 * is treated as up to date with the current tick.
+	 *
+	 * @param row the row.
+	 */
+	public void reschedule(int row) {
+		track(row);
+		syncedTicks[row] = tick;
+
+		int ticks = table.ticksUntilEvent(row);
+		if (ticks < 0) wakeups.cancel(timeouts[row]);
+		else wakeups.schedule(timeouts[row], tick + ticks);
+	}
+
+	/**
+	 * Brings a row's stats up to date with the current tick, without changing when its next
+	 * event happens.
+	 *
+	 * @param row the row.
+	 */
+	public void sync(int row) {
+		if (row >= rows || syncedTicks[row] == tick) return;
+
+		table.advance(row, tick - syncedTicks[row]);
+		syncedTicks[row] = tick;
+	}
+
+	/**
+	 * Brings every row's stats up to date with the current tick.
+	 */
+	public void syncAll() {
+		for (int row = 0; row < rows; row++) {
+			sync(row);
+		}
+	}
+
+	/**
+	 * Runs an action when the scheduler reaches the specified tick, after the pets' events of
+	 * that tick.
+	 *
+	 * @param tick the tick to run the action at.
+	 * @param action the action.
+	 * @return the action's timeout, which can be cancelled with {@link #cancel(TimingWheel.Timeout)}.
+	 */
+	public TimingWheel.Timeout<Runnable> scheduleAt(long tick, Runnable action) {
+		return actions.schedule(tick, action);
+	}
+
+	/**
+	 * Cancels an action scheduled with {@link #scheduleAt(long, Runnable)}.
+	 *
+	 * @param timeout the action's timeout.
+	 * @return true if the action had not run yet and false otherwise.
+	 */
+	public boolean cancel(TimingWheel.Timeout<Runnable> timeout) {
+		return actions.cancel(timeout);
+	}
+
+	/**
+	 * Advances to the specified tick, visiting only the rows with an event on the way.
+	 *
+	 * @param target the tick to advance to.
+	 * @return the number of rows visited.
+	 */
+	public int advanceTo(long target) {
+		int woken = 0;
+
+		while (tick < target) {
+			// Actions may look at pets, so with actions pending the pets move one tick at a time
+			long next = actions.size() == 0 ? target : tick + 1;
+			woken += wakeups.advanceTo(next, this::wake);
+			tick = next;
+			actions.advanceTo(next, timeout -> timeout.getItem().run());
+		}
+
+		wakeCount += woken;
+		return woken;
+	}
+
+	/**
+	 * Visits a row whose event is due, then schedules its next one.
+	 *
+	 * @param timeout the row's expired timeout.
+	 */
+	private void wake(TimingWheel.Timeout<Integer> timeout) {
+		int row = timeout.getItem();
+		long at = timeout.getDeadline();
+
+		table.advance(row, at - syncedTicks[row]);
+		syncedTicks[row] = at;
+		if (listener != null) listener.petChanged(row, at);
+
+		int ticks = table.ticksUntilEvent(row);
+		if (ticks >= 0) wakeups.schedule(timeout, at + ticks);
+	}
+
+	/**
+	 * Gets the tick the scheduler has reached.
+	 *
+	 * @return the current tick.
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * Gets the tick a row's stats in the table are up to date with.
+	 *
+	 * @param row the row.
+	 * @return the row's tick.
+	 */
+	public long getSyncedTick(int row) {
+		return row < rows ? syncedTicks[row] : tick;
+	}
+
+	/**
+	 * Gets the number of rows waiting for an event.
+	 *
+	 * @return the number of scheduled rows.
+	 */
+	public int getScheduledCount() {
+		return wakeups.size();
+	}
+
+	/**
+	 * Gets the total number of rows visited.
+	 *
+	 * @return the number of wakeups.
+	 */
+	public long getWakeCount() {
+		return wakeCount;
+	}
+
+	/**
+	 * Makes room for a row and gives it a timeout.
+	 *
+	 * @param row the row.
+	 */
+	private void track(int row) {
+		if (row >= timeouts.length) {
+			int capacity = Math.max(row + 1, timeouts.length * 2);
+			timeouts = Arrays.copyOf(timeouts, capacity);
+			syncedTicks = Arrays.copyOf(syncedTicks, capacity);
+		}
+
+		for (; rows <= row; rows++) {
+			timeouts[rows] = new TimingWheel.Timeout<>(rows);
+			syncedTicks[rows] = tick;
+		}
+	}
+}
@@ -0,0 +1,727 @@
+package model.sim;
+
+import model.pet.Pet;
+import model.pet.Pet.PetState;
+import model.pet.SpeciesRules;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class stores a population of pets as parallel primitive arrays, one array per stat,
+ * so a tick walks a few dense arrays instead of millions of separate objects.
+ *
+ * <p>Stats are kept in bytes: they range from 0 to 100, and health can dip a few points below
+ * 0 on the tick a pet dies. States are stored as their enum ordinals and species as their
+ * {@link SpeciesRules#getIndex() index}. Names are
+ * only needed to show or save a pet and sit in their own array away from the stats.</p>
+ *
+ * <p>{@link #tick()} has exactly the effect of one game tick on every row, that is
+ * {@link Pet#updateProgressBars()} followed by {@link Pet#updateState()}. Rows a tick changes
+ * are marked dirty so only those need saving. A row can be copied out as a {@link Pet} with
+ * {@link #materialize(int)} and written back with {@link #update(int, Pet)}.</p>
+ *
+ * <p>Rows never affect each other, so {@link #tick(ForkJoinPool, int)} can split a tick into
+ * shards that run in parallel and still give exactly the sequential result. Shards start on
+ * multiples of 64 rows, so each one owns whole words of the dirty bits and the shards never
+ * write the same word; reading the bits in row order afterwards merges them.</p>
+ *
+ * <p>Between thresholds a tick changes a row by the same amount every time, so
+ * {@link #advance(int, long)} jumps a row over many ticks at once and
+ * {@link #ticksUntilEvent(int)} tells how long the row stays on its current course. A
+ * {@link PetScheduler} uses the two to only visit rows when something happens to them.</p>
+ */
+public class PetTable {
+
+	private static final int DEAD = PetState.DEAD.ordinal();
+	private static final int SLEEPING = PetState.SLEEPING.ordinal();
+	private static final int NORMAL = PetState.NORMAL.ordinal();
+	private static final int HUNGRY = PetState.HUNGRY.ordinal();
+	private static final int ANGRY = PetState.ANGRY.ordinal();
+
+	// The cases of Pet.updateState, in the order it checks them, and the state each leads to
+	private static final int DIES = 0;
+	private static final int WAKES = 1;
+	private static final int FALLS_ASLEEP = 2;
+	private static final int SULKS = 3;
+	private static final int STARVES = 4;
+	private static final int FINE = 5;
+	private static final int[] CASE_STATES = { DEAD, NORMAL, SLEEPING, ANGRY, HUNGRY, NORMAL };
+
+	// Packed stats take the low 44 bits, the decisions of the tick that produced them the rest
+	private static final long STATS_MASK = (1L << 44) - 1;
+	private static final int TRACE_SHIFT = 44;
+
+	// The longest run of equal ticks looked for; every stat crosses a threshold well within it
+	private static final int MAX_RUN = 256;
+
+	/** The default number of rows ticked by one parallel shard. */
+	public static final int DEFAULT_SHARD_SIZE = 16 * 1024;
+
+	private static final PetState[] STATES = PetState.values();
+
+	private int size;
+
+	// Hot columns, read and written by every tick
+	private byte[] health;
+	private byte[] sleep;
+	private byte[] hunger;
+	private byte[] happiness;
+	private byte[] spaceReadiness;
+	private byte[] state;
+
+	// Cold columns
+	private byte[] species;
+	private int[] ids;
+	private int[] totalMissions;
+	private String[] names;
+
+	private long[] dirty;	// One bit per row, set when the row changed since it was last saved
+
+	/**
+	 * Constructs an empty table.
+	 *
+	 * @param initialCapacity the number of rows to make room for.
+	 */
+	public PetTable(int initialCapacity) {
+		int capacity = Math.max(16, initialCapacity);
+		health = new byte[capacity];
+		sleep = new byte[capacity];
+		hunger = new byte[capacity];
+		happiness = new byte[capacity];
+		spaceReadiness = new byte[capacity];
+		state = new byte[capacity];
+		species = new byte[capacity];
+		ids = new int[capacity];
+		totalMissions = new int[capacity];
+		names = new String[capacity];
+		dirty = new long[(capacity + 63) >>> 6];
+	}
+
+	/**
+	 * Adds a row holding a copy of the specified pet. The new row is not dirty.
+	 *
+	 * @param pet the pet to add.
+	 * @return the row the pet was added at.
+	 */
+	public int add(Pet pet) {
+		if (size == ids.length) grow();
+
+		int row = size++;
+		update(row, pet);
+		clearDirty(row);
+		return row;
+	}
+
+	/**
+	 * Gets the number of rows.
+	 *
+	 * @return the number of rows.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Advances every row by one game tick.
+	 *
+	 * @return the number of rows the tick changed.
+	 */
+	public int tick() {
+		return tick(0, size);
+	}
+
+	/**
+	 * Advances the rows in the specified range by one game tick.
+	 *
+	 * @param from the first row, inclusive.
+	 * @param to the last row, exclusive.
+	 * @return the number of rows the tick changed.
+	 */
+	public int tick(int from, int to) {
+		int changed = 0;
+
+		for (int i = from; i < to; i++) {
+			long before = pack(health[i], sleep[i], hunger[i], happiness[i], spaceReadiness[i], state[i]);
+			long after = step(health[i], sleep[i], hunger[i], happiness[i], spaceReadiness[i], state[i]) & STATS_MASK;
+
+			if (after != before) {
+				store(i, after);
+				changed++;
+			}
+		}
+
+		return changed;
+	}
+
+	/**
+	 * Advances every row by one game tick, split into shards run on the specified pool. The
+	 * result is identical to {@link #tick()}.
+	 *
+	 * @param pool the pool to run the shards on.
+	 * @param shardSize the most rows ticked by one shard, rounded up to a multiple of 64.
+	 * @return the number of rows the tick changed.
+	 */
+	public int tick(ForkJoinPool pool, int shardSize) {
+		int rows = Math.max(64, (shardSize + 63) & ~63);
+		if (size <= rows) return tick();
+
+		return pool.invoke(new TickShard(0, size, rows));
+	}
+
+	/**
+	 * A range of rows that splits in two on a multiple of 64 until it is no larger than a shard.
+	 */
+	private class TickShard extends RecursiveTask<Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+		private final int shardSize;
+
+		TickShard(int from, int to, int shardSize) {
+			this.from = from;
+			this.to = to;
+			this.shardSize = shardSize;
+		}
+
+		@Override
+		protected Integer compute() {
+			if (to - from <= shardSize) return tick(from, to);
+
+			int middle = from + Math.max(64, ((to - from) >>> 1) & ~63);
+			TickShard left = new TickShard(from, middle, shardSize);
+			left.fork();
+			int changed = new TickShard(middle, to, shardSize).compute();
+			return changed + left.join();
+		}
+	}
+
+	/**
+	 * Advances one row by the specified number of game ticks. The result is identical to
+	 * ticking the row that many times, but runs of ticks that change the row by the same
+	 * amount are applied in one step, so the cost depends on the number of thresholds crossed
+	 * rather than the number of ticks.
+	 *
+	 * @param row the row to advance.
+	 * @param ticks the number of ticks to advance by.
+	 * @return true if the row changed and false otherwise.
+	 */
+	public boolean advance(int row, long ticks) {
+		checkRow(row);
+
+		long before = pack(health[row], sleep[row], hunger[row], happiness[row], spaceReadiness[row], state[row]);
+		long current = before;
+
+		while (ticks > 0) {
+			long next = step(current) & STATS_MASK;
+			if (next == current) break;		// Nothing changes any more
+
+			int run = (int) Math.min(ticks, runLength(current, next));
+			current = run == 1 ? next : offset(current, next, run);
+			ticks -= run;
+		}
+
+		if (current == before) return false;
+		store(row, current);
+		return true;
+	}
+
+	/**
+	 * Finds how many ticks pass before something observable next happens to a row: its state
+	 * changes or a stat crosses one of the thresholds the game reacts to. Until then every
+	 * tick changes the row's stats by the same amount.
+	 *
+	 * @param row the row.
+	 * @return the number of ticks until the next event, at least 1, or -1 if the row never
+	 * 		changes again.
+	 */
+	public int ticksUntilEvent(int row) {
+		checkRow(row);
+
+		long current = pack(health[row], sleep[row], hunger[row], happiness[row], spaceReadiness[row], state[row]);
+		long next = step(current) & STATS_MASK;
+		return next == current ? -1 : runLength(current, next);
+	}
+
+	/**
+	 * Counts the ticks, starting with the one from {@code current} to {@code next}, that each
+	 * change the stats by the same amount.
+	 *
+	 * <p>Every decision a tick makes compares a stat, shifted by a constant, with a constant,
+	 * and along a run of equal changes the stats move in a straight line. Each decision can
+	 * therefore only flip once along the run, so the run ends at the first tick whose
+	 * decisions differ from the first tick's, which a binary search finds.</p>
+	 *
+	 * @param current the stats before the first tick.
+	 * @param next the stats after the first tick.
+	 * @return the length of the run, from 1 to {@link #MAX_RUN}.
+	 */
+	private static int runLength(long current, long next) {
+		// A state change is its own event
+		if (state(current) != state(next)) return 1;
+
+		long trace = step(current) & ~STATS_MASK;
+		int low = 1, high = MAX_RUN;		// The run is between low and high ticks long
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (isSameStep(current, next, middle, trace)) low = middle + 1;
+			else high = middle;
+		}
+
+		return low;
+	}
+
+	/**
+	 * Checks whether the tick that starts after {@code ticks} steps of the run makes the same
+	 * decisions and the same change as the first one.
+	 *
+	 * @param current the stats before the first tick.
+	 * @param next the stats after the first tick.
+	 * @param ticks the number of ticks already in the run.
+	 * @param trace the decisions the first tick made.
+	 * @return true if the tick continues the run and false otherwise.
+	 */
+	private static boolean isSameStep(long current, long next, int ticks, long trace) {
+		int h = health(current) + ticks * (health(next) - health(current));
+		int sl = sleep(current) + ticks * (sleep(next) - sleep(current));
+		int hu = hunger(current) + ticks * (hunger(next) - hunger(current));
+		int ha = happiness(current) + ticks * (happiness(next) - happiness(current));
+		int sr = spaceReadiness(current) + ticks * (spaceReadiness(next) - spaceReadiness(current));
+		if (h < Byte.MIN_VALUE || h > Byte.MAX_VALUE || (sl | hu | ha | sr) < 0 || Math.max(Math.max(sl, hu), Math.max(ha, sr)) > 100) {
+			return false;
+		}
+
+		long stepped = step(h, sl, hu, ha, sr, state(current));
+		return (stepped & ~STATS_MASK) == trace
+				&& (stepped & STATS_MASK) == offset(current, next, ticks + 1);
+	}
+
+	/**
+	 * Moves stats along a run of equal changes.
+	 *
+	 * @param current the stats before the first tick.
+	 * @param next the stats after the first tick.
+	 * @param ticks the number of ticks to move.
+	 * @return the stats after the ticks.
+	 */
+	private static long offset(long current, long next, int ticks) {
+		return pack(health(current) + ticks * (health(next) - health(current)),
+				sleep(current) + ticks * (sleep(next) - sleep(current)),
+				hunger(current) + ticks * (hunger(next) - hunger(current)),
+				happiness(current) + ticks * (happiness(next) - happiness(current)),
+				spaceReadiness(current) + ticks * (spaceReadiness(next) - spaceReadiness(current)),
+				state(current));
+	}
+
+	/**
+	 * Applies one game tick to packed stats.
+	 *
+	 * @param stats the packed stats.
+	 * @return the packed stats after the tick, with the tick's decisions in the high bits.
+	 */
+	private static long step(long stats) {
+		return step(health(stats), sleep(stats), hunger(stats), happiness(stats), spaceReadiness(stats), state(stats));
+	}
+
+	/**
+	 * Applies one game tick, {@link Pet#updateProgressBars()} followed by
+	 * {@link Pet#updateState()}, to a row's stats. Besides the new stats the result records
+	 * the outcome of every decision the tick made, so two ticks can be compared.
+	 *
+	 * @param h the health.
+	 * @param sl the sleep level.
+	 * @param hu the hunger level.
+	 * @param ha the happiness level.
+	 * @param sr the space readiness.
+	 * @param st the state ordinal.
+	 * @return the packed stats after the tick, with the tick's decisions in the high bits.
+	 */
+	private static long step(int h, int sl, int hu, int ha, int sr, int st) {
+		int trace;
+
+		if (st == SLEEPING) {
+			// Sleeping only restores sleep, then the game tick's own state update runs
+			trace = 1;
+			if (sl > 90) {
+				sl = 100;
+				trace |= 1 << 2;
+			} else {
+				sl += 10;
+			}
+
+			int result = applyState(h, sl, hu, ha, st);
+			trace |= (result & 7) << 3;
+			h = result >> 3;
+			st = CASE_STATES[result & 7];
+		} else if (st != DEAD) {
+			trace = 2;
+			if (hu < 5) {
+				hu = 0;
+				trace |= 1 << 2;
+			} else {
+				hu -= 5;
+			}
+			if (ha < 10) {
+				ha = 0;
+				trace |= 1 << 3;
+			} else {
+				ha -= 10;
+			}
+			if (sl < 2) {
+				sl = 0;
+				trace |= 1 << 4;
+			} else {
+				sl -= 2;
+			}
+
+			int band = hu > 50 ? 0 : hu > 10 ? 1 : 2;
+			int penalty = band == 0 ? 0 : band == 1 ? 20 : 30;
+			trace |= band << 5;
+			if (penalty > 0) {
+				if (h < penalty) {
+					h = 0;
+					trace |= 1 << 7;
+				} else {
+					h -= penalty;
+				}
+			}
+
+			int fit = h < 90 ? 0 : hu < 90 ? 1 : sl < 90 ? 2 : ha < 90 ? 3 : 4;
+			trace |= fit << 8;
+			if (fit == 4) {
+				if (sr > 90) {
+					sr = 100;
+					trace |= 1 << 11;
+				} else {
+					sr += 10;
+				}
+			}
+
+			int result = applyState(h, sl, hu, ha, st);
+			trace |= (result & 7) << 12;
+			if ((result & 7) == DIES) {
+				h = sl = hu = ha = sr = 0;
+				st = DEAD;
+			} else {
+				result = applyState(result >> 3, sl, hu, ha, CASE_STATES[result & 7]);
+				trace |= (result & 7) << 15;
+				h = result >> 3;
+				st = CASE_STATES[result & 7];
+			}
+		} else {
+			trace = 3;
+			int result = applyState(h, sl, hu, ha, st);
+			trace |= (result & 7) << 3;
+			h = result >> 3;
+			st = CASE_STATES[result & 7];
+		}
+
+		return pack(h, sl, hu, ha, sr, st) | (long) trace << TRACE_SHIFT;
+	}
+
+	/**
+	 * Applies {@link Pet#updateState()} to a row's stats.
+	 *
+	 * @param h the health.
+	 * @param sl the sleep level.
+	 * @param hu the hunger level.
+	 * @param ha the happiness level.
+	 * @param st the state ordinal.
+	 * @return the new health times 8 plus the case that decided the new state.
+	 */
+	private static int applyState(int h, int sl, int hu, int ha, int st) {
+		if (h <= 0) return h * 8 + DIES;
+		if (st == SLEEPING && sl >= 100) return h * 8 + WAKES;
+		if (sl <= 0) return (h - 5) * 8 + FALLS_ASLEEP;
+		if (ha <= 0) return h * 8 + SULKS;
+		if (hu <= 0) return (h - 5) * 8 + STARVES;
+		return h * 8 + FINE;
+	}
+
+	/**
+	 * Packs a row's stats into one value, a byte for each stat and four bits for the state.
+	 *
+	 * @param h the health.
+	 * @param sl the sleep level.
+	 * @param hu the hunger level.
+	 * @param ha the happiness level.
+	 * @param sr the space readiness.
+	 * @param st the state ordinal.
+	 * @return the packed stats.
+	 */
+	private static long pack(int h, int sl, int hu, int ha, int sr, int st) {
+		return (h & 0xFFL) | (sl & 0xFFL) << 8 | (hu & 0xFFL) << 16 | (ha & 0xFFL) << 24
+				| (sr & 0xFFL) << 32 | (st & 0xFL) << 40;
+	}
+
+	/**
+	 * Clamps a stat to 0-100 so it fits in a row's byte without wrapping.
+	 *
+	 * @param value the stat.
+	 * @return the stat between 0 and 100.
+	 */
+	private static byte stat(int value) {
+		return (byte) Math.max(0, Math.min(100, value));
+	}
+
+	// Reads one field of packed stats
+
+	private static int health(long stats) {
+		return (byte) stats;
+	}
+
+	private static int sleep(long stats) {
+		return (int) (stats >>> 8) & 0xFF;
+	}
+
+	private static int hunger(long stats) {
+		return (int) (stats >>> 16) & 0xFF;
+	}
+
+	private static int happiness(long stats) {
+		return (int) (stats >>> 24) & 0xFF;
+	}
+
+	private static int spaceReadiness(long stats) {
+		return (int) (stats >>> 32) & 0xFF;
+	}
+
+	private static int state(long stats) {
+		return (int) (stats >>> 40) & 0xF;
+	}
+
+	/**
+	 * Writes packed stats to a row and marks it dirty.
+	 *
+	 * @param row the row.
+	 * @param stats the packed stats.
+	 */
+	private void store(int row, long stats) {
+		health[row] = (byte) health(stats);
+		sleep[row] = (byte) sleep(stats);
+		hunger[row] = (byte) hunger(stats);
+		happiness[row] = (byte) happiness(stats);
+		spaceReadiness[row] = (byte) spaceReadiness(stats);
+		state[row] = (byte) state(stats);
+		markDirty(row);
+	}
+
+	/**
+	 * Creates a pet holding a copy of the specified row. Changes to the pet are not seen by
+	 * the table until the pet is written back with {@link #update(int, Pet)}.
+	 *
+	 * @param row the row to copy.
+	 * @return the pet.
+	 */
+	public Pet materialize(int row) {
+		checkRow(row);
+
+		Pet pet = new Pet(names[row], SpeciesRules.get(species[row]));
+		pet.setID(ids[row]);
+		pet.restore(health[row], sleep[row], hunger[row], happiness[row], spaceReadiness[row],
+				STATES[state[row]], totalMissions[row]);
+		return pet;
+	}
+
+	/**
+	 * Overwrites the specified row with the pet's values and marks it dirty.
+	 *
+	 * @param row the row to overwrite.
+	 * @param pet the pet to copy.
+	 */
+	public void update(int row, Pet pet) {
+		checkRow(row);
+
+		health[row] = (byte) Math.max(Byte.MIN_VALUE, Math.min(100, pet.getHealth()));
+		sleep[row] = stat(pet.getSleep());
+		hunger[row] = stat(pet.getHunger());
+		happiness[row] = stat(pet.getHappiness());
+		spaceReadiness[row] = stat(pet.getSpaceReadiness());
+		state[row] = (byte) pet.getCurrentState().ordinal();
+		species[row] = (byte) pet.getSpecies().getIndex();
+		ids[row] = pet.getID();
+		totalMissions[row] = pet.getTotalMission();
+		names[row] = pet.getName();
+		markDirty(row);
+	}
+
+	/**
+	 * Checks whether the row changed since it was last marked clean.
+	 *
+	 * @param row the row.
+	 * @return true if the row is dirty and false otherwise.
+	 */
+	public boolean isDirty(int row) {
+		return (dirty[row >>> 6] & (1L << row)) != 0;
+	}
+
+	/**
+	 * Finds the first dirty row at or after the specified row.
+	 *
+	 * @param from the row to start searching at.
+	 * @return the dirty row, or -1 if there is none.
+	 */
+	public int nextDirty(int from) {
+		if (from >= size) return -1;
+
+		int word = from >>> 6;
+		long bits = dirty[word] & (-1L << from);
+
+		while (true) {
+			if (bits != 0) {
+				int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+				return row < size ? row : -1;
+			}
+			if (++word == dirty.length) return -1;
+			bits = dirty[word];
+		}
+	}
+
+	/**
+	 * Marks the row dirty.
+	 *
+	 * @param row the row.
+	 */
+	public void markDirty(int row) {
+		dirty[row >>> 6] |= 1L << row;
+	}
+
+	/**
+	 * Marks the row clean, for example after it was saved.
+	 *
+	 * @param row the row.
+	 */
+	public void clearDirty(int row) {
+		dirty[row >>> 6] &= ~(1L << row);
+	}
+
+	/**
+	 * Gets the pet's ID in the specified row.
+	 *
+	 * @param row the row.
+	 * @return the pet's ID.
+	 */
+	public int getID(int row) {
+		return ids[row];
+	}
+
+	/**
+	 * Gets the pet's name in the specified row.
+	 *
+	 * @param row the row.
+	 * @return the pet's name.
+	 */
+	public String getName(int row) {
+		return names[row];
+	}
+
+	/**
+	 * Gets the pet's species in the specified row.
+	 *
+	 * @param row the row.
+	 * @return the pet's species.
+	 */
+	public SpeciesRules getSpecies(int row) {
+		return SpeciesRules.get(species[row]);
+	}
+
+	/**
+	 * Gets the pet's health in the specified row.
+	 *
+	 * @param row the row.
+	 * @return the pet's health.
+	 */
+	public int getHealth(int row) {
+		return health[row];
+	}
+
+	/**
+	 * Gets the pet's sleep level in the specified row.
+	 *
+	 * @param row the row.
+	 * @return the pet's sleep level.
+	 */
+	public int getSleep(int row) {
+		return sleep[row];
+	}
+
+	/**
+	 * Gets the pet's hunger level in the specified row.
+	 *
+	 * @param row the row.
+	 * @return the pet's hunger level.
+	 */
+	public int getHunger(int row) {
+		return hunger[row];
+	}
+
+	/**
+	 * Gets the pet's happiness level in the specified row.
+	 *
+	 * @param row the row.
+	 * @return the pet's happiness level.
+	 */
+	public int getHappiness(int row) {
+		return happiness[row];
+	}
+
+	/**
+	 * Gets the pet's space readiness in the specified row.
+	 *
+	 * @param row the row.
+	 * @return the pet's space readiness.
+	 */
+	public int getSpaceReadiness(int row) {
+		return spaceReadiness[row];
+	}
+
+	/**
+	 * Gets the pet's state in the specified row.
+	 *
+	 * @param row the row.
+	 * @return the pet's state.
+	 */
+	public PetState getState(int row) {
+		return STATES[state[row]];
+	}
+
+	/**
+	 * Gets the pet's total number of missions in the specified row.
+	 *
+	 * @param row the row.
+	 * @return the pet's total number of missions.
+	 */
+	public int getTotalMissions(int row) {
+		return totalMissions[row];
+	}
+
+	/**
+	 * Doubles the capacity of every column.
+	 */
+	private void grow() {
+		int capacity = ids.length * 2;
+		health = Arrays.copyOf(health, capacity);
+		sleep = Arrays.copyOf(sleep, capacity);
+		hunger = Arrays.copyOf(hunger, capacity);
+		happiness = Arrays.copyOf(happiness, capacity);
+		spaceReadiness = Arrays.copyOf(spaceReadiness, capacity);
+		state = Arrays.copyOf(state, capacity);
+		species = Arrays.copyOf(species, capacity);
+		ids = Arrays.copyOf(ids, capacity);
+		totalMissions = Arrays.copyOf(totalMissions, capacity);
+		names = Arrays.copyOf(names, capacity);
+		dirty = Arrays.copyOf(dirty, (capacity + 63) >>> 6);
+	}
+
+	/**
+	 * Checks that a row exists or is the row being added.
+	 *
+	 * @param row the row.
+	 */
+	private void checkRow(int row) {
+		if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+	}
+}
@@ -0,0 +1,506 @@
+package model.sim;
+
+import model.log.Log;
+import model.pet.Pet;
+import model.pet.SpeciesRules;
+import model.save.PetStore;
+import model.save.PetStores;
+import model.save.SaveData;
+import java.io.File;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class runs a whole population of pets without a display. Every tick advances each
+ * pet exactly like one game tick, and pets that changed are written back to the store in
+ * batches.
+ *
+ * <p>Pets are held in a {@link PetTable} and only the rows a tick changed are written back,
+ * so dead pets cost nothing to persist. The engine keeps its own simulated time that moves
+ * one tick length per tick, which becomes the pets' last simulated time when they are saved.</p>
+ *
+ * <p>With {@link #setEventDriven(boolean)} the engine stops visiting every pet on every tick
+ * and lets a {@link PetScheduler} visit only the pets something happens to. A pet is then
+ * saved as of its last event together with that event's time, which loading catches up from,
+ * so the saves stay equivalent to ticking every pet.</p>
+ */
+public class SimulationEngine {
+
+	private static final Log LOG = Log.get(SimulationEngine.class);
+	private static final int DEFAULT_BATCH_SIZE = 1024;
+
+	/**
+	 * The result of a run of the engine.
+	 *
+	 * @param pets the number of pets simulated.
+	 * @param ticks the number of ticks run.
+	 * @param elapsedNanos the time the ticks took in nanoseconds, not counting persistence.
+	 * @param saved the number of pets written to the store.
+	 */
+	public record Report(int pets, long ticks, long elapsedNanos, long saved) {
+
+		/**
+		 * Gets the number of whole-population ticks run per second.
+		 *
+		 * @return the ticks per second.
+		 */
+		public double ticksPerSecond() {
+			return elapsedNanos == 0 ? 0 : ticks * 1e9 / elapsedNanos;
+		}
+
+		/**
+		 * Gets the number of single pet ticks run per second.
+		 *
+		 * @return the pet ticks per second.
+		 */
+		public double petTicksPerSecond() {
+			return ticksPerSecond() * pets;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d pets, %d ticks in %.1f ms: %.1f ticks/s, %.0f pet ticks/s, %d saves",
+					pets, ticks, elapsedNanos / 1e6, ticksPerSecond(), petTicksPerSecond(), saved);
+		}
+	}
+
+	private final PetStore store;
+	private final int batchSize;
+	private ForkJoinPool pool;		// Null to tick on the calling thread
+	private int shardSize;
+	private PetScheduler events;	// Null to visit every pet on every tick
+
+	private final PetTable table;
+	private final List<List<SaveData.ItemData>> items;		// Saved inventory of each row, written back unchanged
+
+	private final long startTime;
+	private long simulatedTime;
+	private long ticks;
+	private long tickNanos;
+	private long saved;
+
+	private ScheduledExecutorService scheduler;
+	private volatile long failures;		// Background ticks that threw
+
+	/**
+	 * Constructs an engine over the specified store that writes pets back in batches of the
+	 * default size.
+	 *
+	 * @param store the store pets are loaded from and saved to.
+	 */
+	public SimulationEngine(PetStore store) {
+		this(store, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Constructs an engine over the specified store.
+	 *
+	 * @param store the store pets are loaded from and saved to.
+	 * @param batchSize the number of pets written to the store at a time.
+	 */
+	public SimulationEngine(PetStore store, int batchSize) {
+		this(store, batchSize, null);
+	}
+
+	/**
+	 * Constructs an engine over the specified store whose simulated time starts at the
+	 * specified clock's time, so runs with the same clock and pets save the same times.
+	 *
+	 * @param store the store pets are loaded from and saved to.
+	 * @param batchSize the number of pets written to the store at a time.
+	 * @param clock the clock the simulated time starts from, or null for the system clock.
+	 */
+	public SimulationEngine(PetStore store, int batchSize, Clock clock) {
+		this.store = store;
+		this.batchSize = Math.max(1, batchSize);
+		this.table = new PetTable(1024);
+		this.items = new ArrayList<>();
+		this.shardSize = PetTable.DEFAULT_SHARD_SIZE;
+		this.startTime = (clock != null ? clock : Clock.systemUTC()).millis();
+		this.simulatedTime = startTime;
+	}
+
+	/**
+	 * Splits each tick into shards run on the specified pool. The results are identical to
+	 * ticking on one thread.
+	 *
+	 * @param pool the pool to tick on, or null to tick on the calling thread.
+	 * @param shardSize the most pets ticked by one shard.
+	 */
+	public synchronized void setParallelism(ForkJoinPool pool, int shardSize) {
+		this.pool = pool;
+		this.shardSize = shardSize;
+	}
+
+	/**
+	 * Switches between visiting only the pets with an event due and ticking every pet. The
+	 * results are identical either way.
+	 *
+	 * @param eventDriven true to visit pets only on their events and false to tick every pet.
+	 */
+	public synchronized void setEventDriven(boolean eventDriven) {
+		if (eventDriven == (events != null)) return;
+
+		if (eventDriven) {
+			events = new PetScheduler(table, ticks);
+			events.scheduleAll();
+		} else {
+			events.syncAll();
+			events = null;
+		}
+	}
+
+	/**
+	 * Loads every pet in the store, catching each one up to the present first.
+	 *
+	 * @return the number of pets loaded.
+	 */
+	public synchronized int loadAll() {
+		int loaded = 0;
+
+		for (int petID : store.getPetIDs()) {
+			try {
+				SaveData data = store.load(petID);
+				Pet pet = data != null ? data.toPet() : null;
+				if (pet == null) continue;
+
+				long restoredVersion = pet.getVersion();
+				if (data.lastSimulated() > 0 && data.lastSimulated() < simulatedTime) {
+					pet.advance(Duration.ofMillis(simulatedTime - data.lastSimulated()));
+				}
+				pet.setLastSimulated(simulatedTime);
+
+				// Only pets that changed while catching up need saving
+				add(pet, data.items(), pet.getVersion() == restoredVersion);
+				loaded++;
+			} catch (IOException e) {
+				LOG.error("Error loading pet " + petID, e);
+			}
+		}
+
+		return loaded;
+	}
+
+	/**
+	 * Adds a pet that is not in the store yet. It is written on the next persist.
+	 *
+	 * @param pet the pet to add.
+	 * @param inventory the items in the pet's inventory.
+	 */
+	public synchronized void add(Pet pet, List<SaveData.ItemData> inventory) {
+		add(pet, List.copyOf(inventory), false);
+	}
+
+	/**
+	 * Adds a pet to the population.
+	 *
+	 * @param pet the pet to add.
+	 * @param inventory the items in the pet's inventory.
+	 * @param isSaved whether the store already holds the pet as it is.
+	 */
+	private void add(Pet pet, List<SaveData.ItemData> inventory, boolean isSaved) {
+		int row = table.add(pet);
+		items.add(inventory);
+		if (!isSaved) table.markDirty(row);
+		if (events != null) events.reschedule(row);
+	}
+
+	/**
+	 * Advances every pet by one game tick.
+	 */
+	public synchronized void tick() {
+		long start = System.nanoTime();
+
+		if (events != null) events.advanceTo(ticks + 1);
+		else if (pool != null) table.tick(pool, shardSize);
+		else table.tick();
+
+		simulatedTime += Pet.TICK_MILLIS;
+		ticks++;
+		tickNanos += System.nanoTime() - start;
+	}
+
+	/**
+	 * Writes every pet that changed since it was last saved, in batches, then forces the
+	 * store to disk.
+	 *
+	 * @return the number of pets written.
+	 * @throws IOException if a batch cannot be written.
+	 */
+	public synchronized int persist() throws IOException {
+		List<SaveData> batch = new ArrayList<>(batchSize);
+		int[] batchRows = new int[batchSize];
+		int written = 0;
+
+		for (int row = table.nextDirty(0); row >= 0; row = table.nextDirty(row + 1)) {
+			batchRows[batch.size()] = row;
+			batch.add(snapshot(row));
+
+			if (batch.size() == batchSize) {
+				written += writeBatch(batch, batchRows);
+			}
+		}
+
+		if (!batch.isEmpty()) written += writeBatch(batch, batchRows);
+		store.flush();
+
+		saved += written;
+		return written;
+	}
+
+	/**
+	 * Takes a snapshot of a row for saving.
+	 *
+	 * @param row the row.
+	 * @return the snapshot.
+	 */
+	private SaveData snapshot(int row) {
+		return new SaveData(table.getSpecies(row).getName(), table.getID(row), table.getName(row), Math.max(0, table.getHealth(row)),
+				table.getSleep(row), table.getHunger(row), table.getHappiness(row), table.getSpaceReadiness(row),
+				table.getState(row), table.getTotalMissions(row), items.get(row), lastSimulated(row));
+	}
+
+	/**
+	 * Gets the simulated time a row's stats are up to date with.
+	 *
+	 * @param row the row.
+	 * @return the time in milliseconds.
+	 */
+	private long lastSimulated(int row) {
+		return events == null ? simulatedTime : startTime + events.getSyncedTick(row) * Pet.TICK_MILLIS;
+	}
+
+	/**
+	 * Writes a batch to the store and marks its rows clean.
+	 *
+	 * @param batch the snapshots to write, cleared afterwards.
+	 * @param batchRows the row of each snapshot.
+	 * @return the number of pets written.
+	 * @throws IOException if the batch cannot be written.
+	 */
+	private int writeBatch(List<SaveData> batch, int[] batchRows) throws IOException {
+		store.saveAll(batch);
+
+		for (int i = 0; i < batch.size(); i++) {
+			table.clearDirty(batchRows[i]);
+		}
+
+		int written = batch.size();
+		batch.clear();
+		return written;
+	}
+
+	/**
+	 * Runs the specified number of ticks as fast as possible.
+	 *
+	 * @param tickCount the number of ticks to run.
+	 * @param persistEvery how many ticks to run between persists, or 0 to persist only at the end.
+	 * @return the report of the run.
+	 * @throws IOException if the pets cannot be written.
+	 */
+	public synchronized Report run(long tickCount, long persistEvery) throws IOException {
+		long startTicks = ticks;
+		long startNanos = tickNanos;
+		long startSaved = saved;
+
+		for (long i = 1; i <= tickCount; i++) {
+			tick();
+			if (persistEvery > 0 && i % persistEvery == 0) persist();
+		}
+		persist();
+
+		return new Report(table.size(), ticks - startTicks, tickNanos - startNanos, saved - startSaved);
+	}
+
+	/**
+	 * Starts ticking every pet once per interval on a background thread.
+	 *
+	 * @param intervalMillis the time between ticks in milliseconds.
+	 * @param persistEvery how many ticks to run between persists.
+	 */
+	public synchronized void start(long intervalMillis, long persistEvery) {
+		if (scheduler != null) return;
+
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "simulation-engine");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		scheduler.scheduleAtFixedRate(() -> {
+			try {
+				synchronized (this) {
+					tick();
+					if (ticks % Math.max(1, persistEvery) == 0) persist();
+				}
+			} catch (Throwable t) {
+				// A throw would cancel the schedule, so every failure is logged and the ticks go on
+				failures++;
+				LOG.error("Error running simulation tick", t);
+			}
+		}, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the background ticks started by {@link #start(long, long)} and writes the pets
+	 * that changed.
+	 *
+	 * @throws IOException if the pets cannot be written.
+	 */
+	public void stop() throws IOException {
+		ScheduledExecutorService running;
+		synchronized (this) {
+			running = scheduler;
+			scheduler = null;
+		}
+		if (running == null) return;
+
+		running.shutdown();
+		try {
+			running.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		persist();
+	}
+
+	/**
+	 * Gets the number of pets being simulated.
+	 *
+	 * @return the number of pets.
+	 */
+	public synchronized int getPetCount() {
+		return table.size();
+	}
+
+	/**
+	 * Gets a copy of the pet in the specified row. Changes to the copy are only simulated
+	 * once it is written back with {@link #updatePet(int, Pet)}.
+	 *
+	 * @param row the pet's row.
+	 * @return a copy of the pet.
+	 */
+	public synchronized Pet getPet(int row) {
+		if (events != null) events.sync(row);
+		return table.materialize(row);
+	}
+
+	/**
+	 * Replaces the pet in the specified row, for example after a player cared for it.
+	 *
+	 * @param row the pet's row.
+	 * @param pet the pet's new values.
+	 */
+	public synchronized void updatePet(int row, Pet pet) {
+		table.update(row, pet);
+		if (events != null) events.reschedule(row);
+	}
+
+	/**
+	 * Gets the total number of ticks run.
+	 *
+	 * @return the number of ticks.
+	 */
+	public synchronized long getTickCount() {
+		return ticks;
+	}
+
+	/**
+	 * Gets the total number of times a pet was visited because something happened to it,
+	 * while the engine is event driven.
+	 *
+	 * @return the number of visits, or 0 if the engine ticks every pet.
+	 */
+	public synchronized long getWakeCount() {
+		return events == null ? 0 : events.getWakeCount();
+	}
+
+	/**
+	 * Gets the number of background ticks that threw. A tick that throws is logged and the
+	 * ticks go on.
+	 *
+	 * @return the number of failed ticks.
+	 */
+	public long getFailureCount() {
+		return failures;
+	}
+
+	/**
+	 * Gets the total number of pets written to the store.
+	 *
+	 * @return the number of pets saved.
+	 */
+	public synchronized long getSavedCount() {
+		return saved;
+	}
+
+	/**
+	 * Adds randomly generated pets, for load testing.
+	 *
+	 * @param count the number of pets to generate.
+	 * @param seed the random seed.
+	 * @throws IOException if the IDs cannot be allocated.
+	 */
+	public synchronized void generate(int count, long seed) throws IOException {
+		if (count <= 0) return;
+
+		SplittableRandom random = new SplittableRandom(seed);
+		List<SaveData.ItemData> starterItems = List.of(
+				new SaveData.ItemData("Food", "Kibble", "Basic pet food. Made of space plants."),
+				new SaveData.ItemData("Toy", "Ball", "Looks like the moon."));
+
+		int firstID = store.allocatePetIDs(count);
+		for (int i = 0; i < count; i++) {
+			String name = "Pet " + i;
+			Pet pet = new Pet(name, SpeciesRules.get(random.nextInt(SpeciesRules.all().size())));
+
+			pet.setID(firstID + i);
+			pet.mutate(d -> d.setHunger(20 + random.nextInt(81)).setHappiness(20 + random.nextInt(81))
+					.setSleep(20 + random.nextInt(81)));
+			pet.setLastSimulated(simulatedTime);
+			add(pet, starterItems, false);
+		}
+	}
+
+	/**
+	 * Runs the engine over a data directory and prints the report.
+	 *
+	 * <p>Usage: {@code SimulationEngine [data dir] [ticks] [pets to generate] [threads] [events]}.
+	 * The store is chosen with the {@code astropaws.store} system property, as in the game.
+	 * Ticks run on one thread unless a thread count above 1 is given, and the word
+	 * {@code events} makes the engine event driven.</p>
+	 *
+	 * @param args the command line arguments.
+	 * @throws IOException if the pets cannot be loaded or saved.
+	 */
+	public static void main(String[] args) throws IOException {
+		File dataDir = new File(args.length > 0 ? args[0] : "data");
+		long tickCount = args.length > 1 ? Long.parseLong(args[1]) : 100;
+		int generated = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+		boolean eventDriven = args.length > 4 && args[4].equals("events");
+
+		try (PetStore store = PetStores.open(dataDir)) {
+			SimulationEngine engine = new SimulationEngine(store);
+			if (threads > 1) engine.setParallelism(new ForkJoinPool(threads), PetTable.DEFAULT_SHARD_SIZE);
+
+			long start = System.nanoTime();
+			int loaded = engine.loadAll();
+			if (generated > 0) engine.generate(generated, 42);
+			System.out.printf("Loaded %d pets and generated %d in %.1f ms%n", loaded, generated,
+					(System.nanoTime() - start) / 1e6);
+
+			engine.setEventDriven(eventDriven);
+			System.out.println(engine.run(tickCount, 0));
+		}
+	}
+}
@@ -0,0 +1,290 @@
+package model.sim;
+
+import java.util.function.Consumer;
+
+/**
+ * This class keeps timeouts in a hierarchical timing wheel, so scheduling, cancelling and
+ * expiring a timeout each take constant time however many are pending.
+ *
+ * <p>Time is counted in whole ticks. The wheel has four levels of 64 slots. The first level
+ * holds timeouts due in the current block of 64 ticks, one slot per tick; each level above
+ * holds timeouts 64 times further away, one slot per block of the level below. When the
+ * wheel reaches the start of a block, the timeouts in that block's slot move down a level.
+ * Timeouts beyond the top level, over 16 million ticks away, wait in an overflow list that is
+ * sorted into the wheel when the top level turns.</p>
+ *
+ * <p>Each level records which of its slots hold timeouts in a single {@code long}, so
+ * advancing skips empty stretches of the first level in one step. The wheel is not thread
+ * safe.</p>
+ *
+ * @param <T> the type of item carried by the timeouts.
+ */
+public class TimingWheel<T> {
+
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+	private static final int LEVELS = 4;
+	private static final int OVERFLOW = LEVELS * SLOTS;
+
+	/**
+	 * An item scheduled to expire at a tick. A timeout can be scheduled again after it expired
+	 * or was cancelled.
+	 *
+	 * @param <T> the type of the item.
+	 */
+	public static final class Timeout<T> {
+
+		private final T item;
+		private long deadline;
+		private int bucket = -1;		// Level times 64 plus slot, OVERFLOW, or -1 when not scheduled
+		private Timeout<T> previous;
+		private Timeout<T> next;
+
+		/**
+		 * Constructs an unscheduled timeout.
+		 *
+		 * @param item the item the timeout carries.
+		 */
+		public Timeout(T item) {
+			this.item = item;
+		}
+
+		/**
+		 * Gets the item the timeout carries.
+		 *
+		 * @return the item.
+		 */
+		public T getItem() {
+			return item;
+		}
+
+		/**
+		 * Gets the tick the timeout was last scheduled for.
+		 *
+		 * @return the deadline.
+		 */
+		public long getDeadline() {
+			return deadline;
+		}
+
+		/**
+		 * Checks whether the timeout is waiting to expire.
+		 *
+		 * @return true if the timeout is scheduled and false otherwise.
+		 */
+		public boolean isScheduled() {
+			return bucket >= 0;
+		}
+	}
+
+	private final Timeout<T>[] buckets = newTimeoutArray(OVERFLOW + 1);
+	private final long[] occupied = new long[LEVELS];		// One bit per slot holding timeouts
+	private long tick;
+	private int size;
+
+	/**
+	 * Constructs an empty wheel.
+	 *
+	 * @param startTick the tick the wheel starts at, not negative.
+	 */
+	public TimingWheel(long startTick) {
+		if (startTick < 0) throw new IllegalArgumentException("startTick must not be negative: " + startTick);
+		this.tick = startTick;
+	}
+
+	/**
+	 * Creates an array of timeouts, which Java cannot create for a generic type directly.
+	 *
+	 * @param <T> the type of item the timeouts carry.
+	 * @param length the array's length.
+	 * @return an array of nulls.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	static <T> Timeout<T>[] newTimeoutArray(int length) {
+		return new Timeout[length];
+	}
+
+	/**
+	 * Schedules a new timeout.
+	 *
+	 * @param deadline the tick to expire at. Ticks already reached expire on the next tick.
+	 * @param item the item the timeout carries.
+	 * @return the timeout, which can be cancelled.
+	 */
+	public Timeout<T> schedule(long deadline, T item) {
+		Timeout<T> timeout = new Timeout<>(item);
+		schedule(timeout, deadline);
+		return timeout;
+	}
+
+	/**
+	 * Schedules a timeout, moving it if it is already scheduled.
+	 *
+	 * @param timeout the timeout.
+	 * @param deadline the tick to expire at. Ticks already reached expire on the next tick.
+	 */
+	public void schedule(Timeout<T> timeout, long deadline) {
+		if (timeout.isScheduled()) unlink(timeout);
+		timeout.deadline = deadline;
+		insert(timeout, tick + 1);
+	}
+
+	/**
+	 * Cancels a timeout.
+	 *
+	 * @param timeout the timeout.
+	 * @return true if the timeout was scheduled and false otherwise.
+	 */
+	public boolean cancel(Timeout<T> timeout) {
+		if (!timeout.isScheduled()) return false;
+		unlink(timeout);
+		return true;
+	}
+
+	/**
+	 * Advances the wheel to the specified tick, expiring every timeout due on the way in
+	 * deadline order. The callback may schedule timeouts, including the one that expired.
+	 *
+	 * @param target the tick to advance to.
+	 * @param expired called with each expired timeout.
+	 * @return the number of timeouts that expired.
+	 */
+	public int advanceTo(long target, Consumer<Timeout<T>> expired) {
+		int count = 0;
+
+		while (tick < target) {
+			if (size == 0) {
+				tick = target;
+				break;
+			}
+
+			long next = tick + 1;
+			int slot = (int) (next & SLOT_MASK);
+			if (slot != 0 && (occupied[0] >>> slot) == 0) {
+				// Nothing more is due in this block, so go straight to the next one
+				next = (next | SLOT_MASK) + 1;
+				if (next > target) {
+					tick = target;
+					break;
+				}
+				slot = 0;
+			}
+
+			tick = next;
+			if (slot == 0) cascade();
+
+			// Taking the head each time lets the callback cancel timeouts that have not expired yet
+			Timeout<T> timeout;
+			while ((timeout = buckets[slot]) != null) {
+				unlink(timeout);
+				expired.accept(timeout);
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Gets the tick the wheel has reached.
+	 *
+	 * @return the current tick.
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * Gets the number of scheduled timeouts.
+	 *
+	 * @return the number of timeouts.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Moves the timeouts of the blocks starting at the current tick down a level, starting
+	 * with the highest level whose block starts here.
+	 */
+	private void cascade() {
+		int top = 1;
+		while (top < LEVELS && (tick & ((1L << (SLOT_BITS * (top + 1))) - 1)) == 0) top++;
+
+		if (top == LEVELS) reinsert(OVERFLOW);
+
+		for (int level = Math.min(top, LEVELS - 1); level >= 1; level--) {
+			reinsert(level * SLOTS + (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK));
+		}
+	}
+
+	/**
+	 * Empties a bucket and inserts its timeouts again relative to the current tick.
+	 *
+	 * @param bucket the bucket.
+	 */
+	private void reinsert(int bucket) {
+		// Detach the whole list first, as overflowing timeouts can land in the same bucket again
+		Timeout<T> timeout = buckets[bucket];
+		buckets[bucket] = null;
+		if (bucket < OVERFLOW) occupied[bucket >>> SLOT_BITS] &= ~(1L << (bucket & SLOT_MASK));
+
+		while (timeout != null) {
+			Timeout<T> following = timeout.next;
+			size--;
+			insert(timeout, tick);
+			timeout = following;
+		}
+	}
+
+	/**
+	 * Puts a timeout in the lowest level whose blocks contain both the current tick and the
+	 * deadline.
+	 *
+	 * @param timeout the timeout.
+	 * @param earliest the earliest tick the timeout may expire at.
+	 */
+	private void insert(Timeout<T> timeout, long earliest) {
+		long due = Math.max(timeout.deadline, earliest);
+		int bucket = OVERFLOW;
+
+		for (int level = 0; level < LEVELS; level++) {
+			int shift = SLOT_BITS * (level + 1);
+			if ((due >>> shift) == (tick >>> shift)) {
+				int slot = (int) ((due >>> (SLOT_BITS * level)) & SLOT_MASK);
+				bucket = level * SLOTS + slot;
+				occupied[level] |= 1L << slot;
+				break;
+			}
+		}
+
+		timeout.bucket = bucket;
+		timeout.previous = null;
+		timeout.next = buckets[bucket];
+		if (timeout.next != null) timeout.next.previous = timeout;
+		buckets[bucket] = timeout;
+		size++;
+	}
+
+	/**
+	 * Takes a timeout out of its bucket.
+	 *
+	 * @param timeout the timeout.
+	 */
+	private void unlink(Timeout<T> timeout) {
+		int bucket = timeout.bucket;
+		if (timeout.previous != null) timeout.previous.next = timeout.next;
+		else buckets[bucket] = timeout.next;
+		if (timeout.next != null) timeout.next.previous = timeout.previous;
+
+		if (buckets[bucket] == null && bucket < OVERFLOW) {
+			occupied[bucket >>> SLOT_BITS] &= ~(1L << (bucket & SLOT_MASK));
+		}
+
+		timeout.bucket = -1;
+		timeout.previous = null;
+		timeout.next = null;
+		size--;
+	}
+}
@@ -0,0 +1,93 @@
+package model.time;
+
+import java.time.Clock;
+import java.util.function.LongConsumer;
+
+/**
+ * This interface runs the repeating ticks that drive a game. A tick that throws is reported
+ * and the ticks go on, and a cancelled ticker is simply replaced by scheduling a new one.
+ *
+ * <p>The clock is also the game's only source of the current time through
+ * {@link #getClock()}, so a virtual clock moves cooldowns, session times and parental time
+ * windows along with the ticks.</p>
+ */
+public interface GameClock {
+
+	/**
+	 * What a ticker does when intervals were missed, because a tick ran longer than the
+	 * interval or the clock was held up.
+	 */
+	enum CatchUp {
+
+		/** The missed intervals are dropped and the next tick runs on the next interval boundary. */
+		SKIP,
+
+		/** The next tick runs at once and is told how many intervals passed since the last one. */
+		COALESCE
+	}
+
+	/**
+	 * A repeating task scheduled on a clock.
+	 */
+	interface Ticker {
+
+		/**
+		 * Stops the ticks. A tick that is already running finishes.
+		 */
+		void cancel();
+
+		/**
+		 * Checks whether the ticker was cancelled.
+		 *
+		 * @return true if the ticker was cancelled and false otherwise.
+		 */
+		boolean isCancelled();
+
+		/**
+		 * Gets the number of intervals passed to the task so far.
+		 *
+		 * @return the number of ticks.
+		 */
+		long getTickCount();
+
+		/**
+		 * Gets the number of ticks that took longer than the interval.
+		 *
+		 * @return the number of overruns.
+		 */
+		long getOverrunCount();
+
+		/**
+		 * Gets the number of intervals dropped by the {@link CatchUp#SKIP} policy.
+		 *
+		 * @return the number of skipped intervals.
+		 */
+		long getSkippedCount();
+
+		/**
+		 * Gets the number of ticks that threw an exception.
+		 *
+		 * @return the number of failed ticks.
+		 */
+		long getFailureCount();
+	}
+
+	/**
+	 * Runs a task once per interval, starting one interval from now. Ticks of the same task
+	 * never overlap.
+	 *
+	 * @param task the task, given the number of intervals the tick covers; always 1 unless
+	 * 		intervals were missed under {@link CatchUp#COALESCE}.
+	 * @param intervalMillis the time between ticks in milliseconds.
+	 * @param catchUp what to do about missed intervals.
+	 * @return the ticker, used to cancel the ticks.
+	 */
+	Ticker schedule(LongConsumer task, long intervalMillis, CatchUp catchUp);
+
+	/**
+	 * Gets the time source matching the clock's ticks.
+	 *
+	 * @return the time source.
+	 */
+	Clock getClock();
+}
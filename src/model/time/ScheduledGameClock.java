@@ -0,0 +1,170 @@
+package model.time;
+
+import java.time.Clock;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import model.log.Log;
+
+/**
+ * This class is a {@link GameClock} backed by a {@link ScheduledThreadPoolExecutor}.
+ *
+ * <p>All games in a process normally share {@link #shared()}, a small pool of daemon threads,
+ * instead of each holding a timer thread of its own. Each tick is scheduled as a single
+ * delayed task once the previous one has finished, so ticks of one ticker never overlap and
+ * a slow tick only delays its own ticker. The next tick is aimed at the original schedule,
+ * not at the end of the previous tick, so the ticks do not drift.</p>
+ */
+public class ScheduledGameClock implements GameClock {
+
+	private static final Log LOG = Log.get(ScheduledGameClock.class);
+
+	private static ScheduledGameClock shared;
+
+	private final ScheduledThreadPoolExecutor executor;
+
+	/**
+	 * Gets the clock shared by every game in the process, creating it the first time.
+	 *
+	 * @return the shared clock.
+	 */
+	public static synchronized ScheduledGameClock shared() {
+		if (shared == null) {
+			shared = new ScheduledGameClock(Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+		}
+		return shared;
+	}
+
+	/**
+	 * Constructs a clock with its own pool of daemon threads.
+	 *
+	 * @param threads the number of threads running ticks.
+	 */
+	public ScheduledGameClock(int threads) {
+		AtomicInteger count = new AtomicInteger();
+		ThreadFactory factory = r -> {
+			Thread thread = new Thread(r, "game-clock-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+
+		executor = new ScheduledThreadPoolExecutor(Math.max(1, threads), factory);
+		executor.setRemoveOnCancelPolicy(true);
+	}
+
+	@Override
+	public Ticker schedule(LongConsumer task, long intervalMillis, CatchUp catchUp) {
+		if (intervalMillis <= 0) throw new IllegalArgumentException("intervalMillis must be positive: " + intervalMillis);
+
+		RepeatingTicker ticker = new RepeatingTicker(task, TimeUnit.MILLISECONDS.toNanos(intervalMillis), catchUp);
+		ticker.start();
+		return ticker;
+	}
+
+	@Override
+	public Clock getClock() {
+		return Clock.systemDefaultZone();
+	}
+
+	/**
+	 * Stops the clock's threads. Tickers on the clock stop ticking.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * A ticker that schedules its next tick when the current one finishes.
+	 */
+	private final class RepeatingTicker implements Ticker, Runnable {
+
+		private final LongConsumer task;
+		private final long interval;
+		private final CatchUp catchUp;
+
+		private long deadline;					// When the next tick is due, in System.nanoTime()
+		private ScheduledFuture<?> future;
+		private volatile boolean cancelled;
+
+		// Counters, written only by the running tick
+		private volatile long ticks;
+		private volatile long overruns;
+		private volatile long skipped;
+		private volatile long failures;
+
+		RepeatingTicker(LongConsumer task, long interval, CatchUp catchUp) {
+			this.task = task;
+			this.interval = interval;
+			this.catchUp = catchUp;
+		}
+
+		/**
+		 * Schedules the first tick.
+		 */
+		synchronized void start() {
+			deadline = System.nanoTime() + interval;
+			future = executor.schedule(this, interval, TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public void run() {
+			if (cancelled) return;
+
+			long start = System.nanoTime();
+			long missed = Math.max(0, (start - deadline) / interval);	// Whole intervals passed since the tick was due
+			long covered = catchUp == CatchUp.COALESCE ? missed + 1 : 1;
+			if (catchUp == CatchUp.SKIP) skipped += missed;
+
+			try {
+				task.accept(covered);
+			} catch (Throwable t) {
+				failures++;
+				LOG.error("Error running game tick", t);
+			}
+
+			ticks += covered;
+			long end = System.nanoTime();
+			if (end - start > interval) overruns++;
+
+			synchronized (this) {
+				if (cancelled) return;
+				deadline += (missed + 1) * interval;
+				future = executor.schedule(this, Math.max(0, deadline - end), TimeUnit.NANOSECONDS);
+			}
+		}
+
+		@Override
+		public synchronized void cancel() {
+			cancelled = true;
+			if (future != null) future.cancel(false);
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return cancelled;
+		}
+
+		@Override
+		public long getTickCount() {
+			return ticks;
+		}
+
+		@Override
+		public long getOverrunCount() {
+			return overruns;
+		}
+
+		@Override
+		public long getSkippedCount() {
+			return skipped;
+		}
+
+		@Override
+		public long getFailureCount() {
+			return failures;
+		}
+	}
+}
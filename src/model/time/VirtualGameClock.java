@@ -0,0 +1,212 @@
+package model.time;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.PriorityQueue;
+import java.util.function.LongConsumer;
+import model.log.Log;
+
+/**
+ * This class is a {@link GameClock} whose time only moves when it is told to, for tests and
+ * balancing runs.
+ *
+ * <p>{@link #advance(Duration)} runs every tick that falls due in the specified span on the
+ * calling thread, in deadline order, with the clock's time set to each tick's deadline, so a
+ * week of play runs as fast as the ticks themselves. Virtual ticks never run late, so every
+ * tick covers exactly one interval.</p>
+ */
+public class VirtualGameClock implements GameClock {
+
+	private static final Log LOG = Log.get(VirtualGameClock.class);
+
+	private final PriorityQueue<VirtualTicker> queue;
+	private final ZoneId zone;
+	private long now;		// Milliseconds since the epoch
+	private long sequence;	// Keeps ticks due at the same time in the order they were scheduled
+
+	/**
+	 * Constructs a clock in the system time zone starting at the specified time.
+	 *
+	 * @param start the time the clock starts at.
+	 */
+	public VirtualGameClock(Instant start) {
+		this(start, ZoneId.systemDefault());
+	}
+
+	/**
+	 * Constructs a clock starting at the specified time.
+	 *
+	 * @param start the time the clock starts at.
+	 * @param zone the time zone local times are read in.
+	 */
+	public VirtualGameClock(Instant start, ZoneId zone) {
+		this.queue = new PriorityQueue<>((a, b) -> a.deadline != b.deadline
+				? Long.compare(a.deadline, b.deadline) : Long.compare(a.order, b.order));
+		this.zone = zone;
+		this.now = start.toEpochMilli();
+	}
+
+	@Override
+	public synchronized Ticker schedule(LongConsumer task, long intervalMillis, CatchUp catchUp) {
+		if (intervalMillis <= 0) throw new IllegalArgumentException("intervalMillis must be positive: " + intervalMillis);
+
+		VirtualTicker ticker = new VirtualTicker(task, intervalMillis);
+		ticker.deadline = now + intervalMillis;
+		ticker.order = sequence++;
+		queue.add(ticker);
+		return ticker;
+	}
+
+	@Override
+	public Clock getClock() {
+		return new VirtualTime(zone);
+	}
+
+	/**
+	 * Moves the time forward, running every tick that falls due on the way.
+	 *
+	 * @param duration how far to move the time.
+	 * @return the number of ticks run.
+	 */
+	public int advance(Duration duration) {
+		long target;
+		synchronized (this) {
+			target = Math.addExact(now, duration.toMillis());
+		}
+
+		int run = 0;
+		while (true) {
+			VirtualTicker ticker;
+			synchronized (this) {
+				ticker = queue.peek();
+				if (ticker == null || ticker.deadline > target) {
+					now = target;
+					return run;
+				}
+
+				queue.poll();
+				now = ticker.deadline;
+			}
+
+			// Run outside the lock, as the tick may read the time or schedule other tickers
+			ticker.tick();
+			run++;
+
+			synchronized (this) {
+				if (!ticker.cancelled) {
+					ticker.deadline += ticker.interval;
+					ticker.order = sequence++;
+					queue.add(ticker);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the clock's current time.
+	 *
+	 * @return the time in milliseconds since the epoch.
+	 */
+	public synchronized long millis() {
+		return now;
+	}
+
+	/**
+	 * A repeating task ticking in virtual time.
+	 */
+	private final class VirtualTicker implements Ticker {
+
+		private final LongConsumer task;
+		private final long interval;
+		private long deadline;
+		private long order;
+		private volatile boolean cancelled;
+		private volatile long ticks;
+		private volatile long failures;
+
+		VirtualTicker(LongConsumer task, long interval) {
+			this.task = task;
+			this.interval = interval;
+		}
+
+		/**
+		 * Runs one tick, reporting an exception instead of passing it on.
+		 */
+		void tick() {
+			try {
+				task.accept(1);
+			} catch (Throwable t) {
+				failures++;
+				LOG.error("Error running game tick", t);
+			}
+			ticks++;
+		}
+
+		@Override
+		public void cancel() {
+			synchronized (VirtualGameClock.this) {
+				cancelled = true;
+				queue.remove(this);
+			}
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return cancelled;
+		}
+
+		@Override
+		public long getTickCount() {
+			return ticks;
+		}
+
+		@Override
+		public long getOverrunCount() {
+			return 0;
+		}
+
+		@Override
+		public long getSkippedCount() {
+			return 0;
+		}
+
+		@Override
+		public long getFailureCount() {
+			return failures;
+		}
+	}
+
+	/**
+	 * A view of the clock's time as a {@link Clock}.
+	 */
+	private final class VirtualTime extends Clock {
+
+		private final ZoneId zone;
+
+		VirtualTime(ZoneId zone) {
+			this.zone = zone;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return zone;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return new VirtualTime(zone);
+		}
+
+		@Override
+		public long millis() {
+			return VirtualGameClock.this.millis();
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis());
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.item.Item;
+import model.item.ItemRegistry;
+import model.time.VirtualGameClock;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DropEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSessionsDropTheSameItemsForTheSameSeed() {
+        List<Item> first = collectDrops(7, 20);
+        List<Item> second = collectDrops(7, 20);
+        assertEquals(20, first.size());
+        assertEquals(first, second);
+        assertNotEquals(first, collectDrops(8, 20));
+    }
+
+    @Test
+    public void testOneItemWaitsUntilCollected() {
+        VirtualGameClock clock = new VirtualGameClock(Instant.EPOCH, ZoneOffset.UTC);
+        DropEngine engine = new DropEngine(clock, ItemRegistry.drops(), 1, DropEngine.DROP_INTERVAL);
+        DropEngine.Session session = engine.open(1);
+        DropEngine.Session other = engine.open(2);
+        assertEquals(2, engine.getSessionCount());
+
+        assertNull(session.getDroppedItem());
+        clock.advance(Duration.ofMillis(DropEngine.DROP_INTERVAL));
+        Item dropped = session.getDroppedItem();
+        assertNotNull(dropped);
+        assertNotNull(other.getDroppedItem());
+
+        // Nothing new drops while the item waits
+        clock.advance(Duration.ofMillis(DropEngine.DROP_INTERVAL * 3));
+        assertSame(dropped, session.getDroppedItem());
+        assertEquals(1, session.getDropCount());
+
+        // A full inventory leaves the item waiting
+        Inventory full = new Inventory(0);
+        assertNull(session.collect(full));
+        assertSame(dropped, session.getDroppedItem());
+
+        Inventory inventory = new Inventory();
+        assertSame(dropped, session.collect(inventory));
+        assertEquals(1, inventory.getCount(dropped));
+        assertNull(session.getDroppedItem());
+
+        // Closed sessions get nothing more
+        session.close();
+        other.close();
+        assertEquals(0, engine.getSessionCount());
+        clock.advance(Duration.ofMillis(DropEngine.DROP_INTERVAL));
+        assertNull(session.getDroppedItem());
+    }
+
+    @Test
+    public void testGameDropsWhileRunning() {
+        VirtualGameClock clock = new VirtualGameClock(Instant.parse("2024-01-01T07:00:00Z"), ZoneOffset.UTC);
+        DropEngine engine = new DropEngine(clock, ItemRegistry.drops(), 3, DropEngine.DROP_INTERVAL);
+        Game game = new Game(tempDir.toFile(), null, clock, engine);
+        try {
+            assertTrue(game.createNewPet("Rex", "dog"));
+            assertNull(game.getDroppedItem());
+
+            game.startGame();
+            clock.advance(Duration.ofMillis(DropEngine.DROP_INTERVAL));
+            Item dropped = game.getDroppedItem();
+            assertNotNull(dropped);
+
+            int before = game.getPlayer().getInventory().getCount(dropped);
+            assertSame(dropped, game.collectDroppedItem());
+            assertEquals(before + 1, game.getPlayer().getInventory().getCount(dropped));
+            assertNull(game.collectDroppedItem());
+
+            game.stopGame();
+            assertEquals(0, engine.getSessionCount());
+            assertNull(game.getDroppedItem());
+        } finally {
+            game.shutdown();
+        }
+    }
+
+    /**
+     * Collects the items a session drops, one per interval.
+     */
+    private static List<Item> collectDrops(long seed, int count) {
+        VirtualGameClock clock = new VirtualGameClock(Instant.EPOCH, ZoneOffset.UTC);
+        DropEngine engine = new DropEngine(clock, ItemRegistry.drops(), seed, DropEngine.DROP_INTERVAL);
+        DropEngine.Session session = engine.open(42);
+        Inventory inventory = new Inventory(count);
+
+        List<Item> drops = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            clock.advance(Duration.ofMillis(DropEngine.DROP_INTERVAL));
+            drops.add(session.collect(inventory));
+        }
+        session.close();
+        return drops;
+    }
+}
@@ -0,0 +1,119 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.time.VirtualGameClock;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameHostTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testPlayersHaveSeparateGames() {
+        VirtualGameClock clock = new VirtualGameClock(Instant.parse("2024-01-01T07:00:00Z"), ZoneOffset.UTC);
+        GameHost host = new GameHost(tempDir.toFile(), clock, 8);
+        try {
+            Game alice = host.open("alice");
+            Game bob = host.open("bob");
+            assertNotSame(alice, bob);
+            assertSame(alice, host.open("alice"));
+            assertEquals(2, host.getPlayerCount());
+
+            assertTrue(alice.createNewPet("Rex", "dog"));
+            assertTrue(bob.createNewPet("Nemo", "fish"));
+            assertEquals("Rex", alice.getPlayer().getPet().getName());
+            assertEquals("Nemo", bob.getPlayer().getPet().getName());
+
+            // Both pets are number 1 in their own store, so the shared writer keeps both saves
+            assertEquals(2, host.getSaveWriter().getSubmittedCount());
+            assertEquals(0, host.getSaveWriter().getCoalescedCount());
+
+            // Cooldowns and parental settings belong to one player
+            host.withPlayer("alice", game -> {
+                game.setActionCooldown("vet");
+                game.updateParentalControls(true, 9, 17, "1234");
+                return null;
+            });
+            assertTrue(alice.isActionOnCooldown("vet"));
+            assertFalse(bob.isActionOnCooldown("vet"));
+            assertTrue(alice.verifyParentPassword("1234"));
+            assertFalse(bob.verifyParentPassword("1234"));
+
+            // Saves go to the player's own data directory
+            assertTrue(host.close("alice"));
+            assertNull(host.get("alice"));
+            assertNull(host.withPlayer("alice", game -> true));
+            assertTrue(new File(host.getDataDir("alice"), "parent_config.properties").exists());
+
+            Game reopened = host.open("alice");
+            assertEquals(List.of(1), reopened.getExistingPetIDs());
+            assertTrue(reopened.isTimeRestrictionEnabled());
+            assertEquals(List.of(1), bob.getExistingPetIDs());
+        } finally {
+            assertTrue(host.shutdown());
+        }
+        assertEquals(0, host.getPlayerCount());
+    }
+
+    @Test
+    public void testInvalidPlayerIDsAreRejected() {
+        GameHost host = new GameHost(tempDir.toFile(), new VirtualGameClock(Instant.EPOCH, ZoneOffset.UTC), 3);
+        assertEquals(4, host.getStripeCount());
+        assertNull(host.open("../escape"));
+        assertNull(host.open(""));
+        assertNull(host.open(null));
+        assertFalse(host.close("nobody"));
+        assertEquals(0, host.getPlayerCount());
+    }
+
+    @Test
+    public void testActionsOfOnePlayerDoNotOverlap() throws InterruptedException {
+        GameHost host = new GameHost(tempDir.toFile(), new VirtualGameClock(Instant.EPOCH, ZoneOffset.UTC), 4);
+        try {
+            host.open("alice");
+            host.open("bob");
+            int[] counts = new int[2];	// Unsynchronized, guarded only by the host's locks
+
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                String player = t % 2 == 0 ? "alice" : "bob";
+                int slot = t % 2;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        host.withPlayer(player, game -> counts[slot]++);
+                    }
+                }));
+            }
+            for (Thread thread : threads) thread.start();
+            for (Thread thread : threads) thread.join();
+
+            assertEquals(20000, counts[0]);
+            assertEquals(20000, counts[1]);
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testDropSeedIsChosenOrReadFromProperty() {
+        VirtualGameClock clock = new VirtualGameClock(Instant.EPOCH, ZoneOffset.UTC);
+        assertEquals(42, new GameHost(tempDir.toFile(), clock, 4, 42).getDropEngine().getSeed());
+
+        System.setProperty(DropEngine.SEED_PROPERTY, "7");
+        try {
+            assertEquals(7, new GameHost(tempDir.toFile(), clock, 4).getDropEngine().getSeed());
+        } finally {
+            System.clearProperty(DropEngine.SEED_PROPERTY);
+        }
+    }
+}
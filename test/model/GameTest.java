@@ -9,15 +9,26 @@ import org.junit.jupiter.api.io.TempDir;
 import model.Game;
 import model.Player;
 import model.pet.Pet;
-import model.pet.Dog;
 import model.pet.Pet.PetState;
 import model.item.Food;
 import model.item.Toy;
+import model.save.PetCatalog;
+import model.save.PetStore;
+import model.save.PetStores;
+import model.save.SaveData;
+import model.time.VirtualGameClock;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
 import java.util.Map;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class GameTest {
     
@@ -34,10 +45,8 @@ public class GameTest {
         dataDir.mkdir();
         petsDir.mkdir();
         
-        // Set the path to our temp directory for testing
-        System.setProperty("user.dir", tempDir.toString());
-        
-        game = new Game();
+        // Keep the test's saves in our temp directory
+        game = new Game(dataDir, null, null);
     }
     
     @AfterEach
@@ -54,7 +63,7 @@ public class GameTest {
         Player player = game.getPlayer();
         assertNotNull(player.getPet());
         assertEquals("Rex", player.getPet().getName());
-        assertTrue(player.getPet() instanceof Dog);
+        assertEquals("Dog", player.getPet().getSpecies().getName());
     }
     
     @Test
@@ -108,6 +117,33 @@ public class GameTest {
         assertEquals(80, loadedPet.getHunger());
     }
     
+    @Test
+    public void testUnchangedPetIsNotSavedAgain() {
+        game.createNewPet("Rex", "dog");
+        assertTrue(game.flushSaves(5000));
+        long written = game.getSavesWritten();
+        
+        // Nothing changed since the pet was created
+        assertTrue(game.savePet());
+        assertEquals(written, game.getSavesWritten());
+        assertEquals(1, game.getSavesSkipped());
+        
+        // A dead pet does not change on a tick, so it is not saved again either
+        game.getPlayer().getPet().setHealth(0);
+        assertTrue(game.savePet());
+        assertTrue(game.flushSaves(5000));
+        game.getPlayer().getPet().updateProgressBars();
+        assertTrue(game.savePet());
+        assertEquals(written + 1, game.getSavesWritten());
+        assertEquals(2, game.getSavesSkipped());
+        
+        // Inventory changes count too
+        game.getPlayer().getInventory().removeItem(game.getPlayer().getInventory().getInventoryItems().get(0));
+        assertTrue(game.savePet());
+        assertTrue(game.flushSaves(5000));
+        assertEquals(written + 2, game.getSavesWritten());
+    }
+    
     @Test
     public void testGetAvailablePets() {
         // Create multiple pets
@@ -208,4 +244,153 @@ public void testRevivePet() {
         assertTrue(game.isActionOnCooldown("play"));
         assertTrue(game.getRemainingCooldown("play") > 0);
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testSnapshotPublishedOnChange(@TempDir Path dataDir) {
+        VirtualGameClock clock = new VirtualGameClock(Instant.parse("2024-01-01T07:00:00Z"), ZoneOffset.UTC);
+        Game virtualGame = new Game(dataDir.toFile(), null, clock);
+        try {
+            assertNull(virtualGame.getSnapshot());
+            assertTrue(virtualGame.createNewPet("Rex", "dog"));
+            
+            PetSnapshot first = virtualGame.getSnapshot();
+            assertEquals("Rex", first.name());
+            assertEquals("Dog", first.species());
+            assertEquals(PetState.NORMAL, first.state());
+            assertFalse(first.isActionOnCooldown("play"));
+            
+            // Nothing changed, so nothing new to show
+            assertSame(first, virtualGame.getSnapshot());
+            
+            // A change made through the player shows up in the next snapshot
+            virtualGame.getPlayer().playWithPet();
+            virtualGame.setActionCooldown("play");
+            PetSnapshot played = virtualGame.getSnapshot();
+            assertTrue(played.version() > first.version());
+            assertEquals(first.sleep() - 10, played.sleep());
+            assertEquals(90, played.getRemainingCooldown("play"));
+            
+            // Cooldowns count down in whole seconds
+            clock.advance(Duration.ofMillis(500));
+            assertSame(played, virtualGame.getSnapshot());
+            clock.advance(Duration.ofMillis(500));
+            assertEquals(89, virtualGame.getSnapshot().getRemainingCooldown("play"));
+            
+            // Ticks publish a snapshot themselves
+            virtualGame.startGame();
+            long version = virtualGame.getSnapshot().version();
+            clock.advance(Duration.ofSeconds(30));
+            assertTrue(virtualGame.getSnapshot().version() > version);
+            
+            virtualGame.clearCurrentPet();
+            assertNull(virtualGame.getSnapshot());
+        } finally {
+            virtualGame.shutdown();
+        }
+    }
+    
+    @Test
+    public void testWeekOfVirtualTime(@TempDir Path dataDir) {
+        // Monday 07:00 UTC
+        VirtualGameClock clock = new VirtualGameClock(Instant.parse("2024-01-01T07:00:00Z"), ZoneOffset.UTC);
+        Game virtualGame = new Game(dataDir.toFile(), null, clock);
+        try {
+            assertTrue(virtualGame.createNewPet("Rex", "dog"));
+            virtualGame.startGame();
+            
+            // Cooldowns run out in virtual time
+            virtualGame.setActionCooldown("vet");
+            assertEquals(180000, virtualGame.getRemainingCooldown("vet"));
+            clock.advance(Duration.ofMinutes(2));
+            assertTrue(virtualGame.isActionOnCooldown("vet"));
+            clock.advance(Duration.ofMinutes(1));
+            assertFalse(virtualGame.isActionOnCooldown("vet"));
+            
+            // Parental time windows follow the virtual time of day
+            virtualGame.updateParentalControls(true, 8, 20, "testpass");
+            assertFalse(virtualGame.isWithinAllowedTime());
+            clock.advance(Duration.ofHours(1));
+            assertTrue(virtualGame.isWithinAllowedTime());
+            
+            // A week of ticks, one pet tick and one item drop every 30 seconds
+            assertEquals(2 * 7 * 24 * 120, clock.advance(Duration.ofDays(7)));
+            assertEquals(PetState.DEAD, virtualGame.getPlayer().getPet().getCurrentState());
+            assertEquals(clock.millis(), virtualGame.getPlayer().getPet().getLastSimulated());
+            
+            virtualGame.stopGame();
+            assertEquals(clock.millis() - Instant.parse("2024-01-01T07:00:00Z").toEpochMilli(),
+                    virtualGame.getLastSessionTime());
+            assertEquals(0, clock.advance(Duration.ofHours(1)));
+        } finally {
+            virtualGame.updateParentalControls(false, 0, 0, null);
+            virtualGame.shutdown();
+        }
+    }
+    
+    @Test
+    public void testQueuedSaveIsListed(@TempDir Path dataDir) throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        PetStore files = PetStores.open(dataDir.toFile());
+        PetStore stuck = new PetStore() {
+            @Override
+            public void save(SaveData data) throws IOException {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                files.save(data);
+            }
+            
+            @Override
+            public SaveData load(int petID) throws IOException {
+                return files.load(petID);
+            }
+            
+            @Override
+            public boolean delete(int petID) throws IOException {
+                return files.delete(petID);
+            }
+            
+            @Override
+            public int allocatePetID() throws IOException {
+                return files.allocatePetID();
+            }
+            
+            @Override
+            public int allocatePetIDs(int count) throws IOException {
+                return files.allocatePetIDs(count);
+            }
+            
+            @Override
+            public List<Integer> getPetIDs() {
+                return files.getPetIDs();
+            }
+            
+            @Override
+            public Collection<PetCatalog.Entry> getEntries() {
+                return files.getEntries();
+            }
+            
+            @Override
+            public void flush() throws IOException {
+                files.flush();
+            }
+        };
+        Game stuckGame = new Game(dataDir.toFile(), stuck, null);
+        
+        try {
+            stuckGame.createNewPet("Rex", "dog");
+            int id = stuckGame.getPlayer().getPet().getID();
+            
+            // The save is still waiting on the store, but the listings already show it
+            assertTrue(stuckGame.getExistingPetIDs().contains(id));
+            assertEquals("Rex", stuckGame.getAvailablePets().get(id));
+            assertEquals("Rex", stuckGame.getAlivePets().get(id));
+            assertFalse(stuckGame.getDeadPets().containsKey(id));
+        } finally {
+            release.countDown();
+            assertTrue(stuckGame.shutdown());
+        }
+    }
+}
@@ -8,7 +8,8 @@ import model.Inventory;
 import model.item.Food;
 import model.item.Toy;
 import model.item.Item;
-import java.util.ArrayList;
+import model.item.ItemRegistry;
+import java.util.List;
 
 public class InventoryTest {
     
@@ -25,7 +26,7 @@ public class InventoryTest {
         boolean result = inventory.addItem(kibble);
         assertTrue(result);
         
-        ArrayList<Item> items = inventory.getInventoryItems();
+        List<Item> items = inventory.getInventoryItems();
         assertEquals(1, items.size());
         assertEquals("Kibble", items.get(0).getName());
     }
@@ -38,7 +39,7 @@ public class InventoryTest {
         boolean result = inventory.removeItem(kibble);
         assertTrue(result);
         
-        ArrayList<Item> items = inventory.getInventoryItems();
+        List<Item> items = inventory.getInventoryItems();
         assertEquals(0, items.size());
     }
     
@@ -56,7 +57,7 @@ public class InventoryTest {
         boolean result = inventory.addItem(extraFood);
         assertFalse(result);
         
-        ArrayList<Item> items = inventory.getInventoryItems();
+        List<Item> items = inventory.getInventoryItems();
         assertEquals(20, items.size());
     }
     
@@ -71,4 +72,117 @@ public class InventoryTest {
         Food apple = new Food("Apple", "");
         assertFalse(inventory.contains(apple));
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testStacksByType() {
+        Food kibble = new Food("Kibble", "");
+        inventory.addItem(kibble);
+        inventory.addItem(new Food("Kibble", ""));
+        inventory.addItem(new Food("Apple", ""));
+        inventory.addItem(new Toy("Ball", ""));
+        
+        assertEquals(4, inventory.size());
+        assertEquals(2, inventory.getCount(Food.FoodType.KIBBLE));
+        assertEquals(1, inventory.getCount(Toy.ToyType.BALL));
+        assertEquals(List.of("Kibble", "Apple"), inventory.getFoods().stream().map(Item::getName).toList());
+        assertEquals(1, inventory.getToys().size());
+        
+        // Any item of a type removes one of its stack
+        assertTrue(inventory.removeItem(new Food("Kibble", "")));
+        assertEquals(1, inventory.getCount(kibble));
+        assertTrue(inventory.removeItem(kibble));
+        assertFalse(inventory.removeItem(kibble));
+        assertFalse(inventory.contains(kibble));
+        
+        // Unknown items are not stored
+        assertFalse(inventory.addItem(new Food("Rock", "")));
+        assertEquals(2, inventory.size());
+    }
+    
+    @Test
+    public void testItemListIsCachedUntilChanged() {
+        inventory.addItem(new Food("Kibble", ""));
+        inventory.addItem(new Toy("Ball", ""));
+        inventory.addItem(new Food("Kibble", ""));
+        
+        List<Item> items = inventory.getInventoryItems();
+        assertEquals(List.of("Kibble", "Kibble", "Ball"), items.stream().map(Item::getName).toList());
+        assertSame(items, inventory.getInventoryItems());
+        assertThrows(UnsupportedOperationException.class, () -> items.add(new Toy("Ball", "")));
+        
+        inventory.addItem(new Toy("Frisbee", ""));
+        assertEquals(4, inventory.getInventoryItems().size());
+    }
+    
+    @Test
+    public void testLargeCapacity() {
+        Inventory large = new Inventory(5000);
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(large.addItem(new Food("Bread", "")));
+        }
+        assertFalse(large.addItem(new Food("Bread", "")));
+        assertEquals(5000, large.getCount(Food.FoodType.BREAD));
+        assertEquals(5000, large.getInventoryItems().size());
+    }
+    
+    @Test
+    public void testFilteredViewsAreLive() {
+        List<Food> foods = inventory.getFoods();
+        List<Item> snacks = inventory.getTagged("Snack");
+        List<Item> stacks = inventory.getStacks();
+        assertTrue(foods.isEmpty());
+        
+        inventory.addItem(new Food("IceCream", ""));
+        inventory.addItem(new Food("Apple", ""));
+        inventory.addItem(new Food("Apple", ""));
+        inventory.addItem(new Food("Bread", ""));
+        inventory.addItem(new Toy("Alien", ""));
+        
+        // Views returned before the change see it, in catalog order, one entry per kind
+        assertEquals(List.of("Apple", "Bread", "IceCream"), foods.stream().map(Item::getName).toList());
+        assertEquals(List.of("Apple", "IceCream"), snacks.stream().map(Item::getName).toList());
+        assertEquals(4, stacks.size());
+        assertSame(foods, inventory.getFoods());
+        assertEquals(List.of("Alien"), inventory.getTagged("plush").stream().map(Item::getName).toList());
+        assertTrue(inventory.getTagged("throwable").isEmpty());
+        assertTrue(inventory.getTagged("unknown").isEmpty());
+        assertTrue(inventory.getTagged(null).isEmpty());
+        
+        // Kinds leave the views when their last item is used
+        inventory.removeItem(new Food("Apple", ""));
+        assertEquals(2, snacks.size());
+        inventory.removeItem(new Food("Apple", ""));
+        assertEquals(List.of("IceCream"), snacks.stream().map(Item::getName).toList());
+        assertEquals(List.of("Bread", "IceCream"), foods.stream().map(Item::getName).toList());
+        
+        assertThrows(UnsupportedOperationException.class, () -> foods.add(new Food("Kibble", "")));
+        assertThrows(UnsupportedOperationException.class, () -> snacks.remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> foods.get(2));
+    }
+    
+    @Test
+    public void testViewsFollowManyKinds() {
+        Inventory large = new Inventory(1000);
+        for (int round = 0; round < 100; round++) {
+            for (Item item : ItemRegistry.all()) large.addItem(item);
+        }
+        assertEquals(ItemRegistry.size(), large.getStacks().size());
+        assertEquals(ItemRegistry.foods(), large.getFoods());
+        assertEquals(ItemRegistry.toys(), large.getToys());
+        for (String tag : ItemRegistry.tags()) {
+            assertEquals(ItemRegistry.tagged(tag), large.getTagged(tag));
+        }
+        
+        // Using up every other kind leaves the rest in order
+        for (int i = 0; i < ItemRegistry.size(); i += 2) {
+            while (large.removeItem(ItemRegistry.get(i))) {
+                // Remove the whole stack
+            }
+        }
+        List<Item> left = large.getStacks();
+        assertEquals(ItemRegistry.size() / 2, left.size());
+        for (int i = 0; i < left.size(); i++) {
+            assertEquals(2 * i + 1, left.get(i).getIndex());
+        }
+    }
+}
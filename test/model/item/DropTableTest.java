@@ -0,0 +1,45 @@
+package model.item;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+public class DropTableTest {
+
+    @Test
+    public void testPicksInProportionToWeights() {
+        Properties catalog = new Properties();
+        catalog.setProperty("foods", "Kibble,Apple,Cheese");
+        catalog.setProperty("toys", "Ball");
+        catalog.setProperty("Kibble.dropWeight", "1");
+        catalog.setProperty("Apple.dropWeight", "0");
+        catalog.setProperty("Cheese.dropWeight", "6");
+        catalog.setProperty("Ball.dropWeight", "13");
+        List<Item> items = ItemRegistry.parse(catalog);
+
+        DropTable table = new DropTable(items);
+        assertEquals(3, table.size());
+
+        SplittableRandom random = new SplittableRandom(11);
+        Map<String, Integer> picks = new HashMap<>();
+        int draws = 200000;
+        for (int i = 0; i < draws; i++) picks.merge(table.sample(random).getName(), 1, Integer::sum);
+
+        assertNull(picks.get("Apple"));
+        assertEquals(draws / 20.0, picks.get("Kibble"), draws / 20.0 * 0.05);
+        assertEquals(draws * 6 / 20.0, picks.get("Cheese"), draws * 6 / 20.0 * 0.05);
+        assertEquals(draws * 13 / 20.0, picks.get("Ball"), draws * 13 / 20.0 * 0.05);
+    }
+
+    @Test
+    public void testEmptyTablePicksNothing() {
+        DropTable table = new DropTable(List.of());
+        assertEquals(0, table.size());
+        assertNull(table.sample(new SplittableRandom(1)));
+    }
+}
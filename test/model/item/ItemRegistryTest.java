@@ -0,0 +1,127 @@
+package model.item;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import model.item.Food.FoodType;
+import model.item.Toy.ToyType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+public class ItemRegistryTest {
+
+    @Test
+    public void testEveryTypeHasOneSharedItem() {
+        for (FoodType type : FoodType.values()) {
+            Food food = ItemRegistry.food(type);
+            assertEquals(type, food.getFoodType());
+            assertSame(food, ItemRegistry.food(type));
+            assertSame(food, ItemRegistry.forName(food.getName()));
+        }
+        for (ToyType type : ToyType.values()) {
+            Toy toy = ItemRegistry.toy(type);
+            assertEquals(type, toy.getToyType());
+            assertSame(toy, ItemRegistry.forName(toy.getName()));
+        }
+        assertEquals(FoodType.values().length + ToyType.values().length, ItemRegistry.all().size());
+    }
+
+    @Test
+    public void testNameLookup() {
+        assertSame(ItemRegistry.food(FoodType.ICECREAM), ItemRegistry.food("icecream"));
+        assertSame(ItemRegistry.toy(ToyType.ROCKETTOY), ItemRegistry.toy("ROCKET"));
+        assertEquals(30, ItemRegistry.food("Bread").getFullnessValue());
+
+        // Names of the other kind or no kind at all are not found
+        assertNull(ItemRegistry.toy("Kibble"));
+        assertNull(ItemRegistry.food("Ball"));
+        assertNull(ItemRegistry.forName("Rock"));
+        assertNull(ItemRegistry.forName(""));
+        assertNull(ItemRegistry.forName(null));
+    }
+
+    @Test
+    public void testCatalogEntries() {
+        Toy starplush = ItemRegistry.toy(ToyType.STARPLUSH);
+        assertEquals("/model/assets/items/starPlush.png", starplush.getSpritePath());
+        assertEquals("Glows in the dark.", starplush.getDescription());
+        assertNotNull(ItemRegistryTest.class.getResource(starplush.getSpritePath()));
+        for (int i = 0; i < ItemRegistry.size(); i++) {
+            assertEquals(i, ItemRegistry.get(i).getIndex());
+        }
+
+        // Items made by name copy the catalog's
+        Food kibble = new Food("kibble", "ignored");
+        assertEquals(ItemRegistry.food(FoodType.KIBBLE).getIndex(), kibble.getIndex());
+        assertEquals("Made of space plants.", kibble.getDescription());
+        assertEquals(-1, new Toy("Rock", "").getIndex());
+    }
+
+    @Test
+    public void testTags() {
+        assertTrue(ItemRegistry.tags().contains("snack"));
+        for (String tag : ItemRegistry.tags()) {
+            assertFalse(ItemRegistry.tagged(tag).isEmpty());
+            for (Item item : ItemRegistry.tagged(tag)) assertTrue(item.hasTag(tag));
+        }
+        assertEquals(List.of(ItemRegistry.toy(ToyType.ALIEN), ItemRegistry.toy(ToyType.STARPLUSH)),
+                ItemRegistry.tagged("Plush"));
+        assertTrue(ItemRegistry.tagged("rock").isEmpty());
+        
+        // Copies made by name share the catalog's tags
+        assertTrue(new Food("icecream", "").hasTag("sweet"));
+    }
+    
+    @Test
+    public void testParseNewItems() {
+        Properties catalog = new Properties();
+        catalog.setProperty("foods", "Kibble, Pizza");
+        catalog.setProperty("toys", "Yoyo");
+        catalog.setProperty("Kibble.fullness", "12");
+        catalog.setProperty("Pizza.fullness", "40");
+        catalog.setProperty("Pizza.dropWeight", "3");
+        catalog.setProperty("Yoyo.fun", "8");
+        catalog.setProperty("Yoyo.sprite", "yoyo2.png");
+        catalog.setProperty("Yoyo.tags", "Classic, string");
+
+        List<Item> items = ItemRegistry.parse(catalog);
+        assertEquals(3, items.size());
+        Food pizza = (Food) items.get(1);
+        assertEquals(1, pizza.getIndex());
+        assertNull(pizza.getFoodType());
+        assertEquals(40, pizza.getFullnessValue());
+        assertEquals(3, pizza.getDropWeight());
+        assertEquals(FoodType.KIBBLE, ((Food) items.get(0)).getFoodType());
+        assertEquals("/model/assets/items/yoyo2.png", items.get(2).getSpritePath());
+        assertEquals(Set.of("classic", "string"), items.get(2).getTags());
+        assertTrue(items.get(2).hasTag("CLASSIC"));
+        assertTrue(pizza.getTags().isEmpty());
+
+        catalog.setProperty("Yoyo.fun", "lots");
+        assertThrows(IllegalArgumentException.class, () -> ItemRegistry.parse(catalog));
+        catalog.setProperty("Yoyo.fun", "8");
+        catalog.setProperty("toys", "Yoyo,yoyo");
+        assertThrows(IllegalArgumentException.class, () -> ItemRegistry.parse(catalog));
+    }
+
+    @Test
+    public void testDropsFollowWeights() {
+        SplittableRandom random = new SplittableRandom(3);
+        Map<Item, Integer> drops = new HashMap<>();
+        int total = 0;
+        for (Item item : ItemRegistry.all()) total += item.getDropWeight();
+
+        int draws = total * 2000;
+        for (int i = 0; i < draws; i++) drops.merge(ItemRegistry.drops().sample(random), 1, Integer::sum);
+
+        for (Item item : ItemRegistry.all()) {
+            double expected = (double) draws * item.getDropWeight() / total;
+            assertEquals(expected, drops.getOrDefault(item, 0), expected * 0.1, item.getName());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package model.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+public class AsyncHandlerTest {
+    
+    /**
+     * Collects the messages it is given, optionally waiting for a latch first.
+     */
+    private static class CollectingHandler extends Handler {
+        
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        final CountDownLatch gate;
+        
+        CollectingHandler(CountDownLatch gate) {
+            this.gate = gate;
+        }
+        
+        @Override
+        public void publish(LogRecord record) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            messages.add(record.getMessage());
+        }
+        
+        @Override
+        public void flush() {
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+    
+    @Test
+    public void testRecordsArriveInOrder() {
+        CollectingHandler target = new CollectingHandler(new CountDownLatch(0));
+        AsyncHandler handler = new AsyncHandler(target, 64);
+        
+        for (int i = 0; i < 50; i++) {
+            handler.publish(new LogRecord(Level.INFO, "message " + i));
+        }
+        assertTrue(handler.drain(5000));
+        
+        assertEquals(50, target.messages.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals("message " + i, target.messages.get(i));
+        }
+        handler.close();
+    }
+    
+    @Test
+    public void testFullBufferDropsInsteadOfBlocking() {
+        CountDownLatch gate = new CountDownLatch(1);
+        CollectingHandler target = new CollectingHandler(gate);
+        AsyncHandler handler = new AsyncHandler(target, 16);
+        
+        // The writer is stuck on the first record, so at most 17 fit
+        for (int i = 0; i < 100; i++) {
+            handler.publish(new LogRecord(Level.INFO, "message " + i));
+        }
+        assertTrue(handler.getDroppedCount() >= 100 - 17);
+        
+        gate.countDown();
+        assertTrue(handler.drain(5000));
+        assertEquals(100, target.messages.size() - 1 + handler.getDroppedCount());
+        assertTrue(target.messages.stream().anyMatch(message -> message.startsWith("Log buffer full")));
+        handler.close();
+    }
+    
+    @Test
+    public void testDisabledLevelIsNotQueued() {
+        Log log = Log.get(AsyncHandlerTest.class);
+        Log.setLevel("info");
+        assertFalse(log.isDebugEnabled());
+        log.debug(() -> {
+            throw new AssertionError("message built for a disabled level");
+        });
+        Log.setLevel(System.getProperty(Log.LEVEL_PROPERTY, "info"));
+    }
+}
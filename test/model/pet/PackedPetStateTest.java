@@ -0,0 +1,76 @@
+package model.pet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import model.pet.Pet.PetState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class PackedPetStateTest {
+    
+    @Test
+    public void testPackAndRead() {
+        for (PetState state : PetState.values()) {
+            long word = PackedPetState.pack(-4, 100, 0, 55, 100, state);
+            PackedPetState packed = new PackedPetState(word);
+            assertEquals(-4, packed.getHealth());
+            assertEquals(100, packed.getSleep());
+            assertEquals(0, packed.getHunger());
+            assertEquals(55, packed.getHappiness());
+            assertEquals(100, packed.getSpaceReadiness());
+            assertEquals(state, packed.getCurrentState());
+            
+            long changed = PackedPetState.withHealth(PackedPetState.withState(word, PetState.ANGRY), 90);
+            assertEquals(90, PackedPetState.health(changed));
+            assertEquals(PetState.ANGRY, PackedPetState.state(changed));
+            assertEquals(55, PackedPetState.happiness(changed));
+        }
+        
+        Pet dog = new Dog("Rex");
+        dog.restore(70, 3, 40, 0, 20, PetState.ANGRY, 2);
+        assertEquals(new PackedPetState(PackedPetState.pack(70, 3, 40, 0, 20, PetState.ANGRY)), dog.getPackedState());
+    }
+    
+    @Test
+    public void testConcurrentChangesAreNotLost() throws InterruptedException {
+        Pet dog = new Dog("Rex");
+        dog.restore(100, 100, 100, 0, 0, PetState.ANGRY, 0);
+        long version = dog.getVersion();
+        
+        int threads = 4;
+        int changes = 25;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean inconsistent = new AtomicBoolean();
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < changes; i++) {
+                    // Hunger and sleep always move together, so a reader must never see them differ
+                    dog.mutate(d -> d.happiness(1).hunger(-1).sleep(-1));
+                    PackedPetState seen = dog.getPackedState();
+                    if (seen.getHunger() != seen.getSleep()) inconsistent.set(true);
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        
+        start.countDown();
+        for (Thread writer : writers) writer.join();
+        
+        assertFalse(inconsistent.get());
+        assertEquals(threads * changes, dog.getHappiness());
+        assertEquals(100 - threads * changes, dog.getHunger());
+        assertEquals(PetState.SLEEPING, dog.getCurrentState());
+        assertTrue(dog.getVersion() >= version + threads * changes);
+    }
+}
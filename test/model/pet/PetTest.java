@@ -13,6 +13,10 @@ import model.pet.Mouse;
 import model.item.Food;
 import model.item.Toy;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class PetTest {
     
     private Dog dog;
@@ -137,4 +141,119 @@ public class PetTest {
         // Test mission count
         assertEquals(1, dog.getTotalMission());
     }
+    
+    @Test
+    public void testAdvanceMatchesGameTicks() {
+        int[][] starts = {
+            { 100, 100, 100, 100, 0 },
+            { 100, 4, 100, 100, 0 },
+            { 100, 100, 55, 15, 0 },
+            { 40, 60, 8, 100, 50 },
+            { 95, 95, 95, 95, 80 },
+        };
+        
+        for (int[] start : starts) {
+            for (boolean asleep : new boolean[] { false, true }) {
+                for (int ticks : new int[] { 0, 1, 2, 7, 30, 1000 }) {
+                    Pet advanced = petWith(start, asleep);
+                    Pet ticked = petWith(start, asleep);
+                    
+                    advanced.advance(ticks);
+                    for (int i = 0; i < ticks; i++) {
+                        ticked.updateProgressBars();
+                        ticked.updateState();
+                    }
+                    
+                    String label = Arrays.toString(start) + " asleep=" + asleep + " ticks=" + ticks;
+                    assertEquals(ticked.getHealth(), advanced.getHealth(), label);
+                    assertEquals(ticked.getSleep(), advanced.getSleep(), label);
+                    assertEquals(ticked.getHunger(), advanced.getHunger(), label);
+                    assertEquals(ticked.getHappiness(), advanced.getHappiness(), label);
+                    assertEquals(ticked.getSpaceReadiness(), advanced.getSpaceReadiness(), label);
+                    assertEquals(ticked.getCurrentState(), advanced.getCurrentState(), label);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testAdvanceByDuration() {
+        // A month away is far more ticks than it takes an unattended pet to die
+        assertEquals(86400, dog.advance(Duration.ofDays(30)));
+        assertEquals(PetState.DEAD, dog.getCurrentState());
+        
+        assertEquals(0, fish.advance(Duration.ofSeconds(29)));
+        assertEquals(100, fish.getHunger());
+    }
+    
+    @Test
+    public void testConcurrentMissionsAreAllCounted() throws InterruptedException {
+        AtomicInteger flown = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    dog.mutate(d -> d.setHealth(100).setSleep(100).setHunger(100).setHappiness(100)
+                            .setSpaceReadiness(100));
+                    if (dog.goOnSpaceMission()) flown.incrementAndGet();
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        
+        assertTrue(flown.get() > 0);
+        assertEquals(flown.get(), dog.getTotalMission());
+    }
+    
+    @Test
+    public void testRestoreClampsDamagedValues() {
+        // Values a hand-edited save might hold must not wrap in the packed state
+        dog.restore(300, 150, -20, 256, 1000, PetState.NORMAL, -4);
+        assertEquals(100, dog.getHealth());
+        assertEquals(100, dog.getSleep());
+        assertEquals(0, dog.getHunger());
+        assertEquals(100, dog.getHappiness());
+        assertEquals(100, dog.getSpaceReadiness());
+        assertEquals(0, dog.getTotalMission());
+        
+        // Health may be just below 0 on the tick a pet dies
+        dog.restore(-3, 50, 50, 50, 0, PetState.DEAD, 1);
+        assertEquals(-3, dog.getHealth());
+    }
+    
+    @Test
+    public void testMutateEvaluatesStateOnce() {
+        // A starving dog loses 5 health each time its state is evaluated
+        dog.restore(50, 100, 0, 100, 0, PetState.HUNGRY, 0);
+        dog.exercise();
+        assertEquals(60, dog.getHealth());
+        assertEquals(0, dog.getHunger());
+        assertEquals(80, dog.getSleep());
+        assertEquals(PetState.HUNGRY, dog.getCurrentState());
+        
+        // Each stat is clamped once, after all the changes: 0 + 150 - 30 rather than 100 - 30
+        long version = dog.getVersion();
+        dog.mutate(d -> d.hunger(150).hunger(-30).happiness(-200));
+        assertEquals(100, dog.getHunger());
+        assertEquals(0, dog.getHappiness());
+        assertEquals(PetState.ANGRY, dog.getCurrentState());
+        assertTrue(dog.getVersion() > version);
+        
+        // Changing nothing leaves the version alone
+        version = dog.getVersion();
+        dog.mutate(d -> d.health(0));
+        assertEquals(version, dog.getVersion());
+    }
+    
+    private static Pet petWith(int[] stats, boolean asleep) {
+        Pet pet = new Dog("Rex");
+        pet.setHealth(stats[0]);
+        pet.setSleep(stats[1]);
+        pet.setHunger(stats[2]);
+        pet.setHappiness(stats[3]);
+        pet.setSpaceReadiness(stats[4]);
+        if (asleep) pet.sleep();
+        return pet;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package model.pet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import model.pet.Pet.PetState;
+import model.item.Food;
+
+import java.util.List;
+import java.util.Properties;
+
+public class SpeciesRulesTest {
+    
+    @Test
+    public void testBundledSpecies() {
+        List<SpeciesRules> all = SpeciesRules.all();
+        assertEquals(4, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(i, all.get(i).getIndex());
+            assertSame(all.get(i), SpeciesRules.get(i));
+        }
+        
+        assertSame(SpeciesRules.forName("Dog"), SpeciesRules.forName("dog"));
+        assertNull(SpeciesRules.forName("cat"));
+        assertNull(Pet.create("cat", "Tom"));
+        assertEquals("Fish", Pet.create("FISH", "Bubbles").getSpecies().getName());
+    }
+    
+    @Test
+    public void testSpeciesFromTable() {
+        Properties properties = new Properties();
+        properties.setProperty("species", "Cat, Owl");
+        properties.setProperty("Cat.play.happiness", "30");
+        properties.setProperty("Cat.play.sleep", "-5");
+        properties.setProperty("Cat.eat.happiness", "2");
+        properties.setProperty("Owl.mission.health", "-500");
+        
+        List<SpeciesRules> rules = SpeciesRules.parse(properties);
+        assertEquals(2, rules.size());
+        
+        Pet cat = new Pet("Tom", rules.get(0));
+        cat.restore(100, 100, 50, 10, 0, PetState.NORMAL, 0);
+        cat.play();
+        assertEquals(40, cat.getHappiness());
+        assertEquals(95, cat.getSleep());
+        
+        cat.eat(new Food("Kibble", ""));
+        assertEquals(42, cat.getHappiness());
+        assertTrue(cat.getHunger() > 50);
+        
+        // A mission never leaves the pet with less than 1 health
+        Pet owl = new Pet("Hoot", rules.get(1));
+        owl.setSpaceReadiness(100);
+        assertTrue(owl.goOnSpaceMission());
+        assertEquals(SpeciesRules.MISSION_MIN_HEALTH, owl.getHealth());
+        assertTrue(owl.isAlive());
+    }
+    
+    @Test
+    public void testInvalidRule() {
+        Properties properties = new Properties();
+        properties.setProperty("species", "Cat");
+        properties.setProperty("Cat.vet.health", "lots");
+        assertThrows(IllegalArgumentException.class, () -> SpeciesRules.parse(properties));
+    }
+}
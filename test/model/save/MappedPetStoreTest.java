@@ -0,0 +1,119 @@
+package model.save;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.pet.Pet.PetState;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MappedPetStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static SaveData save(int id, String name, int health, int items) {
+        List<SaveData.ItemData> inventory = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            inventory.add(new SaveData.ItemData(i % 2 == 0 ? "Food" : "Toy", "Item " + i, "Description " + i));
+        }
+        return new SaveData("Dog", id, name, health, 80, 70, 60, 10, PetState.NORMAL, 3, inventory);
+    }
+
+    @Test
+    public void testSaveAndLoadRoundTrip() throws IOException {
+        try (MappedPetStore store = new MappedPetStore(tempDir.resolve("pets.dat").toFile())) {
+            SaveData data = save(7, "Rex", 90, 3);
+            store.save(data);
+
+            assertEquals(data, store.load(7));
+            assertNull(store.load(8));
+            assertEquals(List.of(7), store.getPetIDs());
+        }
+    }
+
+    @Test
+    public void testStatUpdateAndGrowingBlob() throws IOException {
+        try (MappedPetStore store = new MappedPetStore(tempDir.resolve("pets.dat").toFile())) {
+            store.save(save(1, "Rex", 90, 1));
+            store.save(save(1, "Rex", 40, 1));
+            assertEquals(40, store.load(1).health());
+
+            // A larger inventory no longer fits the old blob
+            SaveData bigger = save(1, "Rex", 40, 50);
+            store.save(bigger);
+            assertEquals(bigger, store.load(1));
+        }
+    }
+
+    @Test
+    public void testDeleteReusesSlot() throws IOException {
+        File file = tempDir.resolve("pets.dat").toFile();
+        try (MappedPetStore store = new MappedPetStore(file)) {
+            store.save(save(1, "Rex", 90, 0));
+            store.save(save(2, "Bubbles", 90, 0));
+            long size = file.length();
+
+            assertTrue(store.delete(1));
+            assertFalse(store.delete(1));
+            assertNull(store.load(1));
+
+            store.save(save(3, "Coco", 90, 0));
+            assertEquals(List.of(2, 3), store.getPetIDs().stream().sorted().toList());
+            assertEquals(size, file.length());
+        }
+    }
+
+    @Test
+    public void testGrowthAndReopen() throws IOException {
+        File file = tempDir.resolve("pets.dat").toFile();
+        try (MappedPetStore store = new MappedPetStore(file)) {
+            for (int id = 1; id <= 200; id++) {
+                store.save(save(id, "Pet " + id, id % 100, id % 5));
+            }
+        }
+
+        try (MappedPetStore store = new MappedPetStore(file)) {
+            assertEquals(200, store.getPetIDs().size());
+            assertEquals(200, store.getEntries().size());
+            for (int id = 1; id <= 200; id++) {
+                assertEquals(save(id, "Pet " + id, id % 100, id % 5), store.load(id));
+            }
+        }
+    }
+
+    @Test
+    public void testAllocatePetID() throws IOException {
+        File file = tempDir.resolve("pets.dat").toFile();
+        try (MappedPetStore store = new MappedPetStore(file)) {
+            store.save(save(5, "Rex", 90, 0));
+            assertEquals(6, store.allocatePetID());
+            assertEquals(7, store.allocatePetID());
+        }
+
+        // The last ID survives a reopen even though pets 6 and 7 were never saved
+        try (MappedPetStore store = new MappedPetStore(file)) {
+            assertEquals(8, store.allocatePetID());
+        }
+    }
+
+    @Test
+    public void testImportSaves() throws IOException {
+        File petsDir = tempDir.resolve("pets").toFile();
+        assertTrue(petsDir.mkdirs());
+        Files.write(new File(petsDir, "4.save").toPath(), SaveCodecs.TEXT.encode(save(4, "Rex", 50, 2)));
+        Files.write(new File(petsDir, "5.save").toPath(), SaveCodecs.BINARY.encode(save(5, "Coco", 60, 1)));
+
+        try (MappedPetStore store = new MappedPetStore(tempDir.resolve("pets.dat").toFile())) {
+            assertEquals(2, store.importSaves(petsDir));
+            assertEquals(save(4, "Rex", 50, 2), store.load(4));
+            assertEquals("Coco", store.load(5).petName());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package model.save;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.pet.Pet.PetState;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+public class PetCatalogTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private File petsDir;
+    private File catalogFile;
+    
+    @BeforeEach
+    public void setUp() {
+        petsDir = new File(tempDir.toFile(), "pets");
+        petsDir.mkdir();
+        catalogFile = new File(tempDir.toFile(), "pets.catalog");
+    }
+    
+    private void writeSave(int id, String name, String state) throws IOException {
+        SaveData data = new SaveData("Dog", id, name, 100, 100, 100, 100, 0, PetState.valueOf(state), 2, new ArrayList<>());
+        Files.write(new File(petsDir, id + ".save").toPath(), SaveCodecs.TEXT.encode(data));
+    }
+    
+    @Test
+    public void testRebuildsFromSaveFilesWhenMissing() throws IOException {
+        writeSave(1, "Rex", "NORMAL");
+        writeSave(2, "Bubbles", "DEAD");
+        
+        PetCatalog catalog = new PetCatalog(petsDir, catalogFile);
+        assertEquals(2, catalog.getEntries().size());
+        assertTrue(catalogFile.exists());
+        
+        PetCatalog.Entry dead = catalog.getEntry(2);
+        assertEquals("Bubbles", dead.name());
+        assertEquals(PetState.DEAD, dead.state());
+        assertFalse(dead.isAlive());
+        assertEquals(2, dead.totalMissions());
+    }
+    
+    @Test
+    public void testUpdatesArePersisted() throws IOException {
+        writeSave(1, "Rex", "NORMAL");
+        PetCatalog catalog = new PetCatalog(petsDir, catalogFile);
+        catalog.getEntries();
+        
+        catalog.update(new PetCatalog.Entry(1, "Rex\tthe dog", "Dog", PetState.DEAD, 3, 42L));
+        catalog.remove(1);
+        catalog.update(new PetCatalog.Entry(1, "Rex\tthe dog", "Dog", PetState.ANGRY, 4, 43L));
+        
+        // A fresh catalog reads the appended lines back instead of rescanning
+        PetCatalog reloaded = new PetCatalog(petsDir, catalogFile);
+        PetCatalog.Entry entry = reloaded.getEntry(1);
+        assertEquals("Rex\tthe dog", entry.name());
+        assertEquals(PetState.ANGRY, entry.state());
+        assertEquals(4, entry.totalMissions());
+    }
+    
+    @Test
+    public void testStaleCatalogIsRebuilt() throws IOException {
+        writeSave(1, "Rex", "NORMAL");
+        PetCatalog catalog = new PetCatalog(petsDir, catalogFile);
+        assertEquals(1, catalog.getEntries().size());
+        
+        writeSave(2, "Bubbles", "NORMAL");
+        catalogFile.setLastModified(petsDir.lastModified() - 10000);
+        
+        assertEquals(2, catalog.getEntries().size());
+    }
+}
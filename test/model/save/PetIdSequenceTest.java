@@ -0,0 +1,56 @@
+package model.save;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+public class PetIdSequenceTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testRebuildsOnceFromHighestSavedID() throws IOException {
+        File file = tempDir.resolve("petid.seq").toFile();
+        int[] scans = { 0 };
+        PetIdSequence sequence = new PetIdSequence(file, () -> {
+            scans[0]++;
+            return 7;
+        });
+        
+        assertEquals(8, sequence.next(id -> false));
+        assertEquals(9, sequence.next(id -> false));
+        assertEquals(1, scans[0]);
+        assertEquals("9", Files.readString(file.toPath()).trim());
+        
+        // A new sequence over the same file carries on without scanning
+        PetIdSequence reopened = new PetIdSequence(file, () -> {
+            throw new AssertionError("should not scan");
+        });
+        assertEquals(10, reopened.next(id -> false));
+    }
+    
+    @Test
+    public void testSkipsTakenIDs() throws IOException {
+        PetIdSequence sequence = new PetIdSequence(tempDir.resolve("petid.seq").toFile(), () -> 0);
+        Set<Integer> taken = Set.of(1, 2, 4);
+        
+        assertEquals(3, sequence.next(taken::contains));
+        assertEquals(5, sequence.next(taken::contains));
+    }
+    
+    @Test
+    public void testRebuildsCorruptFile() throws IOException {
+        File file = tempDir.resolve("petid.seq").toFile();
+        Files.writeString(file.toPath(), "garbage");
+        
+        PetIdSequence sequence = new PetIdSequence(file, () -> 3);
+        assertEquals(4, sequence.next(id -> false));
+    }
+}
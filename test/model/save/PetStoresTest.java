@@ -0,0 +1,50 @@
+package model.save;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.pet.Pet.PetState;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+public class PetStoresTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty(PetStores.CODEC_PROPERTY);
+    }
+    
+    private static SaveData save(int id) {
+        return new SaveData("Dog", id, "Rex", 80, 100, 100, 100, 0, PetState.NORMAL, 0, new ArrayList<>());
+    }
+    
+    private byte[] writeWith(String codec) throws IOException {
+        if (codec != null) System.setProperty(PetStores.CODEC_PROPERTY, codec);
+        File dataDir = tempDir.resolve(String.valueOf(codec)).toFile();
+        
+        PetStore store = PetStores.open(dataDir);
+        try {
+            store.save(save(1));
+            assertEquals(80, store.load(1).health());
+        } finally {
+            store.close();
+        }
+        return Files.readAllBytes(new File(dataDir, "pets/1.save").toPath());
+    }
+    
+    @Test
+    public void testCodecPropertySelectsSaveFormat() throws IOException {
+        assertSame(SaveCodecs.BINARY, SaveCodecs.detect(writeWith(null)));
+        assertSame(SaveCodecs.TEXT, SaveCodecs.detect(writeWith("text")));
+        assertSame(SaveCodecs.BINARY, SaveCodecs.detect(writeWith("unknown")));
+    }
+}
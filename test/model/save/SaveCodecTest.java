@@ -0,0 +1,143 @@
+package model.save;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import model.Inventory;
+import model.item.Food.FoodType;
+import model.item.ItemRegistry;
+import model.pet.Pet;
+import model.pet.Pet.PetState;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SaveCodecTest {
+    
+    private static SaveData sample() {
+        List<SaveData.ItemData> items = new ArrayList<>();
+        items.add(new SaveData.ItemData("Food", "Kibble", "Made of space plants."));
+        items.add(new SaveData.ItemData("Toy", "Ball", "Looks like the moon."));
+        items.add(new SaveData.ItemData("Food", "Apple", "Fresh and tasty!"));
+        return new SaveData("Monkey", 7, "Mr. Bänana=1", 75, 60, 45, 30, 10, PetState.ANGRY, 3, items,
+                1_700_000_000_000L);
+    }
+    
+    @Test
+    public void testTextRoundTrip() throws IOException {
+        SaveData data = sample();
+        assertEquals(data, SaveCodecs.TEXT.decode(SaveCodecs.TEXT.encode(data)));
+    }
+    
+    @Test
+    public void testBinaryRoundTrip() throws IOException {
+        SaveData data = sample();
+        assertEquals(data, SaveCodecs.BINARY.decode(SaveCodecs.BINARY.encode(data)));
+    }
+    
+    @Test
+    public void testFormatIsDetected() throws IOException {
+        SaveData data = sample();
+        byte[] text = SaveCodecs.TEXT.encode(data);
+        byte[] binary = SaveCodecs.BINARY.encode(data);
+        
+        assertSame(SaveCodecs.TEXT, SaveCodecs.detect(text));
+        assertSame(SaveCodecs.BINARY, SaveCodecs.detect(binary));
+        assertEquals(data, SaveCodecs.decode(text));
+        assertEquals(data, SaveCodecs.decode(binary));
+        
+        // The binary format should be much smaller
+        assertTrue(binary.length * 2 < text.length);
+    }
+    
+    @Test
+    public void testLegacyTextSaveLoads() throws IOException {
+        String legacy = "PET_TYPE=Dog\r\nPET_ID=1\r\nPET_NAME=Rex\r\nHEALTH=100\r\nSLEEP=98\r\nHUNGER=95\r\n"
+                + "HAPPINESS=90\r\nSPACE_READINESS=0\r\nSTATE=NORMAL\r\nTOTAL_MISSIONS=0\r\nINVENTORY_COUNT=2\r\n"
+                + "ITEM_0_TYPE=Food\r\nITEM_0_NAME=Kibble\r\nITEM_0_DESC=Made of space plants.\r\n"
+                + "ITEM_1_TYPE=Toy\r\nITEM_1_NAME=Ball\r\n";
+        
+        SaveData data = SaveCodecs.decode(legacy.getBytes(StandardCharsets.UTF_8));
+        assertEquals("Rex", data.petName());
+        assertEquals(98, data.sleep());
+        
+        // The second item is missing its description and is skipped
+        assertEquals(1, data.items().size());
+        assertEquals("Kibble", data.items().get(0).name());
+    }
+    
+    @Test
+    public void testVersion1BinarySaveLoads() throws IOException {
+        byte[] v2 = SaveCodecs.BINARY.encode(sample());
+        
+        // Version 1 had no last simulated time after the mission count
+        int lastSimulatedOffset = 5 + 4 + 6 + 4;
+        byte[] v1 = new byte[v2.length - 8];
+        System.arraycopy(v2, 0, v1, 0, lastSimulatedOffset);
+        System.arraycopy(v2, lastSimulatedOffset + 8, v1, lastSimulatedOffset, v1.length - lastSimulatedOffset);
+        v1[4] = 1;
+        
+        SaveData data = SaveCodecs.decode(v1);
+        assertEquals(0, data.lastSimulated());
+        assertEquals(sample().items(), data.items());
+        assertEquals(sample().petName(), data.petName());
+    }
+    
+    @Test
+    public void testTruncatedBinaryIsRejected() throws IOException {
+        byte[] binary = SaveCodecs.BINARY.encode(sample());
+        byte[] truncated = Arrays.copyOf(binary, binary.length - 5);
+        
+        assertThrows(IOException.class, () -> SaveCodecs.decode(truncated));
+        assertThrows(IOException.class, () -> SaveCodecs.TEXT.decode("PET_NAME=Rex".getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    @Test
+    public void testLargeInventoryRoundTrip() throws IOException {
+        Inventory large = new Inventory(50);
+        for (int i = 0; i < 30; i++) large.addItem(ItemRegistry.food(FoodType.BREAD));
+        
+        Pet pet = Pet.create("Dog", "Rex");
+        SaveData data = SaveCodecs.BINARY.decode(SaveCodecs.BINARY.encode(SaveData.capture(pet, large)));
+        
+        // Nothing is cut to the default capacity, and unknown items are skipped
+        assertEquals(30, data.toInventory().getCount(FoodType.BREAD));
+        assertEquals(10, data.toInventory(10).size());
+        List<SaveData.ItemData> items = new ArrayList<>(data.items());
+        items.add(new SaveData.ItemData("Food", "Rock", ""));
+        SaveData withUnknown = new SaveData("Dog", 1, "Rex", 100, 100, 100, 100, 0, PetState.NORMAL, 0, items);
+        assertEquals(30, withUnknown.toInventory().size());
+    }
+    
+    @Test
+    public void testCaptureNeverMixesTwoActions() throws InterruptedException {
+        Pet pet = Pet.create("Dog", "Rex");
+        pet.mutate(d -> d.setHealth(90).setSleep(90).setHunger(90).setHappiness(90).setSpaceReadiness(90));
+        AtomicBoolean done = new AtomicBoolean();
+        Thread actions = new Thread(() -> {
+            for (int i = 0; !done.get(); i++) {
+                int value = i % 2 == 0 ? 30 : 90;
+                pet.mutate(d -> d.setHealth(value).setSleep(value).setHunger(value).setHappiness(value)
+                        .setSpaceReadiness(value));
+            }
+        });
+        actions.start();
+        
+        try {
+            for (int i = 0; i < 20000; i++) {
+                SaveData data = SaveData.capture(pet, new ArrayList<>());
+                assertEquals(data.health(), data.sleep());
+                assertEquals(data.health(), data.hunger());
+                assertEquals(data.health(), data.happiness());
+                assertEquals(data.health(), data.spaceReadiness());
+            }
+        } finally {
+            done.set(true);
+            actions.join();
+        }
+    }
+}
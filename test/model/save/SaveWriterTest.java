@@ -0,0 +1,163 @@
+package model.save;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import model.pet.Pet.PetState;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SaveWriterTest {
+    
+    private static SaveData save(int id, int health) {
+        return new SaveData("Dog", id, "Rex", health, 100, 100, 100, 0, PetState.NORMAL, 0, new ArrayList<>());
+    }
+    
+    @Test
+    public void testLatestSnapshotPerPetIsWritten() throws InterruptedException {
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<SaveData> writes = Collections.synchronizedList(new ArrayList<>());
+        
+        SaveWriter writer = new SaveWriter("test-writer", data -> {
+            firstWriteStarted.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writes.add(data);
+        });
+        
+        writer.submit(save(1, 10));
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        
+        // These arrive while the first write is blocked and collapse into one write
+        writer.submit(save(1, 20));
+        writer.submit(save(1, 30));
+        writer.submit(save(2, 40));
+        assertEquals(30, writer.getPending(1).health());
+        
+        release.countDown();
+        assertTrue(writer.close(5000));
+        
+        assertEquals(3, writes.size());
+        assertEquals(10, writes.get(0).health());
+        assertEquals(30, writes.get(1).health());
+        assertEquals(40, writes.get(2).health());
+        assertEquals(1, writer.getCoalescedCount());
+        assertNull(writer.getPending(1));
+        assertFalse(writer.submit(save(3, 50)));
+    }
+    
+    @Test
+    public void testFlushTimesOutOnStuckSink() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        SaveWriter writer = new SaveWriter("test-writer", data -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        
+        writer.submit(save(1, 10));
+        assertFalse(writer.flush(50));
+        
+        release.countDown();
+        assertTrue(writer.flush(5000));
+        assertEquals(1, writer.getWrittenCount());
+    }
+    
+    @Test
+    public void testFailedWriteIsRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger callbacks = new AtomicInteger();
+        List<SaveData> writes = Collections.synchronizedList(new ArrayList<>());
+        SaveWriter writer = new SaveWriter("test-writer", data -> {
+            if (attempts.incrementAndGet() == 1) throw new IOException("Disk full");
+            writes.add(data);
+        });
+        
+        writer.submit(save(1, 10), callbacks::incrementAndGet);
+        assertTrue(writer.flush(5000));
+        
+        assertEquals(1, writes.size());
+        assertEquals(1, writer.getFailedCount());
+        assertEquals(1, writer.getWrittenCount());
+        assertEquals(1, callbacks.get());
+        assertTrue(writer.close(5000));
+    }
+    
+    @Test
+    public void testFailedWriteDoesNotReplaceNewerSnapshot() throws InterruptedException {
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<SaveData> writes = Collections.synchronizedList(new ArrayList<>());
+        SaveWriter writer = new SaveWriter("test-writer", data -> {
+            if (data.health() == 10) {
+                firstWriteStarted.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Disk full");
+            }
+            writes.add(data);
+        });
+        
+        writer.submit(save(1, 10));
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        writer.submit(save(1, 20));
+        release.countDown();
+        
+        assertTrue(writer.close(5000));
+        assertEquals(1, writes.size());
+        assertEquals(20, writes.get(0).health());
+    }
+    
+    @Test
+    public void testFlushFailsWhileSinkKeepsFailing() {
+        AtomicInteger callbacks = new AtomicInteger();
+        SaveWriter writer = new SaveWriter("test-writer", data -> {
+            throw new IOException("Disk full");
+        });
+        
+        writer.submit(save(1, 10), callbacks::incrementAndGet);
+        assertFalse(writer.flush(200));
+        assertEquals(save(1, 10).health(), writer.getPending(1).health());
+        
+        assertFalse(writer.close(200));
+        assertEquals(0, writer.getWrittenCount());
+        assertEquals(0, callbacks.get());
+    }
+    
+    @Test
+    public void testSharedWriterKeepsSinksApart() {
+        List<SaveData> first = Collections.synchronizedList(new ArrayList<>());
+        List<SaveData> second = Collections.synchronizedList(new ArrayList<>());
+        SaveWriter.Sink firstSink = first::add;
+        SaveWriter.Sink secondSink = second::add;
+        SaveWriter writer = new SaveWriter("test-writer");
+        
+        // The same pet ID in two stores is two pets
+        writer.submit(firstSink, save(1, 10), null);
+        writer.submit(secondSink, save(1, 20), null);
+        assertTrue(writer.flush(firstSink, 5000));
+        assertTrue(writer.close(5000));
+        
+        assertEquals(1, first.size());
+        assertEquals(10, first.get(0).health());
+        assertEquals(1, second.size());
+        assertEquals(20, second.get(0).health());
+        assertEquals(0, writer.getCoalescedCount());
+        assertThrows(IllegalStateException.class, () -> writer.submit(save(2, 30)));
+    }
+}
@@ -0,0 +1,66 @@
+package model.sim;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import model.pet.Pet.PetState;
+import model.pet.SpeciesRules;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class BalanceHarnessTest {
+
+    @Test
+    public void testSameResultsOnAnyNumberOfThreads() throws InterruptedException {
+        List<SpeciesRules> species = SpeciesRules.all();
+        List<CarePolicy> policies = CarePolicy.defaults();
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            List<BalanceHarness.Result> first = new BalanceHarness(single, 7).run(species, policies, 1500, 2);
+            List<BalanceHarness.Result> second = new BalanceHarness(several, 7).run(species, policies, 1500, 2);
+
+            assertEquals(species.size() * policies.size(), first.size());
+            for (int i = 0; i < first.size(); i++) {
+                assertArrayEquals(first.get(i).alive(), second.get(i).alive());
+                assertArrayEquals(first.get(i).firstMission(), second.get(i).firstMission());
+                assertArrayEquals(first.get(i).stateTicks(), second.get(i).stateTicks());
+            }
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    public void testCareKeepsPetsAlive() throws InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            List<BalanceHarness.Result> results = new BalanceHarness(pool, 1)
+                    .run(List.of(SpeciesRules.forName("Dog")), List.of(CarePolicy.NEGLECT, CarePolicy.OPTIMAL), 200, 3);
+            BalanceHarness.Result neglect = results.get(0);
+            BalanceHarness.Result optimal = results.get(1);
+
+            // Every pet is counted for every tick of the run
+            long ticks = 0;
+            for (long count : neglect.stateTicks()) ticks += count;
+            assertEquals(200L * 3 * BalanceHarness.TICKS_PER_HOUR, ticks);
+
+            // Neglected pets die and never fly
+            assertEquals(1.0, neglect.survival(0));
+            assertEquals(0.0, neglect.survival(1));
+            assertEquals(0.0, neglect.missionRate());
+            assertEquals(-1, neglect.medianHoursToMission());
+
+            // Well looked after pets live and go to space
+            assertEquals(1.0, optimal.survival(3));
+            assertEquals(1.0, optimal.missionRate());
+            assertEquals(1, optimal.medianHoursToMission());
+            assertEquals(0.0, optimal.occupancy(PetState.DEAD));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
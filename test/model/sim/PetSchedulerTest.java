@@ -0,0 +1,103 @@
+package model.sim;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import model.pet.Dog;
+import model.pet.Pet;
+import model.pet.Pet.PetState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class PetSchedulerTest {
+    
+    private static PetTable randomTable(long seed, int size) {
+        SplittableRandom random = new SplittableRandom(seed);
+        PetTable table = new PetTable(16);
+        for (int i = 0; i < size; i++) {
+            Pet pet = new Dog("Rex " + i);
+            pet.setID(i + 1);
+            pet.restore(20 + random.nextInt(81), 20 + random.nextInt(81), 20 + random.nextInt(81),
+                    20 + random.nextInt(81), random.nextInt(101), PetState.NORMAL, 0);
+            table.add(pet);
+        }
+        return table;
+    }
+    
+    @Test
+    public void testEventsMatchTicks() {
+        PetTable ticked = randomTable(5, 1000);
+        PetTable scheduled = randomTable(5, 1000);
+        PetScheduler scheduler = new PetScheduler(scheduled, 0);
+        scheduler.scheduleAll();
+        
+        List<Integer> changedRows = new ArrayList<>();
+        scheduler.setListener((row, tick) -> {
+            assertEquals(tick, scheduler.getSyncedTick(row));
+            changedRows.add(row);
+        });
+        
+        for (long tick = 1; tick <= 60; tick++) {
+            ticked.tick();
+            scheduler.advanceTo(tick);
+            
+            for (int row = 0; row < ticked.size(); row++) {
+                scheduler.sync(row);
+                String label = "row " + row + " tick " + tick;
+                assertEquals(ticked.getHealth(row), scheduled.getHealth(row), label);
+                assertEquals(ticked.getHunger(row), scheduled.getHunger(row), label);
+                assertEquals(ticked.getSleep(row), scheduled.getSleep(row), label);
+                assertEquals(ticked.getHappiness(row), scheduled.getHappiness(row), label);
+                assertEquals(ticked.getSpaceReadiness(row), scheduled.getSpaceReadiness(row), label);
+                assertEquals(ticked.getState(row), scheduled.getState(row), label);
+            }
+        }
+        
+        // Far fewer visits than ticking every pet every tick
+        assertEquals(changedRows.size(), scheduler.getWakeCount());
+        assertTrue(scheduler.getWakeCount() < 60 * 1000 / 2, "woke " + scheduler.getWakeCount());
+    }
+    
+    @Test
+    public void testDeadPetsAreNotScheduled() {
+        PetTable table = randomTable(6, 500);
+        for (int tick = 0; tick < 200; tick++) {
+            table.tick();
+        }
+        
+        PetScheduler scheduler = new PetScheduler(table, 200);
+        scheduler.scheduleAll();
+        assertEquals(0, scheduler.getScheduledCount());
+        assertEquals(0, scheduler.advanceTo(1_000_000));
+    }
+    
+    @Test
+    public void testRescheduleAndActions() {
+        PetTable table = randomTable(7, 1);
+        PetScheduler scheduler = new PetScheduler(table, 0);
+        scheduler.scheduleAll();
+        scheduler.advanceTo(200);
+        assertEquals(PetState.DEAD, table.getState(0));
+        assertEquals(0, scheduler.getScheduledCount());
+        
+        // A cooldown running out, then bringing the pet back
+        List<Long> ran = new ArrayList<>();
+        scheduler.scheduleAt(250, () -> ran.add(scheduler.getTick()));
+        TimingWheel.Timeout<Runnable> cancelled = scheduler.scheduleAt(260, () -> fail("cancelled"));
+        assertTrue(scheduler.cancel(cancelled));
+        scheduler.advanceTo(300);
+        assertEquals(List.of(250L), ran);
+        
+        Pet revived = table.materialize(0);
+        revived.restore(100, 100, 100, 100, 0, PetState.NORMAL, 0);
+        table.update(0, revived);
+        scheduler.reschedule(0);
+        assertEquals(1, scheduler.getScheduledCount());
+        
+        scheduler.advanceTo(301);
+        scheduler.sync(0);
+        assertEquals(95, table.getHunger(0));
+    }
+}
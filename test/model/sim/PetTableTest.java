@@ -0,0 +1,209 @@
+package model.sim;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import model.pet.Dog;
+import model.pet.Fish;
+import model.pet.Monkey;
+import model.pet.Mouse;
+import model.pet.Pet;
+import model.pet.Pet.PetState;
+import model.pet.SpeciesRules;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+public class PetTableTest {
+    
+    private static Pet randomPet(SplittableRandom random, int id) {
+        Pet pet;
+        switch (random.nextInt(4)) {
+            case 0: pet = new Dog("Pet " + id); break;
+            case 1: pet = new Fish("Pet " + id); break;
+            case 2: pet = new Monkey("Pet " + id); break;
+            default: pet = new Mouse("Pet " + id); break;
+        }
+        
+        PetState[] states = PetState.values();
+        pet.setID(id);
+        pet.restore(random.nextInt(101), random.nextInt(101), random.nextInt(101), random.nextInt(101),
+                random.nextInt(11) * 10, states[random.nextInt(states.length)], random.nextInt(5));
+        return pet;
+    }
+    
+    @Test
+    public void testTickMatchesPet() {
+        SplittableRandom random = new SplittableRandom(7);
+        PetTable table = new PetTable(4);
+        List<Pet> pets = new ArrayList<>();
+        
+        for (int i = 0; i < 2000; i++) {
+            Pet pet = randomPet(random, i + 1);
+            pets.add(pet);
+            table.add(pet);
+        }
+        
+        for (int tick = 0; tick < 40; tick++) {
+            table.tick();
+            for (Pet pet : pets) {
+                pet.updateProgressBars();
+                pet.updateState();
+            }
+            
+            for (int row = 0; row < pets.size(); row++) {
+                Pet pet = pets.get(row);
+                String label = "row " + row + " tick " + tick;
+                assertEquals(pet.getHealth(), table.getHealth(row), label);
+                assertEquals(pet.getSleep(), table.getSleep(row), label);
+                assertEquals(pet.getHunger(), table.getHunger(row), label);
+                assertEquals(pet.getHappiness(), table.getHappiness(row), label);
+                assertEquals(pet.getSpaceReadiness(), table.getSpaceReadiness(row), label);
+                assertEquals(pet.getCurrentState(), table.getState(row), label);
+            }
+        }
+    }
+    
+    @Test
+    public void testParallelTickMatchesSequential() {
+        SplittableRandom random = new SplittableRandom(11);
+        PetTable sequential = new PetTable(16);
+        PetTable parallel = new PetTable(16);
+        
+        for (int i = 0; i < 5000; i++) {
+            Pet pet = randomPet(random, i + 1);
+            sequential.add(pet);
+            parallel.add(pet);
+        }
+        
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int tick = 0; tick < 40; tick++) {
+                assertEquals(sequential.tick(), parallel.tick(pool, 100), "tick " + tick);
+                
+                for (int row = 0; row < sequential.size(); row++) {
+                    String label = "row " + row + " tick " + tick;
+                    assertEquals(sequential.getHealth(row), parallel.getHealth(row), label);
+                    assertEquals(sequential.getSleep(row), parallel.getSleep(row), label);
+                    assertEquals(sequential.getHunger(row), parallel.getHunger(row), label);
+                    assertEquals(sequential.getHappiness(row), parallel.getHappiness(row), label);
+                    assertEquals(sequential.getSpaceReadiness(row), parallel.getSpaceReadiness(row), label);
+                    assertEquals(sequential.getState(row), parallel.getState(row), label);
+                    assertEquals(sequential.isDirty(row), parallel.isDirty(row), label);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testMaterializeAndUpdate() {
+        PetTable table = new PetTable(16);
+        Pet monkey = new Monkey("George");
+        monkey.setID(9);
+        monkey.restore(70, 3, 40, 0, 20, PetState.ANGRY, 2);
+        int row = table.add(monkey);
+        
+        Pet copy = table.materialize(row);
+        assertEquals(SpeciesRules.forName("monkey"), copy.getSpecies());
+        assertEquals("Monkey", table.getSpecies(row).getName());
+        assertEquals("George", copy.getName());
+        assertEquals(9, copy.getID());
+        assertEquals(3, copy.getSleep());
+        assertEquals(PetState.ANGRY, copy.getCurrentState());
+        assertEquals(2, copy.getTotalMission());
+        
+        copy.setHappiness(100);
+        assertEquals(0, table.getHappiness(row));
+        table.update(row, copy);
+        assertEquals(100, table.getHappiness(row));
+    }
+    
+    @Test
+    public void testDirtyRows() {
+        PetTable table = new PetTable(16);
+        for (int i = 0; i < 200; i++) {
+            Pet pet = new Dog("Rex");
+            pet.setID(i + 1);
+            if (i % 3 == 0) pet.setHealth(0);
+            table.add(pet);
+        }
+        assertEquals(-1, table.nextDirty(0));
+        
+        // Dead pets do not change on a tick
+        assertEquals(133, table.tick());
+        int dirty = 0;
+        for (int row = table.nextDirty(0); row >= 0; row = table.nextDirty(row + 1)) {
+            assertNotEquals(PetState.DEAD, table.getState(row));
+            table.clearDirty(row);
+            dirty++;
+        }
+        assertEquals(133, dirty);
+        assertEquals(-1, table.nextDirty(0));
+    }
+    
+    @Test
+    public void testAdvanceMatchesTicks() {
+        SplittableRandom random = new SplittableRandom(13);
+        
+        for (int ticks : new int[] { 1, 2, 7, 30, 500 }) {
+            PetTable ticked = new PetTable(16);
+            PetTable advanced = new PetTable(16);
+            for (int i = 0; i < 3000; i++) {
+                Pet pet = randomPet(random, i + 1);
+                // Keep some pets near full stats so space readiness grows
+                if (i % 3 == 0) pet.restore(90 + random.nextInt(11), 90 + random.nextInt(11), 90 + random.nextInt(11),
+                        90 + random.nextInt(11), random.nextInt(101), PetState.NORMAL, 0);
+                ticked.add(pet);
+                advanced.add(pet);
+            }
+            
+            for (int tick = 0; tick < ticks; tick++) {
+                ticked.tick();
+            }
+            for (int row = 0; row < advanced.size(); row++) {
+                advanced.advance(row, ticks);
+            }
+            
+            for (int row = 0; row < ticked.size(); row++) {
+                String label = "row " + row + " after " + ticks;
+                assertEquals(ticked.getHealth(row), advanced.getHealth(row), label);
+                assertEquals(ticked.getSleep(row), advanced.getSleep(row), label);
+                assertEquals(ticked.getHunger(row), advanced.getHunger(row), label);
+                assertEquals(ticked.getHappiness(row), advanced.getHappiness(row), label);
+                assertEquals(ticked.getSpaceReadiness(row), advanced.getSpaceReadiness(row), label);
+                assertEquals(ticked.getState(row), advanced.getState(row), label);
+                assertEquals(ticked.isDirty(row), advanced.isDirty(row), label);
+            }
+        }
+    }
+    
+    @Test
+    public void testTicksUntilEvent() {
+        PetTable table = new PetTable(16);
+        Pet dog = new Dog("Rex");
+        dog.restore(80, 100, 80, 60, 0, PetState.NORMAL, 0);
+        int row = table.add(dog);
+        
+        // Hunger falls 5 a tick, and the sixth tick takes it to 50 where health starts to drop
+        assertEquals(5, table.ticksUntilEvent(row));
+        for (int i = 0; i < 5; i++) {
+            table.tick();
+            assertEquals(80, table.getHealth(row));
+        }
+        assertEquals(55, table.getHunger(row));
+        table.tick();
+        assertEquals(60, table.getHealth(row));
+        
+        // Dead pets never change again
+        Pet dead = new Dog("Old Rex");
+        dead.setHealth(0);
+        int deadRow = table.add(dead);
+        table.tick();
+        assertEquals(-1, table.ticksUntilEvent(deadRow));
+        assertFalse(table.advance(deadRow, 1000));
+    }
+}
@@ -0,0 +1,121 @@
+package model.sim;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.pet.Pet;
+import model.pet.Pet.PetState;
+import model.save.MappedPetStore;
+import model.save.SaveData;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SimulationEngineTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testTicksAndPersistsChangedPets() throws IOException {
+        try (MappedPetStore store = new MappedPetStore(tempDir.resolve("pets.dat").toFile())) {
+            SimulationEngine engine = new SimulationEngine(store, 16);
+            engine.generate(100, 1);
+            
+            // New pets are all written
+            assertEquals(100, engine.persist());
+            assertEquals(0, engine.persist());
+            
+            SimulationEngine.Report report = engine.run(5, 0);
+            assertEquals(100, report.pets());
+            assertEquals(5, report.ticks());
+            assertEquals(100, report.saved());
+            
+            // Reloading gives the same pets
+            SimulationEngine reloaded = new SimulationEngine(store);
+            assertEquals(100, reloaded.loadAll());
+            Pet original = engine.getPet(42);
+            SaveData saved = store.load(original.getID());
+            assertEquals(original.getHunger(), saved.hunger());
+            assertEquals(original.getHealth(), saved.health());
+        }
+    }
+    
+    @Test
+    public void testSimulatedTimeFollowsClock() throws IOException {
+        Clock clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+        try (MappedPetStore store = new MappedPetStore(tempDir.resolve("pets.dat").toFile())) {
+            SimulationEngine engine = new SimulationEngine(store, 16, clock);
+            engine.generate(3, 5);
+            engine.run(4, 0);
+            
+            // Saves are stamped with the clock's time plus the ticks run, not the wall time
+            Pet pet = engine.getPet(0);
+            assertEquals(clock.millis() + 4 * Pet.TICK_MILLIS, store.load(pet.getID()).lastSimulated());
+        }
+    }
+    
+    @Test
+    public void testDeadPetsAreNotSavedAgain() throws IOException {
+        try (MappedPetStore store = new MappedPetStore(tempDir.resolve("pets.dat").toFile())) {
+            SimulationEngine engine = new SimulationEngine(store);
+            engine.generate(10, 2);
+            
+            // Long enough for every unattended pet to die
+            engine.run(200, 0);
+            for (int row = 0; row < engine.getPetCount(); row++) {
+                assertEquals(PetState.DEAD, engine.getPet(row).getCurrentState());
+            }
+            
+            assertEquals(0, engine.run(50, 10).saved());
+        }
+    }
+    
+    @Test
+    public void testLoadedPetsKeepTheirInventory() throws IOException {
+        try (MappedPetStore store = new MappedPetStore(tempDir.resolve("pets.dat").toFile())) {
+            List<SaveData.ItemData> items = new ArrayList<>();
+            items.add(new SaveData.ItemData("Toy", "Rocket", "A toy rocket."));
+            store.save(new SaveData("Fish", 3, "Bubbles", 100, 100, 100, 100, 0, PetState.NORMAL, 0, items));
+            
+            SimulationEngine engine = new SimulationEngine(store);
+            assertEquals(1, engine.loadAll());
+            engine.run(1, 0);
+            
+            SaveData saved = store.load(3);
+            assertEquals(items, saved.items());
+            assertEquals(95, saved.hunger());
+        }
+    }
+    
+    @Test
+    public void testEventDrivenMatchesTicking() throws IOException {
+        try (MappedPetStore ticking = new MappedPetStore(tempDir.resolve("ticking.dat").toFile());
+                MappedPetStore events = new MappedPetStore(tempDir.resolve("events.dat").toFile())) {
+            SimulationEngine ticked = new SimulationEngine(ticking);
+            SimulationEngine eventDriven = new SimulationEngine(events);
+            ticked.generate(300, 4);
+            eventDriven.generate(300, 4);
+            eventDriven.setEventDriven(true);
+            
+            ticked.run(30, 7);
+            eventDriven.run(30, 7);
+            assertTrue(eventDriven.getWakeCount() < 30 * 300);
+            
+            for (int row = 0; row < ticked.getPetCount(); row++) {
+                Pet expected = ticked.getPet(row);
+                Pet actual = eventDriven.getPet(row);
+                assertEquals(expected.getHealth(), actual.getHealth(), "row " + row);
+                assertEquals(expected.getHunger(), actual.getHunger(), "row " + row);
+                assertEquals(expected.getSleep(), actual.getSleep(), "row " + row);
+                assertEquals(expected.getCurrentState(), actual.getCurrentState(), "row " + row);
+            }
+        }
+    }
+}
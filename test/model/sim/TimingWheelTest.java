@@ -0,0 +1,82 @@
+package model.sim;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class TimingWheelTest {
+    
+    @Test
+    public void testTimeoutsExpireOnTheirDeadline() {
+        SplittableRandom random = new SplittableRandom(3);
+        TimingWheel<Long> wheel = new TimingWheel<>(100);
+        
+        // Deadlines on every level of the wheel and beyond it
+        for (int i = 0; i < 5000; i++) {
+            long delay = 1 + random.nextLong(1L << (6 + 6 * random.nextInt(5)));
+            wheel.schedule(100 + delay, 100 + delay);
+        }
+        
+        List<Long> expired = new ArrayList<>();
+        long target = 100;
+        while (wheel.size() > 0) {
+            target += 1 + random.nextLong(1L << 22);
+            long reached = target;
+            wheel.advanceTo(target, timeout -> {
+                assertTrue(timeout.getItem() <= reached);
+                expired.add(timeout.getItem());
+            });
+            assertEquals(target, wheel.getTick());
+        }
+        
+        assertEquals(5000, expired.size());
+        for (int i = 1; i < expired.size(); i++) {
+            assertTrue(expired.get(i - 1) <= expired.get(i), "out of order at " + i);
+        }
+    }
+    
+    @Test
+    public void testExactTicks() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        wheel.schedule(64, "block");
+        wheel.schedule(5000, "far");
+        wheel.schedule(3, "near");
+        
+        List<String> expired = new ArrayList<>();
+        for (long tick = 1; tick <= 5000; tick++) {
+            wheel.advanceTo(tick, timeout -> {
+                assertEquals(timeout.getDeadline(), wheel.getTick());
+                expired.add(timeout.getItem());
+            });
+        }
+        assertEquals(List.of("near", "block", "far"), expired);
+    }
+    
+    @Test
+    public void testCancelAndReschedule() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule(10, "cancelled");
+        TimingWheel.Timeout<String> moved = wheel.schedule(10, "moved");
+        TimingWheel.Timeout<String> repeating = wheel.schedule(5, "repeating");
+        
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        wheel.schedule(moved, 300);
+        
+        List<Long> repeats = new ArrayList<>();
+        int count = wheel.advanceTo(299, timeout -> {
+            repeats.add(wheel.getTick());
+            if (timeout == repeating && repeats.size() < 3) wheel.schedule(timeout, wheel.getTick() + 100);
+        });
+        assertEquals(List.of(5L, 105L, 205L), repeats);
+        assertEquals(3, count);
+        assertTrue(moved.isScheduled());
+        assertEquals(1, wheel.size());
+        
+        assertEquals(1, wheel.advanceTo(300, timeout -> assertSame(moved, timeout)));
+        assertFalse(moved.isScheduled());
+    }
+}
@@ -0,0 +1,83 @@
+package model.time;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ScheduledGameClockTest {
+    
+    private final ScheduledGameClock clock = new ScheduledGameClock(2);
+    
+    @AfterEach
+    public void tearDown() {
+        clock.shutdown();
+    }
+    
+    @Test
+    public void testTicksSurviveExceptions() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(5);
+        GameClock.Ticker ticker = clock.schedule(ticks -> {
+            latch.countDown();
+            // Errors must not stop the ticker any more than exceptions do
+            if (latch.getCount() % 2 == 0) throw new AssertionError("broken tick");
+            throw new IllegalStateException("broken tick");
+        }, 5, GameClock.CatchUp.SKIP);
+        
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        ticker.cancel();
+        
+        // The fifth tick may still be reporting its exception
+        assertTrue(ticker.getFailureCount() >= 4);
+    }
+    
+    @Test
+    public void testCancelAndRestart() throws InterruptedException {
+        AtomicInteger first = new AtomicInteger();
+        GameClock.Ticker ticker = clock.schedule(ticks -> first.incrementAndGet(), 5, GameClock.CatchUp.SKIP);
+        Thread.sleep(50);
+        ticker.cancel();
+        assertTrue(ticker.isCancelled());
+        
+        int stopped = first.get();
+        Thread.sleep(50);
+        assertTrue(first.get() <= stopped + 1);
+        
+        // A new ticker starts cleanly after the old one was cancelled
+        CountDownLatch latch = new CountDownLatch(3);
+        GameClock.Ticker restarted = clock.schedule(ticks -> latch.countDown(), 5, GameClock.CatchUp.SKIP);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        restarted.cancel();
+    }
+    
+    @Test
+    public void testOverrunsAreCoalesced() throws InterruptedException {
+        List<Long> covered = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        GameClock.Ticker ticker = clock.schedule(ticks -> {
+            covered.add(ticks);
+            latch.countDown();
+            if (covered.size() == 1) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, 20, GameClock.CatchUp.COALESCE);
+        
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        ticker.cancel();
+        
+        // The slow first tick made the next one cover the intervals it missed
+        assertEquals(1L, covered.get(0));
+        assertTrue(covered.get(1) >= 3, "covered " + covered);
+        assertTrue(ticker.getOverrunCount() >= 1);
+        assertTrue(ticker.getTickCount() >= covered.get(0) + covered.get(1));
+    }
+}